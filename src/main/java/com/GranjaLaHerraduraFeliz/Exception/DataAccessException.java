@@ -0,0 +1,28 @@
+package com.GranjaLaHerraduraFeliz.Exception;
+
+/**
+ * Excepción lanzada cuando un repositorio no puede leer o escribir en su
+ * almacenamiento (por ejemplo, un error de la base de datos en los
+ * repositorios JDBC).
+ * <p>
+ * Envuelve la excepción original (como {@link java.sql.SQLException}) para
+ * que los servicios no dependan de la tecnología de persistencia.
+ * Extiende {@link RuntimeException}, igual que el resto de excepciones del sistema.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class DataAccessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Crea una excepción con un mensaje descriptivo y su causa.
+     *
+     * @param message Mensaje explicando la operación que falló.
+     * @param cause   Excepción original.
+     */
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
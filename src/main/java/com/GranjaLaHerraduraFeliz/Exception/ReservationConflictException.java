@@ -0,0 +1,27 @@
+package com.GranjaLaHerraduraFeliz.Exception;
+
+/**
+ * Excepción lanzada cuando una reserva choca con otra ya existente
+ * para el mismo animal, o cuando ningún animal del tipo pedido está
+ * libre en la franja solicitada.
+ * <p>
+ * Se utiliza en {@code ReservationService}. Extiende {@link RuntimeException}
+ * porque representa una condición del negocio, igual que
+ * {@link AnimalNotAvailableException} para los alquileres inmediatos.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class ReservationConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Crea una excepción con un mensaje descriptivo.
+     *
+     * @param message Mensaje explicando el conflicto.
+     */
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+}
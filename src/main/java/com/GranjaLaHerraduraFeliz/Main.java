@@ -1,12 +1,72 @@
 package com.GranjaLaHerraduraFeliz;
 
+import com.GranjaLaHerraduraFeliz.controller.BatchCommandRunner;
 import com.GranjaLaHerraduraFeliz.controller.ConsoleController;
+import com.GranjaLaHerraduraFeliz.controller.HttpApiServer;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentReservationRepository;
+import com.GranjaLaHerraduraFeliz.repository.CopyOnWriteAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
 import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
 import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
 import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+import com.GranjaLaHerraduraFeliz.repository.cache.BoundedCache;
+import com.GranjaLaHerraduraFeliz.repository.cache.CachingAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.cache.CachingCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.cache.CachingRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.history.ColumnarRentalHistory;
+import com.GranjaLaHerraduraFeliz.repository.history.HistoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.history.OffHeapRentalHistory;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcConnectionPool;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcReservationRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcSchema;
+import com.GranjaLaHerraduraFeliz.repository.journal.FsyncPolicy;
+import com.GranjaLaHerraduraFeliz.repository.journal.Journal;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournalRecovery;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledReservationRepository;
+import com.GranjaLaHerraduraFeliz.repository.snapshot.MappedSnapshot;
+import com.GranjaLaHerraduraFeliz.repository.snapshot.PeriodicSnapshotter;
+import com.GranjaLaHerraduraFeliz.repository.snapshot.SnapshotRentalRepository;
 import com.GranjaLaHerraduraFeliz.service.AnimalService;
+import com.GranjaLaHerraduraFeliz.service.AvailabilityView;
 import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.OverdueMonitor;
 import com.GranjaLaHerraduraFeliz.service.RentalService;
+import com.GranjaLaHerraduraFeliz.service.ReservationService;
+import com.GranjaLaHerraduraFeliz.service.SettlementLedger;
+import com.GranjaLaHerraduraFeliz.service.TariffEngine;
+import com.GranjaLaHerraduraFeliz.service.UtilizationAnalytics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Punto de entrada principal de la aplicación.
@@ -14,41 +74,369 @@ import com.GranjaLaHerraduraFeliz.service.RentalService;
  * Esta clase:
  * <ul>
  *     <li>Inicializa los repositorios en memoria.</li>
+ *     <li>Opcionalmente, los hace persistentes mediante un journal.</li>
  *     <li>Construye los servicios de negocio.</li>
  *     <li>Configura el controlador de consola.</li>
  *     <li>Inicia la ejecución del menú interactivo.</li>
  * </ul>
  *
+ * Con {@code --http <puerto>} se atiende la API HTTP/JSON ({@link HttpApiServer}) en
+ * lugar del menú, para que varios mostradores trabajen a la vez; en ese caso los
+ * repositorios en memoria son siempre las versiones concurrentes. Con
+ * {@code --batch <archivo>} (o {@code --batch -} para la entrada estándar) se ejecuta
+ * un guion de comandos ({@link BatchCommandRunner}), se muestra un resumen y se sale.
+ *
+ * La persistencia se activa con propiedades del sistema:
+ * <ul>
+ *     <li>{@code -Dgranja.journal=data/granja.journal}: ruta del journal. Si no se
+ *     indica, los datos se pierden al salir, como en la versión 1.0.</li>
+ *     <li>{@code -Dgranja.journal.fsync=group|always|none}: política de sincronización
+ *     (por defecto {@code group}).</li>
+ *     <li>{@code -Dgranja.journal.maxLatencyMs=0}: ventana adicional de agrupación en modo
+ *     {@code group} (por defecto 0: se agrupa lo que llegue mientras dura el {@code fsync} anterior).</li>
+ *     <li>{@code -Dgranja.snapshot=data/granja.snapshot}: ruta base de la instantánea (cada una se
+ *     escribe como {@code granja.snapshot.N}). Si existe alguna, se mapea la última al arrancar y
+ *     el journal solo se reproduce desde la posición que registra.</li>
+ *     <li>{@code -Dgranja.snapshot.intervalSec=300}: periodo entre instantáneas (por defecto 300).
+ *     Siempre se escribe una última instantánea al salir.</li>
+ *     <li>{@code -Dgranja.history=columnar}: guarda los alquileres finalizados en columnas
+ *     de primitivos en lugar de objetos (ver {@link HistoryRentalRepository}). Con
+ *     {@code offheap} se guardan fuera del heap; si además se indica
+ *     {@code -Dgranja.history.file=data/granja.history}, en un archivo mapeado que se
+ *     conserva entre reinicios.</li>
+ *     <li>{@code -Dgranja.animals=copyOnWrite}: los animales se guardan en versiones
+ *     inmutables (ver {@link CopyOnWriteAnimalRepository}); los listados y las instantáneas
+ *     los leen sin cerrojos ni copias.</li>
+ *     <li>{@code -Dgranja.jdbc.url=jdbc:h2:./data/granja}: usa una base de datos embebida
+ *     en lugar de la memoria (con {@code granja.jdbc.user}, {@code granja.jdbc.password} y
+ *     {@code granja.jdbc.poolSize} opcionales). En ese caso se ignoran las opciones anteriores.</li>
+ *     <li>{@code -Dgranja.cache.size=10000}: guarda en caché hasta ese número de animales,
+ *     clientes y alquileres leídos por ID (ver {@link CachingAnimalRepository}); útil con la
+ *     base de datos embebida. Las estadísticas de la caché se registran al salir.</li>
+ *     <li>{@code -Dgranja.overdue.shortRideMin=30} y {@code -Dgranja.overdue.hourlyMin=60}: tiempo
+ *     máximo de cada tipo de alquiler antes de considerarlo vencido (ver {@link OverdueMonitor}).
+ *     Con {@code -Dgranja.overdue.autoFinish=true} los vencidos se finalizan solos, desde otro
+ *     hilo, por lo que los repositorios en memoria pasan a ser las versiones concurrentes.</li>
+ * </ul>
+ *
  * En versiones futuras del sistema, esta clase puede adaptarse
- * para inicializar una interfaz gráfica (GUI) o un servidor web,
- * pero para la versión actual gestiona únicamente la consola.
+ * para inicializar una interfaz gráfica (GUI).
  *
  * @author Marcos
  * @since 1.0
  */
 public class Main {
 
+    // Logger para las estadísticas de la caché al salir.
+    private static final Logger log = LoggerFactory.getLogger(Main.class);
+
     /**
      * Método principal que inicializa todos los componentes y ejecuta la aplicación.
      *
-     * @param args Argumentos de la línea de comandos (no utilizados).
+     * @param args Argumentos de la línea de comandos: {@code --http <puerto>} o
+     *             {@code --batch <archivo|->}, opcionales.
      */
     public static void main(String[] args) {
+        Options options = parseOptions(args);
+        Integer httpPort = options.httpPort();
 
-        // Repositorios en memoria
-        var animalRepository = new InMemoryAnimalRepository();
-        var customerRepository = new InMemoryCustomerRepository();
-        var rentalRepository = new InMemoryRentalRepository();
+        // Recursos que se cierran al salir, en orden inverso de apertura
+        Deque<AutoCloseable> closeables = new ArrayDeque<>();
 
-        // Servicios
-        var animalService = new AnimalService(animalRepository);
-        var customerService = new CustomerService(customerRepository);
+        // Repositorios: base de datos embebida o memoria (con persistencia opcional)
+        String jdbcUrl = System.getProperty("granja.jdbc.url");
+        Repositories repositories = jdbcUrl != null && !jdbcUrl.isBlank()
+                ? openJdbc(jdbcUrl, closeables)
+                : openInMemory(closeables, httpPort != null || Boolean.getBoolean("granja.overdue.autoFinish"));
+        int cacheSize = Integer.getInteger("granja.cache.size", 0);
+        if (cacheSize > 0) {
+            repositories = withCache(repositories, cacheSize, closeables);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> closeAll(closeables)));
+        AnimalRepository animalRepository = repositories.animals();
+        CustomerRepository customerRepository = repositories.customers();
+        RentalRepository rentalRepository = repositories.rentals();
+        ReservationRepository reservationRepository = repositories.reservations();
+
+        // Servicios; la vista de disponibilidad se mantiene con los avisos de ambos servicios
+        var availabilityView = new AvailabilityView(animalRepository);
         var rentalService = new RentalService(animalRepository, customerRepository, rentalRepository);
+        var animalService = new AnimalService(animalRepository, availabilityView, rentalService);
+        var customerService = new CustomerService(customerRepository);
+        rentalService.addStatusListener(availabilityView);
+        // Duración máxima de cada tipo de alquiler: vencimientos y choque con reservas
+        Map<RentalType, Duration> limits = new EnumMap<>(RentalType.class);
+        limits.put(RentalType.SHORT_RIDE, Duration.ofMinutes(Long.getLong("granja.overdue.shortRideMin", 30)));
+        limits.put(RentalType.HOURLY, Duration.ofMinutes(Long.getLong("granja.overdue.hourlyMin", 60)));
+
+        // Las reservas anticipadas se guardan junto con el resto (journal o base de datos)
+        var reservationService = new ReservationService(animalRepository, customerRepository,
+                reservationRepository);
+        rentalService.useReservations(reservationService, limits);
+
+        // Vigilancia de alquileres vencidos
+        var overdueMonitor = new OverdueMonitor(rentalService, limits, Boolean.getBoolean("granja.overdue.autoFinish"));
+        closeables.push(overdueMonitor);
+
+        // Cobro de cada alquiler al finalizar y totales diarios
+        var settlementLedger = new SettlementLedger(TariffEngine.standard(), rentalService);
+
+        // Estadísticas de uso mantenidas con cada inicio y fin de alquiler
+        var utilizationAnalytics = new UtilizationAnalytics(rentalService);
+
+        // Guion de comandos: se ejecuta completo y se sale (el código de salida indica si hubo errores)
+        if (options.batch() != null) {
+            BatchCommandRunner.Summary summary = runBatch(options.batch(),
+                    new BatchCommandRunner(animalService, customerService, rentalService));
+            System.exit(summary.failed() == 0 ? 0 : 1);
+        }
+
+        // API HTTP: atiende peticiones hasta que se detenga el proceso
+        if (httpPort != null) {
+            try {
+                var httpServer = new HttpApiServer(animalService, customerService, rentalService, httpPort);
+                closeables.push(httpServer);
+                httpServer.start();
+                System.out.println("API HTTP escuchando en el puerto " + httpServer.port() + " (Ctrl+C para salir)");
+                httpServer.awaitStop();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo abrir el puerto HTTP " + httpPort, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return;
+        }
 
         // Controlador de consola
-        var appController = new ConsoleController(animalService, customerService, rentalService);
+        var appController = new ConsoleController(animalService, customerService, rentalService,
+                reservationService, overdueMonitor, settlementLedger, utilizationAnalytics);
 
         // Ejecutar menú interactivo
         appController.run();
     }
+
+    /**
+     * @return Opciones de la línea de comandos (sin ninguna, se usa el menú de consola).
+     * @throws IllegalArgumentException Si hay argumentos desconocidos, el puerto no es un
+     *                                  número o se combinan {@code --http} y {@code --batch}.
+     */
+    private static Options parseOptions(String[] args) {
+        Integer port = null;
+        String batch = null;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--http") && i + 1 < args.length) {
+                try {
+                    port = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Puerto HTTP inválido: " + args[i]);
+                }
+            } else if (args[i].equals("--batch") && i + 1 < args.length) {
+                batch = args[++i];
+            } else {
+                throw new IllegalArgumentException("Argumento desconocido: " + args[i]
+                        + " (uso: [--http <puerto> | --batch <archivo|->])");
+            }
+        }
+        if (port != null && batch != null) {
+            throw new IllegalArgumentException("--http y --batch no se pueden combinar");
+        }
+        return new Options(port, batch);
+    }
+
+    /**
+     * Ejecuta el guion con lectura y escritura en búfer (la salida estándar sin
+     * búfer haría una llamada al sistema por línea) y muestra el resumen.
+     */
+    private static BatchCommandRunner.Summary runBatch(String source, BatchCommandRunner runner) {
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        try (BufferedReader in = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+                : Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8)) {
+            BatchCommandRunner.Summary summary = runner.run(in, out);
+            out.printf(Locale.ROOT, "Resumen: %d comandos (%s), %d con error, %.0f ms, %.0f comandos/s%n",
+                    summary.commands(), summary.byCommand(), summary.failed(),
+                    summary.elapsedNanos() / 1e6, summary.commandsPerSecond());
+            out.flush();
+            return summary;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el guion " + source, e);
+        }
+    }
+
+    /**
+     * Repositorios en memoria, con el historial, las instantáneas y el journal
+     * opcionales que indiquen las propiedades del sistema.
+     *
+     * @param concurrent Si varios hilos usarán los repositorios (API HTTP, o el hilo de
+     *                   {@link OverdueMonitor} cuando finaliza solo los vencidos).
+     */
+    private static Repositories openInMemory(Deque<AutoCloseable> closeables, boolean concurrent) {
+        // Repositorios en memoria; con instantáneas también se leen desde otro hilo
+        String snapshotPath = System.getProperty("granja.snapshot");
+        boolean snapshots = snapshotPath != null && !snapshotPath.isBlank();
+        concurrent |= snapshots;
+        boolean copyOnWrite = "copyOnWrite".equalsIgnoreCase(System.getProperty("granja.animals"));
+        AnimalRepository animalRepository = copyOnWrite ? new CopyOnWriteAnimalRepository()
+                : concurrent ? new ConcurrentAnimalRepository() : new InMemoryAnimalRepository();
+        CustomerRepository customerRepository = concurrent ? new ConcurrentCustomerRepository() : new InMemoryCustomerRepository();
+        RentalRepository rentalRepository = concurrent ? new ConcurrentRentalRepository() : new InMemoryRentalRepository();
+        ReservationRepository reservationRepository = new ConcurrentReservationRepository();
+
+        // Historial de alquileres finalizados fuera de los objetos Rental (opcional)
+        String historyMode = System.getProperty("granja.history", "objects");
+        if ("columnar".equalsIgnoreCase(historyMode)) {
+            rentalRepository = new HistoryRentalRepository(animalRepository, customerRepository,
+                    new ColumnarRentalHistory());
+        } else if ("offheap".equalsIgnoreCase(historyMode)) {
+            OffHeapRentalHistory history = openOffHeapHistory(System.getProperty("granja.history.file"));
+            closeables.push(history);
+            rentalRepository = new HistoryRentalRepository(animalRepository, customerRepository, history);
+        }
+
+        // Arranque rápido: mapear la última instantánea en lugar de reproducir todo el journal
+        long journalOffset = 0;
+        boolean reservationsInSnapshot = true;
+        MappedSnapshot snapshot = snapshots ? openSnapshot(Path.of(snapshotPath)) : null;
+        if (snapshot != null) {
+            snapshot.loadAnimals(animalRepository);
+            snapshot.loadCustomers(customerRepository);
+            snapshot.loadReservations(reservationRepository, animalRepository, customerRepository);
+            reservationsInSnapshot = snapshot.hasReservations();
+            rentalRepository = new SnapshotRentalRepository(rentalRepository, snapshot,
+                    animalRepository, customerRepository);
+            journalOffset = snapshot.journalOffset();
+        }
+
+        // Persistencia opcional: reconstruir desde el journal y registrar cada cambio
+        String journalPath = System.getProperty("granja.journal");
+        Journal journal = null;
+        if (journalPath != null && !journalPath.isBlank()) {
+            journal = openJournal(Path.of(journalPath), journalOffset, reservationsInSnapshot,
+                    animalRepository, customerRepository, rentalRepository, reservationRepository);
+            closeables.push(journal);
+        }
+
+        // Instantáneas periódicas sobre los repositorios base (no generan registros de journal)
+        if (snapshots) {
+            Duration interval = Duration.ofSeconds(Long.getLong("granja.snapshot.intervalSec", 300));
+            closeables.push(new PeriodicSnapshotter(Path.of(snapshotPath), journal,
+                    animalRepository, customerRepository, rentalRepository, reservationRepository, interval));
+        }
+
+        if (journal != null) {
+            animalRepository = new JournaledAnimalRepository(animalRepository, journal);
+            customerRepository = new JournaledCustomerRepository(customerRepository, journal);
+            rentalRepository = new JournaledRentalRepository(rentalRepository, journal);
+            reservationRepository = new JournaledReservationRepository(reservationRepository, journal);
+        }
+        return new Repositories(animalRepository, customerRepository, rentalRepository, reservationRepository);
+    }
+
+    /**
+     * Repositorios sobre una base de datos embebida (por ejemplo, H2). La base ya es
+     * persistente, así que no se combinan con el journal ni con las instantáneas.
+     */
+    private static Repositories openJdbc(String url, Deque<AutoCloseable> closeables) {
+        JdbcConnectionPool pool = new JdbcConnectionPool(url,
+                System.getProperty("granja.jdbc.user", ""),
+                System.getProperty("granja.jdbc.password", ""),
+                Integer.getInteger("granja.jdbc.poolSize", 8));
+        closeables.push(pool);
+        JdbcSchema.create(pool);
+        return new Repositories(new JdbcAnimalRepository(pool), new JdbcCustomerRepository(pool),
+                new JdbcRentalRepository(pool), new JdbcReservationRepository(pool));
+    }
+
+    /**
+     * Envuelve los repositorios con cachés de lectura por ID; al salir se registran
+     * sus estadísticas.
+     */
+    private static Repositories withCache(Repositories repositories, int capacity, Deque<AutoCloseable> closeables) {
+        var animals = new CachingAnimalRepository(repositories.animals(), capacity);
+        var customers = new CachingCustomerRepository(repositories.customers(), capacity);
+        var rentals = new CachingRentalRepository(repositories.rentals(), capacity);
+        closeables.push(() -> {
+            logCacheStats("animals", animals.cacheStats());
+            logCacheStats("customers", customers.cacheStats());
+            logCacheStats("rentals", rentals.cacheStats());
+        });
+        return new Repositories(animals, customers, rentals, repositories.reservations());
+    }
+
+    private static void logCacheStats(String name, BoundedCache.Stats stats) {
+        log.info("component=BoundedCache event=stats cache={} hits={} misses={} hitRate={} evictions={} size={}",
+                name, stats.hits(), stats.misses(), String.format(Locale.ROOT, "%.3f", stats.hitRate()),
+                stats.evictions(), stats.size());
+    }
+
+    /**
+     * Reproduce el journal sobre los repositorios en memoria y lo deja abierto
+     * para seguir registrando cambios hasta que la aplicación termine. Si la
+     * instantánea es antigua y no trae reservas, estas se leen del journal completo.
+     */
+    private static Journal openJournal(Path path, long fromOffset, boolean reservationsInSnapshot,
+                                       AnimalRepository animals,
+                                       CustomerRepository customers, RentalRepository rentals,
+                                       ReservationRepository reservations) {
+        FsyncPolicy policy = FsyncPolicy.valueOf(
+                System.getProperty("granja.journal.fsync", "group").toUpperCase(Locale.ROOT));
+        Duration maxLatency = Duration.ofMillis(Long.getLong("granja.journal.maxLatencyMs", 0));
+        try {
+            var recovery = new JournalRecovery(animals, customers, rentals, reservations);
+            recovery.replay(path, fromOffset);
+            if (fromOffset > 0 && !reservationsInSnapshot) {
+                recovery.replayReservations(path);
+            }
+            return Journal.open(path, policy, maxLatency);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el journal " + path, e);
+        }
+    }
+
+    private static OffHeapRentalHistory openOffHeapHistory(String file) {
+        if (file == null || file.isBlank()) {
+            return OffHeapRentalHistory.inMemory();
+        }
+        try {
+            return OffHeapRentalHistory.open(Path.of(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el historial " + file, e);
+        }
+    }
+
+    /** @return La última instantánea escrita, o {@code null} si todavía no hay ninguna. */
+    private static MappedSnapshot openSnapshot(Path path) {
+        try {
+            return MappedSnapshot.exists(path) ? MappedSnapshot.open(path) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir la instantánea " + path, e);
+        }
+    }
+
+    /** Cierra los recursos en orden: la instantánea final necesita el journal abierto. */
+    private static void closeAll(Deque<AutoCloseable> closeables) {
+        while (!closeables.isEmpty()) {
+            AutoCloseable closeable = closeables.pop();
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                System.err.println("No se pudo cerrar " + closeable.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opciones de la línea de comandos.
+     *
+     * @param httpPort Puerto de la API HTTP, o {@code null}.
+     * @param batch    Guion a ejecutar ({@code -} para la entrada estándar), o {@code null}.
+     */
+    private record Options(Integer httpPort, String batch) {
+    }
+
+    /** Repositorios con los que se construyen los servicios. */
+    private record Repositories(AnimalRepository animals, CustomerRepository customers, RentalRepository rentals,
+                                ReservationRepository reservations) {
+    }
 }
@@ -0,0 +1,254 @@
+package com.GranjaLaHerraduraFeliz.controller;
+
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.service.AnimalService;
+import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.RentalRequest;
+import com.GranjaLaHerraduraFeliz.service.RentalResult;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ejecuta un guion de comandos, uno por línea, directamente sobre los servicios:
+ * sirve para cargar la flota o repasar el registro en papel de un día sin pasar
+ * por el menú interactivo.
+ * <p>
+ * Comandos (las líneas vacías y las que empiezan por {@code #} se ignoran):
+ * <ul>
+ *     <li>{@code animal <HORSE|DONKEY|PIG> <nombre>}</li>
+ *     <li>{@code cliente <nombre completo>} (se registra aunque haya posibles duplicados)</li>
+ *     <li>{@code alquilar <idAnimal> <idCliente> <SHORT_RIDE|HOURLY>}</li>
+ *     <li>{@code finalizar <idAlquiler>}</li>
+ * </ul>
+ * Por cada comando se escribe una línea con su número de línea y el resultado
+ * ({@code ok} con la entidad o {@code error} con el motivo); un error no detiene
+ * el guion. Los {@code alquilar} y los {@code finalizar} seguidos se agrupan en
+ * lotes de {@link RentalService#startRentals}/{@link RentalService#finishRentals},
+ * que toman los cerrojos y guardan una sola vez; el resultado es el mismo que
+ * ejecutarlos de uno en uno porque cada lote se envía antes del siguiente comando
+ * de otro tipo.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class BatchCommandRunner {
+
+    // Logger para el resumen de cada guion.
+    private static final Logger log = LoggerFactory.getLogger(BatchCommandRunner.class);
+
+    /** Comandos seguidos que se envían juntos como máximo. */
+    private static final int MAX_BATCH = 1_000;
+
+    private final AnimalService animalService;
+    private final CustomerService customerService;
+    private final RentalService rentalService;
+
+    /** {@code alquilar} pendientes de enviar. */
+    private final List<RentalRequest> pendingRentals = new ArrayList<>();
+    /** {@code finalizar} pendientes de enviar. */
+    private final List<Integer> pendingFinishes = new ArrayList<>();
+    /** Número de línea de cada comando pendiente, en el mismo orden. */
+    private final List<Long> pendingLines = new ArrayList<>();
+
+    private PrintWriter out;
+    private Map<String, Long> executed;
+    private long failed;
+
+    /**
+     * @param animalService   Servicio de animales.
+     * @param customerService Servicio de clientes.
+     * @param rentalService   Servicio de alquileres.
+     */
+    public BatchCommandRunner(AnimalService animalService, CustomerService customerService,
+                              RentalService rentalService) {
+        this.animalService = animalService;
+        this.customerService = customerService;
+        this.rentalService = rentalService;
+    }
+
+    /**
+     * Ejecuta todos los comandos de {@code in}. No es seguro llamarlo desde varios hilos a la vez.
+     *
+     * @param in  Guion (se lee hasta el final, sin cerrarlo).
+     * @param out Destino del resultado de cada comando (se vacía al terminar, sin cerrarlo).
+     * @return Resumen de la ejecución.
+     * @throws IOException Si falla la lectura del guion.
+     */
+    public Summary run(BufferedReader in, PrintWriter out) throws IOException {
+        this.out = out;
+        this.executed = new LinkedHashMap<>();
+        this.failed = 0;
+        long startNanos = System.nanoTime();
+        long lineNumber = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            execute(lineNumber, trimmed);
+        }
+        flush();
+        out.flush();
+
+        long commands = executed.values().stream().mapToLong(Long::longValue).sum();
+        Summary summary = new Summary(lineNumber, commands, failed, Collections.unmodifiableMap(executed),
+                System.nanoTime() - startNanos);
+        log.info("component=BatchCommandRunner event=finished lines={} commands={} failed={} elapsedMs={}",
+                lineNumber, commands, failed, summary.elapsedNanos() / 1_000_000);
+        return summary;
+    }
+
+    private void execute(long lineNumber, String line) {
+        String[] parts = line.split("\\s+", 2);
+        String command = parts[0].toLowerCase(Locale.ROOT);
+        String arguments = parts.length > 1 ? parts[1] : "";
+        // Un comando de otro tipo envía el lote pendiente, para conservar el orden del guion
+        if ((!command.equals("alquilar") && !pendingRentals.isEmpty())
+                || (!command.equals("finalizar") && !pendingFinishes.isEmpty())) {
+            flush();
+        }
+        try {
+            switch (command) {
+                case "animal" -> {
+                    String[] fields = split(arguments, 2, "animal <tipo> <nombre>");
+                    var animal = animalService.registerAnimal(fields[1], parseEnum(AnimalType.class, fields[0]));
+                    succeeded(lineNumber, command, animal);
+                }
+                case "cliente" -> {
+                    if (arguments.isEmpty()) {
+                        throw new IllegalArgumentException("uso: cliente <nombre completo>");
+                    }
+                    succeeded(lineNumber, command, customerService.registerCustomer(arguments));
+                }
+                case "alquilar" -> {
+                    String[] fields = split(arguments, 3, "alquilar <idAnimal> <idCliente> <tipo>");
+                    pendingRentals.add(new RentalRequest(parseInt(fields[0]), parseInt(fields[1]),
+                            parseEnum(RentalType.class, fields[2])));
+                    pendingLines.add(lineNumber);
+                    if (pendingRentals.size() == MAX_BATCH) {
+                        flush();
+                    }
+                }
+                case "finalizar" -> {
+                    String[] fields = split(arguments, 1, "finalizar <idAlquiler>");
+                    pendingFinishes.add(parseInt(fields[0]));
+                    pendingLines.add(lineNumber);
+                    if (pendingFinishes.size() == MAX_BATCH) {
+                        flush();
+                    }
+                }
+                default -> throw new IllegalArgumentException("comando desconocido: " + parts[0]);
+            }
+        } catch (RuntimeException e) {
+            // Los comandos pendientes son de líneas anteriores: se escriben antes que este error
+            flush();
+            failed(lineNumber, command, e);
+        }
+    }
+
+    /**
+     * Envía el lote de alquileres o finalizaciones pendiente y escribe sus resultados.
+     * Los pendientes se vacían antes de enviarlo, así que nunca se envía dos veces; si
+     * el lote entero falla, el error se informa en cada una de sus líneas.
+     */
+    private void flush() {
+        if (pendingLines.isEmpty()) {
+            return;
+        }
+        List<Long> lines = new ArrayList<>(pendingLines);
+        List<RentalRequest> requests = new ArrayList<>(pendingRentals);
+        List<Integer> rentalIds = new ArrayList<>(pendingFinishes);
+        pendingLines.clear();
+        pendingRentals.clear();
+        pendingFinishes.clear();
+
+        String command = requests.isEmpty() ? "finalizar" : "alquilar";
+        List<RentalResult> results;
+        try {
+            results = requests.isEmpty()
+                    ? rentalService.finishRentals(rentalIds)
+                    : rentalService.startRentals(requests);
+        } catch (RuntimeException e) {
+            log.warn("component=BatchCommandRunner event=batchFailed command={} commands={} reason={}",
+                    command, lines.size(), e.toString());
+            for (long lineNumber : lines) {
+                failed(lineNumber, command, e);
+            }
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            RentalResult result = results.get(i);
+            if (result.isSuccess()) {
+                succeeded(lines.get(i), command, result.rental());
+            } else {
+                failed(lines.get(i), command, result.error());
+            }
+        }
+    }
+
+    private void succeeded(long lineNumber, String command, Object entity) {
+        executed.merge(command, 1L, Long::sum);
+        out.append(Long.toString(lineNumber)).append(" ok ").append(String.valueOf(entity)).append('\n');
+    }
+
+    private void failed(long lineNumber, String command, RuntimeException error) {
+        executed.merge(command, 1L, Long::sum);
+        failed++;
+        out.append(Long.toString(lineNumber)).append(" error ").append(String.valueOf(error.getMessage())).append('\n');
+    }
+
+    private static String[] split(String arguments, int count, String usage) {
+        String[] fields = arguments.split("\\s+", count);
+        if (arguments.isEmpty() || fields.length < count) {
+            throw new IllegalArgumentException("uso: " + usage);
+        }
+        return fields;
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("número inválido: " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("valor inválido para " + type.getSimpleName() + ": " + value);
+        }
+    }
+
+    /**
+     * Resumen de un guion.
+     *
+     * @param lines        Líneas leídas (incluidos comentarios y líneas vacías).
+     * @param commands     Comandos ejecutados.
+     * @param failed       Comandos que terminaron con error.
+     * @param byCommand    Comandos ejecutados por nombre.
+     * @param elapsedNanos Duración total.
+     */
+    public record Summary(long lines, long commands, long failed, Map<String, Long> byCommand, long elapsedNanos) {
+
+        /** @return Comandos por segundo. */
+        public double commandsPerSecond() {
+            return elapsedNanos == 0 ? 0 : commands * 1e9 / elapsedNanos;
+        }
+    }
+}
@@ -2,15 +2,25 @@ package com.GranjaLaHerraduraFeliz.controller;
 
 import com.GranjaLaHerraduraFeliz.Exception.AnimalNotAvailableException;
 import com.GranjaLaHerraduraFeliz.Exception.RentalNotFoundException;
+import com.GranjaLaHerraduraFeliz.Exception.ReservationConflictException;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
 import com.GranjaLaHerraduraFeliz.model.AnimalType;
 import com.GranjaLaHerraduraFeliz.model.RentalType;
 import com.GranjaLaHerraduraFeliz.service.AnimalService;
 import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.OverdueMonitor;
 import com.GranjaLaHerraduraFeliz.service.RentalService;
+import com.GranjaLaHerraduraFeliz.service.ReservationService;
+import com.GranjaLaHerraduraFeliz.service.SettlementLedger;
+import com.GranjaLaHerraduraFeliz.service.UtilizationAnalytics;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Scanner;
 
 /**
@@ -45,23 +55,46 @@ public class ConsoleController {
     private final AnimalService animalService;
     private final CustomerService customerService;
     private final RentalService rentalService;
+    private final ReservationService reservationService;
+    private final OverdueMonitor overdueMonitor;
+    private final SettlementLedger settlementLedger;
+    private final UtilizationAnalytics utilizationAnalytics;
     private final Scanner scanner;
 
+    /** Formato de fecha y hora que se pide al reservar. */
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
     /**
      * Crea un controlador para la interfaz de consola.
      *
      * @param animalService Servicio de animales.
      * @param customerService Servicio de clientes.
      * @param rentalService Servicio de alquileres.
+     * @param reservationService Servicio de reservas anticipadas.
+     * @param overdueMonitor Vigilancia de alquileres vencidos.
+     * @param settlementLedger Libro de liquidaciones diarias.
+     * @param utilizationAnalytics Estadísticas de uso de los animales.
      */
     public ConsoleController(AnimalService animalService,
                              CustomerService customerService,
-                             RentalService rentalService) {
+                             RentalService rentalService,
+                             ReservationService reservationService,
+                             OverdueMonitor overdueMonitor,
+                             SettlementLedger settlementLedger,
+                             UtilizationAnalytics utilizationAnalytics) {
         this.animalService = animalService;
         this.customerService = customerService;
         this.rentalService = rentalService;
+        this.reservationService = reservationService;
+        this.overdueMonitor = overdueMonitor;
+        this.settlementLedger = settlementLedger;
+        this.utilizationAnalytics = utilizationAnalytics;
         this.scanner = new Scanner(System.in);
 
+        overdueMonitor.addOverdueHandler(rental ->
+                System.out.println("\n⚠ Alquiler vencido: " + rental));
+        // Comentario: el aviso llega desde otro hilo, aunque el usuario esté en mitad de un menú.
+
         log.info("ConsoleController inicializado. Interfaz CLI lista para recibir comandos.");
         // Comentario: INFO → indica que la capa de presentación por consola está lista.
     }
@@ -88,6 +121,13 @@ public class ConsoleController {
                 case 3 -> startRental();
                 case 4 -> finishRental();
                 case 5 -> listAvailableAnimals();
+                case 6 -> showAvailability();
+                case 7 -> reserveAnimal();
+                case 8 -> joinWaitlist();
+                case 9 -> listOverdueRentals();
+                case 10 -> showDailySettlement();
+                case 11 -> showUtilization();
+                case 12 -> searchCustomers();
                 case 0 -> {
                     System.out.println("Saliendo del sistema...");
                     log.info("Usuario solicitó salir del sistema desde el menú.");
@@ -115,6 +155,13 @@ public class ConsoleController {
         System.out.println("3. Crear alquiler");
         System.out.println("4. Finalizar alquiler");
         System.out.println("5. Listar animales disponibles");
+        System.out.println("6. Ver disponibilidad por tipo");
+        System.out.println("7. Reservar animal");
+        System.out.println("8. Lista de espera por tipo");
+        System.out.println("9. Ver alquileres vencidos");
+        System.out.println("10. Liquidación del día");
+        System.out.println("11. Ver estadísticas de uso");
+        System.out.println("12. Buscar cliente por nombre");
         System.out.println("0. Salir");
 
         log.debug("Menú principal mostrado al usuario.");
@@ -145,6 +192,20 @@ public class ConsoleController {
         return value;
     }
 
+    /** Lee una fecha y hora con el formato {@link #DATE_TIME}, repitiendo hasta que sea válida. */
+    private LocalDateTime readDateTime(String message) {
+        while (true) {
+            String value = readLine(message);
+            try {
+                return LocalDateTime.parse(value.trim(), DATE_TIME);
+            } catch (DateTimeParseException e) {
+                log.warn("Fecha inválida ingresada: '{}'", value);
+                // Comentario: WARN → el usuario no respetó el formato pedido.
+                System.out.println("Formato inválido, usa yyyy-MM-dd HH:mm.");
+            }
+        }
+    }
+
     /** Lógica del menú: registrar animal. */
     private void registerAnimal() {
         log.info("Opción seleccionada: registrar animal.");
@@ -179,6 +240,22 @@ public class ConsoleController {
         log.info("Opción seleccionada: registrar cliente.");
         String fullName = readLine("Nombre completo del cliente: ");
 
+        var duplicates = customerService.findPossibleDuplicates(fullName);
+        if (!duplicates.isEmpty()) {
+            System.out.println("⚠ Posibles clientes ya registrados con ese nombre:");
+            for (var duplicate : duplicates) {
+                System.out.printf("  %-5d %s%n", duplicate.getId(), duplicate.getFullName());
+            }
+            String answer = readLine("¿Registrar de todas formas? (s/n): ");
+            if (!answer.trim().equalsIgnoreCase("s")) {
+                System.out.println("Registro cancelado.");
+                log.info("Registro cancelado por posible duplicado. nombre='{}', candidatos={}",
+                        fullName, duplicates.size());
+                // Comentario: INFO → decisión del usuario, no es un error.
+                return;
+            }
+        }
+
         var customer = customerService.registerCustomer(fullName);
         System.out.println("Cliente registrado: " + customer);
         log.info("Cliente registrado desde consola: {}", customer);
@@ -267,4 +344,166 @@ public class ConsoleController {
             log.info("Se listaron {} animales disponibles.", animals.size());
         }
     }
+
+    /** Lógica del menú: disponibilidad por tipo de animal. */
+    private void showAvailability() {
+        log.info("Opción seleccionada: ver disponibilidad por tipo.");
+        var matrix = animalService.availabilityMatrix();
+        System.out.printf("%-8s %12s %10s %8s%n", "Tipo", "Disponibles", "Alquilados", "Total");
+        for (AnimalType type : AnimalType.values()) {
+            System.out.printf("%-8s %12d %10d %8d%n", type, matrix.available(type),
+                    matrix.count(type, AnimalStatus.RENTED), matrix.total(type));
+        }
+        log.debug("Matriz de disponibilidad mostrada al usuario.");
+        // Comentario: DEBUG → la consulta es de tiempo constante, se puede refrescar sin coste.
+    }
+
+    /** Lógica del menú: reservar un animal (o cualquiera de un tipo) para una franja futura. */
+    private void reserveAnimal() {
+        log.info("Opción seleccionada: reservar animal.");
+        int animalId = readInt("ID del animal (0 = cualquiera de un tipo): ");
+        AnimalType type = null;
+        if (animalId == 0) {
+            System.out.println("Tipo de animal:");
+            System.out.println("1. HORSE");
+            System.out.println("2. DONKEY");
+            System.out.println("3. PIG");
+            int typeOption = readInt("Elige tipo: ");
+            type = switch (typeOption) {
+                case 2 -> AnimalType.DONKEY;
+                case 3 -> AnimalType.PIG;
+                default -> AnimalType.HORSE;
+            };
+        }
+        int customerId = readInt("ID del cliente: ");
+        LocalDateTime start = readDateTime("Inicio (yyyy-MM-dd HH:mm): ");
+        LocalDateTime end = readDateTime("Fin (yyyy-MM-dd HH:mm): ");
+        int rentalOption = readInt("Tipo de alquiler (1. SHORT_RIDE, 2. HOURLY): ");
+        RentalType rentalType = rentalOption == 2 ? RentalType.HOURLY : RentalType.SHORT_RIDE;
+
+        try {
+            var reservation = type == null
+                    ? reservationService.reserve(animalId, customerId, start, end, rentalType)
+                    : reservationService.reserveAny(type, customerId, start, end, rentalType);
+            System.out.println("Reserva creada: " + reservation);
+            log.info("Reserva creada desde consola: {}", reservation);
+
+        } catch (ReservationConflictException e) {
+            System.out.println("⚠ Franja ocupada: " + e.getMessage());
+            log.warn("Reserva rechazada por conflicto. animalId={}, tipo={}, detalle={}",
+                    animalId, type, e.getMessage());
+            // Comentario: WARN → condición esperada de negocio (no es fallo del sistema).
+
+        } catch (IllegalArgumentException e) {
+            System.out.println("⚠ Error en los datos: " + e.getMessage());
+            log.warn("Datos inválidos al reservar. animalId={}, customerId={}, detalle={}",
+                    animalId, customerId, e.getMessage());
+        }
+    }
+
+    /** Lógica del menú: poner a un cliente en la lista de espera de un tipo de animal. */
+    private void joinWaitlist() {
+        log.info("Opción seleccionada: lista de espera.");
+        System.out.println("Tipo de animal:");
+        System.out.println("1. HORSE");
+        System.out.println("2. DONKEY");
+        System.out.println("3. PIG");
+        int typeOption = readInt("Elige tipo: ");
+        AnimalType type = switch (typeOption) {
+            case 2 -> AnimalType.DONKEY;
+            case 3 -> AnimalType.PIG;
+            default -> AnimalType.HORSE;
+        };
+        int customerId = readInt("ID del cliente: ");
+        int rentalOption = readInt("Tipo de alquiler (1. SHORT_RIDE, 2. HOURLY): ");
+        RentalType rentalType = rentalOption == 2 ? RentalType.HOURLY : RentalType.SHORT_RIDE;
+
+        try {
+            var assignment = rentalService.joinWaitlist(type, customerId, rentalType);
+            if (assignment.isDone()) {
+                System.out.println("Animal asignado al momento: " + assignment.join());
+            } else {
+                System.out.println("Cliente en espera. Personas en la cola de " + type + ": "
+                        + rentalService.waitlistSize(type));
+                assignment.thenAccept(rental ->
+                        System.out.println("\nAnimal asignado desde la lista de espera: " + rental));
+            }
+            log.info("Cliente {} en lista de espera de {} (asignado={})", customerId, type, assignment.isDone());
+            // Comentario: INFO → la entrega posterior queda registrada por RentalService.
+
+        } catch (IllegalArgumentException e) {
+            System.out.println("⚠ Error en los datos: " + e.getMessage());
+            log.warn("Datos inválidos al unirse a la lista de espera. customerId={}, detalle={}",
+                    customerId, e.getMessage());
+        }
+    }
+
+    /** Lógica del menú: listar alquileres vencidos que siguen activos. */
+    private void listOverdueRentals() {
+        log.info("Opción seleccionada: ver alquileres vencidos.");
+        var rentals = overdueMonitor.overdueRentals();
+        if (rentals.isEmpty()) {
+            System.out.println("No hay alquileres vencidos.");
+        } else {
+            System.out.println("Alquileres vencidos:");
+            rentals.forEach(System.out::println);
+        }
+        log.info("Se listaron {} alquileres vencidos ({} vigilados).", rentals.size(), overdueMonitor.watching());
+        // Comentario: INFO → la consulta no recorre los alquileres, la mantiene la rueda de plazos.
+    }
+
+    /** Lógica del menú: liquidación de los alquileres finalizados hoy. */
+    private void showDailySettlement() {
+        log.info("Opción seleccionada: liquidación del día.");
+        var settlement = settlementLedger.settlement(LocalDate.now());
+        System.out.println("Liquidación del " + settlement.day() + ": " + settlement.rentals()
+                + " alquileres, total " + formatCents(settlement.totalCents()));
+        settlement.byAnimalType().forEach((type, cents) ->
+                System.out.printf("  %-8s %12s%n", type, formatCents(cents)));
+        settlement.byCustomer().forEach((customerId, cents) ->
+                System.out.printf("  Cliente %-5d %10s%n", customerId, formatCents(cents)));
+        log.info("Liquidación mostrada. día={}, total={} céntimos", settlement.day(), settlement.totalCents());
+        // Comentario: INFO → los totales se acumulan al cerrar cada alquiler, no se recalculan aquí.
+    }
+
+    /** Lógica del menú: estadísticas de uso por tipo, animal, hora y día. */
+    private void showUtilization() {
+        log.info("Opción seleccionada: ver estadísticas de uso.");
+        System.out.printf("%-8s %8s %14s %8s%n", "Tipo", "Paseos", "Horas alquiler", "Activos");
+        utilizationAnalytics.usageByType().forEach((type, usage) ->
+                System.out.printf("%-8s %8d %14.1f %8d%n", type, usage.rides(),
+                        usage.busy().toMinutes() / 60.0, usage.active()));
+        System.out.println("Animales más usados:");
+        for (var usage : utilizationAnalytics.mostUsedAnimals(5)) {
+            System.out.printf("  Animal %-5d %4d paseos %6d min %5.1f%%%n", usage.animalId(), usage.rides(),
+                    usage.busy().toMinutes(), usage.utilization() * 100);
+        }
+        int peakHour = utilizationAnalytics.peakHour();
+        System.out.println("Hora punta: " + (peakHour < 0 ? "sin datos" : String.format("%02d:00", peakHour)));
+        LocalDate today = LocalDate.now();
+        System.out.println("Paseos de los últimos 7 días: "
+                + utilizationAnalytics.ridesPerDay(today.minusDays(6), today).values());
+        log.debug("Estadísticas de uso mostradas al usuario.");
+        // Comentario: DEBUG → los contadores tienen tamaño fijo, la consulta no depende del historial.
+    }
+
+    /** Lógica del menú: búsqueda de clientes por nombre. */
+    private void searchCustomers() {
+        log.info("Opción seleccionada: buscar cliente por nombre.");
+        String query = readLine("Nombre o comienzo del nombre: ");
+        var customers = customerService.searchByName(query, 20);
+        if (customers.isEmpty()) {
+            System.out.println("No se encontraron clientes.");
+        }
+        for (var customer : customers) {
+            System.out.printf("  %-5d %s%n", customer.getId(), customer.getFullName());
+        }
+        log.debug("Resultados de búsqueda mostrados. consulta='{}', resultados={}", query, customers.size());
+        // Comentario: DEBUG → la búsqueda usa el índice por nombre, no recorre todos los clientes.
+    }
+
+    /** Formatea un importe en céntimos como unidades con dos decimales. */
+    private static String formatCents(long cents) {
+        return String.format("%d.%02d", cents / 100, Math.abs(cents % 100));
+    }
 }
@@ -0,0 +1,350 @@
+package com.GranjaLaHerraduraFeliz.controller;
+
+import com.GranjaLaHerraduraFeliz.Exception.AnimalNotAvailableException;
+import com.GranjaLaHerraduraFeliz.Exception.RentalNotFoundException;
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.service.AnimalService;
+import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * API HTTP/JSON sobre los servicios, para que varios mostradores y quioscos
+ * trabajen a la vez en lugar de compartir la consola.
+ * <p>
+ * Usa el servidor HTTP del JDK ({@code com.sun.net.httpserver}) con un hilo
+ * virtual por petición: una petición que espera un cerrojo del animal o una
+ * conexión JDBC no ocupa un hilo del sistema, así que no hace falta dimensionar
+ * un pool. La concurrencia la resuelven los servicios (cerrojos por animal en
+ * {@link RentalService}); los repositorios deben ser seguros para varios hilos.
+ * <p>
+ * Rutas:
+ * <ul>
+ *     <li>{@code GET /animals[?status=AVAILABLE][&type=PIG]}: animales, filtrados por estado y tipo.</li>
+ *     <li>{@code POST /animals} {@code {"name": "Lola", "type": "HORSE"}}: registra un animal.</li>
+ *     <li>{@code GET /customers?q=gar[&limit=20]}: busca clientes por nombre (como mucho
+ *     {@value #MAX_SEARCH} resultados).</li>
+ *     <li>{@code POST /customers} {@code {"fullName": "...", "force": false}}: registra un cliente;
+ *     si hay posibles duplicados y no se indica {@code force}, responde 409 con los candidatos.</li>
+ *     <li>{@code GET /rentals[?after=0][&limit=100]}: alquileres por páginas de ID.</li>
+ *     <li>{@code POST /rentals} {@code {"animalId": 1, "customerId": 2, "type": "HOURLY"}}: inicia un alquiler.</li>
+ *     <li>{@code POST /rentals/{id}/finish}: finaliza un alquiler.</li>
+ * </ul>
+ * Los errores se devuelven como {@code {"error": "..."}}: 400 por datos inválidos,
+ * 404 si el alquiler no existe, 409 si el animal no está disponible y 500 en otro caso.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class HttpApiServer implements AutoCloseable {
+
+    // Logger para trazar el servidor y los errores inesperados.
+    private static final Logger log = LoggerFactory.getLogger(HttpApiServer.class);
+
+    static {
+        // El servidor del JDK escribe cabeceras y cuerpo por separado: con Nagle y el ACK
+        // retardado del cliente, cada respuesta pequeña esperaría ~40 ms. Se lee al crear
+        // el primer servidor, así que basta fijarla antes (salvo que se indique otra cosa).
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private static final int DEFAULT_PAGE = 100;
+    private static final int MAX_PAGE = 1_000;
+    private static final int DEFAULT_SEARCH = 20;
+    private static final int MAX_SEARCH = 100;
+
+    private final AnimalService animalService;
+    private final CustomerService customerService;
+    private final RentalService rentalService;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CountDownLatch stopped = new CountDownLatch(1);
+
+    /**
+     * Crea el servidor y reserva el puerto; las peticiones se atienden tras {@link #start()}.
+     *
+     * @param animalService   Servicio de animales.
+     * @param customerService Servicio de clientes.
+     * @param rentalService   Servicio de alquileres.
+     * @param port            Puerto TCP ({@code 0} elige uno libre, ver {@link #port()}).
+     * @throws IOException Si no se puede abrir el puerto.
+     */
+    public HttpApiServer(AnimalService animalService, CustomerService customerService,
+                         RentalService rentalService, int port) throws IOException {
+        this.animalService = animalService;
+        this.customerService = customerService;
+        this.rentalService = rentalService;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/animals", exchange -> handle(exchange, this::animals));
+        server.createContext("/customers", exchange -> handle(exchange, this::customers));
+        server.createContext("/rentals", exchange -> handle(exchange, this::rentals));
+        server.setExecutor(executor);
+    }
+
+    /** Empieza a atender peticiones. */
+    public void start() {
+        server.start();
+        log.info("component=HttpApiServer event=started port={}", port());
+    }
+
+    /** @return Puerto en el que escucha el servidor. */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Bloquea el hilo actual hasta que el servidor se cierre.
+     *
+     * @throws InterruptedException Si se interrumpe la espera.
+     */
+    public void awaitStop() throws InterruptedException {
+        stopped.await();
+    }
+
+    /** Deja de aceptar conexiones, espera como mucho un segundo a las peticiones en curso y libera el puerto. */
+    @Override
+    public void close() {
+        if (stopped.getCount() == 0) {
+            return;
+        }
+        server.stop(1);
+        executor.close();
+        stopped.countDown();
+        log.info("component=HttpApiServer event=stopped");
+    }
+
+    private Response animals(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.equals("/animals")) {
+            return Response.error(404, "Ruta no encontrada: " + path);
+        }
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                Map<String, String> query = query(exchange);
+                AnimalStatus status = query.containsKey("status") ? parseEnum(AnimalStatus.class, query.get("status")) : null;
+                AnimalType type = query.containsKey("type") ? parseEnum(AnimalType.class, query.get("type")) : null;
+                List<Animal> animals;
+                if (status == AnimalStatus.AVAILABLE) {
+                    // Los disponibles salen de la vista de disponibilidad, sin recorrer todo el repositorio
+                    animals = type == null ? animalService.listAvailableAnimals() : animalService.listAvailable(type);
+                } else {
+                    animals = animalService.listAllAnimals().stream()
+                            .filter(animal -> status == null || animal.getStatus() == status)
+                            .filter(animal -> type == null || animal.getType() == type)
+                            .toList();
+                }
+                return Response.ok(Json.array(new StringBuilder(), animals, Json::animal));
+            }
+            case "POST" -> {
+                Map<String, Object> body = body(exchange);
+                var animal = animalService.registerAnimal(requiredString(body, "name"),
+                        parseEnum(AnimalType.class, requiredString(body, "type")));
+                return new Response(201, Json.animal(new StringBuilder(), animal));
+            }
+            default -> {
+                return Response.methodNotAllowed(exchange);
+            }
+        }
+    }
+
+    private Response customers(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (!path.equals("/customers")) {
+            return Response.error(404, "Ruta no encontrada: " + path);
+        }
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                Map<String, String> query = query(exchange);
+                String text = query.get("q");
+                if (text == null || text.isBlank()) {
+                    throw new IllegalArgumentException("Falta el parámetro 'q' con el nombre a buscar");
+                }
+                int limit = intParam(query, "limit", DEFAULT_SEARCH);
+                if (limit <= 0) {
+                    throw new IllegalArgumentException("El parámetro 'limit' debe ser positivo: " + limit);
+                }
+                var customers = customerService.searchByName(text, Math.min(limit, MAX_SEARCH));
+                return Response.ok(Json.array(new StringBuilder(), customers, Json::customer));
+            }
+            case "POST" -> {
+                Map<String, Object> body = body(exchange);
+                String fullName = requiredString(body, "fullName");
+                var registration = customerService.registerCustomerChecked(fullName,
+                        Boolean.TRUE.equals(body.get("force")));
+                if (!registration.registered()) {
+                    StringBuilder out = new StringBuilder("{\"error\":");
+                    Json.quote(out, "Posibles clientes ya registrados; reenviar con \"force\": true para registrar");
+                    out.append(",\"possibleDuplicates\":");
+                    Json.array(out, registration.possibleDuplicates(), Json::customer);
+                    return new Response(409, out.append('}'));
+                }
+                return new Response(201, Json.customer(new StringBuilder(), registration.customer()));
+            }
+            default -> {
+                return Response.methodNotAllowed(exchange);
+            }
+        }
+    }
+
+    private Response rentals(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        if (path.equals("/rentals")) {
+            switch (method) {
+                case "GET" -> {
+                    Map<String, String> query = query(exchange);
+                    int limit = Math.min(intParam(query, "limit", DEFAULT_PAGE), MAX_PAGE);
+                    var rentals = rentalService.listRentalsPage(intParam(query, "after", 0), limit);
+                    return Response.ok(Json.array(new StringBuilder(), rentals, Json::rental));
+                }
+                case "POST" -> {
+                    Map<String, Object> body = body(exchange);
+                    var rental = rentalService.startRental(requiredInt(body, "animalId"),
+                            requiredInt(body, "customerId"),
+                            parseEnum(RentalType.class, requiredString(body, "type")));
+                    return new Response(201, Json.rental(new StringBuilder(), rental));
+                }
+                default -> {
+                    return Response.methodNotAllowed(exchange);
+                }
+            }
+        }
+        // /rentals/{id}/finish
+        String[] parts = path.split("/");
+        if (parts.length == 4 && parts[3].equals("finish")) {
+            if (!method.equals("POST")) {
+                return Response.methodNotAllowed(exchange);
+            }
+            int rentalId = parseInt(parts[2], "id de alquiler");
+            return Response.ok(Json.rental(new StringBuilder(), rentalService.finishRental(rentalId)));
+        }
+        return Response.error(404, "Ruta no encontrada: " + path);
+    }
+
+    /** Ejecuta la ruta y traduce sus excepciones a códigos HTTP. */
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            response = route.apply(exchange);
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (RentalNotFoundException e) {
+            response = Response.error(404, e.getMessage());
+        } catch (AnimalNotAvailableException e) {
+            response = Response.error(409, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("component=HttpApiServer event=requestFailed method={} path={}",
+                    exchange.getRequestMethod(), exchange.getRequestURI().getPath(), e);
+            response = Response.error(500, "Error interno");
+        }
+        byte[] bytes = response.body().toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, Object> body(HttpExchange exchange) {
+        try (InputStream in = exchange.getRequestBody()) {
+            return Json.parseObject(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("No se pudo leer el cuerpo de la petición: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String requiredString(Map<String, Object> body, String field) {
+        if (!(body.get(field) instanceof String value) || value.isBlank()) {
+            throw new IllegalArgumentException("Falta el campo de texto '" + field + "'");
+        }
+        return value;
+    }
+
+    private static int requiredInt(Map<String, Object> body, String field) {
+        if (!(body.get(field) instanceof Long value) || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Falta el campo entero '" + field + "'");
+        }
+        return value.intValue();
+    }
+
+    private static int intParam(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        return value == null ? defaultValue : parseInt(value, name);
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor no numérico para " + name + ": " + value);
+        }
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor inválido para " + type.getSimpleName() + ": " + value);
+        }
+    }
+
+    /** Lógica de una ruta; las excepciones se traducen en {@link #handle}. */
+    @FunctionalInterface
+    private interface Route {
+        Response apply(HttpExchange exchange);
+    }
+
+    /** Respuesta con su código HTTP y cuerpo JSON. */
+    private record Response(int status, CharSequence body) {
+
+        static Response ok(CharSequence body) {
+            return new Response(200, body);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Json.quote(new StringBuilder("{\"error\":"), message).append('}'));
+        }
+
+        static Response methodNotAllowed(HttpExchange exchange) {
+            return error(405, "Método no admitido: " + exchange.getRequestMethod());
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.GranjaLaHerraduraFeliz.controller;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Lectura y escritura del JSON que usa {@link HttpApiServer}.
+ * <p>
+ * Las peticiones son objetos planos ({@code {"name": "Lola", "type": "HORSE"}}), así
+ * que basta un analizador de cadenas, números, booleanos y {@code null}; los
+ * objetos o arreglos anidados se rechazan. Las respuestas se escriben campo a
+ * campo sin reflexión ni dependencias externas.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Analiza un objeto JSON plano.
+     *
+     * @param text Cuerpo de la petición.
+     * @return Campos del objeto: {@link String}, {@link Long}, {@link Double},
+     *         {@link Boolean} o {@code null}.
+     * @throws IllegalArgumentException Si el texto no es un objeto plano válido.
+     */
+    static Map<String, Object> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, Object> fields = parser.object();
+        parser.skipWhitespace();
+        if (parser.pos != text.length()) {
+            throw parser.error("contenido después del objeto");
+        }
+        return fields;
+    }
+
+    /** Agrega {@code value} entre comillas y con los caracteres especiales escapados. */
+    static StringBuilder quote(StringBuilder out, String value) {
+        if (value == null) {
+            return out.append("null");
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        return out.append('"');
+    }
+
+    static StringBuilder animal(StringBuilder out, Animal animal) {
+        out.append("{\"id\":").append(animal.getId()).append(",\"name\":");
+        quote(out, animal.getName());
+        return out.append(",\"type\":\"").append(animal.getType())
+                .append("\",\"status\":\"").append(animal.getStatus()).append("\"}");
+    }
+
+    static StringBuilder customer(StringBuilder out, Customer customer) {
+        out.append("{\"id\":").append(customer.getId()).append(",\"fullName\":");
+        quote(out, customer.getFullName());
+        return out.append('}');
+    }
+
+    static StringBuilder rental(StringBuilder out, Rental rental) {
+        out.append("{\"id\":").append(rental.getId()).append(",\"animal\":");
+        animal(out, rental.getAnimal());
+        out.append(",\"customer\":");
+        if (rental.getCustomer() == null) {
+            out.append("null");
+        } else {
+            customer(out, rental.getCustomer());
+        }
+        out.append(",\"type\":\"").append(rental.getRentalType()).append("\",\"startTime\":");
+        quote(out, rental.getStartTime() == null ? null : rental.getStartTime().toString());
+        out.append(",\"endTime\":");
+        quote(out, rental.getEndTime() == null ? null : rental.getEndTime().toString());
+        return out.append('}');
+    }
+
+    /** Agrega un arreglo con cada elemento escrito por {@code writer}. */
+    static <T> StringBuilder array(StringBuilder out, Collection<T> items, BiConsumer<StringBuilder, T> writer) {
+        out.append('[');
+        boolean first = true;
+        for (T item : items) {
+            if (!first) {
+                out.append(',');
+            }
+            writer.accept(out, item);
+            first = false;
+        }
+        return out.append(']');
+    }
+
+    /** Analizador recursivo descendente limitado a un objeto de valores simples. */
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> object() {
+            skipWhitespace();
+            expect('{');
+            Map<String, Object> fields = new HashMap<>();
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return fields;
+            }
+            while (true) {
+                skipWhitespace();
+                String name = string();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                fields.put(name, value());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return fields;
+                }
+                if (c != ',') {
+                    throw error("se esperaba ',' o '}'");
+                }
+            }
+        }
+
+        private Object value() {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                return number();
+            }
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            throw error("valor no admitido");
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case '"', '\\', '/' -> value.append(escaped);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("escape \\u incompleto");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("escape \\u inválido");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("escape inválido");
+                }
+            }
+        }
+
+        private Object number() {
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            try {
+                return literal.matches("-?\\d+") ? (Object) Long.parseLong(literal) : (Object) Double.parseDouble(literal);
+            } catch (NumberFormatException e) {
+                throw error("número inválido");
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private char peek() {
+            if (pos >= text.length()) {
+                throw error("fin inesperado");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                pos--;
+                throw error("se esperaba '" + expected + "'");
+            }
+        }
+
+        IllegalArgumentException error(String reason) {
+            return new IllegalArgumentException("JSON inválido en la posición " + pos + ": " + reason);
+        }
+    }
+}
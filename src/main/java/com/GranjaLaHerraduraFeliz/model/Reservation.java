@@ -0,0 +1,146 @@
+package com.GranjaLaHerraduraFeliz.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Representa una reserva anticipada de un animal para una franja futura.
+ * <p>
+ * A diferencia de un {@link Rental}, que empieza en el momento en que se crea,
+ * una reserva ocupa la franja {@code [startTime, endTime)} indicada por el cliente.
+ * Dos reservas vigentes del mismo animal nunca se solapan.
+ * <p>
+ * Una reserva cancelada se conserva (para el historial) pero deja de ocupar su franja.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class Reservation {
+
+    /** Identificador único de la reserva. */
+    int id;
+
+    /** Animal reservado. */
+    Animal animal;
+
+    /** Cliente que hace la reserva. */
+    Customer customer;
+
+    /** Inicio de la franja reservada (inclusive). */
+    LocalDateTime startTime;
+
+    /** Fin de la franja reservada (exclusivo). */
+    LocalDateTime endTime;
+
+    /** Tipo de alquiler previsto. */
+    RentalType rentalType;
+
+    /** {@code true} si la reserva fue cancelada. */
+    boolean cancelled;
+
+    /** Constructor vacío. */
+    public Reservation() {
+    }
+
+    /**
+     * Crea una reserva vigente con todos sus datos.
+     *
+     * @param id         ID de la reserva.
+     * @param animal     Animal reservado.
+     * @param customer   Cliente que reserva.
+     * @param startTime  Inicio de la franja (inclusive).
+     * @param endTime    Fin de la franja (exclusivo).
+     * @param rentalType Tipo de alquiler previsto.
+     */
+    public Reservation(int id, Animal animal, Customer customer,
+                       LocalDateTime startTime, LocalDateTime endTime, RentalType rentalType) {
+        this.id = id;
+        this.animal = animal;
+        this.customer = customer;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.rentalType = rentalType;
+    }
+
+    /** @return ID de la reserva. */
+    public int getId() {
+        return id;
+    }
+
+    /** @param id Nuevo ID de la reserva. */
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    /** @return Animal reservado. */
+    public Animal getAnimal() {
+        return animal;
+    }
+
+    /** @param animal Animal reservado. */
+    public void setAnimal(Animal animal) {
+        this.animal = animal;
+    }
+
+    /** @return Cliente que hace la reserva. */
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    /** @param customer Cliente que hace la reserva. */
+    public void setCustomer(Customer customer) {
+        this.customer = customer;
+    }
+
+    /** @return Inicio de la franja (inclusive). */
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    /** @param startTime Inicio de la franja (inclusive). */
+    public void setStartTime(LocalDateTime startTime) {
+        this.startTime = startTime;
+    }
+
+    /** @return Fin de la franja (exclusivo). */
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    /** @param endTime Fin de la franja (exclusivo). */
+    public void setEndTime(LocalDateTime endTime) {
+        this.endTime = endTime;
+    }
+
+    /** @return Tipo de alquiler previsto. */
+    public RentalType getRentalType() {
+        return rentalType;
+    }
+
+    /** @param rentalType Tipo de alquiler previsto. */
+    public void setRentalType(RentalType rentalType) {
+        this.rentalType = rentalType;
+    }
+
+    /** @return {@code true} si la reserva fue cancelada. */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** @param cancelled Marca la reserva como cancelada o vigente. */
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public String toString() {
+        return "Reservation{" +
+                "id=" + id +
+                ", animal=" + animal +
+                ", customer=" + customer +
+                ", startTime=" + startTime +
+                ", endTime=" + endTime +
+                ", rentalType=" + rentalType +
+                ", cancelled=" + cancelled +
+                '}';
+    }
+}
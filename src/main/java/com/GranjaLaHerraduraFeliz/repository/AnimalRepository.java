@@ -3,7 +3,9 @@ package com.GranjaLaHerraduraFeliz.repository;
 import com.GranjaLaHerraduraFeliz.model.Animal;
 import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio encargado de gestionar la persistencia de objetos {@link Animal}.
@@ -39,6 +41,24 @@ public interface AnimalRepository {
      */
     Animal save(Animal animal);
 
+    /**
+     * Guarda varios animales en una sola operación.
+     * <p>
+     * La implementación por defecto llama a {@link #save} por cada elemento; las
+     * implementaciones que pueden agrupar escrituras (por ejemplo, lotes JDBC o un
+     * único {@code fsync} del journal) la sobrescriben.
+     *
+     * @param animals Elementos a guardar.
+     * @return Los elementos guardados, en el mismo orden y con ID asignado.
+     */
+    default List<Animal> saveAll(List<Animal> animals) {
+        List<Animal> saved = new ArrayList<>(animals.size());
+        for (Animal item : animals) {
+            saved.add(save(item));
+        }
+        return saved;
+    }
+
     /**
      * Busca un animal por su identificador único.
      *
@@ -49,11 +69,48 @@ public interface AnimalRepository {
 
     /**
      * Obtiene una lista con todos los animales almacenados en el repositorio.
+     * <p>
+     * Es una conveniencia que copia todo el repositorio; para recorrer
+     * volúmenes grandes conviene {@link #stream()} o {@link #findPage(int, int)}.
      *
      * @return Lista completa de {@link Animal}.
      */
     List<Animal> findAll();
 
+    /**
+     * Obtiene una página de animales ordenada por ID (paginación por cursor).
+     * <p>
+     * Para recorrer el repositorio se empieza con {@code afterId = 0} y en cada
+     * llamada se pasa el ID del último elemento recibido, hasta obtener una página
+     * con menos de {@code limit} elementos.
+     *
+     * @param afterId Cursor: solo se devuelven animales con ID mayor.
+     * @param limit   Tamaño máximo de la página (positivo).
+     * @return Animales ordenados por ID (como mucho {@code limit}).
+     * @throws IllegalArgumentException Si {@code limit} no es positivo.
+     */
+    List<Animal> findPage(int afterId, int limit);
+
+    /**
+     * Recorre perezosamente todos los animales en orden de ID, una página a la vez
+     * (ver {@link Paging}), sin copiar el repositorio completo.
+     *
+     * @return Flujo de animales ordenado por ID.
+     */
+    default Stream<Animal> stream() {
+        return Paging.stream(this::findPage, Animal::getId);
+    }
+
+    /**
+     * Mayor ID guardado, con el que un decorador puede asignar IDs por su cuenta
+     * (ver {@code JournaledAnimalRepository}). Por defecto recorre el repositorio.
+     *
+     * @return Mayor ID, o {@code 0} si está vacío.
+     */
+    default int maxId() {
+        return stream().mapToInt(Animal::getId).max().orElse(0);
+    }
+
     /**
      * Busca animales cuyo estado sea igual al proporcionado.
      * <p>
@@ -0,0 +1,141 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.util.StripedLocks;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Implementación en memoria y segura para hilos del repositorio de {@link Animal}.
+ * <p>
+ * Pensada para varios puestos de atención trabajando a la vez:
+ * <ul>
+ *     <li>Las lecturas ({@code findById}, {@code findAll}, {@code findByStatus})
+ *     no usan cerrojos: se apoyan en {@link ConcurrentHashMap}.</li>
+ *     <li>Los IDs se generan con un {@link AtomicInteger}, por lo que nunca se
+ *     entregan IDs duplicados.</li>
+ *     <li>Las escrituras se serializan solo por ID mediante {@link StripedLocks}:
+ *     guardar dos animales distintos no compite por el mismo cerrojo.</li>
+ * </ul>
+ *
+ * Mantiene el mismo índice por estado que {@link IndexedAnimalRepository}.
+ * Durante un cambio de estado, un lector concurrente puede ver el animal
+ * brevemente en ambas cubetas o en ninguna; cada cubeta es, en sí misma, consistente.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class ConcurrentAnimalRepository implements AnimalRepository {
+
+    /** Índice primario: ID del animal → animal. */
+    private final ConcurrentHashMap<Integer, Animal> animals = new ConcurrentHashMap<>();
+
+    /** Índice secundario: estado → animales en ese estado. */
+    private final Map<AnimalStatus, ConcurrentHashMap<Integer, Animal>> animalsByStatus =
+            new EnumMap<>(AnimalStatus.class);
+
+    /** Último estado indexado de cada animal; solo se modifica bajo el cerrojo de su ID. */
+    private final ConcurrentHashMap<Integer, AnimalStatus> indexedStatus = new ConcurrentHashMap<>();
+
+    /** Cerrojos por ID que serializan las escrituras de un mismo animal. */
+    private final StripedLocks locks = new StripedLocks();
+
+    /** Generador atómico de IDs. */
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * Crea un repositorio vacío con una cubeta por cada {@link AnimalStatus}.
+     */
+    public ConcurrentAnimalRepository() {
+        for (AnimalStatus status : AnimalStatus.values()) {
+            animalsByStatus.put(status, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Guarda un animal de forma atómica respecto a otras escrituras del mismo ID.
+     * <p>
+     * Sigue las mismas reglas que {@link InMemoryAnimalRepository#save(Animal)}.
+     *
+     * @param animal Animal a guardar o actualizar.
+     * @return El animal guardado.
+     */
+    @Override
+    public Animal save(Animal animal) {
+        if (animal.getId() == 0) {
+            animal.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = animal.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+
+        int id = animal.getId();
+        Lock lock = locks.lockFor(id);
+        lock.lock();
+        try {
+            animals.put(id, animal);
+
+            AnimalStatus status = animal.getStatus();
+            AnimalStatus previous = status == null ? indexedStatus.remove(id) : indexedStatus.put(id, status);
+            if (previous != null && previous != status) {
+                animalsByStatus.get(previous).remove(id);
+            }
+            if (status != null) {
+                animalsByStatus.get(status).put(id, animal);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return animal;
+    }
+
+    /**
+     * Busca un animal por su ID sin bloquear.
+     *
+     * @param id Identificador del animal.
+     * @return El animal encontrado o {@code null} si no existe.
+     */
+    @Override
+    public Animal findById(int id) {
+        return animals.get(id);
+    }
+
+    /**
+     * Obtiene una copia de todos los animales registrados.
+     *
+     * @return Lista de todos los animales almacenados.
+     */
+    @Override
+    public List<Animal> findAll() {
+        return new ArrayList<>(animals.values());
+    }
+
+    /**
+     * Página ordenada por ID, sin bloquear (ver {@link Paging#page}).
+     */
+    @Override
+    public List<Animal> findPage(int afterId, int limit) {
+        return Paging.page(afterId, limit, animals::get, action -> animals.keySet().forEach(action::accept));
+    }
+
+    /**
+     * Devuelve los animales cuyo estado coincide con el solicitado, leyendo solo su cubeta.
+     *
+     * @param status Estado a filtrar.
+     * @return Lista de animales que cumplen el criterio.
+     */
+    @Override
+    public List<Animal> findByStatus(AnimalStatus status) {
+        if (status == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(animalsByStatus.get(status).values());
+    }
+}
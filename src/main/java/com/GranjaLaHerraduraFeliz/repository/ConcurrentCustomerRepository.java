@@ -0,0 +1,98 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación en memoria y segura para hilos del repositorio de {@link Customer}.
+ * <p>
+ * Los clientes se guardan en un {@link ConcurrentHashMap}: las lecturas no
+ * bloquean y las escrituras solo compiten cuando caen en la misma cubeta interna
+ * del mapa. El único índice secundario es el {@link CustomerNameIndex}, que se
+ * actualiza dentro del {@code compute} del mapa para que dos guardados del mismo
+ * cliente no lo dejen desalineado. Los IDs se generan con un {@link AtomicInteger}.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class ConcurrentCustomerRepository implements CustomerRepository {
+
+    /** Clientes registrados, indexados por ID. */
+    private final ConcurrentHashMap<Integer, Customer> customers = new ConcurrentHashMap<>();
+
+    /** Índice de búsqueda por nombre. */
+    private final CustomerNameIndex nameIndex = new CustomerNameIndex();
+
+    /** Generador atómico de IDs. */
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * Guarda un cliente siguiendo las reglas de {@link InMemoryCustomerRepository#save(Customer)}.
+     *
+     * @param customer Cliente a registrar o actualizar.
+     * @return El cliente guardado.
+     */
+    @Override
+    public Customer save(Customer customer) {
+        if (customer.getId() == 0) {
+            customer.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = customer.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+        customers.compute(customer.getId(), (id, previous) -> {
+            nameIndex.put(id, customer.getFullName());
+            return customer;
+        });
+        return customer;
+    }
+
+    /**
+     * Busca un cliente por su ID sin bloquear.
+     *
+     * @param id Identificador único del cliente.
+     * @return El cliente encontrado o {@code null} si no existe.
+     */
+    @Override
+    public Customer findById(int id) {
+        return customers.get(id);
+    }
+
+    /**
+     * Obtiene una copia de todos los clientes registrados.
+     *
+     * @return Lista de {@link Customer}.
+     */
+    @Override
+    public List<Customer> findAll() {
+        return new ArrayList<>(customers.values());
+    }
+
+    /**
+     * Página ordenada por ID, sin bloquear (ver {@link Paging#page}).
+     */
+    @Override
+    public List<Customer> findPage(int afterId, int limit) {
+        return Paging.page(afterId, limit, customers::get, action -> customers.keySet().forEach(action::accept));
+    }
+
+    /**
+     * Búsqueda por nombre sobre el índice (ver {@link CustomerNameIndex#search}).
+     */
+    @Override
+    public List<Customer> searchByName(String query, int limit) {
+        int[] ids = nameIndex.search(query, limit);
+        List<Customer> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Customer customer = customers.get(id);
+            if (customer != null) {
+                result.add(customer);
+            }
+        }
+        return result;
+    }
+}
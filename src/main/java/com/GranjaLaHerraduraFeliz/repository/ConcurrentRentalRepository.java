@@ -0,0 +1,236 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.util.StripedLocks;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Implementación en memoria y segura para hilos del repositorio de {@link Rental}.
+ * <p>
+ * Ofrece los mismos índices que {@link InMemoryRentalRepository} (activos por
+ * animal, historial por cliente y orden por {@code startTime}), pero preparada
+ * para escrituras concurrentes:
+ * <ul>
+ *     <li>Lecturas sin cerrojos sobre {@link ConcurrentHashMap} y
+ *     {@link ConcurrentSkipListMap}.</li>
+ *     <li>IDs generados con un {@link AtomicInteger}.</li>
+ *     <li>Escrituras serializadas solo por ID de alquiler mediante {@link StripedLocks};
+ *     las cubetas compartidas (por animal o cliente) se actualizan con operaciones
+ *     atómicas del propio mapa.</li>
+ * </ul>
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class ConcurrentRentalRepository implements RentalRepository {
+
+    /** Alquileres indexados por ID. */
+    private final ConcurrentHashMap<Integer, Rental> rentals = new ConcurrentHashMap<>();
+
+    /** ID de animal → alquileres en curso (por ID de alquiler). */
+    private final ConcurrentHashMap<Integer, Map<Integer, Rental>> activeByAnimal = new ConcurrentHashMap<>();
+
+    /** ID de cliente → historial de alquileres (por ID de alquiler). */
+    private final ConcurrentHashMap<Integer, Map<Integer, Rental>> byCustomer = new ConcurrentHashMap<>();
+
+    /** Alquileres ordenados por hora de inicio; el ID desempata inicios simultáneos. */
+    private final ConcurrentSkipListMap<StartKey, Rental> byStartTime = new ConcurrentSkipListMap<>();
+
+    /** Claves con las que cada alquiler quedó indexado; solo se modifican bajo el cerrojo de su ID. */
+    private final ConcurrentHashMap<Integer, IndexKeys> indexedKeys = new ConcurrentHashMap<>();
+
+    /** Cerrojos por ID de alquiler. */
+    private final StripedLocks locks = new StripedLocks();
+
+    /** Generador atómico de IDs. */
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * Guarda un alquiler y actualiza sus índices de forma atómica respecto a
+     * otras escrituras del mismo ID. Finalizar un alquiler solo lo quita de los
+     * activos: el historial del cliente y el orden por inicio no se tocan.
+     *
+     * @param rental Alquiler a guardar o actualizar.
+     * @return El alquiler guardado.
+     */
+    @Override
+    public Rental save(Rental rental) {
+        if (rental.getId() == 0) {
+            rental.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = rental.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+
+        int id = rental.getId();
+        Lock lock = locks.lockFor(id);
+        lock.lock();
+        try {
+            Rental replaced = rentals.put(id, rental);
+            IndexKeys current = IndexKeys.of(rental);
+            IndexKeys previous = indexedKeys.put(id, current);
+            // Como en InMemoryRentalRepository, solo se tocan los índices cuya clave cambió;
+            // si cambió la instancia, las cubetas la reemplazan por ID sin quitarla antes
+            boolean sameInstance = replaced == rental;
+
+            boolean wasActive = previous != null && previous.active();
+            boolean sameAnimal = previous != null && previous.animalId() == current.animalId();
+            if (wasActive && (!current.active() || !sameAnimal)) {
+                removeFrom(activeByAnimal, previous.animalId(), id);
+            }
+            if (current.active() && (!wasActive || !sameAnimal || !sameInstance)) {
+                addTo(activeByAnimal, current.animalId(), rental);
+            }
+
+            boolean sameCustomer = previous != null && previous.customerId() == current.customerId();
+            if (previous != null && !sameCustomer) {
+                removeFrom(byCustomer, previous.customerId(), id);
+            }
+            if (!sameCustomer || !sameInstance) {
+                addTo(byCustomer, current.customerId(), rental);
+            }
+
+            boolean sameStart = previous != null && Objects.equals(previous.startTime(), current.startTime());
+            if (previous != null && previous.startTime() != null && !sameStart) {
+                byStartTime.remove(new StartKey(previous.startTime(), id));
+            }
+            if (current.startTime() != null && (!sameStart || !sameInstance)) {
+                byStartTime.put(new StartKey(current.startTime(), id), rental);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return rental;
+    }
+
+    /**
+     * Busca un alquiler por su ID sin bloquear.
+     *
+     * @param id Identificador del alquiler.
+     * @return El alquiler encontrado o {@code null} si no existe.
+     */
+    @Override
+    public Rental findById(int id) {
+        return rentals.get(id);
+    }
+
+    /**
+     * Obtiene una copia de todos los alquileres.
+     *
+     * @return Lista completa de alquileres.
+     */
+    @Override
+    public List<Rental> findAll() {
+        return new ArrayList<>(rentals.values());
+    }
+
+    /**
+     * Página ordenada por ID, sin bloquear (ver {@link Paging#page}).
+     */
+    @Override
+    public List<Rental> findPage(int afterId, int limit) {
+        return Paging.page(afterId, limit, rentals::get, action -> rentals.keySet().forEach(action::accept));
+    }
+
+    /**
+     * Busca alquileres activos del animal usando el índice de activos.
+     *
+     * @param animal Animal cuyo alquiler activo se quiere buscar.
+     * @return Lista de alquileres en curso para el animal indicado.
+     */
+    @Override
+    public List<Rental> findActiveByAnimal(Animal animal) {
+        List<Rental> result = new ArrayList<>();
+        Map<Integer, Rental> active = activeByAnimal.get(animal.getId());
+        if (active != null) {
+            for (Rental rental : active.values()) {
+                if (rental.getEndTime() == null) {
+                    result.add(rental);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene el historial de un cliente ordenado por ID de alquiler.
+     *
+     * @param customerId ID del cliente.
+     * @return Lista de alquileres del cliente.
+     */
+    @Override
+    public List<Rental> findByCustomer(int customerId) {
+        Map<Integer, Rental> history = byCustomer.get(customerId);
+        if (history == null) {
+            return new ArrayList<>();
+        }
+        List<Rental> result = new ArrayList<>(history.values());
+        result.sort(Comparator.comparingInt(Rental::getId));
+        return result;
+    }
+
+    /**
+     * Obtiene los alquileres iniciados en {@code [from, to)} ordenados por hora de inicio.
+     *
+     * @param from Inicio del rango (inclusive).
+     * @param to   Fin del rango (exclusivo).
+     * @return Lista de alquileres del rango.
+     */
+    @Override
+    public List<Rental> findStartedBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(byStartTime.subMap(
+                new StartKey(from, Integer.MIN_VALUE), true,
+                new StartKey(to, Integer.MIN_VALUE), false).values());
+    }
+
+    /** Agrega el alquiler a la cubeta de forma atómica (crea la cubeta si hace falta). */
+    private static void addTo(ConcurrentHashMap<Integer, Map<Integer, Rental>> index, int key, Rental rental) {
+        index.compute(key, (k, bucket) -> {
+            Map<Integer, Rental> target = bucket == null ? new ConcurrentHashMap<>() : bucket;
+            target.put(rental.getId(), rental);
+            return target;
+        });
+    }
+
+    /** Quita el alquiler de la cubeta y la elimina si queda vacía, de forma atómica. */
+    private static void removeFrom(ConcurrentHashMap<Integer, Map<Integer, Rental>> index, int key, int rentalId) {
+        index.computeIfPresent(key, (k, bucket) -> {
+            bucket.remove(rentalId);
+            return bucket.isEmpty() ? null : bucket;
+        });
+    }
+
+    /** Clave del índice temporal: hora de inicio y, para desempatar, ID del alquiler. */
+    private record StartKey(LocalDateTime startTime, int rentalId) implements Comparable<StartKey> {
+
+        @Override
+        public int compareTo(StartKey other) {
+            int byTime = startTime.compareTo(other.startTime);
+            return byTime != 0 ? byTime : Integer.compare(rentalId, other.rentalId);
+        }
+    }
+
+    /** Claves de indexación de un alquiler en el momento en que se guardó. */
+    private record IndexKeys(int animalId, int customerId, LocalDateTime startTime, boolean active) {
+
+        static IndexKeys of(Rental rental) {
+            int animalId = rental.getAnimal() == null ? 0 : rental.getAnimal().getId();
+            int customerId = rental.getCustomer() == null ? 0 : rental.getCustomer().getId();
+            return new IndexKeys(animalId, customerId, rental.getStartTime(), rental.getEndTime() == null);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación en memoria y segura para hilos del repositorio de {@link Reservation}.
+ * <p>
+ * Igual que {@link ConcurrentCustomerRepository}: un {@link ConcurrentHashMap}
+ * por ID y un {@link AtomicInteger} para generar IDs.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class ConcurrentReservationRepository implements ReservationRepository {
+
+    /** Reservas indexadas por ID. */
+    private final ConcurrentHashMap<Integer, Reservation> reservations = new ConcurrentHashMap<>();
+
+    /** Generador atómico de IDs. */
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        if (reservation.getId() == 0) {
+            reservation.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = reservation.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+        reservations.put(reservation.getId(), reservation);
+        return reservation;
+    }
+
+    @Override
+    public Reservation findById(int id) {
+        return reservations.get(id);
+    }
+
+    /**
+     * Página ordenada por ID, sin bloquear (ver {@link Paging#page}).
+     */
+    @Override
+    public List<Reservation> findPage(int afterId, int limit) {
+        return Paging.page(afterId, limit, reservations::get, action -> reservations.keySet().forEach(action::accept));
+    }
+}
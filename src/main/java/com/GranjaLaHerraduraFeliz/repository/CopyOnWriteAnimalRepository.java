@@ -0,0 +1,195 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implementación en memoria del repositorio de {@link Animal} que publica
+ * versiones inmutables de su contenido ("copy-on-write" con compartición estructural).
+ * <p>
+ * El estado completo (índice por ID e índice por estado) es una {@link Snapshot}
+ * inmutable construida sobre {@link PersistentIntMap}. Cada {@code save} crea la
+ * versión siguiente copiando solo los nodos afectados y la publica con un
+ * {@code compareAndSet}; si otra escritura ganó, se reintenta sobre la versión nueva.
+ * <p>
+ * Las lecturas no usan cerrojos ni copian: {@link #findAll()} y
+ * {@link #findByStatus(AnimalStatus)} devuelven en tiempo constante vistas
+ * inmutables, ordenadas por ID, de la versión vigente. Para hacer varias consultas
+ * sobre el mismo estado (por ejemplo, un informe), conviene tomar
+ * {@link #snapshot()} una vez y consultar sobre ella.
+ * <p>
+ * Como en los demás repositorios en memoria, los animales se guardan por
+ * referencia: la versión fija qué animales hay y en qué cubeta de estado fueron
+ * guardados, no los campos de cada {@link Animal}.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class CopyOnWriteAnimalRepository implements AnimalRepository {
+
+    /** Versión vigente, reemplazada atómicamente en cada escritura. */
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+
+    /** Generador atómico de IDs. */
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * Guarda un animal publicando una nueva versión del repositorio.
+     * <p>
+     * Sigue las mismas reglas que {@link InMemoryAnimalRepository#save(Animal)}.
+     *
+     * @param animal Animal a guardar o actualizar.
+     * @return El animal guardado.
+     */
+    @Override
+    public Animal save(Animal animal) {
+        assignId(animal);
+        Snapshot before;
+        Snapshot after;
+        do {
+            before = current.get();
+            after = before.with(animal);
+        } while (!current.compareAndSet(before, after));
+        return animal;
+    }
+
+    /**
+     * Guarda varios animales publicando una sola versión nueva.
+     *
+     * @param animals Animales a guardar.
+     * @return Los mismos animales, con ID asignado.
+     */
+    @Override
+    public List<Animal> saveAll(List<Animal> animals) {
+        animals.forEach(this::assignId);
+        Snapshot before;
+        Snapshot after;
+        do {
+            before = current.get();
+            after = before;
+            for (Animal animal : animals) {
+                after = after.with(animal);
+            }
+        } while (!current.compareAndSet(before, after));
+        return animals;
+    }
+
+    /**
+     * @return La versión vigente; no cambia aunque haya escrituras posteriores.
+     */
+    public Snapshot snapshot() {
+        return current.get();
+    }
+
+    @Override
+    public Animal findById(int id) {
+        return current.get().findById(id);
+    }
+
+    /**
+     * Obtiene todos los animales en tiempo constante.
+     *
+     * @return Vista inmutable, ordenada por ID, de la versión vigente.
+     */
+    @Override
+    public List<Animal> findAll() {
+        return current.get().findAll();
+    }
+
+    @Override
+    public List<Animal> findPage(int afterId, int limit) {
+        Paging.checkLimit(limit);
+        return current.get().byId.valuesAfter(afterId, limit);
+    }
+
+    /**
+     * Devuelve los animales en el estado indicado en tiempo constante.
+     *
+     * @param status Estado a filtrar.
+     * @return Vista inmutable, ordenada por ID, de la cubeta de ese estado.
+     */
+    @Override
+    public List<Animal> findByStatus(AnimalStatus status) {
+        return current.get().findByStatus(status);
+    }
+
+    private void assignId(Animal animal) {
+        if (animal.getId() == 0) {
+            animal.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = animal.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+    }
+
+    /**
+     * Versión inmutable del repositorio. Todas sus consultas ven el mismo estado.
+     */
+    public static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(PersistentIntMap.empty(), emptyBuckets());
+
+        private final PersistentIntMap<Animal> byId;
+
+        /** Cubetas por estado, indexadas por {@link AnimalStatus#ordinal()}. */
+        private final List<PersistentIntMap<Animal>> byStatus;
+
+        private Snapshot(PersistentIntMap<Animal> byId, List<PersistentIntMap<Animal>> byStatus) {
+            this.byId = byId;
+            this.byStatus = byStatus;
+        }
+
+        /** @return Número de animales en esta versión. */
+        public int size() {
+            return byId.size();
+        }
+
+        /**
+         * @param id ID del animal.
+         * @return El animal o {@code null} si no existe en esta versión.
+         */
+        public Animal findById(int id) {
+            return byId.get(id);
+        }
+
+        /** @return Vista inmutable de todos los animales, ordenada por ID. */
+        public List<Animal> findAll() {
+            return byId.values();
+        }
+
+        /**
+         * @param status Estado a filtrar.
+         * @return Vista inmutable de los animales en ese estado, ordenada por ID.
+         */
+        public List<Animal> findByStatus(AnimalStatus status) {
+            if (status == null) {
+                return List.of();
+            }
+            return byStatus.get(status.ordinal()).values();
+        }
+
+        /** Versión siguiente con el animal guardado y movido a la cubeta de su estado. */
+        private Snapshot with(Animal animal) {
+            int id = animal.getId();
+            List<PersistentIntMap<Animal>> buckets = new ArrayList<>(byStatus.size());
+            for (AnimalStatus status : AnimalStatus.values()) {
+                PersistentIntMap<Animal> bucket = byStatus.get(status.ordinal());
+                buckets.add(status == animal.getStatus() ? bucket.with(id, animal) : bucket.without(id));
+            }
+            return new Snapshot(byId.with(id, animal), List.copyOf(buckets));
+        }
+
+        private static List<PersistentIntMap<Animal>> emptyBuckets() {
+            List<PersistentIntMap<Animal>> buckets = new ArrayList<>();
+            for (int i = 0; i < AnimalStatus.values().length; i++) {
+                buckets.add(PersistentIntMap.empty());
+            }
+            return List.copyOf(buckets);
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Índice de búsqueda de clientes por nombre, insensible a mayúsculas y tildes.
+ * <p>
+ * Cada nombre se normaliza ("García-Núñez" → {@code garcia}, {@code nunez}) y
+ * cada palabra se guarda en un {@link TreeMap} ordenado con la lista ordenada de
+ * IDs que la contienen. Una búsqueda por prefijo es un rango del mapa (de
+ * {@code "gar"} a {@code "gar" + Character.MAX_VALUE}), así que solo se recorren
+ * las palabras que empiezan por el prefijo y, de ellas, los IDs necesarios para
+ * llenar el límite.
+ * <p>
+ * Con varias palabras en la consulta ("maria gar"), todas deben ser prefijo de
+ * alguna palabra del nombre; los candidatos salen de la palabra de la consulta
+ * con menos coincidencias. Los resultados son los {@code limit} más cercanos:
+ * primero las palabras completas, luego los prefijos más largos y, a igualdad, por
+ * ID. Como las palabras se recorren de la más corta a la más larga, la búsqueda se
+ * detiene en cuanto ningún candidato restante puede entrar en el resultado.
+ * <p>
+ * Es seguro para uso concurrente mediante un cerrojo de lectura/escritura.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class CustomerNameIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final String[] NO_TOKENS = new String[0];
+
+    /** Palabra normalizada → IDs de clientes cuyo nombre la contiene. */
+    private final TreeMap<String, Postings> byToken = new TreeMap<>();
+
+    /** ID de cliente → palabras con las que quedó indexado. */
+    private final IntObjectStore<String[]> tokensById = new IntObjectStore<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexa (o reindexa) el nombre de un cliente.
+     *
+     * @param customerId ID del cliente.
+     * @param fullName   Nombre completo (puede ser {@code null}).
+     */
+    public void put(int customerId, String fullName) {
+        String[] tokens = tokens(fullName);
+        lock.writeLock().lock();
+        try {
+            String[] previous = tokensById.put(customerId, tokens);
+            if (previous != null) {
+                if (Arrays.equals(previous, tokens)) {
+                    return;
+                }
+                unindex(customerId, previous);
+            }
+            for (String token : tokens) {
+                byToken.computeIfAbsent(token, t -> new Postings()).add(customerId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un cliente del índice.
+     *
+     * @param customerId ID del cliente.
+     */
+    public void remove(int customerId) {
+        lock.writeLock().lock();
+        try {
+            String[] previous = tokensById.remove(customerId);
+            if (previous != null) {
+                unindex(customerId, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca clientes cuyo nombre contenga palabras que empiecen por las de la consulta.
+     *
+     * @param query Texto buscado ("gar", "maría gar").
+     * @param limit Número máximo de resultados.
+     * @return IDs ordenados por cercanía (vacío si la consulta no tiene palabras).
+     */
+    public int[] search(String query, int limit) {
+        String[] queryTokens = tokens(query);
+        if (queryTokens.length == 0 || limit <= 0) {
+            return new int[0];
+        }
+        lock.readLock().lock();
+        try {
+            // La palabra de la consulta con menos IDs decide los candidatos
+            List<Map.Entry<String, Postings>> driving = null;
+            long drivingCount = Long.MAX_VALUE;
+            int drivingLength = 0;
+            for (String queryToken : queryTokens) {
+                List<Map.Entry<String, Postings>> matches = new ArrayList<>(prefixRange(queryToken).entrySet());
+                long count = 0;
+                for (Map.Entry<String, Postings> entry : matches) {
+                    count += entry.getValue().size;
+                }
+                if (count < drivingCount) {
+                    driving = matches;
+                    drivingCount = count;
+                    drivingLength = queryToken.length();
+                }
+            }
+            if (drivingCount == 0) {
+                return new int[0];
+            }
+            // Palabras más cortas primero: "garcia" está más cerca de "gar" que "garcimartin"
+            driving.sort(Comparator.comparingInt((Map.Entry<String, Postings> entry) -> entry.getKey().length())
+                    .thenComparing(Map.Entry::getKey));
+
+            // Los mejores "limit" por (puntuación, ID), con el peor en la cabeza. Un candidato
+            // visto por primera vez en una palabra de longitud L tiene al menos L - longitud de
+            // la palabra de la consulta (las demás palabras suman cero o más), así que se
+            // deja de recorrer en cuanto esa cota no puede mejorar al peor seleccionado.
+            Comparator<long[]> byRank = Comparator.<long[]>comparingLong(r -> r[0]).thenComparingLong(r -> r[1]);
+            // Las capacidades iniciales se acotan: un "limit" enorme no debe reservar memoria por adelantado
+            PriorityQueue<long[]> ranked = new PriorityQueue<>(Math.min(limit, 1 << 12) + 1, byRank.reversed());
+            IntIntMap seen = new IntIntMap((int) Math.min(limit * 2L, 1 << 16));
+            for (Map.Entry<String, Postings> entry : driving) {
+                long bound = entry.getKey().length() - drivingLength;
+                if (ranked.size() == limit && ranked.peek()[0] < bound) {
+                    break;
+                }
+                Postings postings = entry.getValue();
+                for (int i = 0; i < postings.size; i++) {
+                    int customerId = postings.ids[i];
+                    // Los IDs van en orden: a igual cota, los siguientes pierden el desempate
+                    if (ranked.size() == limit && ranked.peek()[0] == bound && customerId > ranked.peek()[1]) {
+                        break;
+                    }
+                    if (seen.put(customerId, 1) != IntIntMap.MISSING) {
+                        continue;
+                    }
+                    int score = score(tokensById.get(customerId), queryTokens);
+                    if (score < 0) {
+                        continue;
+                    }
+                    ranked.add(new long[]{score, customerId});
+                    if (ranked.size() > limit) {
+                        ranked.poll();
+                    }
+                }
+            }
+            List<long[]> sorted = new ArrayList<>(ranked);
+            sorted.sort(byRank);
+            int[] result = new int[sorted.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = (int) sorted.get(i)[1];
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** @return Clientes indexados. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return tokensById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Búsqueda sin índice, recorriendo todos los clientes; mismas reglas y orden
+     * que {@link #search}. La usan los repositorios que no mantienen un índice.
+     *
+     * @param customers Clientes a recorrer.
+     * @param query     Texto buscado.
+     * @param limit     Número máximo de resultados.
+     * @return Clientes ordenados por cercanía.
+     */
+    public static List<Customer> scan(Stream<Customer> customers, String query, int limit) {
+        String[] queryTokens = tokens(query);
+        if (queryTokens.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        record Match(Customer customer, int score) {
+        }
+        return customers
+                .map(customer -> new Match(customer, score(tokens(customer.getFullName()), queryTokens)))
+                .filter(match -> match.score() >= 0)
+                .sorted(Comparator.comparingInt(Match::score).thenComparingInt(match -> match.customer().getId()))
+                .limit(limit)
+                .map(Match::customer)
+                .toList();
+    }
+
+    /**
+     * Normaliza un texto en palabras: sin tildes ni diéresis, en minúsculas y
+     * separando por cualquier carácter que no sea letra o dígito.
+     *
+     * @param text Texto a normalizar (puede ser {@code null}).
+     * @return Palabras sin repetir, en orden de aparición.
+     */
+    public static String[] tokens(String text) {
+        if (text == null || text.isBlank()) {
+            return NO_TOKENS;
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(plain))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Cercanía de un nombre a la consulta: por cada palabra de la consulta, cero si
+     * coincide entera con una del nombre o las letras que le faltan al prefijo.
+     *
+     * @return Puntuación (menor es mejor) o {@code -1} si alguna palabra no aparece.
+     */
+    static int score(String[] nameTokens, String[] queryTokens) {
+        if (nameTokens == null) {
+            return -1;
+        }
+        int total = 0;
+        for (String queryToken : queryTokens) {
+            int best = -1;
+            for (String nameToken : nameTokens) {
+                if (nameToken.startsWith(queryToken)) {
+                    int distance = nameToken.length() - queryToken.length();
+                    if (best < 0 || distance < best) {
+                        best = distance;
+                    }
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private NavigableMap<String, Postings> prefixRange(String prefix) {
+        return byToken.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    private void unindex(int customerId, String[] tokens) {
+        for (String token : tokens) {
+            Postings postings = byToken.get(token);
+            if (postings != null && postings.remove(customerId) && postings.size == 0) {
+                byToken.remove(token);
+            }
+        }
+    }
+
+    /** IDs ordenados sin boxing; los IDs nuevos suelen ser los mayores, así que agregar es O(1). */
+    private static final class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int id) {
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.GranjaLaHerraduraFeliz.repository;
 
 import com.GranjaLaHerraduraFeliz.model.Customer;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio encargado de gestionar la persistencia de objetos {@link Customer}.
@@ -12,6 +14,7 @@ import java.util.List;
  *     <li>Guardar o actualizar clientes.</li>
  *     <li>Buscar clientes por ID.</li>
  *     <li>Obtener la lista completa de clientes registrados.</li>
+ *     <li>Buscar clientes por nombre.</li>
  * </ul>
  *
  * Esta interfaz permite desacoplar la lógica de negocio de la forma en que
@@ -38,6 +41,24 @@ public interface CustomerRepository {
      */
     Customer save(Customer customer);
 
+    /**
+     * Guarda varios clientes en una sola operación.
+     * <p>
+     * La implementación por defecto llama a {@link #save} por cada elemento; las
+     * implementaciones que pueden agrupar escrituras (por ejemplo, lotes JDBC o un
+     * único {@code fsync} del journal) la sobrescriben.
+     *
+     * @param customers Elementos a guardar.
+     * @return Los elementos guardados, en el mismo orden y con ID asignado.
+     */
+    default List<Customer> saveAll(List<Customer> customers) {
+        List<Customer> saved = new ArrayList<>(customers.size());
+        for (Customer item : customers) {
+            saved.add(save(item));
+        }
+        return saved;
+    }
+
     /**
      * Busca un cliente por su ID.
      *
@@ -48,8 +69,61 @@ public interface CustomerRepository {
 
     /**
      * Obtiene una lista completa de clientes registrados.
+     * <p>
+     * Es una conveniencia que copia todo el repositorio; para recorrer
+     * volúmenes grandes conviene {@link #stream()} o {@link #findPage(int, int)}.
      *
      * @return Lista de {@link Customer}.
      */
     List<Customer> findAll();
+
+    /**
+     * Obtiene una página de clientes ordenada por ID (paginación por cursor).
+     * <p>
+     * Para recorrer el repositorio se empieza con {@code afterId = 0} y en cada
+     * llamada se pasa el ID del último elemento recibido, hasta obtener una página
+     * con menos de {@code limit} elementos.
+     *
+     * @param afterId Cursor: solo se devuelven clientes con ID mayor.
+     * @param limit   Tamaño máximo de la página (positivo).
+     * @return Clientes ordenados por ID (como mucho {@code limit}).
+     * @throws IllegalArgumentException Si {@code limit} no es positivo.
+     */
+    List<Customer> findPage(int afterId, int limit);
+
+    /**
+     * Recorre perezosamente todos los clientes en orden de ID, una página a la vez
+     * (ver {@link Paging}), sin copiar el repositorio completo.
+     *
+     * @return Flujo de clientes ordenado por ID.
+     */
+    default Stream<Customer> stream() {
+        return Paging.stream(this::findPage, Customer::getId);
+    }
+
+    /**
+     * Mayor ID guardado, con el que un decorador puede asignar IDs por su cuenta
+     * (ver {@code JournaledCustomerRepository}). Por defecto recorre el repositorio.
+     *
+     * @return Mayor ID, o {@code 0} si está vacío.
+     */
+    default int maxId() {
+        return stream().mapToInt(Customer::getId).max().orElse(0);
+    }
+
+    /**
+     * Busca clientes por nombre, sin distinguir mayúsculas ni tildes: cada palabra
+     * de la consulta debe ser el comienzo de alguna palabra del nombre
+     * ({@code "gar"} encuentra a "Ana García"). Ver {@link CustomerNameIndex}.
+     * <p>
+     * La implementación por defecto recorre todos los clientes; los repositorios
+     * en memoria la sobrescriben con un índice que se mantiene en {@link #save}.
+     *
+     * @param query Texto buscado.
+     * @param limit Número máximo de resultados.
+     * @return Clientes ordenados por cercanía al texto buscado.
+     */
+    default List<Customer> searchByName(String query, int limit) {
+        return CustomerNameIndex.scan(stream(), query, limit);
+    }
 }
@@ -9,9 +9,10 @@ import java.util.List;
 /**
  * Implementación en memoria del repositorio de {@link Animal}.
  * <p>
- * Esta clase utiliza una lista interna para almacenar animales sin necesidad
- * de una base de datos. Es una solución simple y eficaz para prototipos,
- * pruebas iniciales o aplicaciones pequeñas.
+ * Esta clase utiliza un {@link IntObjectStore} interno para almacenar animales
+ * sin necesidad de una base de datos. Es una solución simple y eficaz para
+ * prototipos, pruebas iniciales o aplicaciones pequeñas; las búsquedas por ID
+ * son de tiempo constante y no generan basura.
  * <p>
  * Características principales:
  * <ul>
@@ -29,8 +30,8 @@ import java.util.List;
  */
 public class InMemoryAnimalRepository implements AnimalRepository {
 
-    /** Lista interna donde se almacenan los animales. */
-    private final List<Animal> animals = new ArrayList<>();
+    /** Almacén interno donde se guardan los animales, indexados por ID. */
+    private final IntObjectStore<Animal> animals = new IntObjectStore<>();
 
     /** Contador utilizado para generar IDs únicos de manera incremental. */
     private int nextId = 1;
@@ -53,18 +54,12 @@ public class InMemoryAnimalRepository implements AnimalRepository {
         if (animal.getId() == 0) {
             // Registrar un nuevo animal
             animal.setId(nextId++);
-            animals.add(animal);
-        } else {
-            // Actualizar animal existente
-            for (int i = 0; i < animals.size(); i++) {
-                if (animals.get(i).getId() == animal.getId()) {
-                    animals.set(i, animal);
-                    return animal;
-                }
-            }
-            // Si no existe el ID, se agrega igual (flexible)
-            animals.add(animal);
+        } else if (animal.getId() >= nextId) {
+            // Si no existe el ID, se agrega igual (flexible) sin chocar con IDs futuros
+            nextId = animal.getId() + 1;
         }
+        // Inserta o actualiza el animal existente
+        animals.put(animal.getId(), animal);
         return animal;
     }
 
@@ -76,12 +71,7 @@ public class InMemoryAnimalRepository implements AnimalRepository {
      */
     @Override
     public Animal findById(int id) {
-        for (Animal animal : animals) {
-            if (animal.getId() == id) {
-                return animal;
-            }
-        }
-        return null;
+        return animals.get(id);
     }
 
     /**
@@ -94,7 +84,16 @@ public class InMemoryAnimalRepository implements AnimalRepository {
      */
     @Override
     public List<Animal> findAll() {
-        return new ArrayList<>(animals);
+        return animals.values();
+    }
+
+    /**
+     * Página ordenada por ID; aprovecha que los IDs son incrementales para no
+     * ordenar el almacén completo (ver {@link Paging#page}).
+     */
+    @Override
+    public List<Animal> findPage(int afterId, int limit) {
+        return Paging.page(afterId, limit, animals::get, animals::forEachKey);
     }
 
     /**
@@ -106,7 +105,8 @@ public class InMemoryAnimalRepository implements AnimalRepository {
     @Override
     public List<Animal> findByStatus(AnimalStatus status) {
         List<Animal> result = new ArrayList<>();
-        for (Animal animal : animals) {
+        for (int i = 0; i < animals.size(); i++) {
+            Animal animal = animals.valueAt(i);
             if (animal.getStatus() == status) {
                 result.add(animal);
             }
@@ -8,7 +8,7 @@ import java.util.List;
 /**
  * Implementación en memoria del repositorio de {@link Customer}.
  * <p>
- * Esta clase almacena los clientes en una lista local, permitiendo simular
+ * Esta clase almacena los clientes en un {@link IntObjectStore} local, permitiendo simular
  * una persistencia básica sin necesidad de una base de datos. Es ideal para
  * prototipos, pruebas iniciales y la versión de consola del sistema.
  * <p>
@@ -17,6 +17,7 @@ import java.util.List;
  *     <li>Asigna IDs incrementales automáticamente.</li>
  *     <li>Permite registrar y actualizar clientes.</li>
  *     <li>Provee métodos para buscar por ID y obtener la lista completa.</li>
+ *     <li>Mantiene un {@link CustomerNameIndex} para buscar por nombre.</li>
  *     <li>No persiste datos entre ejecuciones (almacenamiento volátil).</li>
  * </ul>
  *
@@ -28,8 +29,11 @@ import java.util.List;
  */
 public class InMemoryCustomerRepository implements CustomerRepository {
 
-    /** Lista interna donde se almacenan los clientes registrados. */
-    private final List<Customer> customers = new ArrayList<>();
+    /** Almacén interno donde se guardan los clientes registrados, indexados por ID. */
+    private final IntObjectStore<Customer> customers = new IntObjectStore<>();
+
+    /** Índice de búsqueda por nombre, actualizado en cada {@link #save}. */
+    private final CustomerNameIndex nameIndex = new CustomerNameIndex();
 
     /** Contador que genera IDs incrementales automáticamente. */
     private int nextId = 1;
@@ -51,16 +55,11 @@ public class InMemoryCustomerRepository implements CustomerRepository {
     public Customer save(Customer customer) {
         if (customer.getId() == 0) {
             customer.setId(nextId++);
-            customers.add(customer);
-        } else {
-            for (int i = 0; i < customers.size(); i++) {
-                if (customers.get(i).getId() == customer.getId()) {
-                    customers.set(i, customer);
-                    return customer;
-                }
-            }
-            customers.add(customer);
+        } else if (customer.getId() >= nextId) {
+            nextId = customer.getId() + 1;
         }
+        customers.put(customer.getId(), customer);
+        nameIndex.put(customer.getId(), customer.getFullName());
         return customer;
     }
 
@@ -72,12 +71,7 @@ public class InMemoryCustomerRepository implements CustomerRepository {
      */
     @Override
     public Customer findById(int id) {
-        for (Customer customer : customers) {
-            if (customer.getId() == id) {
-                return customer;
-            }
-        }
-        return null;
+        return customers.get(id);
     }
 
     /**
@@ -89,6 +83,28 @@ public class InMemoryCustomerRepository implements CustomerRepository {
      */
     @Override
     public List<Customer> findAll() {
-        return new ArrayList<>(customers);
+        return customers.values();
+    }
+
+    /**
+     * Página ordenada por ID; aprovecha que los IDs son incrementales para no
+     * ordenar el almacén completo (ver {@link Paging#page}).
+     */
+    @Override
+    public List<Customer> findPage(int afterId, int limit) {
+        return Paging.page(afterId, limit, customers::get, customers::forEachKey);
+    }
+
+    /**
+     * Búsqueda por nombre sobre el índice (ver {@link CustomerNameIndex#search}).
+     */
+    @Override
+    public List<Customer> searchByName(String query, int limit) {
+        int[] ids = nameIndex.search(query, limit);
+        List<Customer> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(customers.get(id));
+        }
+        return result;
     }
 }
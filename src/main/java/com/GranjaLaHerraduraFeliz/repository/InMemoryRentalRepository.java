@@ -3,13 +3,16 @@ package com.GranjaLaHerraduraFeliz.repository;
 import com.GranjaLaHerraduraFeliz.model.Animal;
 import com.GranjaLaHerraduraFeliz.model.Rental;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Implementación en memoria del repositorio de {@link Rental}.
  * <p>
- * Utiliza una lista interna para almacenar los alquileres registrados,
+ * Utiliza un {@link IntObjectStore} interno para almacenar los alquileres registrados,
  * simulando un mecanismo de persistencia básico sin base de datos.
  * <p>
  * Características:
@@ -20,6 +23,18 @@ import java.util.List;
  *     <li>No es persistente: los datos se pierden al reiniciar la aplicación.</li>
  * </ul>
  *
+ * Además del almacén principal, mantiene tres índices secundarios que se
+ * actualizan en cada {@link #save(Rental)}:
+ * <ul>
+ *     <li>Alquileres activos por ID de animal: {@link #findActiveByAnimal(Animal)}
+ *     no depende del tamaño del historial, solo de los alquileres en curso.</li>
+ *     <li>Alquileres por ID de cliente, para {@link #findByCustomer(int)}.</li>
+ *     <li>Un {@link NavigableMap} por {@code startTime}, para
+ *     {@link #findStartedBetween(LocalDateTime, LocalDateTime)}.</li>
+ * </ul>
+ * Los cambios en un alquiler (por ejemplo, asignar {@code endTime}) deben
+ * persistirse con {@code save} para que los índices los reflejen.
+ *
  * Esta implementación es ideal para pruebas, prototipos o la versión inicial del sistema.
  * Posteriormente puede reemplazarse por una versión basada en base de datos sin
  * modificar el código del servicio, gracias al uso de la interfaz {@link RentalRepository}.
@@ -29,20 +44,32 @@ import java.util.List;
  */
 public class InMemoryRentalRepository implements RentalRepository {
 
-    /** Lista interna que almacena los alquileres. */
-    private final List<Rental> rentals = new ArrayList<>();
+    /** Almacén interno que guarda los alquileres, indexados por ID. */
+    private final IntObjectStore<Rental> rentals = new IntObjectStore<>();
+
+    /** Índice de alquileres activos: ID de animal → alquileres en curso. */
+    private final IntObjectStore<List<Rental>> activeByAnimal = new IntObjectStore<>();
+
+    /** Índice de historial: ID de cliente → alquileres del cliente. */
+    private final IntObjectStore<List<Rental>> byCustomer = new IntObjectStore<>();
+
+    /** Índice ordenado por hora de inicio. */
+    private final NavigableMap<LocalDateTime, List<Rental>> byStartTime = new TreeMap<>();
+
+    /** Claves con las que cada alquiler quedó indexado la última vez que se guardó. */
+    private final IntObjectStore<IndexKeys> indexedKeys = new IntObjectStore<>();
 
     /** Contador para asignar IDs automáticos de forma incremental. */
     private int nextId = 1;
 
     /**
-     * Guarda un alquiler en la lista interna.
+     * Guarda un alquiler y actualiza los índices secundarios.
      * <p>
      * Reglas:
      * <ul>
-     *     <li>Si el ID es 0, se considera un alquiler nuevo; se asigna un ID y se agrega a la lista.</li>
+     *     <li>Si el ID es 0, se considera un alquiler nuevo; se asigna un ID y se agrega.</li>
      *     <li>Si el ID ya existe, se actualiza el alquiler correspondiente.</li>
-     *     <li>Si el ID no existe en la lista, se agrega como nuevo (comportamiento flexible).</li>
+     *     <li>Si el ID no existe, se agrega como nuevo (comportamiento flexible).</li>
      * </ul>
      *
      * @param rental Alquiler a guardar o actualizar.
@@ -52,18 +79,13 @@ public class InMemoryRentalRepository implements RentalRepository {
     public Rental save(Rental rental) {
         if (rental.getId() == 0) {
             rental.setId(nextId++);
-            rentals.add(rental);
-        } else {
-            // Intentar actualizar alquiler existente
-            for (int i = 0; i < rentals.size(); i++) {
-                if (rentals.get(i).getId() == rental.getId()) {
-                    rentals.set(i, rental);
-                    return rental;
-                }
-            }
-            // Si no existe, se agrega igual
-            rentals.add(rental);
+        } else if (rental.getId() >= nextId) {
+            // Si no existe, se agrega igual sin chocar con IDs futuros
+            nextId = rental.getId() + 1;
         }
+        // Inserta o actualiza el alquiler existente
+        Rental replaced = rentals.put(rental.getId(), rental);
+        reindex(replaced, rental);
         return rental;
     }
 
@@ -75,31 +97,36 @@ public class InMemoryRentalRepository implements RentalRepository {
      */
     @Override
     public Rental findById(int id) {
-        for (Rental rental : rentals) {
-            if (rental.getId() == id) {
-                return rental;
-            }
-        }
-        return null;
+        return rentals.get(id);
     }
 
     /**
      * Devuelve una copia de la lista con todos los alquileres.
      * <p>
-     * Se retorna una nueva {@link ArrayList} para evitar que código externo
+     * Se retorna una nueva lista para evitar que código externo
      * modifique la lista original accidentalmente.
      *
      * @return Lista completa de alquileres.
      */
     @Override
     public List<Rental> findAll() {
-        return new ArrayList<>(rentals);
+        return rentals.values();
+    }
+
+    /**
+     * Página ordenada por ID; aprovecha que los IDs son incrementales para no
+     * ordenar el almacén completo (ver {@link Paging#page}).
+     */
+    @Override
+    public List<Rental> findPage(int afterId, int limit) {
+        return Paging.page(afterId, limit, rentals::get, rentals::forEachKey);
     }
 
     /**
      * Busca alquileres activos asociados a un animal.
      * <p>
      * Un alquiler activo se define como aquel cuyo {@code endTime} es {@code null}.
+     * La consulta usa el índice de activos, por lo que su costo no crece con el historial.
      *
      * @param animal Animal cuyo alquiler activo se quiere buscar.
      * @return Lista de alquileres en curso para el animal indicado.
@@ -107,13 +134,130 @@ public class InMemoryRentalRepository implements RentalRepository {
     @Override
     public List<Rental> findActiveByAnimal(Animal animal) {
         List<Rental> result = new ArrayList<>();
-        for (Rental rental : rentals) {
-            boolean sameAnimal = rental.getAnimal().getId() == animal.getId();
-            boolean active = rental.getEndTime() == null;
-            if (sameAnimal && active) {
-                result.add(rental);
+        List<Rental> active = activeByAnimal.get(animal.getId());
+        if (active != null) {
+            for (Rental rental : active) {
+                // Protege frente a cambios aún no persistidos con save
+                if (rental.getEndTime() == null) {
+                    result.add(rental);
+                }
             }
         }
         return result;
     }
+
+    /**
+     * Obtiene el historial completo de un cliente usando el índice por cliente.
+     *
+     * @param customerId ID del cliente.
+     * @return Lista de alquileres del cliente, en orden de registro.
+     */
+    @Override
+    public List<Rental> findByCustomer(int customerId) {
+        List<Rental> rentalsOfCustomer = byCustomer.get(customerId);
+        return rentalsOfCustomer == null ? new ArrayList<>() : new ArrayList<>(rentalsOfCustomer);
+    }
+
+    /**
+     * Obtiene los alquileres iniciados en {@code [from, to)} usando el índice ordenado.
+     *
+     * @param from Inicio del rango (inclusive).
+     * @param to   Fin del rango (exclusivo).
+     * @return Lista de alquileres ordenada por hora de inicio.
+     */
+    @Override
+    public List<Rental> findStartedBetween(LocalDateTime from, LocalDateTime to) {
+        List<Rental> result = new ArrayList<>();
+        if (from == null || to == null || !from.isBefore(to)) {
+            return result;
+        }
+        for (List<Rental> sameStart : byStartTime.subMap(from, true, to, false).values()) {
+            result.addAll(sameStart);
+        }
+        return result;
+    }
+
+    /**
+     * Actualiza los índices secundarios comparando las claves con las que el
+     * alquiler estaba indexado y las actuales. Solo se tocan los índices cuyas
+     * claves cambiaron (por ejemplo, al finalizar solo cambia el índice de activos).
+     */
+    private void reindex(Rental replaced, Rental rental) {
+        int id = rental.getId();
+        IndexKeys previous = indexedKeys.get(id);
+        IndexKeys current = IndexKeys.of(rental);
+        // Si cambió la instancia, las listas contienen la anterior y hay que reemplazarla
+        boolean sameInstance = replaced == rental;
+
+        if (previous == null || !sameInstance || previous.animalId() != current.animalId()
+                || previous.active() != current.active()) {
+            if (previous != null && previous.active()) {
+                removeFrom(activeByAnimal, previous.animalId(), id);
+            }
+            if (current.active()) {
+                addTo(activeByAnimal, current.animalId(), rental);
+            }
+        }
+
+        if (previous == null || !sameInstance || previous.customerId() != current.customerId()) {
+            if (previous != null) {
+                removeFrom(byCustomer, previous.customerId(), id);
+            }
+            addTo(byCustomer, current.customerId(), rental);
+        }
+
+        if (previous == null || !sameInstance || !sameStart(previous.startTime(), current.startTime())) {
+            if (previous != null && previous.startTime() != null) {
+                List<Rental> sameStart = byStartTime.get(previous.startTime());
+                if (sameStart != null) {
+                    sameStart.removeIf(r -> r.getId() == id);
+                    if (sameStart.isEmpty()) {
+                        byStartTime.remove(previous.startTime());
+                    }
+                }
+            }
+            if (current.startTime() != null) {
+                byStartTime.computeIfAbsent(current.startTime(), t -> new ArrayList<>(1)).add(rental);
+            }
+        }
+
+        indexedKeys.put(id, current);
+    }
+
+    private static boolean sameStart(LocalDateTime a, LocalDateTime b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static void addTo(IntObjectStore<List<Rental>> index, int key, Rental rental) {
+        List<Rental> bucket = index.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>(1);
+            index.put(key, bucket);
+        }
+        bucket.add(rental);
+    }
+
+    private static void removeFrom(IntObjectStore<List<Rental>> index, int key, int rentalId) {
+        List<Rental> bucket = index.get(key);
+        if (bucket == null) {
+            return;
+        }
+        bucket.removeIf(r -> r.getId() == rentalId);
+        if (bucket.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Claves de indexación de un alquiler en el momento en que se guardó.
+     * Un ID {@code 0} indica que el alquiler no tenía animal o cliente asignado.
+     */
+    private record IndexKeys(int animalId, int customerId, LocalDateTime startTime, boolean active) {
+
+        static IndexKeys of(Rental rental) {
+            int animalId = rental.getAnimal() == null ? 0 : rental.getAnimal().getId();
+            int customerId = rental.getCustomer() == null ? 0 : rental.getCustomer().getId();
+            return new IndexKeys(animalId, customerId, rental.getStartTime(), rental.getEndTime() == null);
+        }
+    }
 }
@@ -0,0 +1,146 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementación en memoria e indexada del repositorio de {@link Animal}.
+ * <p>
+ * A diferencia de {@link InMemoryAnimalRepository}, que recorre toda la flota
+ * en cada {@code findByStatus}, esta clase mantiene dos índices:
+ * <ul>
+ *     <li>Un índice primario por ID, que permite {@code findById} y la
+ *     actualización en {@code save} en tiempo constante.</li>
+ *     <li>Un índice secundario por estado ({@link AnimalStatus}) basado en
+ *     un {@link EnumMap}, que permite obtener los animales disponibles sin
+ *     recorrer toda la flota.</li>
+ * </ul>
+ *
+ * El índice por estado se actualiza en cada llamada a {@link #save(Animal)}.
+ * Por eso, cualquier cambio de estado de un animal debe persistirse mediante
+ * {@code save}, tal como ya lo hace {@code RentalService}.
+ * <p>
+ * {@link #findAll()} respeta el orden de inserción, igual que la implementación
+ * basada en lista. Cada cubeta de estado está ordenada por ID, así que
+ * {@link #findByStatus(AnimalStatus)} devuelve el mismo orden que la lista
+ * (los IDs generados son crecientes) aunque un animal cambie de estado varias
+ * veces: al volver a {@code AVAILABLE} recupera su puesto en vez de pasar al final.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class IndexedAnimalRepository implements AnimalRepository {
+
+    /** Índice primario: ID del animal → animal. */
+    private final IntObjectStore<Animal> animalsById = new IntObjectStore<>();
+
+    /** Índice secundario: estado → animales en ese estado, ordenados por ID. */
+    private final Map<AnimalStatus, Map<Integer, Animal>> animalsByStatus = new EnumMap<>(AnimalStatus.class);
+
+    /** Último estado indexado de cada animal, necesario para moverlo de cubeta al cambiar. */
+    private final IntObjectStore<AnimalStatus> indexedStatus = new IntObjectStore<>();
+
+    /** Contador utilizado para generar IDs únicos de manera incremental. */
+    private int nextId = 1;
+
+    /**
+     * Crea un repositorio vacío con una cubeta por cada {@link AnimalStatus}.
+     */
+    public IndexedAnimalRepository() {
+        for (AnimalStatus status : AnimalStatus.values()) {
+            animalsByStatus.put(status, new TreeMap<>());
+        }
+    }
+
+    /**
+     * Guarda un animal y actualiza ambos índices.
+     * <p>
+     * Reglas (idénticas a {@link InMemoryAnimalRepository}):
+     * <ul>
+     *     <li>Si el animal tiene ID 0, se considera nuevo y se le asigna uno.</li>
+     *     <li>Si el ID ya existe, se reemplaza el registro correspondiente.</li>
+     *     <li>Si el ID no existe, se agrega igualmente como nuevo.</li>
+     * </ul>
+     *
+     * @param animal Animal a guardar o actualizar.
+     * @return El animal guardado.
+     */
+    @Override
+    public Animal save(Animal animal) {
+        if (animal.getId() == 0) {
+            animal.setId(nextId++);
+        } else if (animal.getId() >= nextId) {
+            // Evita que un ID explícito colisione con los generados más adelante
+            nextId = animal.getId() + 1;
+        }
+
+        int id = animal.getId();
+        animalsById.put(id, animal);
+
+        // Mover el animal a la cubeta de su estado actual
+        AnimalStatus previous = indexedStatus.get(id);
+        if (previous != null && previous != animal.getStatus()) {
+            animalsByStatus.get(previous).remove(id);
+        }
+        if (animal.getStatus() != null) {
+            animalsByStatus.get(animal.getStatus()).put(id, animal);
+            indexedStatus.put(id, animal.getStatus());
+        } else {
+            indexedStatus.remove(id);
+        }
+        return animal;
+    }
+
+    /**
+     * Busca un animal por su ID en tiempo constante.
+     *
+     * @param id Identificador del animal.
+     * @return El animal encontrado o {@code null} si no existe.
+     */
+    @Override
+    public Animal findById(int id) {
+        return animalsById.get(id);
+    }
+
+    /**
+     * Obtiene una copia defensiva con todos los animales registrados.
+     *
+     * @return Lista de todos los animales almacenados.
+     */
+    @Override
+    public List<Animal> findAll() {
+        return animalsById.values();
+    }
+
+    /**
+     * Página ordenada por ID; aprovecha que los IDs son incrementales para no
+     * ordenar el almacén completo (ver {@link Paging#page}).
+     */
+    @Override
+    public List<Animal> findPage(int afterId, int limit) {
+        return Paging.page(afterId, limit, animalsById::get, animalsById::forEachKey);
+    }
+
+    /**
+     * Devuelve los animales cuyo estado coincide con el solicitado.
+     * <p>
+     * El costo depende únicamente del tamaño de la cubeta consultada,
+     * no del tamaño total de la flota. Los animales salen ordenados por ID.
+     *
+     * @param status Estado a filtrar.
+     * @return Lista de animales que cumplen el criterio.
+     */
+    @Override
+    public List<Animal> findByStatus(AnimalStatus status) {
+        if (status == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(animalsByStatus.get(status).values());
+    }
+}
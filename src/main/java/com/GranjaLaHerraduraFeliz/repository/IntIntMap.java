@@ -0,0 +1,200 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de {@code int} a {@code int} sin boxing, con la misma organización que
+ * {@link IntObjectStore}: una tabla hash de direccionamiento abierto que apunta a
+ * arreglos densos de claves y valores.
+ * <p>
+ * Se usa para índices secundarios (por ejemplo, ID de alquiler → fila de un
+ * almacén columnar), donde un {@code Map<Integer, Integer>} costaría dos objetos
+ * {@link Integer} y un nodo por entrada.
+ * <p>
+ * No es seguro para uso concurrente.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class IntIntMap {
+
+    /** Valor devuelto por {@link #get(int)} cuando la clave no existe. */
+    public static final int MISSING = -1;
+
+    /** Tabla hash: posición → índice denso + 1, o {@code 0} si está vacía. */
+    private int[] slots;
+
+    /** Máscara para calcular la posición ({@code slots.length - 1}). */
+    private int mask;
+
+    /** Claves en orden de inserción. */
+    private int[] keys;
+
+    /** Valores (paralelo a {@link #keys}). */
+    private int[] values;
+
+    /** Número de entradas almacenadas. */
+    private int size;
+
+    /** Crea un mapa vacío con capacidad para 16 entradas. */
+    public IntIntMap() {
+        this(16);
+    }
+
+    /**
+     * Crea un mapa vacío dimensionado para {@code expectedSize} entradas.
+     *
+     * @param expectedSize Número de entradas esperadas.
+     */
+    public IntIntMap(int expectedSize) {
+        int capacity = Math.max(expectedSize, 4);
+        int tableSize = Math.max(Integer.highestOneBit(capacity * 2 - 1) << 1, 8);
+        this.slots = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.keys = new int[capacity];
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave.
+     *
+     * @param key Clave a buscar.
+     * @return El valor asociado o {@link #MISSING} si la clave no existe.
+     */
+    public int get(int key) {
+        int pos = slotOf(key);
+        return pos < 0 ? MISSING : values[slots[pos] - 1];
+    }
+
+    /**
+     * Indica si la clave está presente.
+     *
+     * @param key Clave a consultar.
+     * @return {@code true} si existe una entrada para la clave.
+     */
+    public boolean containsKey(int key) {
+        return slotOf(key) >= 0;
+    }
+
+    /**
+     * Asocia un valor a la clave, reemplazando el anterior si existía.
+     *
+     * @param key   Clave.
+     * @param value Valor a almacenar.
+     * @return El valor anterior o {@link #MISSING} si la clave era nueva.
+     */
+    public int put(int key, int value) {
+        int pos = hash(key) & mask;
+        while (true) {
+            int entry = slots[pos];
+            if (entry == 0) {
+                break;
+            }
+            if (keys[entry - 1] == key) {
+                int previous = values[entry - 1];
+                values[entry - 1] = value;
+                return previous;
+            }
+            pos = (pos + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            int newCapacity = size + (size >> 1) + 1;
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        slots[pos] = ++size;
+
+        // Mantener el factor de carga por debajo de 0.5
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return MISSING;
+    }
+
+    /**
+     * Elimina la entrada asociada a la clave.
+     *
+     * @param key Clave a eliminar.
+     * @return El valor eliminado o {@link #MISSING} si la clave no existía.
+     */
+    public int remove(int key) {
+        int pos = slotOf(key);
+        if (pos < 0) {
+            return MISSING;
+        }
+        int index = slots[pos] - 1;
+        int removed = values[index];
+        deleteSlot(pos);
+
+        int last = size - 1;
+        if (index != last) {
+            keys[index] = keys[last];
+            values[index] = values[last];
+            slots[slotOf(keys[index])] = index + 1;
+        }
+        size--;
+        return removed;
+    }
+
+    /** @return Número de entradas almacenadas. */
+    public int size() {
+        return size;
+    }
+
+    /** Elimina todas las entradas conservando la capacidad reservada. */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        size = 0;
+    }
+
+    /** @return Posición en la tabla hash de la clave o {@code -1} si no existe. */
+    private int slotOf(int key) {
+        int pos = hash(key) & mask;
+        while (true) {
+            int entry = slots[pos];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1] == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    /** Vacía una posición desplazando hacia atrás las entradas del mismo grupo (ver {@link IntObjectStore}). */
+    private void deleteSlot(int hole) {
+        int next = (hole + 1) & mask;
+        while (slots[next] != 0) {
+            int home = hash(keys[slots[next] - 1]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[hole] = 0;
+    }
+
+    private void rehash(int newTableSize) {
+        int[] table = new int[newTableSize];
+        int newMask = newTableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int pos = hash(keys[i]) & newMask;
+            while (table[pos] != 0) {
+                pos = (pos + 1) & newMask;
+            }
+            table[pos] = i + 1;
+        }
+        this.slots = table;
+        this.mask = newMask;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,325 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Almacén asociativo especializado para claves {@code int}, usado como base de
+ * los repositorios en memoria.
+ * <p>
+ * Características:
+ * <ul>
+ *     <li>Tabla hash de direccionamiento abierto con sondeo lineal.</li>
+ *     <li>Las claves se guardan como {@code int} primitivos: no hay boxing a
+ *     {@link Integer} ni objetos nodo por entrada, por lo que {@link #get(int)}
+ *     no genera basura.</li>
+ *     <li>Los valores se guardan en arreglos densos en orden de inserción, de modo
+ *     que recorrer el almacén es tan barato como recorrer un {@code ArrayList}.</li>
+ * </ul>
+ *
+ * La tabla hash guarda, para cada posición, el índice denso del valor más uno
+ * (el {@code 0} indica una posición vacía). El borrado usa desplazamiento hacia
+ * atrás, así que nunca quedan lápidas; el último elemento denso ocupa el hueco,
+ * por lo que el orden de inserción solo se conserva mientras no haya borrados.
+ * <p>
+ * No es seguro para uso concurrente: igual que las listas que reemplaza,
+ * requiere sincronización externa si varios hilos escriben a la vez.
+ *
+ * @param <T> Tipo de los valores almacenados.
+ * @author Marcos
+ * @since 1.1
+ */
+public final class IntObjectStore<T> {
+
+    /** Capacidad inicial por defecto (número de valores esperados). */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Tabla hash: posición → índice denso + 1, o {@code 0} si está vacía. */
+    private int[] slots;
+
+    /** Máscara para calcular la posición ({@code slots.length - 1}). */
+    private int mask;
+
+    /** Claves en orden de inserción. */
+    private int[] keys;
+
+    /** Valores en orden de inserción (paralelo a {@link #keys}). */
+    private Object[] values;
+
+    /** Número de entradas almacenadas. */
+    private int size;
+
+    /** Crea un almacén vacío con la capacidad por defecto. */
+    public IntObjectStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Crea un almacén vacío dimensionado para {@code expectedSize} entradas.
+     *
+     * @param expectedSize Número de entradas esperadas.
+     */
+    public IntObjectStore(int expectedSize) {
+        int capacity = Math.max(expectedSize, 4);
+        int tableSize = tableSizeFor(capacity * 2);
+        this.slots = new int[tableSize];
+        this.mask = tableSize - 1;
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave.
+     *
+     * @param key Clave a buscar.
+     * @return El valor asociado o {@code null} si la clave no existe.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (T) values[index];
+    }
+
+    /**
+     * Indica si la clave está presente.
+     *
+     * @param key Clave a consultar.
+     * @return {@code true} si existe una entrada para la clave.
+     */
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Asocia un valor a la clave, reemplazando el anterior si existía.
+     *
+     * @param key   Clave.
+     * @param value Valor a almacenar.
+     * @return El valor anterior o {@code null} si la clave era nueva.
+     */
+    @SuppressWarnings("unchecked")
+    public T put(int key, T value) {
+        int pos = hash(key) & mask;
+        while (true) {
+            int entry = slots[pos];
+            if (entry == 0) {
+                break;
+            }
+            if (keys[entry - 1] == key) {
+                T previous = (T) values[entry - 1];
+                values[entry - 1] = value;
+                return previous;
+            }
+            pos = (pos + 1) & mask;
+        }
+
+        if (size == keys.length) {
+            int newCapacity = size + (size >> 1) + 1;
+            keys = Arrays.copyOf(keys, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        keys[size] = key;
+        values[size] = value;
+        slots[pos] = ++size;
+
+        // Mantener el factor de carga por debajo de 0.5
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Elimina la entrada asociada a la clave.
+     * <p>
+     * El último valor del arreglo denso pasa a ocupar el hueco, por lo que
+     * el orden de iteración puede cambiar tras un borrado.
+     *
+     * @param key Clave a eliminar.
+     * @return El valor eliminado o {@code null} si la clave no existía.
+     */
+    @SuppressWarnings("unchecked")
+    public T remove(int key) {
+        int pos = slotOf(key);
+        if (pos < 0) {
+            return null;
+        }
+        int index = slots[pos] - 1;
+        T removed = (T) values[index];
+        deleteSlot(pos);
+
+        int last = size - 1;
+        if (index != last) {
+            // Compactar: el último valor denso ocupa el hueco
+            keys[index] = keys[last];
+            values[index] = values[last];
+            slots[slotOf(keys[index])] = index + 1;
+        }
+        keys[last] = 0;
+        values[last] = null;
+        size--;
+        return removed;
+    }
+
+    /** @return Número de entradas almacenadas. */
+    public int size() {
+        return size;
+    }
+
+    /** @return {@code true} si no hay entradas. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Devuelve el valor en la posición densa indicada, útil para recorrer
+     * el almacén sin crear iteradores.
+     *
+     * @param index Posición entre {@code 0} y {@code size() - 1}.
+     * @return El valor en esa posición.
+     */
+    @SuppressWarnings("unchecked")
+    public T valueAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de rango (size=" + size + ")");
+        }
+        return (T) values[index];
+    }
+
+    /**
+     * Devuelve la clave en la posición densa indicada.
+     *
+     * @param index Posición entre {@code 0} y {@code size() - 1}.
+     * @return La clave en esa posición.
+     */
+    public int keyAt(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de rango (size=" + size + ")");
+        }
+        return keys[index];
+    }
+
+    /**
+     * Aplica una acción a cada valor en orden denso.
+     *
+     * @param action Acción a ejecutar.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept((T) values[i]);
+        }
+    }
+
+    /**
+     * Aplica una acción a cada clave en orden denso.
+     *
+     * @param action Acción a ejecutar.
+     */
+    public void forEachKey(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i]);
+        }
+    }
+
+    /**
+     * Devuelve una copia de todos los valores en orden denso.
+     *
+     * @return Nueva lista con los valores almacenados.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> values() {
+        List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add((T) values[i]);
+        }
+        return result;
+    }
+
+    /** Elimina todas las entradas conservando la capacidad reservada. */
+    public void clear() {
+        Arrays.fill(slots, 0);
+        Arrays.fill(keys, 0, size, 0);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    /** @return Índice denso de la clave o {@code -1} si no existe. */
+    private int indexOf(int key) {
+        int[] table = slots;
+        int pos = hash(key) & mask;
+        while (true) {
+            int entry = table[pos];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    /** @return Posición en la tabla hash de la clave o {@code -1} si no existe. */
+    private int slotOf(int key) {
+        int pos = hash(key) & mask;
+        while (true) {
+            int entry = slots[pos];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1] == key) {
+                return pos;
+            }
+            pos = (pos + 1) & mask;
+        }
+    }
+
+    /**
+     * Vacía una posición de la tabla desplazando hacia atrás las entradas
+     * siguientes del mismo grupo, para no romper las cadenas de sondeo.
+     */
+    private void deleteSlot(int hole) {
+        int next = (hole + 1) & mask;
+        while (slots[next] != 0) {
+            int home = hash(keys[slots[next] - 1]) & mask;
+            // La entrada puede moverse si el hueco está en su camino de sondeo
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slots[hole] = slots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slots[hole] = 0;
+    }
+
+    /** Reconstruye la tabla hash con un nuevo tamaño (los arreglos densos no cambian). */
+    private void rehash(int newTableSize) {
+        int[] table = new int[newTableSize];
+        int newMask = newTableSize - 1;
+        for (int i = 0; i < size; i++) {
+            int pos = hash(keys[i]) & newMask;
+            while (table[pos] != 0) {
+                pos = (pos + 1) & newMask;
+            }
+            table[pos] = i + 1;
+        }
+        this.slots = table;
+        this.mask = newMask;
+    }
+
+    /** Mezcla los bits de la clave para repartir bien IDs consecutivos. */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** @return La menor potencia de dos mayor o igual a {@code n}. */
+    private static int tableSizeFor(int n) {
+        int size = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        return Math.max(size, 8);
+    }
+}
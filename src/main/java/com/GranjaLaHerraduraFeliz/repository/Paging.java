@@ -0,0 +1,172 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Utilidades para recorrer repositorios por páginas ordenadas por ID
+ * (paginación por cursor: cada página empieza después del último ID visto).
+ * <p>
+ * A diferencia de {@code findAll()}, recorrer un repositorio con
+ * {@link #stream(PageSource, ToIntFunction)} usa memoria constante: solo hay una
+ * página cargada a la vez. Las páginas son débilmente consistentes: un elemento
+ * guardado durante el recorrido aparece si su ID es mayor que el cursor.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class Paging {
+
+    /** Tamaño de página usado por {@link #stream(PageSource, ToIntFunction)}. */
+    public static final int STREAM_PAGE_SIZE = 256;
+
+    /** IDs inexistentes seguidos que se prueban antes de pasar a recorrer todas las claves. */
+    private static final int PROBE_SLACK = 64;
+
+    private Paging() {
+    }
+
+    /**
+     * Consulta paginada por cursor de un repositorio.
+     *
+     * @param <T> Tipo de los elementos.
+     */
+    @FunctionalInterface
+    public interface PageSource<T> {
+
+        /**
+         * @param afterId Cursor: solo se devuelven elementos con ID mayor.
+         * @param limit   Tamaño máximo de la página.
+         * @return Elementos ordenados por ID.
+         */
+        List<T> findPage(int afterId, int limit);
+    }
+
+    /** Fuente de todas las claves de un almacén, para {@link #page}. */
+    @FunctionalInterface
+    public interface KeySource {
+
+        /** @param action Acción a aplicar a cada clave, en cualquier orden. */
+        void forEachKey(IntConsumer action);
+    }
+
+    /**
+     * Recorre perezosamente todos los elementos de un repositorio, página a página.
+     *
+     * @param source Consulta paginada (normalmente {@code repository::findPage}).
+     * @param idOf   Obtiene el ID de un elemento, que será el cursor de la página siguiente.
+     * @param <T>    Tipo de los elementos.
+     * @return Flujo ordenado por ID; la primera página se pide al consumir el flujo.
+     */
+    public static <T> Stream<T> stream(PageSource<T> source, ToIntFunction<T> idOf) {
+        Iterator<T> iterator = new Iterator<>() {
+            private List<T> page = List.of();
+            private int position;
+            private int cursor;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (position < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = source.findPage(cursor, STREAM_PAGE_SIZE);
+                position = 0;
+                exhausted = page.size() < STREAM_PAGE_SIZE;
+                if (!page.isEmpty()) {
+                    cursor = idOf.applyAsInt(page.get(page.size() - 1));
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(position++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Arma una página sobre un almacén con búsqueda por ID en tiempo constante.
+     * <p>
+     * Como los IDs se asignan de forma incremental, primero prueba los IDs
+     * siguientes al cursor uno a uno: una página cuesta {@code limit} búsquedas y
+     * no depende del tamaño del repositorio. Si encuentra demasiados huecos (IDs
+     * explícitos dispersos o el final de los datos), recorre las claves restantes
+     * y las ordena, lo que ocurre como mucho una vez por recorrido en el caso normal.
+     *
+     * @param afterId Cursor: solo se devuelven elementos con ID mayor.
+     * @param limit   Tamaño máximo de la página.
+     * @param lookup  Búsqueda por ID; devuelve {@code null} si no existe.
+     * @param keys    Recorre todas las claves del almacén.
+     * @param <T>     Tipo de los elementos.
+     * @return Elementos ordenados por ID (como mucho {@code limit}).
+     */
+    public static <T> List<T> page(int afterId, int limit, IntFunction<T> lookup, KeySource keys) {
+        checkLimit(limit);
+        List<T> result = new ArrayList<>(Math.min(limit, STREAM_PAGE_SIZE));
+        long id = (long) afterId + 1;
+        int misses = 0;
+        while (result.size() < limit && misses <= PROBE_SLACK && id <= Integer.MAX_VALUE) {
+            T item = lookup.apply((int) id);
+            if (item != null) {
+                result.add(item);
+                misses = 0;
+            } else {
+                misses++;
+            }
+            id++;
+        }
+        if (result.size() == limit || id > Integer.MAX_VALUE) {
+            return result;
+        }
+
+        // Demasiados huecos seguidos: ordenar las claves que quedan después de lo ya probado
+        int probedUpTo = (int) (id - 1);
+        IntStream.Builder rest = IntStream.builder();
+        keys.forEachKey(key -> {
+            if (key > probedUpTo) {
+                rest.add(key);
+            }
+        });
+        PrimitiveIterator.OfInt sorted = rest.build().sorted().iterator();
+        while (sorted.hasNext() && result.size() < limit) {
+            T item = lookup.apply(sorted.nextInt());
+            if (item != null) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Valida el tamaño de página.
+     *
+     * @param limit Tamaño máximo de la página.
+     * @throws IllegalArgumentException Si no es positivo.
+     */
+    public static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo: " + limit);
+        }
+    }
+}
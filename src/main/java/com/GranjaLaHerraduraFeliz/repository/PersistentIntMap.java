@@ -0,0 +1,339 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Mapa inmutable de claves {@code int} a valores, con compartición estructural
+ * (trie de base 32 comprimido con mapas de bits).
+ * <p>
+ * Cada modificación ({@link #with(int, Object)}, {@link #without(int)}) devuelve un
+ * mapa nuevo que copia solo el camino de la raíz a la hoja afectada (siete nodos
+ * de como mucho 32 entradas); el resto se comparte con la versión anterior, que
+ * sigue siendo válida e inmutable. Por eso publicar una versión es asignar una
+ * referencia, y cualquier número de lectores puede recorrerla sin cerrojos.
+ * <p>
+ * Las claves se ordenan como enteros sin signo, así que los IDs (positivos) se
+ * recorren en orden creciente. Cada nodo guarda el tamaño de su subárbol:
+ * {@link #size()} es constante y {@link #values()} devuelve una vista de lista sin
+ * copiar nada.
+ *
+ * @param <T> Tipo de los valores almacenados.
+ * @author Marcos
+ * @since 1.1
+ */
+public final class PersistentIntMap<T> {
+
+    /** Bits de la clave consumidos por nivel. */
+    private static final int BITS = 5;
+
+    /** Niveles del trie: 2 bits en la raíz y 5 en cada uno de los otros seis. */
+    private static final int LEVELS = 7;
+
+    private static final Node EMPTY_NODE = new Node(0, new Object[0], 0);
+
+    private static final PersistentIntMap<?> EMPTY = new PersistentIntMap<>(EMPTY_NODE);
+
+    private final Node root;
+
+    private PersistentIntMap(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * @param <T> Tipo de los valores.
+     * @return Mapa vacío (compartido).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentIntMap<T> empty() {
+        return (PersistentIntMap<T>) EMPTY;
+    }
+
+    /** @return Número de entradas. */
+    public int size() {
+        return root.size;
+    }
+
+    /** @return {@code true} si no hay entradas. */
+    public boolean isEmpty() {
+        return root.size == 0;
+    }
+
+    /**
+     * Obtiene el valor asociado a la clave.
+     *
+     * @param key Clave a buscar.
+     * @return El valor asociado o {@code null} si la clave no existe.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int key) {
+        Node node = root;
+        for (int level = 0; ; level++) {
+            int bit = bitOf(key, level);
+            if ((node.bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = node.slots[node.indexOf(bit)];
+            if (level == LEVELS - 1) {
+                return (T) slot;
+            }
+            node = (Node) slot;
+        }
+    }
+
+    /**
+     * Devuelve un mapa con la clave asociada al valor indicado.
+     *
+     * @param key   Clave.
+     * @param value Valor (no {@code null}).
+     * @return Mapa nuevo, o este mismo si ya contenía exactamente ese valor.
+     */
+    public PersistentIntMap<T> with(int key, T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("PersistentIntMap no admite valores null");
+        }
+        Node updated = put(root, 0, key, value);
+        return updated == root ? this : new PersistentIntMap<>(updated);
+    }
+
+    /**
+     * Devuelve un mapa sin la clave indicada.
+     *
+     * @param key Clave a quitar.
+     * @return Mapa nuevo, o este mismo si la clave no existía.
+     */
+    public PersistentIntMap<T> without(int key) {
+        Node updated = remove(root, 0, key);
+        return updated == root ? this : new PersistentIntMap<>(updated);
+    }
+
+    /**
+     * Vista de los valores en orden de clave. No copia nada: la vista es tan
+     * inmutable como el mapa. {@code get(i)} cuesta un descenso por el trie;
+     * recorrerla con su iterador cuesta lo mismo que recorrer una lista enlazada.
+     *
+     * @return Lista inmutable respaldada por este mapa.
+     */
+    public List<T> values() {
+        return new AbstractList<>() {
+            @Override
+            public T get(int index) {
+                return valueAtRank(index);
+            }
+
+            @Override
+            public int size() {
+                return root.size;
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                return new Cursor<>(root, 0);
+            }
+        };
+    }
+
+    /**
+     * Devuelve, en orden de clave, hasta {@code limit} valores cuya clave es
+     * mayor que {@code afterKey}, sin recorrer las anteriores.
+     *
+     * @param afterKey Cursor.
+     * @param limit    Número máximo de valores.
+     * @return Lista nueva con los valores.
+     */
+    public List<T> valuesAfter(int afterKey, int limit) {
+        List<T> result = new ArrayList<>(Math.min(limit, Paging.STREAM_PAGE_SIZE));
+        if (afterKey == -1) {
+            // -1 es la mayor clave sin signo: no hay nada después
+            return result;
+        }
+        Iterator<T> cursor = new Cursor<>(root, afterKey + 1);
+        while (cursor.hasNext() && result.size() < limit) {
+            result.add(cursor.next());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T valueAtRank(int index) {
+        if (index < 0 || index >= root.size) {
+            throw new IndexOutOfBoundsException("Índice " + index + " fuera de rango (size=" + root.size + ")");
+        }
+        Node node = root;
+        for (int level = 0; level < LEVELS - 1; level++) {
+            for (Object slot : node.slots) {
+                Node child = (Node) slot;
+                if (index < child.size) {
+                    node = child;
+                    break;
+                }
+                index -= child.size;
+            }
+        }
+        return (T) node.slots[index];
+    }
+
+    private static Node put(Node node, int level, int key, Object value) {
+        int bit = bitOf(key, level);
+        int index = node.indexOf(bit);
+        boolean present = (node.bitmap & bit) != 0;
+        if (level == LEVELS - 1) {
+            if (present) {
+                if (node.slots[index] == value) {
+                    return node;
+                }
+                return new Node(node.bitmap, replaced(node.slots, index, value), node.size);
+            }
+            return new Node(node.bitmap | bit, inserted(node.slots, index, value), node.size + 1);
+        }
+        Node child = present ? (Node) node.slots[index] : EMPTY_NODE;
+        Node updated = put(child, level + 1, key, value);
+        if (updated == child) {
+            return node;
+        }
+        Object[] slots = present ? replaced(node.slots, index, updated) : inserted(node.slots, index, updated);
+        return new Node(node.bitmap | bit, slots, node.size - child.size + updated.size);
+    }
+
+    private static Node remove(Node node, int level, int key) {
+        int bit = bitOf(key, level);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int index = node.indexOf(bit);
+        if (level < LEVELS - 1) {
+            Node child = (Node) node.slots[index];
+            Node updated = remove(child, level + 1, key);
+            if (updated == child) {
+                return node;
+            }
+            if (updated.size > 0) {
+                return new Node(node.bitmap, replaced(node.slots, index, updated), node.size - 1);
+            }
+        }
+        // Quitar la entrada (o el hijo que quedó vacío)
+        if (node.size == 1) {
+            return EMPTY_NODE;
+        }
+        return new Node(node.bitmap & ~bit, removed(node.slots, index), node.size - 1);
+    }
+
+    /** @return Bit del mapa de bits que corresponde a la clave en el nivel indicado. */
+    private static int bitOf(int key, int level) {
+        return 1 << ((key >>> shiftOf(level)) & 31);
+    }
+
+    private static int shiftOf(int level) {
+        return (LEVELS - 1 - level) * BITS;
+    }
+
+    private static Object[] replaced(Object[] slots, int index, Object value) {
+        Object[] copy = slots.clone();
+        copy[index] = value;
+        return copy;
+    }
+
+    private static Object[] inserted(Object[] slots, int index, Object value) {
+        Object[] copy = new Object[slots.length + 1];
+        System.arraycopy(slots, 0, copy, 0, index);
+        copy[index] = value;
+        System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+        return copy;
+    }
+
+    private static Object[] removed(Object[] slots, int index) {
+        Object[] copy = Arrays.copyOf(slots, slots.length - 1);
+        System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+        return copy;
+    }
+
+    /**
+     * Nodo inmutable: en los niveles internos {@code slots} contiene hijos
+     * ({@link Node}) y en el último, valores. Nunca hay nodos vacíos salvo la raíz.
+     */
+    private static final class Node {
+        final int bitmap;
+        final Object[] slots;
+        final int size;
+
+        Node(int bitmap, Object[] slots, int size) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+            this.size = size;
+        }
+
+        int indexOf(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    /** Recorrido en orden de clave con una pila de un nodo por nivel. */
+    private static final class Cursor<T> implements Iterator<T> {
+        private final Node[] path = new Node[LEVELS];
+        private final int[] position = new int[LEVELS];
+        private boolean done;
+
+        /** Se posiciona en la primera clave mayor o igual (sin signo) que {@code from}. */
+        Cursor(Node root, int from) {
+            if (root.size == 0) {
+                done = true;
+                return;
+            }
+            path[0] = root;
+            for (int level = 0; level < LEVELS; level++) {
+                Node node = path[level];
+                int bit = bitOf(from, level);
+                position[level] = node.indexOf(bit);
+                if ((node.bitmap & bit) == 0) {
+                    // La primera entrada mayor está en esta posición o después de este nodo
+                    settle(level);
+                    return;
+                }
+                if (level < LEVELS - 1) {
+                    path[level + 1] = (Node) node.slots[position[level]];
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !done;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            if (done) {
+                throw new NoSuchElementException();
+            }
+            int leaf = LEVELS - 1;
+            T value = (T) path[leaf].slots[position[leaf]];
+            position[leaf]++;
+            settle(leaf);
+            return value;
+        }
+
+        /**
+         * Corrige la pila tras avanzar la posición del nivel indicado: sube mientras
+         * el nodo esté agotado y luego baja por el extremo izquierdo.
+         */
+        private void settle(int level) {
+            while (position[level] >= path[level].slots.length) {
+                if (level == 0) {
+                    done = true;
+                    return;
+                }
+                level--;
+                position[level]++;
+            }
+            for (; level < LEVELS - 1; level++) {
+                path[level + 1] = (Node) path[level].slots[position[level]];
+                position[level + 1] = 0;
+            }
+        }
+    }
+}
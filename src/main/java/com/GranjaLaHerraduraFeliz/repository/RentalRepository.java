@@ -3,7 +3,10 @@ package com.GranjaLaHerraduraFeliz.repository;
 import com.GranjaLaHerraduraFeliz.model.Animal;
 import com.GranjaLaHerraduraFeliz.model.Rental;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repositorio encargado de gestionar la persistencia de objetos {@link Rental}.
@@ -14,6 +17,7 @@ import java.util.List;
  *     <li>Buscar alquileres por ID.</li>
  *     <li>Obtener todos los alquileres registrados.</li>
  *     <li>Consultar alquileres activos asociados a un animal.</li>
+ *     <li>Consultar el historial de un cliente o de un rango de fechas.</li>
  * </ul>
  *
  * Este repositorio es una abstracción: su implementación puede ser en memoria,
@@ -36,6 +40,24 @@ public interface RentalRepository {
      */
     Rental save(Rental rental);
 
+    /**
+     * Guarda varios alquileres en una sola operación.
+     * <p>
+     * La implementación por defecto llama a {@link #save} por cada elemento; las
+     * implementaciones que pueden agrupar escrituras (por ejemplo, lotes JDBC o un
+     * único {@code fsync} del journal) la sobrescriben.
+     *
+     * @param rentals Elementos a guardar.
+     * @return Los elementos guardados, en el mismo orden y con ID asignado.
+     */
+    default List<Rental> saveAll(List<Rental> rentals) {
+        List<Rental> saved = new ArrayList<>(rentals.size());
+        for (Rental item : rentals) {
+            saved.add(save(item));
+        }
+        return saved;
+    }
+
     /**
      * Busca un alquiler por su ID.
      *
@@ -46,11 +68,48 @@ public interface RentalRepository {
 
     /**
      * Obtiene todos los alquileres registrados.
+     * <p>
+     * Es una conveniencia que copia todo el repositorio; para recorrer
+     * volúmenes grandes conviene {@link #stream()} o {@link #findPage(int, int)}.
      *
      * @return Lista completa de alquileres.
      */
     List<Rental> findAll();
 
+    /**
+     * Obtiene una página de alquileres ordenada por ID (paginación por cursor).
+     * <p>
+     * Para recorrer el repositorio se empieza con {@code afterId = 0} y en cada
+     * llamada se pasa el ID del último elemento recibido, hasta obtener una página
+     * con menos de {@code limit} elementos.
+     *
+     * @param afterId Cursor: solo se devuelven alquileres con ID mayor.
+     * @param limit   Tamaño máximo de la página (positivo).
+     * @return Alquileres ordenados por ID (como mucho {@code limit}).
+     * @throws IllegalArgumentException Si {@code limit} no es positivo.
+     */
+    List<Rental> findPage(int afterId, int limit);
+
+    /**
+     * Recorre perezosamente todos los alquileres en orden de ID, una página a la vez
+     * (ver {@link Paging}), sin copiar el repositorio completo.
+     *
+     * @return Flujo de alquileres ordenado por ID.
+     */
+    default Stream<Rental> stream() {
+        return Paging.stream(this::findPage, Rental::getId);
+    }
+
+    /**
+     * Mayor ID guardado, con el que un decorador puede asignar IDs por su cuenta
+     * (ver {@code JournaledRentalRepository}). Por defecto recorre el repositorio.
+     *
+     * @return Mayor ID, o {@code 0} si está vacío.
+     */
+    default int maxId() {
+        return stream().mapToInt(Rental::getId).max().orElse(0);
+    }
+
     /**
      * Busca alquileres que estén activos para un animal específico.
      * <p>
@@ -60,4 +119,22 @@ public interface RentalRepository {
      * @return Lista de alquileres activos para ese animal (posiblemente vacía).
      */
     List<Rental> findActiveByAnimal(Animal animal);
+
+    /**
+     * Obtiene todos los alquileres (activos y finalizados) de un cliente.
+     *
+     * @param customerId ID del cliente.
+     * @return Lista de alquileres del cliente (posiblemente vacía).
+     */
+    List<Rental> findByCustomer(int customerId);
+
+    /**
+     * Obtiene los alquileres cuyo {@code startTime} está dentro del rango
+     * {@code [from, to)}, ordenados por hora de inicio.
+     *
+     * @param from Inicio del rango (inclusive).
+     * @param to   Fin del rango (exclusivo).
+     * @return Lista de alquileres iniciados en el rango (posiblemente vacía).
+     */
+    List<Rental> findStartedBetween(LocalDateTime from, LocalDateTime to);
 }
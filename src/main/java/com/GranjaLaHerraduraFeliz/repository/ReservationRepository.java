@@ -0,0 +1,63 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repositorio encargado de gestionar la persistencia de objetos {@link Reservation}.
+ * <p>
+ * Solo guarda y recupera reservas; la detección de solapamientos la hace
+ * {@code ReservationService} con sus propios índices por animal.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public interface ReservationRepository {
+
+    /**
+     * Guarda una reserva; si no tiene ID asignado, la implementación lo genera.
+     *
+     * @param reservation Reserva a guardar o actualizar.
+     * @return La reserva guardada, con ID asignado.
+     */
+    Reservation save(Reservation reservation);
+
+    /**
+     * Busca una reserva por su ID.
+     *
+     * @param id Identificador de la reserva.
+     * @return La reserva encontrada, o {@code null} si no existe.
+     */
+    Reservation findById(int id);
+
+    /**
+     * Obtiene una página de reservas ordenada por ID (ver {@link Paging}).
+     *
+     * @param afterId Cursor: solo se devuelven reservas con ID mayor.
+     * @param limit   Tamaño máximo de la página (positivo).
+     * @return Reservas ordenadas por ID (como mucho {@code limit}).
+     * @throws IllegalArgumentException Si {@code limit} no es positivo.
+     */
+    List<Reservation> findPage(int afterId, int limit);
+
+    /**
+     * Recorre perezosamente todas las reservas en orden de ID.
+     *
+     * @return Flujo de reservas ordenado por ID.
+     */
+    default Stream<Reservation> stream() {
+        return Paging.stream(this::findPage, Reservation::getId);
+    }
+
+    /**
+     * Mayor ID guardado, con el que un decorador puede asignar IDs por su cuenta
+     * (ver {@code JournaledReservationRepository}). Por defecto recorre el repositorio.
+     *
+     * @return Mayor ID, o {@code 0} si está vacío.
+     */
+    default int maxId() {
+        return stream().mapToInt(Reservation::getId).max().orElse(0);
+    }
+}
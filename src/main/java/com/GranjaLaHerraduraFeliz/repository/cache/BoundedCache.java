@@ -0,0 +1,214 @@
+package com.GranjaLaHerraduraFeliz.repository.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntFunction;
+
+/**
+ * Caché acotada de valores por clave {@code int}, con expulsión LRU (el menos
+ * usado recientemente sale primero).
+ * <p>
+ * Las claves se reparten en segmentos, cada uno con su {@link LinkedHashMap} en
+ * orden de acceso y su propio cerrojo, así que dos hilos que leen claves de
+ * segmentos distintos no compiten. Cada segmento guarda como mucho
+ * {@code capacity / segmentos} entradas: el orden LRU es por segmento, no global,
+ * lo que basta para quedarse con las claves frecuentes.
+ * <p>
+ * La carga de una clave ausente ({@link #get(int, IntFunction)}) se hace fuera del
+ * cerrojo; si mientras tanto se invalida alguna clave del segmento, el valor
+ * cargado se devuelve pero no se guarda, para no dejar en caché un dato anterior
+ * a una escritura. Los {@code null} (clave inexistente) nunca se guardan.
+ *
+ * @param <V> Tipo de los valores.
+ * @author Marcos
+ * @since 1.1
+ */
+public final class BoundedCache<V> {
+
+    /** Segmentos por defecto, suficientes para varias decenas de hilos. */
+    public static final int DEFAULT_SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+    private final int mask;
+    private final int capacity;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Crea una caché con {@link #DEFAULT_SEGMENTS} segmentos (menos si la capacidad es pequeña).
+     *
+     * @param capacity Número máximo de entradas.
+     */
+    public BoundedCache(int capacity) {
+        this(capacity, DEFAULT_SEGMENTS);
+    }
+
+    /**
+     * @param capacity Número máximo de entradas.
+     * @param segments Número de segmentos (se redondea a potencia de dos y nunca
+     *                 supera la capacidad).
+     * @throws IllegalArgumentException Si la capacidad o los segmentos no son positivos.
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedCache(int capacity, int segments) {
+        if (capacity <= 0 || segments <= 0) {
+            throw new IllegalArgumentException("Capacidad y segmentos deben ser positivos: "
+                    + capacity + ", " + segments);
+        }
+        int count = Integer.highestOneBit(Math.min(segments, capacity));
+        this.segments = (Segment<V>[]) new Segment<?>[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment<>(capacity / count, evictions);
+        }
+        this.mask = count - 1;
+        this.capacity = capacity / count * count;
+    }
+
+    /**
+     * Devuelve el valor en caché o lo carga y lo guarda.
+     *
+     * @param key    Clave.
+     * @param loader Carga el valor si no está (puede devolver {@code null}).
+     * @return El valor, o {@code null} si {@code loader} no lo encontró.
+     */
+    public V get(int key, IntFunction<V> loader) {
+        Segment<V> segment = segmentFor(key);
+        long stamp;
+        segment.lock.lock();
+        try {
+            V cached = segment.entries.get(key);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            stamp = segment.invalidations;
+        } finally {
+            segment.lock.unlock();
+        }
+        misses.increment();
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            segment.lock.lock();
+            try {
+                if (segment.invalidations == stamp) {
+                    segment.entries.putIfAbsent(key, loaded);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @param key Clave.
+     * @return El valor en caché, o {@code null} si no está (no cuenta como acierto ni fallo).
+     */
+    public V getIfPresent(int key) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            return segment.entries.get(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Quita una clave; se llama después de cada escritura en el repositorio.
+     *
+     * @param key Clave modificada.
+     */
+    public void invalidate(int key) {
+        Segment<V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.entries.remove(key);
+            segment.invalidations++;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /** Vacía la caché (las estadísticas se conservan). */
+    public void invalidateAll() {
+        for (Segment<V> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.entries.clear();
+                segment.invalidations++;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /** @return Entradas guardadas ahora mismo. */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /** @return Aciertos, fallos y expulsiones acumulados desde la creación. */
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size(), capacity);
+    }
+
+    private Segment<V> segmentFor(int key) {
+        // Mezcla los bits para que IDs consecutivos no caigan siempre en segmentos vecinos
+        int h = key * 0x9E3779B9;
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    /** Mapa LRU de un segmento; solo se usa con su cerrojo tomado. */
+    private static final class Segment<V> {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Integer, V> entries;
+
+        /** Invalidaciones hechas en el segmento: una carga solo se guarda si no cambió. */
+        long invalidations;
+
+        Segment(int capacity, LongAdder evictions) {
+            this.entries = new LinkedHashMap<>(Math.min(capacity, 1 << 16) * 4 / 3 + 1, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    /**
+     * Estadísticas de uso de la caché.
+     *
+     * @param hits      Lecturas resueltas desde la caché.
+     * @param misses    Lecturas que tuvieron que ir al repositorio.
+     * @param evictions Entradas expulsadas por falta de espacio.
+     * @param size      Entradas guardadas.
+     * @param capacity  Entradas máximas.
+     */
+    public record Stats(long hits, long misses, long evictions, int size, int capacity) {
+
+        /** @return Proporción de aciertos entre 0 y 1 (0 si aún no hubo lecturas). */
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.GranjaLaHerraduraFeliz.repository.cache;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de {@link AnimalRepository} que guarda en una {@link BoundedCache} los
+ * animales leídos con {@link #findById(int)}.
+ * <p>
+ * Cada {@code save} se escribe en el repositorio y después invalida la entrada, así
+ * que la siguiente lectura vuelve a cargarla. Las consultas por estado, páginas y
+ * listados van siempre al repositorio. Los animales en caché se comparten entre
+ * quienes los leen, igual que en los repositorios en memoria.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class CachingAnimalRepository implements AnimalRepository {
+
+    private final AnimalRepository delegate;
+    private final BoundedCache<Animal> cache;
+
+    /**
+     * @param delegate Repositorio de origen (por ejemplo, JDBC).
+     * @param capacity Animales máximos en caché.
+     */
+    public CachingAnimalRepository(AnimalRepository delegate, int capacity) {
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(capacity);
+    }
+
+    @Override
+    public Animal save(Animal animal) {
+        try {
+            return delegate.save(animal);
+        } finally {
+            cache.invalidate(animal.getId());
+        }
+    }
+
+    @Override
+    public List<Animal> saveAll(List<Animal> animals) {
+        try {
+            return delegate.saveAll(animals);
+        } finally {
+            for (Animal animal : animals) {
+                cache.invalidate(animal.getId());
+            }
+        }
+    }
+
+    @Override
+    public Animal findById(int id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public List<Animal> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Animal> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Animal> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public List<Animal> findByStatus(AnimalStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    /** @return Estadísticas de la caché. */
+    public BoundedCache.Stats cacheStats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,80 @@
+package com.GranjaLaHerraduraFeliz.repository.cache;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de {@link CustomerRepository} que guarda en una {@link BoundedCache} los
+ * clientes leídos con {@link #findById(int)}; cada {@code save} invalida su entrada
+ * (ver {@link CachingAnimalRepository}). Las búsquedas por nombre van al repositorio.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class CachingCustomerRepository implements CustomerRepository {
+
+    private final CustomerRepository delegate;
+    private final BoundedCache<Customer> cache;
+
+    /**
+     * @param delegate Repositorio de origen.
+     * @param capacity Clientes máximos en caché.
+     */
+    public CachingCustomerRepository(CustomerRepository delegate, int capacity) {
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(capacity);
+    }
+
+    @Override
+    public Customer save(Customer customer) {
+        try {
+            return delegate.save(customer);
+        } finally {
+            cache.invalidate(customer.getId());
+        }
+    }
+
+    @Override
+    public List<Customer> saveAll(List<Customer> customers) {
+        try {
+            return delegate.saveAll(customers);
+        } finally {
+            for (Customer customer : customers) {
+                cache.invalidate(customer.getId());
+            }
+        }
+    }
+
+    @Override
+    public Customer findById(int id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Customer> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Customer> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public List<Customer> searchByName(String query, int limit) {
+        return delegate.searchByName(query, limit);
+    }
+
+    /** @return Estadísticas de la caché. */
+    public BoundedCache.Stats cacheStats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,93 @@
+package com.GranjaLaHerraduraFeliz.repository.cache;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Decorador de {@link RentalRepository} que guarda en una {@link BoundedCache} los
+ * alquileres leídos con {@link #findById(int)}; cada {@code save} invalida su entrada
+ * (ver {@link CachingAnimalRepository}). Las consultas por animal, cliente o fechas
+ * van al repositorio, que es quien mantiene sus índices.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class CachingRentalRepository implements RentalRepository {
+
+    private final RentalRepository delegate;
+    private final BoundedCache<Rental> cache;
+
+    /**
+     * @param delegate Repositorio de origen.
+     * @param capacity Alquileres máximos en caché.
+     */
+    public CachingRentalRepository(RentalRepository delegate, int capacity) {
+        this.delegate = delegate;
+        this.cache = new BoundedCache<>(capacity);
+    }
+
+    @Override
+    public Rental save(Rental rental) {
+        try {
+            return delegate.save(rental);
+        } finally {
+            cache.invalidate(rental.getId());
+        }
+    }
+
+    @Override
+    public List<Rental> saveAll(List<Rental> rentals) {
+        try {
+            return delegate.saveAll(rentals);
+        } finally {
+            for (Rental rental : rentals) {
+                cache.invalidate(rental.getId());
+            }
+        }
+    }
+
+    @Override
+    public Rental findById(int id) {
+        return cache.get(id, delegate::findById);
+    }
+
+    @Override
+    public List<Rental> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Rental> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public Stream<Rental> stream() {
+        return delegate.stream();
+    }
+
+    @Override
+    public List<Rental> findActiveByAnimal(Animal animal) {
+        return delegate.findActiveByAnimal(animal);
+    }
+
+    @Override
+    public List<Rental> findByCustomer(int customerId) {
+        return delegate.findByCustomer(customerId);
+    }
+
+    @Override
+    public List<Rental> findStartedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findStartedBetween(from, to);
+    }
+
+    /** @return Estadísticas de la caché. */
+    public BoundedCache.Stats cacheStats() {
+        return cache.stats();
+    }
+}
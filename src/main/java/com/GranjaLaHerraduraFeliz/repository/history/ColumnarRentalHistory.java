@@ -0,0 +1,148 @@
+package com.GranjaLaHerraduraFeliz.repository.history;
+
+import com.GranjaLaHerraduraFeliz.repository.IntIntMap;
+
+import java.util.Arrays;
+
+/**
+ * {@link RentalHistory} en el heap con arreglos paralelos de primitivos
+ * ("struct of arrays").
+ * <p>
+ * Cada fila ocupa 29 bytes en las columnas más unos 16 bytes del índice por ID,
+ * frente a los cientos de bytes de un {@code Rental} con sus dos
+ * {@code LocalDateTime}. Además, el recolector de basura no tiene que recorrer
+ * estos arreglos: no contienen referencias.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class ColumnarRentalHistory implements RentalHistory {
+
+    private int[] ids;
+    private int[] animalIds;
+    private int[] customerIds;
+    private long[] startNanos;
+    private long[] endNanos;
+    private byte[] types;
+    private int size;
+
+    /** ID de alquiler → fila. */
+    private final IntIntMap rowById;
+
+    /** Crea un historial vacío. */
+    public ColumnarRentalHistory() {
+        this(1024);
+    }
+
+    /**
+     * Crea un historial vacío dimensionado para {@code expectedSize} alquileres.
+     *
+     * @param expectedSize Número de alquileres esperados.
+     */
+    public ColumnarRentalHistory(int expectedSize) {
+        int capacity = Math.max(expectedSize, 16);
+        this.ids = new int[capacity];
+        this.animalIds = new int[capacity];
+        this.customerIds = new int[capacity];
+        this.startNanos = new long[capacity];
+        this.endNanos = new long[capacity];
+        this.types = new byte[capacity];
+        this.rowById = new IntIntMap(capacity);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int indexOf(int rentalId) {
+        return rowById.get(rentalId);
+    }
+
+    @Override
+    public int put(int rentalId, int animalId, int customerId, long start, long end, byte rentalType) {
+        int row = rowById.get(rentalId);
+        if (row == IntIntMap.MISSING) {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            rowById.put(rentalId, row);
+        }
+        ids[row] = rentalId;
+        animalIds[row] = animalId;
+        customerIds[row] = customerId;
+        startNanos[row] = start;
+        endNanos[row] = end;
+        types[row] = rentalType;
+        return row;
+    }
+
+    @Override
+    public boolean remove(int rentalId) {
+        int row = rowById.remove(rentalId);
+        if (row == IntIntMap.MISSING) {
+            return false;
+        }
+        int last = --size;
+        if (row != last) {
+            // La última fila ocupa el hueco
+            ids[row] = ids[last];
+            animalIds[row] = animalIds[last];
+            customerIds[row] = customerIds[last];
+            startNanos[row] = startNanos[last];
+            endNanos[row] = endNanos[last];
+            types[row] = types[last];
+            rowById.put(ids[row], row);
+        }
+        return true;
+    }
+
+    @Override
+    public int rentalId(int index) {
+        return ids[checkIndex(index)];
+    }
+
+    @Override
+    public int animalId(int index) {
+        return animalIds[checkIndex(index)];
+    }
+
+    @Override
+    public int customerId(int index) {
+        return customerIds[checkIndex(index)];
+    }
+
+    @Override
+    public long startNanos(int index) {
+        return startNanos[checkIndex(index)];
+    }
+
+    @Override
+    public long endNanos(int index) {
+        return endNanos[checkIndex(index)];
+    }
+
+    @Override
+    public byte rentalType(int index) {
+        return types[checkIndex(index)];
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Fila " + index + " fuera de rango (size=" + size + ")");
+        }
+        return index;
+    }
+
+    private void grow() {
+        int capacity = size + (size >> 1) + 1;
+        ids = Arrays.copyOf(ids, capacity);
+        animalIds = Arrays.copyOf(animalIds, capacity);
+        customerIds = Arrays.copyOf(customerIds, capacity);
+        startNanos = Arrays.copyOf(startNanos, capacity);
+        endNanos = Arrays.copyOf(endNanos, capacity);
+        types = Arrays.copyOf(types, capacity);
+    }
+}
@@ -0,0 +1,256 @@
+package com.GranjaLaHerraduraFeliz.repository.history;
+
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Consultas por lotes que recorren todo el {@link RentalHistory} en paralelo.
+ * <p>
+ * Sirve para preguntas que no se pueden precalcular ("qué clientes alquilaron
+ * cerdos en sábado"): el rango de filas se divide recursivamente en un
+ * {@link ForkJoinPool} hasta trozos de unos miles de filas; cada trozo filtra y
+ * acumula leyendo solo las columnas que usa la consulta, en su propio
+ * acumulador, y los acumuladores se combinan al volver. No se crean objetos por
+ * fila ni hay estado compartido entre hilos, así que el tiempo baja casi en
+ * proporción a los núcleos del pool.
+ * <p>
+ * El historial no debe modificarse durante la consulta; con
+ * {@link HistoryRentalRepository} se consigue mediante
+ * {@link HistoryRentalRepository#readHistory}, que mantiene el cerrojo de lectura.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class HistoryAnalytics {
+
+    private static final long NANOS_PER_DAY = 86_400_000_000_000L;
+
+    /** Filas mínimas por trozo: por debajo, dividir cuesta más que recorrer. */
+    private static final int MIN_CHUNK = 4_096;
+
+    private final ForkJoinPool pool;
+
+    /** Usa el pool común de la JVM. */
+    public HistoryAnalytics() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool Pool en el que se reparten las consultas; su paralelismo fija
+     *             cuántos núcleos se usan.
+     */
+    public HistoryAnalytics(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Recorre en paralelo las filas que cumplen el filtro y combina los resultados.
+     *
+     * @param history     Historial a recorrer (sin escrituras durante la consulta).
+     * @param filter      Filas a considerar.
+     * @param supplier    Crea un acumulador vacío por trozo.
+     * @param accumulator Suma una fila al acumulador de su trozo.
+     * @param combiner    Combina dos acumuladores (puede devolver uno de ellos modificado).
+     * @param <A>         Tipo del acumulador.
+     * @return Acumulador con todas las filas que cumplen el filtro.
+     */
+    public <A> A aggregate(RentalHistory history, RowPredicate filter, Supplier<A> supplier,
+                           RowAccumulator<A> accumulator, BinaryOperator<A> combiner) {
+        int size = history.size();
+        int chunk = Math.max(MIN_CHUNK, size / (pool.getParallelism() * 8));
+        return pool.invoke(new ScanTask<>(history, 0, size, chunk, filter, supplier, accumulator, combiner));
+    }
+
+    /**
+     * @param history Historial a recorrer.
+     * @param filter  Filas a contar.
+     * @return Número de filas que cumplen el filtro.
+     */
+    public long count(RentalHistory history, RowPredicate filter) {
+        return aggregate(history, filter, () -> new long[1],
+                (total, h, row) -> total[0]++,
+                (a, b) -> {
+                    a[0] += b[0];
+                    return a;
+                })[0];
+    }
+
+    /**
+     * @param history Historial a recorrer.
+     * @param filter  Filas a considerar.
+     * @return IDs de los clientes con alguna fila que cumple el filtro (un bit por ID).
+     */
+    public BitSet customers(RentalHistory history, RowPredicate filter) {
+        return aggregate(history, filter, BitSet::new,
+                (ids, h, row) -> ids.set(h.customerId(row)),
+                (a, b) -> {
+                    a.or(b);
+                    return a;
+                });
+    }
+
+    /**
+     * @param history     Historial a recorrer.
+     * @param filter      Filas a considerar.
+     * @param maxAnimalId Mayor ID de animal; los IDs mayores se ignoran.
+     * @return Minutos alquilados por ID de animal (índice = ID) en las filas que cumplen el filtro.
+     */
+    public long[] minutesByAnimal(RentalHistory history, RowPredicate filter, int maxAnimalId) {
+        return aggregate(history, filter, () -> new long[maxAnimalId + 1],
+                (minutes, h, row) -> {
+                    long start = h.startNanos(row);
+                    long end = h.endNanos(row);
+                    int animalId = h.animalId(row);
+                    if (start != RentalHistory.NO_TIME && end != RentalHistory.NO_TIME
+                            && animalId >= 0 && animalId <= maxAnimalId) {
+                        minutes[animalId] += (end - start) / 60_000_000_000L;
+                    }
+                },
+                (a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                    return a;
+                });
+    }
+
+    /**
+     * Filtro por día de la semana de inicio.
+     *
+     * @param day Día de la semana.
+     * @return Filas que empezaron ese día.
+     */
+    public static RowPredicate startedOn(DayOfWeek day) {
+        return (history, row) -> {
+            long start = history.startNanos(row);
+            // 1970-01-01 fue jueves: el día "epoch" 0 es el índice 3 empezando en lunes
+            return start != RentalHistory.NO_TIME
+                    && Math.floorMod(Math.floorDiv(start, NANOS_PER_DAY) + 3, 7) == day.ordinal();
+        };
+    }
+
+    /**
+     * @return Filas que empezaron en {@code [from, to)}.
+     */
+    public static RowPredicate startedBetween(LocalDateTime from, LocalDateTime to) {
+        long fromNanos = RentalHistory.toEpochNanos(from);
+        long toNanos = RentalHistory.toEpochNanos(to);
+        return (history, row) -> {
+            long start = history.startNanos(row);
+            return start != RentalHistory.NO_TIME && start >= fromNanos && start < toNanos;
+        };
+    }
+
+    /**
+     * @return Filas del tipo de alquiler indicado.
+     */
+    public static RowPredicate rentalType(RentalType type) {
+        byte code = RentalHistory.toTypeCode(type);
+        return (history, row) -> history.rentalType(row) == code;
+    }
+
+    /**
+     * Filtro por animal. El conjunto se suele calcular antes desde el repositorio
+     * de animales (por ejemplo, los IDs de todos los cerdos).
+     *
+     * @param animalIds IDs de animal aceptados (no se modifica durante la consulta).
+     * @return Filas de esos animales.
+     */
+    public static RowPredicate animalIn(BitSet animalIds) {
+        return (history, row) -> {
+            int animalId = history.animalId(row);
+            return animalId >= 0 && animalIds.get(animalId);
+        };
+    }
+
+    /**
+     * Condición sobre una fila del historial.
+     */
+    @FunctionalInterface
+    public interface RowPredicate {
+
+        /** Acepta todas las filas. */
+        RowPredicate ALL = (history, row) -> true;
+
+        /**
+         * @param history Historial consultado.
+         * @param row     Fila.
+         * @return {@code true} si la fila cumple la condición.
+         */
+        boolean test(RentalHistory history, int row);
+
+        /** @return Condición que exige esta y {@code other}. */
+        default RowPredicate and(RowPredicate other) {
+            return (history, row) -> test(history, row) && other.test(history, row);
+        }
+    }
+
+    /**
+     * Suma una fila a un acumulador.
+     *
+     * @param <A> Tipo del acumulador.
+     */
+    @FunctionalInterface
+    public interface RowAccumulator<A> {
+
+        /**
+         * @param accumulator Acumulador del trozo (solo lo usa un hilo).
+         * @param history     Historial consultado.
+         * @param row         Fila que cumple el filtro.
+         */
+        void accept(A accumulator, RentalHistory history, int row);
+    }
+
+    /** Recorre {@code [from, to)}, dividiéndolo mientras supere el tamaño de trozo. */
+    private static final class ScanTask<A> extends RecursiveTask<A> {
+        private static final long serialVersionUID = 1L;
+
+        // ForkJoinTask es Serializable, pero estas tareas nunca salen del pool
+        private final transient RentalHistory history;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final transient RowPredicate filter;
+        private final transient Supplier<A> supplier;
+        private final transient RowAccumulator<A> accumulator;
+        private final transient BinaryOperator<A> combiner;
+
+        ScanTask(RentalHistory history, int from, int to, int chunk, RowPredicate filter,
+                 Supplier<A> supplier, RowAccumulator<A> accumulator, BinaryOperator<A> combiner) {
+            this.history = history;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.filter = filter;
+            this.supplier = supplier;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= chunk) {
+                A result = supplier.get();
+                for (int row = from; row < to; row++) {
+                    if (filter.test(history, row)) {
+                        accumulator.accept(result, history, row);
+                    }
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<A> left = new ScanTask<>(history, from, middle, chunk, filter, supplier, accumulator, combiner);
+            ScanTask<A> right = new ScanTask<>(history, middle, to, chunk, filter, supplier, accumulator, combiner);
+            left.fork();
+            A rightResult = right.compute();
+            return combiner.apply(left.join(), rightResult);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.GranjaLaHerraduraFeliz.repository.history;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.IntIntMap;
+import com.GranjaLaHerraduraFeliz.repository.IntObjectStore;
+import com.GranjaLaHerraduraFeliz.repository.Paging;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Repositorio de {@link Rental} que mantiene como objetos solo los alquileres
+ * activos y guarda los finalizados en un {@link RentalHistory} por columnas.
+ * <p>
+ * Al guardar un alquiler con {@code endTime}, se descarta el objeto y sus datos
+ * pasan a una fila del historial; si se vuelve a guardar sin {@code endTime}
+ * (reapertura), sale del historial. Las consultas que devuelven alquileres
+ * finalizados construyen vistas ligeras: un {@link Rental} nuevo por llamada que
+ * comparte las instancias de {@link Animal} y {@link Customer} de sus
+ * repositorios. Para modificar una vista hay que guardarla con {@link #save(Rental)}.
+ * <p>
+ * Costes:
+ * <ul>
+ *     <li>{@link #findActiveByAnimal(Animal)} y {@link #findById(int)} usan índices.</li>
+ *     <li>{@link #findByCustomer(int)} usa una lista de IDs por cliente y
+ *     {@link #findStartedBetween} una secuencia ordenada por inicio, así que solo
+ *     visitan las filas del resultado; los alquileres activos (tantos como animales
+ *     como mucho) se recorren.</li>
+ * </ul>
+ * Los índices del historial guardan IDs de alquiler y no posiciones, porque las
+ * filas se mueven al borrar (ver {@link RentalHistory}); cuestan unos 16 bytes por
+ * fila, sin objetos por alquiler.
+ * Es seguro para uso concurrente mediante un cerrojo de lectura/escritura.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class HistoryRentalRepository implements RentalRepository {
+
+    private final AnimalRepository animals;
+    private final CustomerRepository customers;
+    private final RentalHistory history;
+
+    /** Alquileres activos por ID. */
+    private final IntObjectStore<Rental> active = new IntObjectStore<>();
+
+    /** ID de alquiler activo → ID de animal con el que quedó indexado. */
+    private final IntIntMap activeAnimalOf = new IntIntMap();
+
+    /** ID de animal → alquileres activos. */
+    private final IntObjectStore<List<Rental>> activeByAnimal = new IntObjectStore<>();
+
+    /** ID de cliente → IDs de sus alquileres en el historial. */
+    private final IntObjectStore<IdList> historyByCustomer = new IntObjectStore<>();
+
+    /** Alquileres del historial ordenados por inicio (los que no tienen inicio no están). */
+    private final StartOrder historyByStart = new StartOrder();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int nextId = 1;
+
+    /**
+     * @param animals   Repositorio de animales para resolver las vistas.
+     * @param customers Repositorio de clientes para resolver las vistas.
+     * @param history   Almacén de alquileres finalizados.
+     */
+    public HistoryRentalRepository(AnimalRepository animals, CustomerRepository customers, RentalHistory history) {
+        this.animals = animals;
+        this.customers = customers;
+        this.history = history;
+        for (int i = 0; i < history.size(); i++) {
+            nextId = Math.max(nextId, history.rentalId(i) + 1);
+            // Las filas llegan más o menos en orden de inicio: casi todo se agrega al final
+            customerPostings(history.customerId(i)).add(history.rentalId(i));
+            historyByStart.add(history.startNanos(i), history.rentalId(i));
+        }
+    }
+
+    /** Sin recorrer el historial: el contador de IDs ya sigue al mayor guardado. */
+    @Override
+    public int maxId() {
+        lock.readLock().lock();
+        try {
+            return nextId - 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Guarda un alquiler. Los finalizados pasan al historial por columnas.
+     *
+     * @param rental Alquiler a guardar o actualizar.
+     * @return El alquiler guardado.
+     */
+    @Override
+    public Rental save(Rental rental) {
+        lock.writeLock().lock();
+        try {
+            if (rental.getId() == 0) {
+                rental.setId(nextId++);
+            } else if (rental.getId() >= nextId) {
+                nextId = rental.getId() + 1;
+            }
+            int id = rental.getId();
+            removeActive(id);
+            if (rental.getEndTime() == null) {
+                unindexHistory(id);
+                history.remove(id);
+                active.put(id, rental);
+                int animalId = animalIdOf(rental);
+                activeAnimalOf.put(id, animalId);
+                List<Rental> bucket = activeByAnimal.get(animalId);
+                if (bucket == null) {
+                    bucket = new ArrayList<>(1);
+                    activeByAnimal.put(animalId, bucket);
+                }
+                bucket.add(rental);
+            } else {
+                int customerId = rental.getCustomer() == null ? 0 : rental.getCustomer().getId();
+                long startNanos = RentalHistory.toEpochNanos(rental.getStartTime());
+                // Como en los demás repositorios, los índices solo se tocan si cambió su clave
+                int row = history.indexOf(id);
+                boolean sameKeys = row >= 0 && history.customerId(row) == customerId
+                        && history.startNanos(row) == startNanos;
+                if (!sameKeys) {
+                    unindexHistory(id);
+                    customerPostings(customerId).add(id);
+                    historyByStart.add(startNanos, id);
+                }
+                history.put(id, animalIdOf(rental), customerId, startNanos,
+                        RentalHistory.toEpochNanos(rental.getEndTime()),
+                        RentalHistory.toTypeCode(rental.getRentalType()));
+            }
+            return rental;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Rental findById(int id) {
+        lock.readLock().lock();
+        try {
+            return lookup(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene todos los alquileres: primero los activos y luego las vistas del historial.
+     *
+     * @return Lista completa de alquileres.
+     */
+    @Override
+    public List<Rental> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Rental> result = new ArrayList<>(active.size() + history.size());
+            active.forEach(result::add);
+            for (int row = 0; row < history.size(); row++) {
+                result.add(view(row));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Página ordenada por ID: busca los IDs siguientes al cursor en los índices de
+     * activos e historial, creando vistas solo para las filas devueltas.
+     */
+    @Override
+    public List<Rental> findPage(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return Paging.page(afterId, limit, this::lookup, action -> {
+                active.forEachKey(action);
+                for (int row = 0; row < history.size(); row++) {
+                    action.accept(history.rentalId(row));
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Rental> findActiveByAnimal(Animal animal) {
+        lock.readLock().lock();
+        try {
+            List<Rental> result = new ArrayList<>();
+            List<Rental> bucket = activeByAnimal.get(animal.getId());
+            if (bucket != null) {
+                for (Rental rental : bucket) {
+                    // Protege frente a cambios aún no persistidos con save
+                    if (rental.getEndTime() == null) {
+                        result.add(rental);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene el historial de un cliente, ordenado por ID.
+     *
+     * @param customerId ID del cliente.
+     * @return Lista de alquileres del cliente.
+     */
+    @Override
+    public List<Rental> findByCustomer(int customerId) {
+        lock.readLock().lock();
+        try {
+            List<Rental> result = new ArrayList<>();
+            for (int i = 0; i < active.size(); i++) {
+                Rental rental = active.valueAt(i);
+                if (rental.getCustomer() != null && rental.getCustomer().getId() == customerId) {
+                    result.add(rental);
+                }
+            }
+            IdList finished = historyByCustomer.get(customerId);
+            if (finished != null) {
+                for (int i = 0; i < finished.size; i++) {
+                    result.add(view(history.indexOf(finished.ids[i])));
+                }
+            }
+            result.sort(Comparator.comparingInt(Rental::getId));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Rental> findStartedBetween(LocalDateTime from, LocalDateTime to) {
+        List<Rental> result = new ArrayList<>();
+        if (from == null || to == null || !from.isBefore(to)) {
+            return result;
+        }
+        long fromNanos = RentalHistory.toEpochNanos(from);
+        long toNanos = RentalHistory.toEpochNanos(to);
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < active.size(); i++) {
+                Rental rental = active.valueAt(i);
+                LocalDateTime start = rental.getStartTime();
+                if (start != null && !start.isBefore(from) && start.isBefore(to)) {
+                    result.add(rental);
+                }
+            }
+            for (int i = historyByStart.lowerBound(fromNanos); i < historyByStart.size
+                    && historyByStart.starts[i] < toNanos; i++) {
+                result.add(view(history.indexOf(historyByStart.ids[i])));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(Rental::getStartTime).thenComparingInt(Rental::getId));
+        return result;
+    }
+
+    /**
+     * Ejecuta una consulta directamente sobre las columnas del historial, con el
+     * cerrojo de lectura tomado: las escrituras esperan a que termine, pero la
+     * consulta puede repartir la lectura entre varios hilos (ver
+     * {@link HistoryAnalytics}). Los alquileres activos no forman parte del historial.
+     *
+     * @param query Consulta; no debe modificar el historial ni guardar referencias a él.
+     * @param <R>   Tipo del resultado.
+     * @return Resultado de la consulta.
+     */
+    public <R> R readHistory(Function<RentalHistory, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(history);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Busca un alquiler activo o finalizado (se llama con el cerrojo de lectura tomado). */
+    private Rental lookup(int id) {
+        Rental rental = active.get(id);
+        if (rental != null) {
+            return rental;
+        }
+        int row = history.indexOf(id);
+        return row < 0 ? null : view(row);
+    }
+
+    /** Quita un alquiler de los índices de activos, si estaba. */
+    private void removeActive(int id) {
+        if (active.remove(id) == null) {
+            return;
+        }
+        int animalId = activeAnimalOf.remove(id);
+        List<Rental> bucket = activeByAnimal.get(animalId);
+        if (bucket != null) {
+            bucket.removeIf(r -> r.getId() == id);
+            if (bucket.isEmpty()) {
+                activeByAnimal.remove(animalId);
+            }
+        }
+    }
+
+    /** Quita un alquiler de los índices del historial, si estaba en él. */
+    private void unindexHistory(int id) {
+        int row = history.indexOf(id);
+        if (row < 0) {
+            return;
+        }
+        int customerId = history.customerId(row);
+        IdList postings = historyByCustomer.get(customerId);
+        if (postings != null && postings.remove(id) && postings.size == 0) {
+            historyByCustomer.remove(customerId);
+        }
+        historyByStart.remove(history.startNanos(row), id);
+    }
+
+    private IdList customerPostings(int customerId) {
+        IdList postings = historyByCustomer.get(customerId);
+        if (postings == null) {
+            postings = new IdList();
+            historyByCustomer.put(customerId, postings);
+        }
+        return postings;
+    }
+
+    /** Construye una vista de la fila indicada (se llama con el cerrojo de lectura tomado). */
+    private Rental view(int row) {
+        Rental rental = new Rental(history.rentalId(row),
+                resolveAnimal(history.animalId(row)),
+                resolveCustomer(history.customerId(row)),
+                RentalHistory.fromEpochNanos(history.startNanos(row)),
+                RentalHistory.fromTypeCode(history.rentalType(row)));
+        rental.setEndTime(RentalHistory.fromEpochNanos(history.endNanos(row)));
+        return rental;
+    }
+
+    private Animal resolveAnimal(int id) {
+        Animal animal = animals.findById(id);
+        if (animal == null) {
+            animal = new Animal();
+            animal.setId(id);
+        }
+        return animal;
+    }
+
+    private Customer resolveCustomer(int id) {
+        Customer customer = customers.findById(id);
+        if (customer == null) {
+            customer = new Customer();
+            customer.setId(id);
+        }
+        return customer;
+    }
+
+    private static int animalIdOf(Rental rental) {
+        return rental.getAnimal() == null ? 0 : rental.getAnimal().getId();
+    }
+
+    /** Lista de IDs sin objetos por elemento; el orden no importa. */
+    private static final class IdList {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        /** Quita un ID rellenando el hueco con el último. */
+        boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Pares (inicio, ID) ordenados en dos arreglos paralelos. Los alquileres se
+     * cierran más o menos en el orden en que empezaron, así que casi todas las
+     * inserciones caen al final y solo desplazan los pocos que empezaron después.
+     */
+    private static final class StartOrder {
+        long[] starts = new long[16];
+        int[] ids = new int[16];
+        int size;
+
+        void add(long start, int id) {
+            if (start == RentalHistory.NO_TIME) {
+                return;
+            }
+            if (size == starts.length) {
+                int capacity = size + (size >> 1) + 1;
+                starts = Arrays.copyOf(starts, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+            }
+            int at = position(start, id);
+            System.arraycopy(starts, at, starts, at + 1, size - at);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            starts[at] = start;
+            ids[at] = id;
+            size++;
+        }
+
+        void remove(long start, int id) {
+            if (start == RentalHistory.NO_TIME) {
+                return;
+            }
+            int at = position(start, id);
+            if (at < size && starts[at] == start && ids[at] == id) {
+                System.arraycopy(starts, at + 1, starts, at, size - at - 1);
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+            }
+        }
+
+        /** @return Primera posición con inicio {@code >= start}. */
+        int lowerBound(long start) {
+            return position(start, Integer.MIN_VALUE);
+        }
+
+        /** @return Primera posición cuyo par (inicio, ID) no es menor que el dado. */
+        private int position(long start, int id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < start || (starts[mid] == start && ids[mid] < id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
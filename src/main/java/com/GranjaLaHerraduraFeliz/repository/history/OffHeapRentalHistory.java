@@ -0,0 +1,268 @@
+package com.GranjaLaHerraduraFeliz.repository.history;
+
+import com.GranjaLaHerraduraFeliz.repository.IntIntMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RentalHistory} fuera del heap, en segmentos de memoria de la API
+ * Foreign Function &amp; Memory ({@link MemorySegment}).
+ * <p>
+ * Cada alquiler ocupa un registro de tamaño fijo:
+ * <pre>
+ * [int id][int animal][int cliente][byte tipo][3 bytes de relleno][long inicio][long fin]  (32 bytes)
+ * </pre>
+ * Los registros se reparten en segmentos de {@value #ROWS_PER_SEGMENT} filas que
+ * se agregan a medida que crece el historial, así nunca se copia lo ya escrito.
+ * El recolector de basura no ve estos datos: en el heap solo queda el índice
+ * ID → fila ({@link IntIntMap}, arreglos de {@code int} sin referencias).
+ * <p>
+ * Con {@link #open(Path)} los segmentos son un mapeo del archivo, que empieza con
+ * una cabecera de 64 bytes ({@code [int magia][int versión][int filas]}); al volver
+ * a abrirlo se recupera el historial sin decodificar objetos. El número de filas
+ * se actualiza después de escribir cada registro, así un registro a medias nunca
+ * se considera válido. Con {@link #inMemory()} los segmentos se reservan fuera del
+ * heap y se liberan en {@link #close()}.
+ * <p>
+ * No es seguro para uso concurrente (ver {@link RentalHistory}).
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class OffHeapRentalHistory implements RentalHistory, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(OffHeapRentalHistory.class);
+
+    private static final int MAGIC = 0x47524A48;
+    private static final int VERSION = 1;
+    private static final long HEADER_BYTES = 64;
+    private static final long OFF_ROWS = 8;
+
+    static final long RECORD_BYTES = 32;
+    private static final long F_ID = 0;
+    private static final long F_ANIMAL = 4;
+    private static final long F_CUSTOMER = 8;
+    private static final long F_TYPE = 12;
+    private static final long F_START = 16;
+    private static final long F_END = 24;
+
+    /** Filas por segmento (2 MB por segmento). */
+    static final int ROWS_PER_SEGMENT = 65_536;
+    private static final long SEGMENT_BYTES = ROWS_PER_SEGMENT * RECORD_BYTES;
+
+    private final Arena arena;
+    private final FileChannel channel;
+    private final MemorySegment header;
+    private final List<MemorySegment> segments = new ArrayList<>();
+    private final IntIntMap rowById = new IntIntMap();
+    private int size;
+
+    private OffHeapRentalHistory(Arena arena, FileChannel channel, MemorySegment header) {
+        this.arena = arena;
+        this.channel = channel;
+        this.header = header;
+    }
+
+    /** @return Historial fuera del heap, no persistente. */
+    public static OffHeapRentalHistory inMemory() {
+        Arena arena = Arena.ofShared();
+        return new OffHeapRentalHistory(arena, null, null);
+    }
+
+    /**
+     * Abre (o crea) un historial respaldado por archivo.
+     *
+     * @param path Ruta del archivo.
+     * @return Historial con las filas guardadas en el archivo.
+     * @throws IOException Si el archivo no se puede abrir o no es válido.
+     */
+    public static OffHeapRentalHistory open(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        Arena arena = Arena.ofShared();
+        try {
+            boolean created = channel.size() == 0;
+            MemorySegment header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES, arena);
+            if (created) {
+                header.set(ValueLayout.JAVA_INT, 4, VERSION);
+                header.set(ValueLayout.JAVA_INT, OFF_ROWS, 0);
+                header.set(ValueLayout.JAVA_INT, 0, MAGIC);
+            } else if (header.get(ValueLayout.JAVA_INT, 0) != MAGIC
+                    || header.get(ValueLayout.JAVA_INT, 4) != VERSION) {
+                throw new IOException("El archivo " + path + " no es un historial de alquileres válido");
+            }
+
+            OffHeapRentalHistory history = new OffHeapRentalHistory(arena, channel, header);
+            int rows = header.get(ValueLayout.JAVA_INT, OFF_ROWS);
+            for (int row = 0; row < rows; row++) {
+                history.ensureCapacity(row);
+                history.rowById.put(history.segment(row).get(ValueLayout.JAVA_INT, history.offset(row) + F_ID), row);
+            }
+            history.size = rows;
+            log.info("component=OffHeapRentalHistory event=opened path={} rows={}", path, rows);
+            return history;
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int indexOf(int rentalId) {
+        return rowById.get(rentalId);
+    }
+
+    @Override
+    public int put(int rentalId, int animalId, int customerId, long startNanos, long endNanos, byte rentalType) {
+        int row = rowById.get(rentalId);
+        boolean appended = row == IntIntMap.MISSING;
+        if (appended) {
+            row = size;
+            ensureCapacity(row);
+        }
+        MemorySegment segment = segment(row);
+        long base = offset(row);
+        segment.set(ValueLayout.JAVA_INT, base + F_ID, rentalId);
+        segment.set(ValueLayout.JAVA_INT, base + F_ANIMAL, animalId);
+        segment.set(ValueLayout.JAVA_INT, base + F_CUSTOMER, customerId);
+        segment.set(ValueLayout.JAVA_BYTE, base + F_TYPE, rentalType);
+        segment.set(ValueLayout.JAVA_LONG, base + F_START, startNanos);
+        segment.set(ValueLayout.JAVA_LONG, base + F_END, endNanos);
+        if (appended) {
+            rowById.put(rentalId, row);
+            setSize(size + 1);
+        }
+        return row;
+    }
+
+    @Override
+    public boolean remove(int rentalId) {
+        int row = rowById.remove(rentalId);
+        if (row == IntIntMap.MISSING) {
+            return false;
+        }
+        int last = size - 1;
+        if (row != last) {
+            // La última fila ocupa el hueco
+            MemorySegment.copy(segment(last), offset(last), segment(row), offset(row), RECORD_BYTES);
+            rowById.put(rentalId(row), row);
+        }
+        setSize(last);
+        return true;
+    }
+
+    @Override
+    public int rentalId(int index) {
+        return segment(checkIndex(index)).get(ValueLayout.JAVA_INT, offset(index) + F_ID);
+    }
+
+    @Override
+    public int animalId(int index) {
+        return segment(checkIndex(index)).get(ValueLayout.JAVA_INT, offset(index) + F_ANIMAL);
+    }
+
+    @Override
+    public int customerId(int index) {
+        return segment(checkIndex(index)).get(ValueLayout.JAVA_INT, offset(index) + F_CUSTOMER);
+    }
+
+    @Override
+    public long startNanos(int index) {
+        return segment(checkIndex(index)).get(ValueLayout.JAVA_LONG, offset(index) + F_START);
+    }
+
+    @Override
+    public long endNanos(int index) {
+        return segment(checkIndex(index)).get(ValueLayout.JAVA_LONG, offset(index) + F_END);
+    }
+
+    @Override
+    public byte rentalType(int index) {
+        return segment(checkIndex(index)).get(ValueLayout.JAVA_BYTE, offset(index) + F_TYPE);
+    }
+
+    /**
+     * Vacía a disco los segmentos (si hay archivo) y libera la memoria.
+     * Después de cerrar, cualquier acceso lanza {@link IllegalStateException}.
+     *
+     * @throws IOException Si falla el cierre del archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            header.force();
+            for (MemorySegment segment : segments) {
+                segment.force();
+            }
+        }
+        arena.close();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void setSize(int newSize) {
+        size = newSize;
+        if (header != null) {
+            header.set(ValueLayout.JAVA_INT, OFF_ROWS, newSize);
+        }
+    }
+
+    /** Agrega segmentos hasta que la fila indicada tenga espacio. */
+    private void ensureCapacity(int row) {
+        int needed = row / ROWS_PER_SEGMENT + 1;
+        while (segments.size() < needed) {
+            segments.add(newSegment(segments.size()));
+        }
+    }
+
+    private MemorySegment newSegment(int number) {
+        if (channel == null) {
+            return arena.allocate(SEGMENT_BYTES, Long.BYTES);
+        }
+        try {
+            // Mapear más allá del final extiende el archivo
+            return channel.map(FileChannel.MapMode.READ_WRITE, HEADER_BYTES + number * SEGMENT_BYTES,
+                    SEGMENT_BYTES, arena);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo ampliar el historial", e);
+        }
+    }
+
+    private MemorySegment segment(int row) {
+        return segments.get(row / ROWS_PER_SEGMENT);
+    }
+
+    private long offset(int row) {
+        return (row % ROWS_PER_SEGMENT) * RECORD_BYTES;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Fila " + index + " fuera de rango (size=" + size + ")");
+        }
+        return index;
+    }
+}
@@ -0,0 +1,125 @@
+package com.GranjaLaHerraduraFeliz.repository.history;
+
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Almacén de alquileres finalizados organizado por columnas: cada campo se
+ * guarda en su propio arreglo de primitivos y cada alquiler ocupa una fila.
+ * <p>
+ * Las filas se identifican por su posición ({@code 0 .. size() - 1}); una fila
+ * eliminada se rellena con la última, por lo que las posiciones solo son estables
+ * mientras no haya borrados. Las fechas se guardan como nanosegundos "epoch"
+ * interpretando la {@link LocalDateTime} en UTC (ver {@link #toEpochNanos}).
+ * <p>
+ * Las implementaciones no son seguras para uso concurrente; quien las use
+ * (por ejemplo, {@link HistoryRentalRepository}) debe sincronizar el acceso.
+ * Varios hilos sí pueden leer a la vez mientras nadie escriba (ver
+ * {@link HistoryAnalytics}).
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public interface RentalHistory {
+
+    /** Valor de fecha que representa {@code null}. */
+    long NO_TIME = Long.MIN_VALUE;
+
+    /** Valor de tipo que representa un {@link RentalType} {@code null}. */
+    byte NO_TYPE = -1;
+
+    /** @return Número de filas (alquileres finalizados) almacenadas. */
+    int size();
+
+    /**
+     * Busca la fila de un alquiler.
+     *
+     * @param rentalId ID del alquiler.
+     * @return Posición de la fila o {@code -1} si el alquiler no está en el historial.
+     */
+    int indexOf(int rentalId);
+
+    /**
+     * Agrega un alquiler o reemplaza su fila si el ID ya existe.
+     *
+     * @param rentalId   ID del alquiler.
+     * @param animalId   ID del animal.
+     * @param customerId ID del cliente.
+     * @param startNanos Inicio en nanosegundos "epoch" o {@link #NO_TIME}.
+     * @param endNanos   Fin en nanosegundos "epoch" o {@link #NO_TIME}.
+     * @param rentalType Ordinal del tipo de alquiler o {@link #NO_TYPE}.
+     * @return Posición de la fila.
+     */
+    int put(int rentalId, int animalId, int customerId, long startNanos, long endNanos, byte rentalType);
+
+    /**
+     * Elimina un alquiler del historial (por ejemplo, si se reabre).
+     *
+     * @param rentalId ID del alquiler.
+     * @return {@code true} si estaba en el historial.
+     */
+    boolean remove(int rentalId);
+
+    /** @return ID del alquiler en la fila indicada. */
+    int rentalId(int index);
+
+    /** @return ID del animal en la fila indicada. */
+    int animalId(int index);
+
+    /** @return ID del cliente en la fila indicada. */
+    int customerId(int index);
+
+    /** @return Inicio en nanosegundos "epoch" de la fila indicada, o {@link #NO_TIME}. */
+    long startNanos(int index);
+
+    /** @return Fin en nanosegundos "epoch" de la fila indicada, o {@link #NO_TIME}. */
+    long endNanos(int index);
+
+    /** @return Ordinal del tipo de alquiler de la fila indicada, o {@link #NO_TYPE}. */
+    byte rentalType(int index);
+
+    /**
+     * Convierte una fecha a nanosegundos "epoch" (UTC); cubre hasta el año 2262.
+     *
+     * @param time Fecha a convertir (puede ser {@code null}).
+     * @return Nanosegundos desde 1970-01-01T00:00, o {@link #NO_TIME}.
+     */
+    static long toEpochNanos(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L), time.getNano());
+    }
+
+    /**
+     * Inversa de {@link #toEpochNanos(LocalDateTime)}.
+     *
+     * @param nanos Nanosegundos "epoch" o {@link #NO_TIME}.
+     * @return Fecha correspondiente, o {@code null}.
+     */
+    static LocalDateTime fromEpochNanos(long nanos) {
+        if (nanos == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    /**
+     * @param type Tipo de alquiler (puede ser {@code null}).
+     * @return Ordinal como {@code byte}, o {@link #NO_TYPE}.
+     */
+    static byte toTypeCode(RentalType type) {
+        return type == null ? NO_TYPE : (byte) type.ordinal();
+    }
+
+    /**
+     * @param code Ordinal guardado o {@link #NO_TYPE}.
+     * @return Tipo de alquiler, o {@code null}.
+     */
+    static RentalType fromTypeCode(byte code) {
+        return code == NO_TYPE ? null : RentalType.values()[code];
+    }
+}
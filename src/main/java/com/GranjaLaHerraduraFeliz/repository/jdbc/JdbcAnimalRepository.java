@@ -0,0 +1,144 @@
+package com.GranjaLaHerraduraFeliz.repository.jdbc;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.Paging;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación JDBC del repositorio de {@link Animal} (tabla {@code animal}).
+ * <p>
+ * Los IDs se asignan en la aplicación, continuando el mayor ID de la tabla, igual
+ * que en los repositorios en memoria. {@code save} es un {@code MERGE} por ID, y
+ * {@link #saveAll(List)} envía todas las filas en un único lote JDBC dentro de una
+ * transacción. Cada consulta devuelve objetos nuevos: los cambios deben guardarse
+ * con {@code save}.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class JdbcAnimalRepository implements AnimalRepository {
+
+    private static final String UPSERT = "MERGE INTO animal (id, name, type, status) KEY (id) VALUES (?, ?, ?, ?)";
+    private static final String SELECT = "SELECT id, name, type, status FROM animal";
+    private static final String BY_ID = SELECT + " WHERE id = ?";
+    private static final String ALL = SELECT + " ORDER BY id";
+    private static final String PAGE = SELECT + " WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String BY_STATUS = SELECT + " WHERE status = ? ORDER BY id";
+
+    private final JdbcConnectionPool pool;
+    private final AtomicInteger nextId;
+
+    /**
+     * @param pool Pool de conexiones (el esquema debe existir, ver {@link JdbcSchema}).
+     */
+    public JdbcAnimalRepository(JdbcConnectionPool pool) {
+        this.pool = pool;
+        this.nextId = new AtomicInteger(JdbcSupport.maxId(pool, "animal") + 1);
+    }
+
+    @Override
+    public Animal save(Animal animal) {
+        assignId(animal);
+        pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(UPSERT);
+            bind(statement, animal);
+            return statement.executeUpdate();
+        });
+        return animal;
+    }
+
+    /**
+     * Guarda varios animales en un único lote JDBC y una sola transacción.
+     *
+     * @param animals Animales a guardar.
+     * @return Los mismos animales, con ID asignado.
+     */
+    @Override
+    public List<Animal> saveAll(List<Animal> animals) {
+        animals.forEach(this::assignId);
+        pool.inTransaction(connection -> {
+            PreparedStatement statement = connection.prepare(UPSERT);
+            for (Animal animal : animals) {
+                bind(statement, animal);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+        return animals;
+    }
+
+    @Override
+    public Animal findById(int id) {
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(BY_ID);
+            statement.setInt(1, id);
+            List<Animal> result = read(statement);
+            return result.isEmpty() ? null : result.get(0);
+        });
+    }
+
+    @Override
+    public List<Animal> findAll() {
+        return pool.execute(connection -> read(connection.prepare(ALL)));
+    }
+
+    /**
+     * Página ordenada por ID; recorre la clave primaria desde el cursor sin usar {@code OFFSET}.
+     */
+    @Override
+    public List<Animal> findPage(int afterId, int limit) {
+        Paging.checkLimit(limit);
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(PAGE);
+            statement.setInt(1, afterId);
+            statement.setInt(2, limit);
+            return read(statement);
+        });
+    }
+
+    @Override
+    public List<Animal> findByStatus(AnimalStatus status) {
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(BY_STATUS);
+            statement.setString(1, JdbcSupport.name(status));
+            return read(statement);
+        });
+    }
+
+    private void assignId(Animal animal) {
+        if (animal.getId() == 0) {
+            animal.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = animal.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Animal animal) throws SQLException {
+        statement.setInt(1, animal.getId());
+        statement.setString(2, animal.getName());
+        statement.setString(3, JdbcSupport.name(animal.getType()));
+        statement.setString(4, JdbcSupport.name(animal.getStatus()));
+    }
+
+    private static List<Animal> read(PreparedStatement statement) throws SQLException {
+        List<Animal> result = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                result.add(new Animal(rows.getInt(1), rows.getString(2),
+                        JdbcSupport.parse(AnimalType.class, rows.getString(3)),
+                        JdbcSupport.parse(AnimalStatus.class, rows.getString(4))));
+            }
+        }
+        return result;
+    }
+}
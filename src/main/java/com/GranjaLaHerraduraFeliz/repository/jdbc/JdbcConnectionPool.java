@@ -0,0 +1,211 @@
+package com.GranjaLaHerraduraFeliz.repository.jdbc;
+
+import com.GranjaLaHerraduraFeliz.Exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool mínimo de conexiones JDBC con caché de sentencias preparadas.
+ * <p>
+ * Las conexiones se abren a demanda hasta el tamaño máximo; cuando están todas
+ * en uso, quien pide una espera a que otra se devuelva. Cada conexión guarda sus
+ * {@link PreparedStatement} por texto SQL, así cada sentencia se prepara una sola
+ * vez por conexión en lugar de en cada llamada.
+ * <p>
+ * Se usa siempre a través de {@link #execute(Work)}, que devuelve la conexión al
+ * pool aunque el trabajo falle.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class JdbcConnectionPool implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcConnectionPool.class);
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+
+    private final BlockingQueue<PooledConnection> idle;
+    private final List<PooledConnection> all = new ArrayList<>();
+    private volatile boolean closed;
+
+    /**
+     * @param url      URL JDBC (por ejemplo, {@code jdbc:h2:./data/granja}).
+     * @param user     Usuario.
+     * @param password Contraseña.
+     * @param maxSize  Número máximo de conexiones abiertas.
+     */
+    public JdbcConnectionPool(String url, String user, String password, int maxSize) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Ejecuta un trabajo con una conexión del pool.
+     *
+     * @param work Trabajo a ejecutar.
+     * @param <T>  Tipo del resultado.
+     * @return Resultado del trabajo.
+     * @throws DataAccessException Si ocurre un error SQL.
+     */
+    public <T> T execute(Work<T> work) {
+        PooledConnection connection = borrow();
+        try {
+            return work.run(connection);
+        } catch (SQLException e) {
+            throw new DataAccessException("Error de base de datos: " + e.getMessage(), e);
+        } finally {
+            release(connection);
+        }
+    }
+
+    /**
+     * Ejecuta un trabajo dentro de una transacción: se confirma si termina bien
+     * y se deshace si lanza una excepción.
+     *
+     * @param work Trabajo a ejecutar.
+     * @param <T>  Tipo del resultado.
+     * @return Resultado del trabajo.
+     * @throws DataAccessException Si ocurre un error SQL.
+     */
+    public <T> T inTransaction(Work<T> work) {
+        return execute(connection -> {
+            Connection jdbc = connection.connection();
+            jdbc.setAutoCommit(false);
+            try {
+                T result = work.run(connection);
+                jdbc.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                jdbc.rollback();
+                throw e;
+            } finally {
+                jdbc.setAutoCommit(true);
+            }
+        });
+    }
+
+    /** Cierra todas las conexiones abiertas. */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (all) {
+            for (PooledConnection connection : all) {
+                connection.closeQuietly();
+            }
+            all.clear();
+        }
+        idle.clear();
+        log.info("component=JdbcConnectionPool event=closed url={}", url);
+    }
+
+    private PooledConnection borrow() {
+        if (closed) {
+            throw new IllegalStateException("El pool de conexiones está cerrado");
+        }
+        PooledConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        synchronized (all) {
+            if (all.size() < maxSize) {
+                try {
+                    connection = new PooledConnection(DriverManager.getConnection(url, user, password));
+                } catch (SQLException e) {
+                    throw new DataAccessException("No se pudo conectar a " + url, e);
+                }
+                all.add(connection);
+                log.debug("component=JdbcConnectionPool event=connectionOpened url={} open={}", url, all.size());
+                return connection;
+            }
+        }
+        try {
+            return idle.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    private void release(PooledConnection connection) {
+        if (closed) {
+            connection.closeQuietly();
+        } else {
+            idle.offer(connection);
+        }
+    }
+
+    /**
+     * Trabajo que usa una conexión del pool.
+     *
+     * @param <T> Tipo del resultado.
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+
+        /**
+         * @param connection Conexión prestada; no debe cerrarse ni guardarse.
+         * @return Resultado del trabajo.
+         * @throws SQLException Si falla una operación SQL.
+         */
+        T run(PooledConnection connection) throws SQLException;
+    }
+
+    /**
+     * Conexión del pool con su caché de sentencias preparadas.
+     */
+    public static final class PooledConnection {
+
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        /** @return Conexión JDBC subyacente. */
+        public Connection connection() {
+            return connection;
+        }
+
+        /**
+         * Devuelve la sentencia preparada para el SQL indicado, creándola la primera vez.
+         *
+         * @param sql Texto SQL con parámetros {@code ?}.
+         * @return Sentencia reutilizable (sus parámetros se deben asignar de nuevo).
+         * @throws SQLException Si el SQL no es válido.
+         */
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+
+        private void closeQuietly() {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("component=JdbcConnectionPool event=closeFailed message={}", e.getMessage());
+            }
+        }
+    }
+}
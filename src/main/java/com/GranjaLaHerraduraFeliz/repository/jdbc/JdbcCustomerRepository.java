@@ -0,0 +1,124 @@
+package com.GranjaLaHerraduraFeliz.repository.jdbc;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.Paging;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación JDBC del repositorio de {@link Customer} (tabla {@code customer}).
+ * <p>
+ * Sigue las mismas reglas que {@link JdbcAnimalRepository}: IDs asignados en la
+ * aplicación, {@code MERGE} por ID y lotes JDBC en {@link #saveAll(List)}.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class JdbcCustomerRepository implements CustomerRepository {
+
+    private static final String UPSERT = "MERGE INTO customer (id, full_name) KEY (id) VALUES (?, ?)";
+    private static final String BY_ID = "SELECT id, full_name FROM customer WHERE id = ?";
+    private static final String ALL = "SELECT id, full_name FROM customer ORDER BY id";
+    private static final String PAGE = "SELECT id, full_name FROM customer WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcConnectionPool pool;
+    private final AtomicInteger nextId;
+
+    /**
+     * @param pool Pool de conexiones (el esquema debe existir, ver {@link JdbcSchema}).
+     */
+    public JdbcCustomerRepository(JdbcConnectionPool pool) {
+        this.pool = pool;
+        this.nextId = new AtomicInteger(JdbcSupport.maxId(pool, "customer") + 1);
+    }
+
+    @Override
+    public Customer save(Customer customer) {
+        assignId(customer);
+        pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(UPSERT);
+            bind(statement, customer);
+            return statement.executeUpdate();
+        });
+        return customer;
+    }
+
+    /**
+     * Guarda varios clientes en un único lote JDBC y una sola transacción.
+     *
+     * @param customers Clientes a guardar.
+     * @return Los mismos clientes, con ID asignado.
+     */
+    @Override
+    public List<Customer> saveAll(List<Customer> customers) {
+        customers.forEach(this::assignId);
+        pool.inTransaction(connection -> {
+            PreparedStatement statement = connection.prepare(UPSERT);
+            for (Customer customer : customers) {
+                bind(statement, customer);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+        return customers;
+    }
+
+    @Override
+    public Customer findById(int id) {
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(BY_ID);
+            statement.setInt(1, id);
+            List<Customer> result = read(statement);
+            return result.isEmpty() ? null : result.get(0);
+        });
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        return pool.execute(connection -> read(connection.prepare(ALL)));
+    }
+
+    /**
+     * Página ordenada por ID; recorre la clave primaria desde el cursor sin usar {@code OFFSET}.
+     */
+    @Override
+    public List<Customer> findPage(int afterId, int limit) {
+        Paging.checkLimit(limit);
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(PAGE);
+            statement.setInt(1, afterId);
+            statement.setInt(2, limit);
+            return read(statement);
+        });
+    }
+
+    private void assignId(Customer customer) {
+        if (customer.getId() == 0) {
+            customer.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = customer.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Customer customer) throws SQLException {
+        statement.setInt(1, customer.getId());
+        statement.setString(2, customer.getFullName());
+    }
+
+    private static List<Customer> read(PreparedStatement statement) throws SQLException {
+        List<Customer> result = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                result.add(new Customer(rows.getInt(1), rows.getString(2)));
+            }
+        }
+        return result;
+    }
+}
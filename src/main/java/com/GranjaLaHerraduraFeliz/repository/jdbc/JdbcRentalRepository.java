@@ -0,0 +1,192 @@
+package com.GranjaLaHerraduraFeliz.repository.jdbc;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.Paging;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación JDBC del repositorio de {@link Rental} (tabla {@code rental}).
+ * <p>
+ * La tabla guarda solo los IDs del animal y del cliente; las consultas hacen
+ * {@code LEFT JOIN} con {@code animal} y {@code customer} para devolver cada
+ * alquiler completo en una sola ida a la base de datos. {@link #findActiveByAnimal(Animal)}
+ * usa el índice {@code rental(animal_id, end_time)} (ver {@link JdbcSchema}).
+ * <p>
+ * Igual que en los demás repositorios JDBC, cada consulta devuelve objetos nuevos.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class JdbcRentalRepository implements RentalRepository {
+
+    private static final String UPSERT = "MERGE INTO rental (id, animal_id, customer_id, start_time, end_time, rental_type)"
+            + " KEY (id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String SELECT = "SELECT r.id, r.start_time, r.end_time, r.rental_type,"
+            + " r.animal_id, a.name, a.type, a.status, r.customer_id, c.full_name"
+            + " FROM rental r"
+            + " LEFT JOIN animal a ON a.id = r.animal_id"
+            + " LEFT JOIN customer c ON c.id = r.customer_id";
+    private static final String BY_ID = SELECT + " WHERE r.id = ?";
+    private static final String ALL = SELECT + " ORDER BY r.id";
+    private static final String PAGE = SELECT + " WHERE r.id > ? ORDER BY r.id LIMIT ?";
+    static final String ACTIVE_BY_ANIMAL = SELECT + " WHERE r.animal_id = ? AND r.end_time IS NULL ORDER BY r.id";
+    private static final String BY_CUSTOMER = SELECT + " WHERE r.customer_id = ? ORDER BY r.id";
+    private static final String STARTED_BETWEEN = SELECT
+            + " WHERE r.start_time >= ? AND r.start_time < ? ORDER BY r.start_time, r.id";
+
+    private final JdbcConnectionPool pool;
+    private final AtomicInteger nextId;
+
+    /**
+     * @param pool Pool de conexiones (el esquema debe existir, ver {@link JdbcSchema}).
+     */
+    public JdbcRentalRepository(JdbcConnectionPool pool) {
+        this.pool = pool;
+        this.nextId = new AtomicInteger(JdbcSupport.maxId(pool, "rental") + 1);
+    }
+
+    @Override
+    public Rental save(Rental rental) {
+        assignId(rental);
+        pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(UPSERT);
+            bind(statement, rental);
+            return statement.executeUpdate();
+        });
+        return rental;
+    }
+
+    /**
+     * Guarda varios alquileres en un único lote JDBC y una sola transacción.
+     *
+     * @param rentals Alquileres a guardar.
+     * @return Los mismos alquileres, con ID asignado.
+     */
+    @Override
+    public List<Rental> saveAll(List<Rental> rentals) {
+        rentals.forEach(this::assignId);
+        pool.inTransaction(connection -> {
+            PreparedStatement statement = connection.prepare(UPSERT);
+            for (Rental rental : rentals) {
+                bind(statement, rental);
+                statement.addBatch();
+            }
+            return statement.executeBatch();
+        });
+        return rentals;
+    }
+
+    @Override
+    public Rental findById(int id) {
+        List<Rental> result = query(BY_ID, id);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public List<Rental> findAll() {
+        return pool.execute(connection -> read(connection.prepare(ALL)));
+    }
+
+    /**
+     * Página ordenada por ID; recorre la clave primaria desde el cursor sin usar {@code OFFSET}.
+     */
+    @Override
+    public List<Rental> findPage(int afterId, int limit) {
+        Paging.checkLimit(limit);
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(PAGE);
+            statement.setInt(1, afterId);
+            statement.setInt(2, limit);
+            return read(statement);
+        });
+    }
+
+    @Override
+    public List<Rental> findActiveByAnimal(Animal animal) {
+        return query(ACTIVE_BY_ANIMAL, animal.getId());
+    }
+
+    @Override
+    public List<Rental> findByCustomer(int customerId) {
+        return query(BY_CUSTOMER, customerId);
+    }
+
+    @Override
+    public List<Rental> findStartedBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            return new ArrayList<>();
+        }
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(STARTED_BETWEEN);
+            statement.setObject(1, from);
+            statement.setObject(2, to);
+            return read(statement);
+        });
+    }
+
+    private List<Rental> query(String sql, int key) {
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(sql);
+            statement.setInt(1, key);
+            return read(statement);
+        });
+    }
+
+    private void assignId(Rental rental) {
+        if (rental.getId() == 0) {
+            rental.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = rental.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+    }
+
+    private static void bind(PreparedStatement statement, Rental rental) throws SQLException {
+        statement.setInt(1, rental.getId());
+        statement.setInt(2, rental.getAnimal() == null ? 0 : rental.getAnimal().getId());
+        statement.setInt(3, rental.getCustomer() == null ? 0 : rental.getCustomer().getId());
+        setTime(statement, 4, rental.getStartTime());
+        setTime(statement, 5, rental.getEndTime());
+        statement.setString(6, JdbcSupport.name(rental.getRentalType()));
+    }
+
+    private static void setTime(PreparedStatement statement, int index, LocalDateTime time) throws SQLException {
+        if (time == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setObject(index, time);
+        }
+    }
+
+    private static List<Rental> read(PreparedStatement statement) throws SQLException {
+        List<Rental> result = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                Animal animal = new Animal(rows.getInt(5), rows.getString(6),
+                        JdbcSupport.parse(AnimalType.class, rows.getString(7)),
+                        JdbcSupport.parse(AnimalStatus.class, rows.getString(8)));
+                Customer customer = new Customer(rows.getInt(9), rows.getString(10));
+                Rental rental = new Rental(rows.getInt(1), animal, customer,
+                        rows.getObject(2, LocalDateTime.class),
+                        JdbcSupport.parse(RentalType.class, rows.getString(4)));
+                rental.setEndTime(rows.getObject(3, LocalDateTime.class));
+                result.add(rental);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package com.GranjaLaHerraduraFeliz.repository.jdbc;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+import com.GranjaLaHerraduraFeliz.repository.Paging;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implementación JDBC del repositorio de {@link Reservation} (tabla {@code reservation}).
+ * <p>
+ * Igual que {@link JdbcRentalRepository}: la tabla guarda los IDs del animal y
+ * del cliente y las consultas hacen {@code LEFT JOIN} para devolver cada reserva
+ * completa. Cada consulta devuelve objetos nuevos.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class JdbcReservationRepository implements ReservationRepository {
+
+    private static final String UPSERT = "MERGE INTO reservation"
+            + " (id, animal_id, customer_id, start_time, end_time, rental_type, cancelled)"
+            + " KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String SELECT = "SELECT r.id, r.start_time, r.end_time, r.rental_type, r.cancelled,"
+            + " r.animal_id, a.name, a.type, a.status, r.customer_id, c.full_name"
+            + " FROM reservation r"
+            + " LEFT JOIN animal a ON a.id = r.animal_id"
+            + " LEFT JOIN customer c ON c.id = r.customer_id";
+    private static final String BY_ID = SELECT + " WHERE r.id = ?";
+    private static final String PAGE = SELECT + " WHERE r.id > ? ORDER BY r.id LIMIT ?";
+
+    private final JdbcConnectionPool pool;
+    private final AtomicInteger nextId;
+
+    /**
+     * @param pool Pool de conexiones (el esquema debe existir, ver {@link JdbcSchema}).
+     */
+    public JdbcReservationRepository(JdbcConnectionPool pool) {
+        this.pool = pool;
+        this.nextId = new AtomicInteger(JdbcSupport.maxId(pool, "reservation") + 1);
+    }
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        if (reservation.getId() == 0) {
+            reservation.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = reservation.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+        pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(UPSERT);
+            statement.setInt(1, reservation.getId());
+            statement.setInt(2, reservation.getAnimal() == null ? 0 : reservation.getAnimal().getId());
+            statement.setInt(3, reservation.getCustomer() == null ? 0 : reservation.getCustomer().getId());
+            setTime(statement, 4, reservation.getStartTime());
+            setTime(statement, 5, reservation.getEndTime());
+            statement.setString(6, JdbcSupport.name(reservation.getRentalType()));
+            statement.setBoolean(7, reservation.isCancelled());
+            return statement.executeUpdate();
+        });
+        return reservation;
+    }
+
+    @Override
+    public Reservation findById(int id) {
+        List<Reservation> result = pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(BY_ID);
+            statement.setInt(1, id);
+            return read(statement);
+        });
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Página ordenada por ID; recorre la clave primaria desde el cursor sin usar {@code OFFSET}.
+     */
+    @Override
+    public List<Reservation> findPage(int afterId, int limit) {
+        Paging.checkLimit(limit);
+        return pool.execute(connection -> {
+            PreparedStatement statement = connection.prepare(PAGE);
+            statement.setInt(1, afterId);
+            statement.setInt(2, limit);
+            return read(statement);
+        });
+    }
+
+    private static void setTime(PreparedStatement statement, int index, LocalDateTime time) throws SQLException {
+        if (time == null) {
+            statement.setNull(index, Types.TIMESTAMP);
+        } else {
+            statement.setObject(index, time);
+        }
+    }
+
+    private static List<Reservation> read(PreparedStatement statement) throws SQLException {
+        List<Reservation> result = new ArrayList<>();
+        try (ResultSet rows = statement.executeQuery()) {
+            while (rows.next()) {
+                Animal animal = new Animal(rows.getInt(6), rows.getString(7),
+                        JdbcSupport.parse(AnimalType.class, rows.getString(8)),
+                        JdbcSupport.parse(AnimalStatus.class, rows.getString(9)));
+                Customer customer = new Customer(rows.getInt(10), rows.getString(11));
+                Reservation reservation = new Reservation(rows.getInt(1), animal, customer,
+                        rows.getObject(2, LocalDateTime.class), rows.getObject(3, LocalDateTime.class),
+                        JdbcSupport.parse(RentalType.class, rows.getString(4)));
+                reservation.setCancelled(rows.getBoolean(5));
+                result.add(reservation);
+            }
+        }
+        return result;
+    }
+}
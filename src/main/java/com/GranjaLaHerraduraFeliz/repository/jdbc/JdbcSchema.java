@@ -0,0 +1,78 @@
+package com.GranjaLaHerraduraFeliz.repository.jdbc;
+
+import java.sql.Statement;
+
+/**
+ * Esquema SQL de los repositorios JDBC.
+ * <p>
+ * Además de las claves primarias, crea los índices que usan las consultas de
+ * los repositorios:
+ * <ul>
+ *     <li>{@code rental(animal_id, end_time)}: {@code findActiveByAnimal} busca
+ *     {@code animal_id = ? AND end_time IS NULL} con un acceso por índice, sin
+ *     recorrer el historial.</li>
+ *     <li>{@code rental(customer_id)} y {@code rental(start_time)}: historial por
+ *     cliente y por rango de fechas.</li>
+ *     <li>{@code animal(status)}: {@code findByStatus}.</li>
+ *     <li>La tabla {@code reservation} solo se lee por ID y en orden de ID: le
+ *     basta la clave primaria.</li>
+ * </ul>
+ * Las sentencias usan {@code IF NOT EXISTS}, así que se puede aplicar en cada arranque.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class JdbcSchema {
+
+    /** Nombre del índice de alquileres activos por animal. */
+    public static final String ACTIVE_RENTAL_INDEX = "IDX_RENTAL_ANIMAL_END";
+
+    private static final String[] DDL = {
+            "CREATE TABLE IF NOT EXISTS animal ("
+                    + " id INT PRIMARY KEY,"
+                    + " name VARCHAR(255),"
+                    + " type VARCHAR(16),"
+                    + " status VARCHAR(16))",
+            "CREATE TABLE IF NOT EXISTS customer ("
+                    + " id INT PRIMARY KEY,"
+                    + " full_name VARCHAR(255))",
+            "CREATE TABLE IF NOT EXISTS rental ("
+                    + " id INT PRIMARY KEY,"
+                    + " animal_id INT NOT NULL,"
+                    + " customer_id INT NOT NULL,"
+                    + " start_time TIMESTAMP(9),"
+                    + " end_time TIMESTAMP(9),"
+                    + " rental_type VARCHAR(16))",
+            "CREATE TABLE IF NOT EXISTS reservation ("
+                    + " id INT PRIMARY KEY,"
+                    + " animal_id INT NOT NULL,"
+                    + " customer_id INT NOT NULL,"
+                    + " start_time TIMESTAMP(9),"
+                    + " end_time TIMESTAMP(9),"
+                    + " rental_type VARCHAR(16),"
+                    + " cancelled BOOLEAN NOT NULL)",
+            "CREATE INDEX IF NOT EXISTS " + ACTIVE_RENTAL_INDEX + " ON rental (animal_id, end_time)",
+            "CREATE INDEX IF NOT EXISTS IDX_RENTAL_CUSTOMER ON rental (customer_id)",
+            "CREATE INDEX IF NOT EXISTS IDX_RENTAL_START ON rental (start_time)",
+            "CREATE INDEX IF NOT EXISTS IDX_ANIMAL_STATUS ON animal (status)"
+    };
+
+    private JdbcSchema() {
+    }
+
+    /**
+     * Crea las tablas e índices que falten.
+     *
+     * @param pool Pool de conexiones de la base de datos.
+     */
+    public static void create(JdbcConnectionPool pool) {
+        pool.execute(connection -> {
+            try (Statement statement = connection.connection().createStatement()) {
+                for (String sql : DDL) {
+                    statement.execute(sql);
+                }
+            }
+            return null;
+        });
+    }
+}
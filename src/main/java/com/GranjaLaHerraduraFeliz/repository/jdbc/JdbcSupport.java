@@ -0,0 +1,34 @@
+package com.GranjaLaHerraduraFeliz.repository.jdbc;
+
+import java.sql.ResultSet;
+
+/**
+ * Utilidades compartidas por los repositorios JDBC.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+final class JdbcSupport {
+
+    private JdbcSupport() {
+    }
+
+    /** @return Mayor ID de la tabla, o 0 si está vacía. */
+    static int maxId(JdbcConnectionPool pool, String table) {
+        return pool.execute(connection -> {
+            try (ResultSet rows = connection.prepare("SELECT COALESCE(MAX(id), 0) FROM " + table).executeQuery()) {
+                rows.next();
+                return rows.getInt(1);
+            }
+        });
+    }
+
+    /** Los enumerados se guardan por nombre, legibles desde cualquier cliente SQL. */
+    static String name(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+
+    static <E extends Enum<E>> E parse(Class<E> type, String name) {
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+}
@@ -0,0 +1,22 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+/**
+ * Política de sincronización a disco del {@link Journal}.
+ * <ul>
+ *     <li>{@link #ALWAYS}: cada {@code save} espera su propio {@code fsync}; si varios
+ *     hilos escriben a la vez, un mismo {@code fsync} puede cubrir varios registros.</li>
+ *     <li>{@link #GROUP}: un hilo dedicado agrupa los registros pendientes y hace un
+ *     único {@code fsync} por lote, esperando como máximo la latencia configurada.
+ *     Cada {@code save} sigue sin volver hasta que su registro es durable.</li>
+ *     <li>{@link #NONE}: no se fuerza la escritura; el sistema operativo decide cuándo
+ *     llega al disco. Es lo más rápido, pero un corte de luz puede perder los últimos registros.</li>
+ * </ul>
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public enum FsyncPolicy {
+    ALWAYS,
+    GROUP,
+    NONE
+}
@@ -0,0 +1,406 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Registro binario de solo escritura al final (write-ahead log) para los repositorios.
+ * <p>
+ * Cada registro tiene el formato:
+ * <pre>
+ * [int longitud del contenido][byte tipo][contenido][int CRC32 de tipo + contenido]
+ * </pre>
+ * Al abrir un journal existente se valida cada registro; si el último quedó a medias
+ * (por ejemplo, por un corte de luz), se descarta y el archivo se trunca en el último
+ * registro válido.
+ * <p>
+ * La durabilidad depende de la {@link FsyncPolicy}. Con {@link FsyncPolicy#GROUP}, un
+ * hilo dedicado agrupa los registros pendientes ("group commit"): varios {@code save}
+ * concurrentes comparten un único {@code fsync}, así el rendimiento no queda limitado
+ * a un vaciado de disco por alquiler.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class Journal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(Journal.class);
+
+    /** Bytes de cabecera (longitud + tipo) y de cola (CRC) de cada registro. */
+    private static final int HEADER_BYTES = 5;
+    private static final int TRAILER_BYTES = 4;
+
+    /** Tamaño máximo aceptado para un registro; protege frente a longitudes corruptas. */
+    private static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long maxLatencyNanos;
+
+    /** Serializa las escrituras en el canal. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /** Protege el estado de sincronización y las condiciones del group commit. */
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition pendingWrites = syncLock.newCondition();
+    private final Condition batchWindow = syncLock.newCondition();
+    private final Condition durableWrites = syncLock.newCondition();
+
+    /** Último registro escrito en el canal (se actualiza bajo {@link #writeLock}). */
+    private volatile long writtenSeq;
+
+    /** Último registro garantizado en disco (se actualiza bajo {@link #syncLock}). */
+    private long durableSeq;
+
+    /** Error del hilo de vaciado, que se propaga a los escritores que esperan. */
+    private IOException flushFailure;
+
+    private volatile boolean closed;
+    private final Thread flusher;
+
+    private Journal(Path path, FileChannel channel, FsyncPolicy policy, Duration maxLatency) {
+        this.path = path;
+        this.channel = channel;
+        this.policy = policy;
+        this.maxLatencyNanos = Math.max(0, maxLatency.toNanos());
+        if (policy == FsyncPolicy.GROUP) {
+            this.flusher = new Thread(this::flushLoop, "journal-group-commit");
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Abre (o crea) un journal para escribir al final.
+     *
+     * @param path       Ruta del archivo.
+     * @param policy     Política de sincronización a disco.
+     * @param maxLatency Latencia máxima que un registro espera a su lote (solo {@link FsyncPolicy#GROUP}).
+     * @return Journal listo para recibir registros.
+     * @throws IOException Si el archivo no se puede abrir.
+     */
+    public static Journal open(Path path, FsyncPolicy policy, Duration maxLatency) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        long validEnd = scan(Channels.newInputStream(channel.position(0)), 0, null);
+        if (validEnd < channel.size()) {
+            log.warn("component=Journal event=tornTailDiscarded path={} validBytes={} fileBytes={}",
+                    path, validEnd, channel.size());
+            channel.truncate(validEnd);
+        }
+        channel.position(validEnd);
+
+        log.info("component=Journal event=opened path={} policy={} maxLatencyMs={} bytes={}",
+                path, policy, maxLatency.toMillis(), validEnd);
+        return new Journal(path, channel, policy, maxLatency);
+    }
+
+    /**
+     * Agrega un registro y espera a que sea durable según la política configurada.
+     *
+     * @param type    Tipo de registro (ver {@link JournalCodec}).
+     * @param payload Contenido codificado.
+     * @throws UncheckedIOException Si falla la escritura o el {@code fsync}.
+     */
+    public void append(byte type, byte[] payload) {
+        appendAll(type, List.of(payload));
+    }
+
+    /**
+     * Agrega varios registros del mismo tipo de forma contigua y espera una única
+     * vez a que todos sean durables: con {@link FsyncPolicy#ALWAYS} o
+     * {@link FsyncPolicy#GROUP}, el lote completo cuesta un solo {@code fsync}.
+     *
+     * @param type     Tipo de los registros (ver {@link JournalCodec}).
+     * @param payloads Contenidos codificados.
+     * @throws UncheckedIOException Si falla la escritura o el {@code fsync}.
+     */
+    public void appendAll(byte type, List<byte[]> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        int bytes = 0;
+        for (byte[] payload : payloads) {
+            bytes += HEADER_BYTES + payload.length + TRAILER_BYTES;
+        }
+        ByteBuffer records = ByteBuffer.allocate(bytes);
+        for (byte[] payload : payloads) {
+            records.putInt(payload.length).put(type).put(payload).putInt(checksum(type, payload, payload.length));
+        }
+        records.flip();
+
+        long seq;
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("El journal " + path + " está cerrado");
+            }
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+            seq = ++writtenSeq;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el journal " + path, e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        switch (policy) {
+            case ALWAYS -> forceUpTo(seq);
+            case GROUP -> awaitGroupCommit(seq);
+            case NONE -> {
+                // El sistema operativo decide cuándo vaciar a disco
+            }
+        }
+    }
+
+    /** @return Posición actual (bytes válidos escritos) del journal. */
+    public long position() {
+        writeLock.lock();
+        try {
+            return channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /** @return Ruta del archivo del journal. */
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Recorre los registros válidos de un journal desde el principio.
+     *
+     * @param path    Ruta del archivo.
+     * @param handler Receptor de cada registro.
+     * @return Número de bytes válidos leídos.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static long replay(Path path, RecordHandler handler) throws IOException {
+        return replay(path, 0, handler);
+    }
+
+    /**
+     * Recorre los registros válidos de un journal a partir de una posición conocida
+     * (por ejemplo, la registrada en una instantánea).
+     *
+     * @param path       Ruta del archivo.
+     * @param fromOffset Posición de inicio; debe coincidir con el comienzo de un registro.
+     * @param handler    Receptor de cada registro.
+     * @return Posición final (bytes válidos).
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public static long replay(Path path, long fromOffset, RecordHandler handler) throws IOException {
+        if (!Files.exists(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (fromOffset >= channel.size()) {
+                return fromOffset;
+            }
+            return scan(Channels.newInputStream(channel.position(fromOffset)), fromOffset, handler);
+        }
+    }
+
+    /**
+     * Cierra el journal vaciando a disco cualquier registro pendiente.
+     *
+     * @throws IOException Si falla el vaciado final o el cierre del archivo.
+     */
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        if (flusher != null) {
+            syncLock.lock();
+            try {
+                pendingWrites.signalAll();
+                batchWindow.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        channel.force(false);
+        channel.close();
+        log.info("component=Journal event=closed path={}", path);
+    }
+
+    /** Fuerza a disco al menos hasta {@code seq}; un mismo {@code fsync} puede cubrir a otros hilos. */
+    private void forceUpTo(long seq) {
+        syncLock.lock();
+        try {
+            if (durableSeq >= seq) {
+                return;
+            }
+            long target = writtenSeq;
+            channel.force(false);
+            durableSeq = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo sincronizar el journal " + path, e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** Espera a que el hilo de group commit haga durable el registro {@code seq}. */
+    private void awaitGroupCommit(long seq) {
+        syncLock.lock();
+        try {
+            pendingWrites.signal();
+            while (durableSeq < seq) {
+                if (flushFailure != null) {
+                    throw new UncheckedIOException("No se pudo sincronizar el journal " + path, flushFailure);
+                }
+                durableWrites.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /** Bucle del hilo de group commit: espera registros, junta un lote y hace un único {@code fsync}. */
+    private void flushLoop() {
+        syncLock.lock();
+        try {
+            while (true) {
+                while (durableSeq == writtenSeq && !closed) {
+                    pendingWrites.awaitUninterruptibly();
+                }
+                if (durableSeq == writtenSeq) {
+                    return; // cerrado y sin pendientes
+                }
+                // Ventana de agrupación: otros escritores pueden sumarse al lote
+                long remaining = maxLatencyNanos;
+                while (remaining > 0 && !closed) {
+                    try {
+                        remaining = batchWindow.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        remaining = 0;
+                    }
+                }
+
+                long target = writtenSeq;
+                syncLock.unlock();
+                IOException failure = null;
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    failure = e;
+                } finally {
+                    syncLock.lock();
+                }
+                if (failure != null) {
+                    log.error("component=Journal event=groupCommitFailed path={}", path, failure);
+                    flushFailure = failure;
+                } else {
+                    durableSeq = target;
+                }
+                durableWrites.signalAll();
+                if (failure != null) {
+                    return;
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Lee registros secuencialmente validando longitud y CRC; se detiene en el primero inválido.
+     *
+     * @return Posición del final del último registro válido.
+     */
+    private static long scan(InputStream raw, long startOffset, RecordHandler handler) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 64 * 1024));
+        long offset = startOffset;
+        while (true) {
+            int length;
+            byte type;
+            byte[] payload;
+            int storedCrc;
+            try {
+                length = in.readInt();
+                if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+                    return offset;
+                }
+                type = in.readByte();
+                payload = new byte[length];
+                in.readFully(payload);
+                storedCrc = in.readInt();
+            } catch (EOFException e) {
+                return offset;
+            }
+            if (storedCrc != checksum(type, payload, length)) {
+                return offset;
+            }
+            if (handler != null) {
+                handler.accept(type, payload);
+            }
+            offset += HEADER_BYTES + length + TRAILER_BYTES;
+        }
+    }
+
+    private static int checksum(byte type, byte[] payload, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(payload, 0, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Receptor de registros durante la reproducción del journal.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        /**
+         * Procesa un registro válido.
+         *
+         * @param type    Tipo de registro.
+         * @param payload Contenido codificado.
+         * @throws IOException Si el contenido no se puede decodificar.
+         */
+        void accept(byte type, byte[] payload) throws IOException;
+    }
+}
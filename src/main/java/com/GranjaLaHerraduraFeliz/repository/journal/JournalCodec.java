@@ -0,0 +1,251 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codificación binaria de las entidades del dominio para el {@link Journal}.
+ * <p>
+ * Los alquileres y las reservas guardan solo los IDs del animal y del cliente; al reproducir
+ * el journal se resuelven contra los repositorios ya reconstruidos. Las fechas
+ * se guardan como segundos y nanosegundos "epoch" interpretando la
+ * {@link LocalDateTime} en UTC, sin conversión de zona horaria.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class JournalCodec {
+
+    /** Tipo de registro: animal guardado. */
+    public static final byte ANIMAL = 1;
+
+    /** Tipo de registro: cliente guardado. */
+    public static final byte CUSTOMER = 2;
+
+    /** Tipo de registro: alquiler guardado. */
+    public static final byte RENTAL = 3;
+
+    /** Tipo de registro: reserva guardada. */
+    public static final byte RESERVATION = 4;
+
+    private JournalCodec() {
+    }
+
+    /**
+     * @param animal Animal a codificar.
+     * @return Bytes del registro.
+     */
+    public static byte[] encodeAnimal(Animal animal) {
+        return encode(out -> {
+            out.writeInt(animal.getId());
+            writeString(out, animal.getName());
+            writeEnum(out, animal.getType());
+            writeEnum(out, animal.getStatus());
+        });
+    }
+
+    /**
+     * @param payload Bytes del registro.
+     * @return Animal decodificado.
+     */
+    public static Animal decodeAnimal(byte[] payload) {
+        return decode(payload, in -> new Animal(
+                in.readInt(),
+                readString(in),
+                readEnum(in, AnimalType.values()),
+                readEnum(in, AnimalStatus.values())));
+    }
+
+    /**
+     * @param customer Cliente a codificar.
+     * @return Bytes del registro.
+     */
+    public static byte[] encodeCustomer(Customer customer) {
+        return encode(out -> {
+            out.writeInt(customer.getId());
+            writeString(out, customer.getFullName());
+        });
+    }
+
+    /**
+     * @param payload Bytes del registro.
+     * @return Cliente decodificado.
+     */
+    public static Customer decodeCustomer(byte[] payload) {
+        return decode(payload, in -> new Customer(in.readInt(), readString(in)));
+    }
+
+    /**
+     * @param rental Alquiler a codificar.
+     * @return Bytes del registro.
+     */
+    public static byte[] encodeRental(Rental rental) {
+        return encode(out -> {
+            out.writeInt(rental.getId());
+            out.writeInt(rental.getAnimal() == null ? 0 : rental.getAnimal().getId());
+            out.writeInt(rental.getCustomer() == null ? 0 : rental.getCustomer().getId());
+            writeDateTime(out, rental.getStartTime());
+            writeDateTime(out, rental.getEndTime());
+            writeEnum(out, rental.getRentalType());
+        });
+    }
+
+    /**
+     * Decodifica un alquiler sin resolver sus referencias.
+     *
+     * @param payload Bytes del registro.
+     * @return Registro con los IDs de animal y cliente.
+     */
+    public static RentalRecord decodeRental(byte[] payload) {
+        return decode(payload, in -> new RentalRecord(
+                in.readInt(),
+                in.readInt(),
+                in.readInt(),
+                readDateTime(in),
+                readDateTime(in),
+                readEnum(in, RentalType.values())));
+    }
+
+    /**
+     * Alquiler tal como se guarda en el journal: con IDs en lugar de referencias.
+     *
+     * @param id         ID del alquiler.
+     * @param animalId   ID del animal.
+     * @param customerId ID del cliente.
+     * @param startTime  Inicio del alquiler.
+     * @param endTime    Fin del alquiler, o {@code null} si seguía activo.
+     * @param rentalType Tipo de alquiler.
+     */
+    public record RentalRecord(int id, int animalId, int customerId,
+                               LocalDateTime startTime, LocalDateTime endTime, RentalType rentalType) {
+    }
+
+    /**
+     * @param reservation Reserva a codificar.
+     * @return Bytes del registro.
+     */
+    public static byte[] encodeReservation(Reservation reservation) {
+        return encode(out -> {
+            out.writeInt(reservation.getId());
+            out.writeInt(reservation.getAnimal() == null ? 0 : reservation.getAnimal().getId());
+            out.writeInt(reservation.getCustomer() == null ? 0 : reservation.getCustomer().getId());
+            writeDateTime(out, reservation.getStartTime());
+            writeDateTime(out, reservation.getEndTime());
+            writeEnum(out, reservation.getRentalType());
+            out.writeBoolean(reservation.isCancelled());
+        });
+    }
+
+    /**
+     * Decodifica una reserva sin resolver sus referencias.
+     *
+     * @param payload Bytes del registro.
+     * @return Registro con los IDs de animal y cliente.
+     */
+    public static ReservationRecord decodeReservation(byte[] payload) {
+        return decode(payload, in -> new ReservationRecord(
+                in.readInt(),
+                in.readInt(),
+                in.readInt(),
+                readDateTime(in),
+                readDateTime(in),
+                readEnum(in, RentalType.values()),
+                in.readBoolean()));
+    }
+
+    /**
+     * Reserva tal como se guarda en el journal: con IDs en lugar de referencias.
+     *
+     * @param id         ID de la reserva.
+     * @param animalId   ID del animal.
+     * @param customerId ID del cliente.
+     * @param startTime  Inicio de la franja.
+     * @param endTime    Fin de la franja.
+     * @param rentalType Tipo de alquiler previsto.
+     * @param cancelled  {@code true} si la reserva estaba cancelada.
+     */
+    public record ReservationRecord(int id, int animalId, int customerId, LocalDateTime startTime,
+                                    LocalDateTime endTime, RentalType rentalType, boolean cancelled) {
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? -1 : value.ordinal());
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, E[] values) throws IOException {
+        int ordinal = in.readByte();
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    private static void writeDateTime(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long seconds = in.readLong();
+        int nanos = in.readInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static byte[] encode(Writer writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            writer.write(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> T decode(byte[] payload, Reader<T> reader) {
+        try {
+            return reader.read(new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Registro de journal corrupto", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}
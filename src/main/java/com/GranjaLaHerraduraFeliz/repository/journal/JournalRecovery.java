@@ -0,0 +1,222 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reconstruye el estado de los repositorios reproduciendo un {@link Journal}.
+ * <p>
+ * Cada registro se aplica con {@code save} sobre los repositorios base (sin journal),
+ * actualizando en el lugar la instancia existente con el mismo ID. Así cada animal,
+ * cliente y alquiler queda representado por un único objeto, y los alquileres apuntan
+ * a las mismas instancias de {@link Animal} y {@link Customer} que sus repositorios,
+ * igual que durante la ejecución normal.
+ * <p>
+ * Las instantáneas de la versión 1 no incluían reservas: al arrancar desde una
+ * de ellas hay que reproducir además las reservas anteriores a su posición con
+ * {@link #replayReservations(Path)}.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class JournalRecovery {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalRecovery.class);
+
+    private final AnimalRepository animals;
+    private final CustomerRepository customers;
+    private final RentalRepository rentals;
+
+    /** Repositorio base de reservas; {@code null} si no se reconstruyen. */
+    private final ReservationRepository reservations;
+
+    private long animalRecords;
+    private long customerRecords;
+    private long rentalRecords;
+    private long reservationRecords;
+
+    /**
+     * @param animals   Repositorio base de animales a reconstruir.
+     * @param customers Repositorio base de clientes a reconstruir.
+     * @param rentals   Repositorio base de alquileres a reconstruir.
+     */
+    public JournalRecovery(AnimalRepository animals, CustomerRepository customers, RentalRepository rentals) {
+        this(animals, customers, rentals, null);
+    }
+
+    /**
+     * @param animals      Repositorio base de animales a reconstruir.
+     * @param customers    Repositorio base de clientes a reconstruir.
+     * @param rentals      Repositorio base de alquileres a reconstruir.
+     * @param reservations Repositorio base de reservas a reconstruir ({@code null} para ignorarlas).
+     */
+    public JournalRecovery(AnimalRepository animals, CustomerRepository customers, RentalRepository rentals,
+                           ReservationRepository reservations) {
+        this.animals = animals;
+        this.customers = customers;
+        this.rentals = rentals;
+        this.reservations = reservations;
+    }
+
+    /**
+     * Reproduce el journal completo.
+     *
+     * @param path Ruta del journal.
+     * @return Posición final del journal (bytes válidos).
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public long replay(Path path) throws IOException {
+        return replay(path, 0);
+    }
+
+    /**
+     * Reproduce el journal desde una posición dada.
+     *
+     * @param path       Ruta del journal.
+     * @param fromOffset Posición de inicio.
+     * @return Posición final del journal (bytes válidos).
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public long replay(Path path, long fromOffset) throws IOException {
+        long start = System.nanoTime();
+        long end = Journal.replay(path, fromOffset, this::apply);
+        log.info("component=JournalRecovery event=replayed path={} animals={} customers={} rentals={} reservations={}"
+                        + " elapsedMs={}", path, animalRecords, customerRecords, rentalRecords, reservationRecords,
+                (System.nanoTime() - start) / 1_000_000);
+        return end;
+    }
+
+    /**
+     * Reproduce solo las reservas del journal completo. Se llama después de
+     * {@link #replay(Path, long)} cuando este empezó en la posición de una
+     * instantánea sin reservas (versión 1): las reservas posteriores se vuelven a aplicar en el mismo
+     * orden, así que cada una queda en su último estado.
+     *
+     * @param path Ruta del journal.
+     * @throws IOException Si el archivo no se puede leer.
+     */
+    public void replayReservations(Path path) throws IOException {
+        long start = System.nanoTime();
+        long before = reservationRecords;
+        Journal.replay(path, 0, (type, payload) -> {
+            if (type == JournalCodec.RESERVATION) {
+                apply(type, payload);
+            }
+        });
+        log.info("component=JournalRecovery event=reservationsReplayed path={} reservations={} elapsedMs={}",
+                path, reservationRecords - before, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Aplica un registro individual sobre los repositorios.
+     *
+     * @param type    Tipo de registro.
+     * @param payload Contenido codificado.
+     */
+    public void apply(byte type, byte[] payload) {
+        switch (type) {
+            case JournalCodec.ANIMAL -> {
+                applyAnimal(JournalCodec.decodeAnimal(payload));
+                animalRecords++;
+            }
+            case JournalCodec.CUSTOMER -> {
+                applyCustomer(JournalCodec.decodeCustomer(payload));
+                customerRecords++;
+            }
+            case JournalCodec.RENTAL -> {
+                applyRental(JournalCodec.decodeRental(payload));
+                rentalRecords++;
+            }
+            case JournalCodec.RESERVATION -> {
+                if (reservations != null) {
+                    applyReservation(JournalCodec.decodeReservation(payload));
+                }
+                reservationRecords++;
+            }
+            default -> log.warn("component=JournalRecovery event=unknownRecordType type={}", type);
+        }
+    }
+
+    private void applyAnimal(Animal decoded) {
+        Animal existing = animals.findById(decoded.getId());
+        if (existing == null) {
+            animals.save(decoded);
+            return;
+        }
+        existing.setName(decoded.getName());
+        existing.setType(decoded.getType());
+        existing.setStatus(decoded.getStatus());
+        animals.save(existing);
+    }
+
+    private void applyCustomer(Customer decoded) {
+        Customer existing = customers.findById(decoded.getId());
+        if (existing == null) {
+            customers.save(decoded);
+            return;
+        }
+        existing.setFullName(decoded.getFullName());
+        customers.save(existing);
+    }
+
+    private void applyRental(JournalCodec.RentalRecord record) {
+        Rental rental = rentals.findById(record.id());
+        if (rental == null) {
+            rental = new Rental();
+            rental.setId(record.id());
+        }
+        rental.setAnimal(resolveAnimal(record.animalId()));
+        rental.setCustomer(resolveCustomer(record.customerId()));
+        rental.setStartTime(record.startTime());
+        rental.setEndTime(record.endTime());
+        rental.setRentalType(record.rentalType());
+        rentals.save(rental);
+    }
+
+    private void applyReservation(JournalCodec.ReservationRecord record) {
+        Reservation reservation = reservations.findById(record.id());
+        if (reservation == null) {
+            reservation = new Reservation();
+            reservation.setId(record.id());
+        }
+        reservation.setAnimal(resolveAnimal(record.animalId()));
+        reservation.setCustomer(resolveCustomer(record.customerId()));
+        reservation.setStartTime(record.startTime());
+        reservation.setEndTime(record.endTime());
+        reservation.setRentalType(record.rentalType());
+        reservation.setCancelled(record.cancelled());
+        reservations.save(reservation);
+    }
+
+    private Animal resolveAnimal(int id) {
+        Animal animal = animals.findById(id);
+        if (animal == null) {
+            // No debería ocurrir: el animal se registra antes que sus alquileres
+            log.warn("component=JournalRecovery event=missingAnimal animalId={}", id);
+            animal = new Animal();
+            animal.setId(id);
+        }
+        return animal;
+    }
+
+    private Customer resolveCustomer(int id) {
+        Customer customer = customers.findById(id);
+        if (customer == null) {
+            log.warn("component=JournalRecovery event=missingCustomer customerId={}", id);
+            customer = new Customer();
+            customer.setId(id);
+        }
+        return customer;
+    }
+}
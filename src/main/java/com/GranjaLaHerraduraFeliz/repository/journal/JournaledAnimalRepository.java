@@ -0,0 +1,94 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decorador de {@link AnimalRepository} que registra cada {@code save} en un {@link Journal}.
+ * <p>
+ * El registro se escribe <b>antes</b> de aplicar el cambio al repositorio envuelto
+ * (a las entidades nuevas se les asigna el ID primero): si la escritura falla, el
+ * cambio no llega a verse en memoria.
+ * <p>
+ * Las consultas se delegan sin cambios al repositorio envuelto. {@code save} solo
+ * devuelve el control cuando el registro es durable según la {@link FsyncPolicy}.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class JournaledAnimalRepository implements AnimalRepository {
+
+    private final AnimalRepository delegate;
+    private final Journal journal;
+
+    /** Próximo ID para entidades nuevas: se asigna antes de escribir su registro. */
+    private final AtomicInteger nextId;
+
+    /**
+     * @param delegate Repositorio que mantiene el estado en memoria.
+     * @param journal  Journal donde se registran los cambios.
+     */
+    public JournaledAnimalRepository(AnimalRepository delegate, Journal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.nextId = new AtomicInteger(delegate.maxId() + 1);
+    }
+
+    @Override
+    public Animal save(Animal animal) {
+        assignId(animal);
+        journal.append(JournalCodec.ANIMAL, JournalCodec.encodeAnimal(animal));
+        return delegate.save(animal);
+    }
+
+    @Override
+    public List<Animal> saveAll(List<Animal> animals) {
+        List<byte[]> payloads = new ArrayList<>(animals.size());
+        for (Animal item : animals) {
+            assignId(item);
+            payloads.add(JournalCodec.encodeAnimal(item));
+        }
+        journal.appendAll(JournalCodec.ANIMAL, payloads);
+        return delegate.saveAll(animals);
+    }
+
+    @Override
+    public Animal findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Animal> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Animal> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Animal> findByStatus(AnimalStatus status) {
+        return delegate.findByStatus(status);
+    }
+
+    @Override
+    public int maxId() {
+        return nextId.get() - 1;
+    }
+
+    /** Fija el ID antes de escribir el registro, igual que lo haría el repositorio envuelto. */
+    private void assignId(Animal animal) {
+        if (animal.getId() == 0) {
+            animal.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = animal.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decorador de {@link CustomerRepository} que registra cada {@code save} en un {@link Journal}.
+ * <p>
+ * Igual que {@link JournaledAnimalRepository}, registra antes de aplicar.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class JournaledCustomerRepository implements CustomerRepository {
+
+    private final CustomerRepository delegate;
+    private final Journal journal;
+
+    /** Próximo ID para entidades nuevas: se asigna antes de escribir su registro. */
+    private final AtomicInteger nextId;
+
+    /**
+     * @param delegate Repositorio que mantiene el estado en memoria.
+     * @param journal  Journal donde se registran los cambios.
+     */
+    public JournaledCustomerRepository(CustomerRepository delegate, Journal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.nextId = new AtomicInteger(delegate.maxId() + 1);
+    }
+
+    @Override
+    public Customer save(Customer customer) {
+        assignId(customer);
+        journal.append(JournalCodec.CUSTOMER, JournalCodec.encodeCustomer(customer));
+        return delegate.save(customer);
+    }
+
+    @Override
+    public List<Customer> saveAll(List<Customer> customers) {
+        List<byte[]> payloads = new ArrayList<>(customers.size());
+        for (Customer item : customers) {
+            assignId(item);
+            payloads.add(JournalCodec.encodeCustomer(item));
+        }
+        journal.appendAll(JournalCodec.CUSTOMER, payloads);
+        return delegate.saveAll(customers);
+    }
+
+    @Override
+    public Customer findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Customer> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Customer> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Customer> searchByName(String query, int limit) {
+        return delegate.searchByName(query, limit);
+    }
+
+    @Override
+    public int maxId() {
+        return nextId.get() - 1;
+    }
+
+    /** Fija el ID antes de escribir el registro, igual que lo haría el repositorio envuelto. */
+    private void assignId(Customer customer) {
+        if (customer.getId() == 0) {
+            customer.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = customer.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decorador de {@link RentalRepository} que registra cada {@code save} en un {@link Journal}.
+ * <p>
+ * Registra antes de aplicar, como {@link JournaledAnimalRepository}; un lote de
+ * {@code saveAll} se escribe completo antes de guardarse.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class JournaledRentalRepository implements RentalRepository {
+
+    private final RentalRepository delegate;
+    private final Journal journal;
+
+    /** Próximo ID para entidades nuevas: se asigna antes de escribir su registro. */
+    private final AtomicInteger nextId;
+
+    /**
+     * @param delegate Repositorio que mantiene el estado en memoria.
+     * @param journal  Journal donde se registran los cambios.
+     */
+    public JournaledRentalRepository(RentalRepository delegate, Journal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.nextId = new AtomicInteger(delegate.maxId() + 1);
+    }
+
+    @Override
+    public Rental save(Rental rental) {
+        assignId(rental);
+        journal.append(JournalCodec.RENTAL, JournalCodec.encodeRental(rental));
+        return delegate.save(rental);
+    }
+
+    @Override
+    public List<Rental> saveAll(List<Rental> rentals) {
+        List<byte[]> payloads = new ArrayList<>(rentals.size());
+        for (Rental item : rentals) {
+            assignId(item);
+            payloads.add(JournalCodec.encodeRental(item));
+        }
+        journal.appendAll(JournalCodec.RENTAL, payloads);
+        return delegate.saveAll(rentals);
+    }
+
+    @Override
+    public Rental findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Rental> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public List<Rental> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public List<Rental> findActiveByAnimal(Animal animal) {
+        return delegate.findActiveByAnimal(animal);
+    }
+
+    @Override
+    public List<Rental> findByCustomer(int customerId) {
+        return delegate.findByCustomer(customerId);
+    }
+
+    @Override
+    public List<Rental> findStartedBetween(LocalDateTime from, LocalDateTime to) {
+        return delegate.findStartedBetween(from, to);
+    }
+
+    @Override
+    public int maxId() {
+        return nextId.get() - 1;
+    }
+
+    /** Fija el ID antes de escribir el registro, igual que lo haría el repositorio envuelto. */
+    private void assignId(Rental rental) {
+        if (rental.getId() == 0) {
+            rental.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = rental.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+    }
+}
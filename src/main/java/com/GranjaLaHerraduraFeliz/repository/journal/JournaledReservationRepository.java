@@ -0,0 +1,66 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decorador de {@link ReservationRepository} que registra cada {@code save} en un {@link Journal}.
+ * <p>
+ * Registra antes de aplicar, como {@link JournaledAnimalRepository}.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class JournaledReservationRepository implements ReservationRepository {
+
+    private final ReservationRepository delegate;
+    private final Journal journal;
+
+    /** Próximo ID para entidades nuevas: se asigna antes de escribir su registro. */
+    private final AtomicInteger nextId;
+
+    /**
+     * @param delegate Repositorio que mantiene el estado en memoria.
+     * @param journal  Journal donde se registran los cambios.
+     */
+    public JournaledReservationRepository(ReservationRepository delegate, Journal journal) {
+        this.delegate = delegate;
+        this.journal = journal;
+        this.nextId = new AtomicInteger(delegate.maxId() + 1);
+    }
+
+    @Override
+    public Reservation save(Reservation reservation) {
+        assignId(reservation);
+        journal.append(JournalCodec.RESERVATION, JournalCodec.encodeReservation(reservation));
+        return delegate.save(reservation);
+    }
+
+    @Override
+    public Reservation findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Reservation> findPage(int afterId, int limit) {
+        return delegate.findPage(afterId, limit);
+    }
+
+    @Override
+    public int maxId() {
+        return nextId.get() - 1;
+    }
+
+    /** Fija el ID antes de escribir el registro, igual que lo haría el repositorio envuelto. */
+    private void assignId(Reservation reservation) {
+        if (reservation.getId() == 0) {
+            reservation.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = reservation.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+    }
+}
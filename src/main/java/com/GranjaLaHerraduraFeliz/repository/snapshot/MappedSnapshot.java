@@ -0,0 +1,355 @@
+package com.GranjaLaHerraduraFeliz.repository.snapshot;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static com.GranjaLaHerraduraFeliz.repository.snapshot.SnapshotFormat.*;
+
+/**
+ * Instantánea abierta mediante un mapeo de memoria de solo lectura.
+ * <p>
+ * Abrir la instantánea solo valida la cabecera: los alquileres no se decodifican
+ * hasta que se consultan, y el sistema operativo carga las páginas del archivo a
+ * demanda. Así el arranque no depende del tamaño del historial. Los animales y
+ * clientes (pocos en comparación) se cargan completos con {@link #loadAnimals} y
+ * {@link #loadCustomers}, igual que las reservas con {@link #loadReservations}.
+ * <p>
+ * Los alquileres están ordenados por ID en registros de tamaño fijo, por lo que
+ * {@link #indexOfRental(int)} es una búsqueda binaria sobre el archivo mapeado.
+ * Es segura para lecturas concurrentes: solo se usan lecturas absolutas del buffer.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class MappedSnapshot {
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+
+    private final long journalOffset;
+    private final int animalCount;
+    private final int customerCount;
+    private final int rentalCount;
+    private final int activeCount;
+    private final int animalsOffset;
+    private final int rentalsOffset;
+    private final int activeOffset;
+    private final int customersOffset;
+    private final int maxRentalId;
+    private final boolean hasReservations;
+    private final int reservationCount;
+    private final int reservationsOffset;
+
+    private MappedSnapshot(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES_V1 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("El archivo " + path + " no es una instantánea válida");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION && version != VERSION_WITHOUT_RESERVATIONS) {
+            throw new IOException("Versión de instantánea no soportada: " + version);
+        }
+        this.journalOffset = buffer.getLong(OFF_JOURNAL);
+        this.animalCount = buffer.getInt(OFF_ANIMAL_COUNT);
+        this.customerCount = buffer.getInt(OFF_CUSTOMER_COUNT);
+        this.rentalCount = buffer.getInt(OFF_RENTAL_COUNT);
+        this.activeCount = buffer.getInt(OFF_ACTIVE_COUNT);
+        this.animalsOffset = (int) buffer.getLong(OFF_ANIMALS);
+        this.customersOffset = (int) buffer.getLong(OFF_CUSTOMERS);
+        this.rentalsOffset = (int) buffer.getLong(OFF_RENTALS);
+        this.activeOffset = (int) buffer.getLong(OFF_ACTIVE);
+        this.maxRentalId = buffer.getInt(OFF_MAX_RENTAL_ID);
+        this.hasReservations = version == VERSION;
+        this.reservationCount = hasReservations ? buffer.getInt(OFF_RESERVATION_COUNT) : 0;
+        this.reservationsOffset = hasReservations ? (int) buffer.getLong(OFF_RESERVATIONS)
+                : activeOffset + 4 * activeCount;
+        if ((long) activeOffset + 4L * activeCount != reservationsOffset
+                || (long) reservationsOffset + (long) RENTAL_BYTES * reservationCount != buffer.capacity()) {
+            throw new IOException("La instantánea " + path + " está truncada o corrupta");
+        }
+    }
+
+    /**
+     * Mapea la última generación escrita de una instantánea.
+     *
+     * @param path Ruta base de la instantánea, la misma que se pasó a {@link SnapshotWriter}.
+     * @return Instantánea lista para consultar.
+     * @throws IOException Si el archivo no existe o no es válido.
+     */
+    public static MappedSnapshot open(Path path) throws IOException {
+        Path file = SnapshotFiles.latest(path);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // El mapeo sigue siendo válido después de cerrar el canal
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedSnapshot(file, buffer);
+        }
+    }
+
+    /**
+     * @param path Ruta base de la instantánea.
+     * @return {@code true} si hay alguna instantánea que {@link #open(Path)} pueda abrir.
+     * @throws IOException Si no se puede listar el directorio.
+     */
+    public static boolean exists(Path path) throws IOException {
+        return Files.exists(SnapshotFiles.latest(path));
+    }
+
+    /** @return Posición del journal desde la que hay que reproducir cambios posteriores. */
+    public long journalOffset() {
+        return journalOffset;
+    }
+
+    /** @return Ruta del archivo mapeado (la generación concreta, no la ruta base). */
+    public Path path() {
+        return path;
+    }
+
+    /** @return Número de alquileres guardados. */
+    public int rentalCount() {
+        return rentalCount;
+    }
+
+    /** @return Mayor ID de alquiler guardado (0 si no hay). */
+    public int maxRentalId() {
+        return maxRentalId;
+    }
+
+    /**
+     * Carga todos los animales de la instantánea en el repositorio.
+     *
+     * @param animals Repositorio destino.
+     * @return Número de animales cargados.
+     */
+    public int loadAnimals(AnimalRepository animals) {
+        int pos = animalsOffset;
+        for (int i = 0; i < animalCount; i++) {
+            int id = buffer.getInt(pos);
+            AnimalType type = enumAt(AnimalType.values(), buffer.get(pos + 4));
+            AnimalStatus status = enumAt(AnimalStatus.values(), buffer.get(pos + 5));
+            int length = buffer.getInt(pos + 6);
+            String name = stringAt(pos + 10, length);
+            animals.save(new Animal(id, name, type, status));
+            pos += 10 + Math.max(length, 0);
+        }
+        return animalCount;
+    }
+
+    /**
+     * @return {@code false} si la instantánea es de la versión 1, que no guardaba
+     *         reservas: en ese caso hay que leerlas del journal completo.
+     */
+    public boolean hasReservations() {
+        return hasReservations;
+    }
+
+    /**
+     * Carga todas las reservas de la instantánea (también las canceladas) en el repositorio.
+     *
+     * @param reservations Repositorio destino.
+     * @param animals      Repositorio de animales, ya cargado.
+     * @param customers    Repositorio de clientes, ya cargado.
+     * @return Número de reservas cargadas.
+     */
+    public int loadReservations(ReservationRepository reservations, AnimalRepository animals,
+                                CustomerRepository customers) {
+        for (int i = 0; i < reservationCount; i++) {
+            int base = reservationsOffset + i * RENTAL_BYTES;
+            Reservation reservation = new Reservation(buffer.getInt(base + R_ID),
+                    resolveAnimal(animals, buffer.getInt(base + R_ANIMAL)),
+                    resolveCustomer(customers, buffer.getInt(base + R_CUSTOMER)),
+                    timeAt(base, FLAG_HAS_START, R_START_SEC, R_START_NANO),
+                    timeAt(base, FLAG_HAS_END, R_END_SEC, R_END_NANO),
+                    enumAt(RentalType.values(), buffer.get(base + R_TYPE)));
+            reservation.setCancelled((buffer.get(base + R_FLAGS) & FLAG_CANCELLED) != 0);
+            reservations.save(reservation);
+        }
+        return reservationCount;
+    }
+
+    /**
+     * Carga todos los clientes de la instantánea en el repositorio.
+     *
+     * @param customers Repositorio destino.
+     * @return Número de clientes cargados.
+     */
+    public int loadCustomers(CustomerRepository customers) {
+        int pos = customersOffset;
+        for (int i = 0; i < customerCount; i++) {
+            int id = buffer.getInt(pos);
+            int length = buffer.getInt(pos + 4);
+            customers.save(new Customer(id, stringAt(pos + 8, length)));
+            pos += 8 + Math.max(length, 0);
+        }
+        return customerCount;
+    }
+
+    /**
+     * Devuelve las posiciones de los alquileres que estaban activos.
+     *
+     * @return Índices de registro (para usar con los accesores por índice).
+     */
+    public int[] activeRentalIndexes() {
+        int[] indexes = new int[activeCount];
+        for (int i = 0; i < activeCount; i++) {
+            indexes[i] = buffer.getInt(activeOffset + 4 * i);
+        }
+        return indexes;
+    }
+
+    /**
+     * Busca la posición de un alquiler por ID (búsqueda binaria).
+     *
+     * @param rentalId ID del alquiler.
+     * @return Índice del registro o {@code -1} si no está en la instantánea.
+     */
+    public int indexOfRental(int rentalId) {
+        int low = 0;
+        int high = rentalCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = rentalId(mid);
+            if (id < rentalId) {
+                low = mid + 1;
+            } else if (id > rentalId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Posición del primer alquiler con ID mayor que el indicado (búsqueda binaria).
+     *
+     * @param rentalId Cursor.
+     * @return Índice del primer registro posterior, o {@link #rentalCount()} si no hay.
+     */
+    public int firstRentalIndexAfter(int rentalId) {
+        int low = 0;
+        int high = rentalCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rentalId(mid) <= rentalId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** @return ID del alquiler en la posición indicada. */
+    public int rentalId(int index) {
+        return buffer.getInt(record(index) + R_ID);
+    }
+
+    /** @return ID del animal del alquiler en la posición indicada. */
+    public int animalId(int index) {
+        return buffer.getInt(record(index) + R_ANIMAL);
+    }
+
+    /** @return ID del cliente del alquiler en la posición indicada. */
+    public int customerId(int index) {
+        return buffer.getInt(record(index) + R_CUSTOMER);
+    }
+
+    /** @return Inicio del alquiler en la posición indicada, o {@code null}. */
+    public LocalDateTime startTime(int index) {
+        return timeAt(record(index), FLAG_HAS_START, R_START_SEC, R_START_NANO);
+    }
+
+    /** @return Fin del alquiler en la posición indicada, o {@code null} si estaba activo. */
+    public LocalDateTime endTime(int index) {
+        return timeAt(record(index), FLAG_HAS_END, R_END_SEC, R_END_NANO);
+    }
+
+    /** @return Tipo del alquiler en la posición indicada. */
+    public RentalType rentalType(int index) {
+        return enumAt(RentalType.values(), buffer.get(record(index) + R_TYPE));
+    }
+
+    /**
+     * Decodifica un alquiler completo, resolviendo animal y cliente en los repositorios.
+     *
+     * @param index     Posición del registro.
+     * @param animals   Repositorio de animales.
+     * @param customers Repositorio de clientes.
+     * @return Nuevo objeto {@link Rental} con los datos del registro.
+     */
+    public Rental materialize(int index, AnimalRepository animals, CustomerRepository customers) {
+        Rental rental = new Rental(rentalId(index),
+                resolveAnimal(animals, animalId(index)),
+                resolveCustomer(customers, customerId(index)),
+                startTime(index),
+                rentalType(index));
+        rental.setEndTime(endTime(index));
+        return rental;
+    }
+
+    private int record(int index) {
+        if (index < 0 || index >= rentalCount) {
+            throw new IndexOutOfBoundsException("Alquiler " + index + " fuera de rango (total=" + rentalCount + ")");
+        }
+        return rentalsOffset + index * RENTAL_BYTES;
+    }
+
+    /** @return Fecha del registro en {@code base}, o {@code null} si su bandera no está puesta. */
+    private LocalDateTime timeAt(int base, int flag, int secOffset, int nanoOffset) {
+        if ((buffer.get(base + R_FLAGS) & flag) == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(buffer.getLong(base + secOffset),
+                buffer.getInt(base + nanoOffset), ZoneOffset.UTC);
+    }
+
+    private String stringAt(int pos, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(pos, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static <E extends Enum<E>> E enumAt(E[] values, byte ordinal) {
+        return ordinal < 0 ? null : values[ordinal];
+    }
+
+    private static Animal resolveAnimal(AnimalRepository animals, int id) {
+        Animal animal = animals.findById(id);
+        if (animal == null) {
+            animal = new Animal();
+            animal.setId(id);
+        }
+        return animal;
+    }
+
+    private static Customer resolveCustomer(CustomerRepository customers, int id) {
+        Customer customer = customers.findById(id);
+        if (customer == null) {
+            customer = new Customer();
+            customer.setId(id);
+        }
+        return customer;
+    }
+}
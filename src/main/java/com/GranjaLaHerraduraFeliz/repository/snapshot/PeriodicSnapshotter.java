@@ -0,0 +1,120 @@
+package com.GranjaLaHerraduraFeliz.repository.snapshot;
+
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.Journal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escribe instantáneas periódicas en un hilo de fondo.
+ * <p>
+ * Los servicios siguen operando mientras se escribe: el hilo solo lee los
+ * repositorios, por lo que estos deben ser seguros para lecturas concurrentes
+ * (por ejemplo, las implementaciones {@code Concurrent*}). Si hay journal, su
+ * posición se captura antes de leer los repositorios (ver {@link SnapshotWriter}).
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class PeriodicSnapshotter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PeriodicSnapshotter.class);
+
+    private final Path path;
+    private final Journal journal;
+    private final AnimalRepository animals;
+    private final CustomerRepository customers;
+    private final RentalRepository rentals;
+    private final ReservationRepository reservations;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Crea el programador, sin reservas, y agenda la primera instantánea tras un intervalo.
+     *
+     * @param path      Ruta de la instantánea.
+     * @param journal   Journal asociado, o {@code null} si no se usa.
+     * @param animals   Repositorio de animales.
+     * @param customers Repositorio de clientes.
+     * @param rentals   Repositorio de alquileres.
+     * @param interval  Tiempo entre instantáneas.
+     */
+    public PeriodicSnapshotter(Path path, Journal journal, AnimalRepository animals,
+                               CustomerRepository customers, RentalRepository rentals, Duration interval) {
+        this(path, journal, animals, customers, rentals, null, interval);
+    }
+
+    /**
+     * Crea el programador y agenda la primera instantánea tras un intervalo.
+     *
+     * @param path         Ruta de la instantánea.
+     * @param journal      Journal asociado, o {@code null} si no se usa.
+     * @param animals      Repositorio de animales.
+     * @param customers    Repositorio de clientes.
+     * @param rentals      Repositorio de alquileres.
+     * @param reservations Repositorio de reservas, o {@code null} si no se usan.
+     * @param interval     Tiempo entre instantáneas.
+     */
+    public PeriodicSnapshotter(Path path, Journal journal, AnimalRepository animals,
+                               CustomerRepository customers, RentalRepository rentals,
+                               ReservationRepository reservations, Duration interval) {
+        this.path = path;
+        this.journal = journal;
+        this.animals = animals;
+        this.customers = customers;
+        this.rentals = rentals;
+        this.reservations = reservations;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "snapshot-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = Math.max(1, interval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Escribe una instantánea inmediatamente, en el hilo que llama.
+     *
+     * @throws IOException Si no se puede escribir el archivo.
+     */
+    public synchronized void snapshotNow() throws IOException {
+        long journalOffset = journal == null ? 0 : journal.position();
+        SnapshotWriter.write(path, journalOffset, animals, customers, rentals, reservations);
+    }
+
+    /**
+     * Detiene las instantáneas periódicas y escribe una última.
+     * Debe llamarse antes de cerrar el journal.
+     *
+     * @throws IOException Si falla la instantánea final.
+     */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshotNow();
+    }
+
+    /** Un error no debe cancelar las instantáneas siguientes: se registra y se reintenta luego. */
+    private void snapshotQuietly() {
+        try {
+            snapshotNow();
+        } catch (IOException | RuntimeException e) {
+            log.error("component=PeriodicSnapshotter event=snapshotFailed path={}", path, e);
+        }
+    }
+}
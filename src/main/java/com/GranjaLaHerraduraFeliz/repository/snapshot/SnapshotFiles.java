@@ -0,0 +1,119 @@
+package com.GranjaLaHerraduraFeliz.repository.snapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Nombres de archivo de las generaciones de una instantánea.
+ * <p>
+ * Cada instantánea se escribe en un archivo nuevo ({@code granja.snapshot.1},
+ * {@code granja.snapshot.2}, ...) en lugar de sustituir al anterior: la
+ * instantánea cargada al arrancar sigue mapeada mientras dure el proceso, y en
+ * Windows un archivo mapeado no se puede reemplazar ni borrar. Al abrir se usa
+ * la generación más alta; si no hay ninguna, el archivo con el nombre base
+ * (escrito por versiones anteriores). Las generaciones antiguas se borran cuando
+ * se puede; las que siguen mapeadas se borran en un arranque posterior.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+final class SnapshotFiles {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotFiles.class);
+
+    private SnapshotFiles() {
+    }
+
+    /**
+     * @param path       Ruta base de la instantánea.
+     * @param generation Número de generación (mayor que 0).
+     * @return Archivo de esa generación, junto a la ruta base.
+     */
+    static Path generation(Path path, long generation) {
+        return path.resolveSibling(path.getFileName() + "." + generation);
+    }
+
+    /**
+     * @param path Ruta base de la instantánea.
+     * @return Generación más alta que existe, o 0 si no hay ninguna.
+     * @throws IOException Si no se puede listar el directorio.
+     */
+    static long latestGeneration(Path path) throws IOException {
+        long latest = 0;
+        for (long generation : generations(path)) {
+            latest = Math.max(latest, generation);
+        }
+        return latest;
+    }
+
+    /**
+     * @param path Ruta base de la instantánea.
+     * @return Archivo que hay que abrir: la última generación o, si no hay, la ruta base.
+     * @throws IOException Si no se puede listar el directorio.
+     */
+    static Path latest(Path path) throws IOException {
+        long generation = latestGeneration(path);
+        return generation == 0 ? path : generation(path, generation);
+    }
+
+    /**
+     * Borra las generaciones anteriores a {@code keep} y el archivo base antiguo.
+     * Un archivo que no se puede borrar (por ejemplo, porque sigue mapeado en
+     * Windows) se deja para la próxima vez.
+     *
+     * @param path Ruta base de la instantánea.
+     * @param keep Generación recién escrita.
+     */
+    static void deleteOlder(Path path, long keep) {
+        List<Path> stale = new ArrayList<>();
+        try {
+            for (long generation : generations(path)) {
+                if (generation < keep) {
+                    stale.add(generation(path, generation));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("component=SnapshotFiles event=listFailed path={}", path, e);
+            return;
+        }
+        stale.add(path);
+        for (Path file : stale) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.debug("component=SnapshotFiles event=deleteDeferred path={} reason={}", file, e.toString());
+            }
+        }
+    }
+
+    private static List<Long> generations(Path path) throws IOException {
+        Path absolute = path.toAbsolutePath();
+        Path dir = absolute.getParent();
+        String prefix = absolute.getFileName() + ".";
+        List<Long> generations = new ArrayList<>();
+        if (dir == null || !Files.isDirectory(dir)) {
+            return generations;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, glob(prefix) + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.length() < 19 && suffix.chars().allMatch(Character::isDigit)) {
+                    generations.add(Long.parseLong(suffix));
+                }
+            }
+        }
+        return generations;
+    }
+
+    /** Escapa los caracteres especiales de un patrón glob. */
+    private static String glob(String literal) {
+        return literal.replaceAll("([\\\\*?\\[\\]{}])", "\\\\$1");
+    }
+}
@@ -0,0 +1,70 @@
+package com.GranjaLaHerraduraFeliz.repository.snapshot;
+
+/**
+ * Constantes del formato binario de instantáneas.
+ * <p>
+ * Estructura del archivo:
+ * <pre>
+ * Cabecera (88 bytes)
+ *   int  magia "GRJS"          int  versión
+ *   long posición del journal  long fecha de creación (epoch ms)
+ *   int  nº animales           int  nº clientes
+ *   int  nº alquileres         int  nº alquileres activos
+ *   long offset animales       long offset clientes
+ *   long offset alquileres     long offset activos
+ *   int  ID máximo de alquiler int  nº reservas
+ *   long offset reservas
+ * Animales:  [int id][byte tipo][byte estado][int len][nombre UTF-8] ...
+ * Clientes:  [int id][int len][nombre UTF-8] ...
+ * Alquileres (registros fijos de 40 bytes, ordenados por ID):
+ *   [int id][int animalId][int customerId][long inicio s][int inicio ns]
+ *   [long fin s][int fin ns][byte tipo][byte flags][2 bytes relleno]
+ * Activos:   [int índice de registro] ...
+ * Reservas (mismo registro de 40 bytes que los alquileres, con la franja
+ *   reservada como inicio y fin y {@link #FLAG_CANCELLED} si se canceló) ...
+ * </pre>
+ * La versión 1 no tenía reservas: su cabecera termina en el ID máximo de
+ * alquiler (80 bytes) y sus reservas solo están en el journal.
+ * Las fechas se guardan como segundos/nanosegundos "epoch" interpretando la
+ * {@code LocalDateTime} en UTC, igual que en el journal.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x47524A53; // "GRJS"
+    static final int VERSION = 2;
+    static final int VERSION_WITHOUT_RESERVATIONS = 1;
+    static final int HEADER_BYTES = 88;
+    static final int HEADER_BYTES_V1 = 80;
+
+    static final int OFF_JOURNAL = 8;
+    static final int OFF_CREATED = 16;
+    static final int OFF_ANIMAL_COUNT = 24;
+    static final int OFF_CUSTOMER_COUNT = 28;
+    static final int OFF_RENTAL_COUNT = 32;
+    static final int OFF_ACTIVE_COUNT = 36;
+    static final int OFF_ANIMALS = 40;
+    static final int OFF_CUSTOMERS = 48;
+    static final int OFF_RENTALS = 56;
+    static final int OFF_ACTIVE = 64;
+    static final int OFF_MAX_RENTAL_ID = 72;
+    static final int OFF_RESERVATION_COUNT = 76;
+    static final int OFF_RESERVATIONS = 80;
+
+    static final int RENTAL_BYTES = 40;
+    static final int R_ID = 0;
+    static final int R_ANIMAL = 4;
+    static final int R_CUSTOMER = 8;
+    static final int R_START_SEC = 12;
+    static final int R_START_NANO = 20;
+    static final int R_END_SEC = 24;
+    static final int R_END_NANO = 32;
+    static final int R_TYPE = 36;
+    static final int R_FLAGS = 37;
+
+    static final int FLAG_HAS_START = 1;
+    static final int FLAG_HAS_END = 2;
+    static final int FLAG_CANCELLED = 4;
+
+    private SnapshotFormat() {
+    }
+}
@@ -0,0 +1,174 @@
+package com.GranjaLaHerraduraFeliz.repository.snapshot;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.Paging;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Repositorio de {@link Rental} que combina una {@link MappedSnapshot} con un
+ * repositorio "vivo" para los cambios posteriores.
+ * <p>
+ * Al construirse solo se cargan en el repositorio vivo los alquileres que estaban
+ * activos en la instantánea; el historial finalizado (la gran mayoría) permanece en
+ * el archivo mapeado y se decodifica solo cuando una consulta lo necesita. Cualquier
+ * alquiler guardado después, aunque tenga un ID de la instantánea, queda en el
+ * repositorio vivo y tiene prioridad sobre el registro del archivo.
+ * <p>
+ * {@link #findActiveByAnimal(Animal)} consulta únicamente el repositorio vivo, por lo
+ * que las operaciones de {@code RentalService} no recorren el historial. El resto de
+ * consultas sobre el historial recorren la instantánea de forma secuencial.
+ * <p>
+ * Los alquileres devueltos desde la instantánea son copias nuevas en cada consulta:
+ * para modificarlos hay que guardarlos con {@link #save(Rental)}.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class SnapshotRentalRepository implements RentalRepository {
+
+    private final RentalRepository live;
+    private final MappedSnapshot snapshot;
+    private final AnimalRepository animals;
+    private final CustomerRepository customers;
+
+    /** Los IDs nuevos continúan después del mayor ID de la instantánea. */
+    private final AtomicInteger nextId;
+
+    /**
+     * @param live      Repositorio donde se guardan los alquileres activos y los cambios nuevos.
+     * @param snapshot  Instantánea con el historial.
+     * @param animals   Repositorio de animales (ya cargado) para resolver referencias.
+     * @param customers Repositorio de clientes (ya cargado) para resolver referencias.
+     */
+    public SnapshotRentalRepository(RentalRepository live, MappedSnapshot snapshot,
+                                    AnimalRepository animals, CustomerRepository customers) {
+        this.live = live;
+        this.snapshot = snapshot;
+        this.animals = animals;
+        this.customers = customers;
+        this.nextId = new AtomicInteger(snapshot.maxRentalId() + 1);
+        for (int index : snapshot.activeRentalIndexes()) {
+            live.save(snapshot.materialize(index, animals, customers));
+        }
+    }
+
+    /** Sin decodificar la instantánea: el contador de IDs parte de su mayor ID. */
+    @Override
+    public int maxId() {
+        return nextId.get() - 1;
+    }
+
+    @Override
+    public Rental save(Rental rental) {
+        if (rental.getId() == 0) {
+            rental.setId(nextId.getAndIncrement());
+        } else {
+            int explicitId = rental.getId();
+            nextId.accumulateAndGet(explicitId + 1, Math::max);
+        }
+        return live.save(rental);
+    }
+
+    @Override
+    public Rental findById(int id) {
+        Rental rental = live.findById(id);
+        if (rental != null) {
+            return rental;
+        }
+        int index = snapshot.indexOfRental(id);
+        return index < 0 ? null : snapshot.materialize(index, animals, customers);
+    }
+
+    /**
+     * Obtiene todos los alquileres. Materializa el historial completo de la
+     * instantánea, por lo que su coste es proporcional al tamaño del archivo.
+     *
+     * @return Lista completa de alquileres.
+     */
+    @Override
+    public List<Rental> findAll() {
+        List<Rental> result = new ArrayList<>(live.findAll());
+        for (int i = 0; i < snapshot.rentalCount(); i++) {
+            if (!isShadowed(i)) {
+                result.add(snapshot.materialize(i, animals, customers));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Página ordenada por ID: mezcla la página del repositorio vivo con los
+     * registros de la instantánea a partir del cursor (búsqueda binaria), así que
+     * solo se materializan los alquileres devueltos.
+     */
+    @Override
+    public List<Rental> findPage(int afterId, int limit) {
+        Paging.checkLimit(limit);
+        List<Rental> fromLive = live.findPage(afterId, limit);
+        List<Rental> result = new ArrayList<>(Math.min(limit, Paging.STREAM_PAGE_SIZE));
+        int liveIndex = 0;
+        int index = snapshot.firstRentalIndexAfter(afterId);
+        while (result.size() < limit) {
+            while (index < snapshot.rentalCount() && isShadowed(index)) {
+                index++;
+            }
+            Rental next = liveIndex < fromLive.size() ? fromLive.get(liveIndex) : null;
+            boolean fromSnapshot = index < snapshot.rentalCount()
+                    && (next == null || snapshot.rentalId(index) < next.getId());
+            if (fromSnapshot) {
+                result.add(snapshot.materialize(index++, animals, customers));
+            } else if (next != null) {
+                result.add(next);
+                liveIndex++;
+            } else {
+                break;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Rental> findActiveByAnimal(Animal animal) {
+        // Los alquileres activos de la instantánea se cargaron en el repositorio vivo
+        return live.findActiveByAnimal(animal);
+    }
+
+    @Override
+    public List<Rental> findByCustomer(int customerId) {
+        List<Rental> result = new ArrayList<>(live.findByCustomer(customerId));
+        for (int i = 0; i < snapshot.rentalCount(); i++) {
+            if (snapshot.customerId(i) == customerId && !isShadowed(i)) {
+                result.add(snapshot.materialize(i, animals, customers));
+            }
+        }
+        result.sort(Comparator.comparingInt(Rental::getId));
+        return result;
+    }
+
+    @Override
+    public List<Rental> findStartedBetween(LocalDateTime from, LocalDateTime to) {
+        List<Rental> result = new ArrayList<>(live.findStartedBetween(from, to));
+        for (int i = 0; i < snapshot.rentalCount(); i++) {
+            LocalDateTime start = snapshot.startTime(i);
+            if (start != null && !start.isBefore(from) && start.isBefore(to) && !isShadowed(i)) {
+                result.add(snapshot.materialize(i, animals, customers));
+            }
+        }
+        result.sort(Comparator.comparing(Rental::getStartTime).thenComparingInt(Rental::getId));
+        return result;
+    }
+
+    /** Un registro de la instantánea queda oculto si el repositorio vivo tiene su ID. */
+    private boolean isShadowed(int index) {
+        return live.findById(snapshot.rentalId(index)) != null;
+    }
+}
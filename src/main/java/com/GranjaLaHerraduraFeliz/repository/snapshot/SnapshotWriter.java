@@ -0,0 +1,236 @@
+package com.GranjaLaHerraduraFeliz.repository.snapshot;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.GranjaLaHerraduraFeliz.repository.snapshot.SnapshotFormat.*;
+
+/**
+ * Escribe una instantánea completa de animales, clientes, alquileres y reservas
+ * (ver {@link SnapshotFormat}) mediante un {@link MappedByteBuffer}.
+ * <p>
+ * La instantánea se escribe primero en un archivo temporal y luego se
+ * renombra de forma atómica a una generación nueva (ver {@link SnapshotFiles}),
+ * por lo que un lector nunca ve un archivo a medias y nunca se reemplaza el
+ * archivo que otra {@link MappedSnapshot} tiene mapeado.
+ * <p>
+ * No bloquea a los servicios: solo lee los repositorios con {@code findAll()}.
+ * Si se usa con journal, la posición del journal debe capturarse <b>antes</b>
+ * de leer los repositorios; como reproducir un {@code save} es idempotente,
+ * los cambios que ocurran durante la escritura se recuperan al reproducir el
+ * journal desde esa posición.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class SnapshotWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotWriter.class);
+
+    private SnapshotWriter() {
+    }
+
+    /**
+     * Escribe una instantánea sin reservas.
+     *
+     * @param path          Ruta base de la instantánea.
+     * @param journalOffset Posición del journal capturada antes de leer los repositorios.
+     * @param animals       Repositorio de animales.
+     * @param customers     Repositorio de clientes.
+     * @param rentals       Repositorio de alquileres.
+     * @throws IOException Si no se puede escribir el archivo.
+     */
+    public static void write(Path path, long journalOffset, AnimalRepository animals,
+                             CustomerRepository customers, RentalRepository rentals) throws IOException {
+        write(path, journalOffset, animals, customers, rentals, null);
+    }
+
+    /**
+     * Escribe la instantánea.
+     *
+     * @param path          Ruta base de la instantánea.
+     * @param journalOffset Posición del journal capturada antes de leer los repositorios.
+     * @param animals       Repositorio de animales.
+     * @param customers     Repositorio de clientes.
+     * @param rentals       Repositorio de alquileres.
+     * @param reservations  Repositorio de reservas, o {@code null} si no se usan.
+     * @throws IOException Si no se puede escribir el archivo.
+     */
+    public static void write(Path path, long journalOffset, AnimalRepository animals,
+                             CustomerRepository customers, RentalRepository rentals,
+                             ReservationRepository reservations) throws IOException {
+        long start = System.nanoTime();
+        List<Animal> animalList = animals.findAll();
+        List<Customer> customerList = customers.findAll();
+        List<Rental> rentalList = rentals.findAll();
+        rentalList.sort(Comparator.comparingInt(Rental::getId));
+        List<Reservation> reservationList = reservations == null ? List.of() : reservations.stream().toList();
+
+        // Primera pasada: codificar nombres y calcular el tamaño exacto
+        byte[][] animalNames = new byte[animalList.size()][];
+        long animalBytes = 0;
+        for (int i = 0; i < animalList.size(); i++) {
+            animalNames[i] = utf8(animalList.get(i).getName());
+            animalBytes += 4 + 1 + 1 + 4 + length(animalNames[i]);
+        }
+        byte[][] customerNames = new byte[customerList.size()][];
+        long customerBytes = 0;
+        for (int i = 0; i < customerList.size(); i++) {
+            customerNames[i] = utf8(customerList.get(i).getFullName());
+            customerBytes += 4 + 4 + length(customerNames[i]);
+        }
+        // Se captura una sola vez: un alquiler puede finalizar mientras se escribe
+        boolean[] active = new boolean[rentalList.size()];
+        int activeCount = 0;
+        for (int i = 0; i < rentalList.size(); i++) {
+            active[i] = rentalList.get(i).getEndTime() == null;
+            if (active[i]) {
+                activeCount++;
+            }
+        }
+
+        long animalsOffset = HEADER_BYTES;
+        long customersOffset = animalsOffset + animalBytes;
+        long rentalsOffset = customersOffset + customerBytes;
+        long activeOffset = rentalsOffset + (long) rentalList.size() * RENTAL_BYTES;
+        long reservationsOffset = activeOffset + 4L * activeCount;
+        long totalBytes = reservationsOffset + (long) reservationList.size() * RENTAL_BYTES;
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IOException("La instantánea supera el máximo de un único mapeo (2 GB): " + totalBytes);
+        }
+
+        Path absolute = path.toAbsolutePath();
+        if (absolute.getParent() != null) {
+            Files.createDirectories(absolute.getParent());
+        }
+        long generation = SnapshotFiles.latestGeneration(absolute) + 1;
+        Path target = SnapshotFiles.generation(absolute, generation);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, totalBytes);
+
+            buffer.position((int) animalsOffset);
+            for (int i = 0; i < animalList.size(); i++) {
+                Animal animal = animalList.get(i);
+                buffer.putInt(animal.getId());
+                buffer.put(ordinal(animal.getType()));
+                buffer.put(ordinal(animal.getStatus()));
+                putString(buffer, animalNames[i]);
+            }
+
+            for (int i = 0; i < customerList.size(); i++) {
+                buffer.putInt(customerList.get(i).getId());
+                putString(buffer, customerNames[i]);
+            }
+
+            int maxRentalId = 0;
+            for (Rental rental : rentalList) {
+                putRental(buffer, rental);
+                maxRentalId = Math.max(maxRentalId, rental.getId());
+            }
+
+            for (int i = 0; i < rentalList.size(); i++) {
+                if (active[i]) {
+                    buffer.putInt(i);
+                }
+            }
+
+            for (Reservation reservation : reservationList) {
+                putRecord(buffer, reservation.getId(), reservation.getAnimal(), reservation.getCustomer(),
+                        reservation.getStartTime(), reservation.getEndTime(), reservation.getRentalType(),
+                        reservation.isCancelled() ? FLAG_CANCELLED : 0);
+            }
+
+            // La cabecera se escribe al final: un archivo sin magia no se considera válido
+            buffer.putInt(4, VERSION);
+            buffer.putLong(OFF_JOURNAL, journalOffset);
+            buffer.putLong(OFF_CREATED, System.currentTimeMillis());
+            buffer.putInt(OFF_ANIMAL_COUNT, animalList.size());
+            buffer.putInt(OFF_CUSTOMER_COUNT, customerList.size());
+            buffer.putInt(OFF_RENTAL_COUNT, rentalList.size());
+            buffer.putInt(OFF_ACTIVE_COUNT, activeCount);
+            buffer.putLong(OFF_ANIMALS, animalsOffset);
+            buffer.putLong(OFF_CUSTOMERS, customersOffset);
+            buffer.putLong(OFF_RENTALS, rentalsOffset);
+            buffer.putLong(OFF_ACTIVE, activeOffset);
+            buffer.putInt(OFF_MAX_RENTAL_ID, maxRentalId);
+            buffer.putInt(OFF_RESERVATION_COUNT, reservationList.size());
+            buffer.putLong(OFF_RESERVATIONS, reservationsOffset);
+            buffer.putInt(0, MAGIC);
+            buffer.force();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        SnapshotFiles.deleteOlder(absolute, generation);
+
+        log.info("component=SnapshotWriter event=written path={} animals={} customers={} rentals={} reservations={} bytes={} elapsedMs={}",
+                target, animalList.size(), customerList.size(), rentalList.size(), reservationList.size(), totalBytes,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void putRental(MappedByteBuffer buffer, Rental rental) {
+        putRecord(buffer, rental.getId(), rental.getAnimal(), rental.getCustomer(),
+                rental.getStartTime(), rental.getEndTime(), rental.getRentalType(), 0);
+    }
+
+    /** Registro fijo de {@link SnapshotFormat#RENTAL_BYTES}, común a alquileres y reservas. */
+    private static void putRecord(MappedByteBuffer buffer, int id, Animal animal, Customer customer,
+                                  LocalDateTime startTime, LocalDateTime endTime, RentalType rentalType,
+                                  int extraFlags) {
+        int flags = (startTime != null ? FLAG_HAS_START : 0) | (endTime != null ? FLAG_HAS_END : 0) | extraFlags;
+
+        buffer.putInt(id);
+        buffer.putInt(animal == null ? 0 : animal.getId());
+        buffer.putInt(customer == null ? 0 : customer.getId());
+        buffer.putLong(startTime == null ? 0 : startTime.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(startTime == null ? 0 : startTime.getNano());
+        buffer.putLong(endTime == null ? 0 : endTime.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(endTime == null ? 0 : endTime.getNano());
+        buffer.put(ordinal(rentalType));
+        buffer.put((byte) flags);
+        buffer.putShort((short) 0);
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return (byte) (value == null ? -1 : value.ordinal());
+    }
+
+    /** Un nombre {@code null} se guarda con longitud {@code -1}. */
+    private static void putString(MappedByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length).put(value);
+        }
+    }
+
+    private static int length(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -3,11 +3,13 @@ package com.GranjaLaHerraduraFeliz.service;
 import com.GranjaLaHerraduraFeliz.model.Animal;
 import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
 import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Rental;
 import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -18,8 +20,15 @@ import java.util.List;
  *     <li>Registrar nuevos animales en la granja.</li>
  *     <li>Listar todos los animales registrados.</li>
  *     <li>Listar únicamente los animales disponibles para alquiler.</li>
+ *     <li>Consultar la disponibilidad por tipo de animal.</li>
  * </ul>
  *
+ * Si se construye con una {@link AvailabilityView}, las consultas de disponibilidad
+ * se responden desde la vista en tiempo constante y el alta de animales la mantiene
+ * al día; sin vista, se consultan al repositorio como en la versión 1.0.
+ * Si además recibe el {@link RentalService}, cada animal dado de alta se ofrece
+ * primero a la lista de espera de su tipo.
+ *
  * Esta capa abstrae al controlador de los detalles del repositorio,
  * permitiendo aplicar reglas del negocio sin mezclar lógica de persistencia.
  *
@@ -33,13 +42,44 @@ public class AnimalService {
 
     private final AnimalRepository animalRepository;
 
+    /** Vista de disponibilidad; {@code null} si las consultas van al repositorio. */
+    private final AvailabilityView availabilityView;
+
+    /** Servicio de alquileres cuya lista de espera recibe las altas; {@code null} si no hay. */
+    private final RentalService rentalService;
+
     /**
      * Crea una instancia del servicio inyectando el repositorio necesario.
      *
      * @param animalRepository Repositorio encargado de almacenar y gestionar animales.
      */
     public AnimalService(AnimalRepository animalRepository) {
+        this(animalRepository, null);
+    }
+
+    /**
+     * Crea una instancia del servicio que responde la disponibilidad desde una vista.
+     * La vista también debe registrarse en {@link RentalService#addStatusListener}.
+     *
+     * @param animalRepository Repositorio encargado de almacenar y gestionar animales.
+     * @param availabilityView Vista de disponibilidad a consultar y mantener.
+     */
+    public AnimalService(AnimalRepository animalRepository, AvailabilityView availabilityView) {
+        this(animalRepository, availabilityView, null);
+    }
+
+    /**
+     * Crea una instancia del servicio que entrega las altas a la lista de espera.
+     *
+     * @param animalRepository Repositorio encargado de almacenar y gestionar animales.
+     * @param availabilityView Vista de disponibilidad a consultar y mantener ({@code null} si no hay).
+     * @param rentalService    Servicio cuya lista de espera recibe cada animal nuevo.
+     */
+    public AnimalService(AnimalRepository animalRepository, AvailabilityView availabilityView,
+                         RentalService rentalService) {
         this.animalRepository = animalRepository;
+        this.availabilityView = availabilityView;
+        this.rentalService = rentalService;
 
         log.info("AnimalService inicializado.");
         // Comentario: informa en despliegues / contenedores que el servicio está operativo.
@@ -52,11 +92,13 @@ public class AnimalService {
      * <ul>
      *     <li>Todo animal nuevo entra como disponible.</li>
      *     <li>La asignación del ID queda a cargo del repositorio.</li>
+     *     <li>Si hay clientes esperando ese tipo, el animal se entrega al primero
+     *     de la cola y se devuelve ya {@code RENTED}.</li>
      * </ul>
      *
      * @param name Nombre del animal.
      * @param type Tipo de animal, definido en {@link AnimalType}.
-     * @return Animal registrado y persistido.
+     * @return Animal registrado y persistido, con su estado final.
      */
     public Animal registerAnimal(String name, AnimalType type) {
 
@@ -69,6 +111,18 @@ public class AnimalService {
         animal.setStatus(AnimalStatus.AVAILABLE);
 
         Animal saved = animalRepository.save(animal);
+        if (availabilityView != null) {
+            availabilityView.statusChanged(saved, null);
+        }
+        if (rentalService != null) {
+            Rental handed = rentalService.offerToWaitlist(saved.getId());
+            if (handed != null) {
+                saved = handed.getAnimal();
+                log.info("Animal entregado a la lista de espera: ID={}, AlquilerID={}, ClienteID={}",
+                        saved.getId(), handed.getId(), handed.getCustomer().getId());
+                // Comentario: INFO → el alta atendió a un cliente que esperaba.
+            }
+        }
 
         log.info("Animal registrado: ID={}, Nombre='{}', Tipo={}, Estado={}",
                 saved.getId(), saved.getName(), saved.getType(), saved.getStatus());
@@ -105,11 +159,58 @@ public class AnimalService {
         log.debug("Consultando animales disponibles (estado AVAILABLE).");
         // Comentario: DEBUG → detalla consultas filtradas útiles para diagnósticos.
 
-        List<Animal> available = animalRepository.findByStatus(AnimalStatus.AVAILABLE);
+        List<Animal> available = availabilityView != null
+                ? availabilityView.listAvailable()
+                : animalRepository.findByStatus(AnimalStatus.AVAILABLE);
 
         log.info("Animales disponibles encontrados: {}", available.size());
         // Comentario: INFO → buen indicador de capacidad disponible del sistema.
 
         return available;
     }
+
+    /**
+     * Cuenta los animales disponibles de un tipo.
+     *
+     * @param type Tipo de animal.
+     * @return Número de animales de ese tipo en estado {@link AnimalStatus#AVAILABLE}.
+     */
+    public int countAvailable(AnimalType type) {
+        if (availabilityView != null) {
+            return availabilityView.countAvailable(type);
+        }
+        return listAvailable(type).size();
+    }
+
+    /**
+     * Lista los animales disponibles de un tipo.
+     *
+     * @param type Tipo de animal.
+     * @return Animales de ese tipo en estado {@link AnimalStatus#AVAILABLE}.
+     */
+    public List<Animal> listAvailable(AnimalType type) {
+        if (availabilityView != null) {
+            return availabilityView.listAvailable(type);
+        }
+        List<Animal> result = new ArrayList<>();
+        for (Animal animal : animalRepository.findByStatus(AnimalStatus.AVAILABLE)) {
+            if (animal.getType() == type) {
+                result.add(animal);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Obtiene los conteos de animales por tipo y estado.
+     *
+     * @return Matriz de disponibilidad.
+     * @throws IllegalStateException Si el servicio se creó sin {@link AvailabilityView}.
+     */
+    public AvailabilityView.AvailabilityMatrix availabilityMatrix() {
+        if (availabilityView == null) {
+            throw new IllegalStateException("AnimalService se creó sin vista de disponibilidad");
+        }
+        return availabilityView.matrix();
+    }
 }
@@ -0,0 +1,26 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+
+/**
+ * Recibe los cambios de estado de los animales que hacen los servicios
+ * (alta de un animal, inicio y fin de un alquiler).
+ * <p>
+ * Se invoca después de persistir el cambio y mientras el servicio aún tiene
+ * tomado el cerrojo del animal, así que los avisos de un mismo animal llegan en
+ * orden. Debe ser rápido y no bloquear; si lanza una excepción, el servicio la
+ * registra y continúa.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+@FunctionalInterface
+public interface AnimalStatusListener {
+
+    /**
+     * @param animal   Animal ya guardado, con su estado nuevo.
+     * @param previous Estado anterior ({@code null} si el animal es nuevo).
+     */
+    void statusChanged(Animal animal, AnimalStatus previous);
+}
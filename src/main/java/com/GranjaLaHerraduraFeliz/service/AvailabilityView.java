@@ -0,0 +1,191 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.PersistentIntMap;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Vista de disponibilidad de la granja mantenida de forma incremental.
+ * <p>
+ * Se construye recorriendo una vez el repositorio y después se actualiza con cada
+ * cambio de estado que avisan los servicios ({@link AnimalStatusListener}), sin
+ * volver a consultar el repositorio. Todas las consultas son de tiempo constante:
+ * <ul>
+ *     <li>{@link #countAvailable(AnimalType)}: un contador.</li>
+ *     <li>{@link #listAvailable(AnimalType)} y {@link #listAvailable()}: vistas
+ *     inmutables ordenadas por ID (ver {@link PersistentIntMap#values()}).</li>
+ *     <li>{@link #matrix()}: conteos por tipo y estado ya calculados.</li>
+ * </ul>
+ * El estado es una versión inmutable que se reemplaza atómicamente en cada aviso,
+ * así que las consultas no usan cerrojos y siempre ven listas y conteos coherentes
+ * entre sí. Un animal se clasifica por el tipo que tenía al entrar en la vista.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class AvailabilityView implements AnimalStatusListener {
+
+    private static final int TYPES = AnimalType.values().length;
+    private static final int STATUSES = AnimalStatus.values().length;
+
+    private final AtomicReference<State> state;
+
+    /**
+     * Crea la vista a partir del contenido actual del repositorio.
+     *
+     * @param animalRepository Repositorio de animales (se recorre una sola vez).
+     */
+    public AvailabilityView(AnimalRepository animalRepository) {
+        State initial = State.EMPTY;
+        Iterator<Animal> animals = animalRepository.stream().iterator();
+        while (animals.hasNext()) {
+            initial = initial.with(animals.next());
+        }
+        this.state = new AtomicReference<>(initial);
+    }
+
+    @Override
+    public void statusChanged(Animal animal, AnimalStatus previous) {
+        State before;
+        State after;
+        do {
+            before = state.get();
+            after = before.with(animal);
+        } while (!state.compareAndSet(before, after));
+    }
+
+    /**
+     * @param type Tipo de animal.
+     * @return Número de animales de ese tipo disponibles ahora.
+     */
+    public int countAvailable(AnimalType type) {
+        return state.get().matrix.available(type);
+    }
+
+    /**
+     * @param type Tipo de animal.
+     * @return Vista inmutable de los animales disponibles de ese tipo, ordenada por ID.
+     */
+    public List<Animal> listAvailable(AnimalType type) {
+        return state.get().availableByType.get(type.ordinal()).values();
+    }
+
+    /** @return Vista inmutable de todos los animales disponibles, ordenada por ID. */
+    public List<Animal> listAvailable() {
+        return state.get().available.values();
+    }
+
+    /** @return Conteos por tipo y estado en este instante. */
+    public AvailabilityMatrix matrix() {
+        return state.get().matrix;
+    }
+
+    /**
+     * Conteos inmutables de animales por tipo y estado.
+     */
+    public static final class AvailabilityMatrix {
+
+        private final int[] counts;
+
+        private AvailabilityMatrix(int[] counts) {
+            this.counts = counts;
+        }
+
+        /**
+         * @param type   Tipo de animal.
+         * @param status Estado.
+         * @return Animales de ese tipo en ese estado.
+         */
+        public int count(AnimalType type, AnimalStatus status) {
+            return counts[type.ordinal() * STATUSES + status.ordinal()];
+        }
+
+        /**
+         * @param type Tipo de animal.
+         * @return Animales disponibles de ese tipo.
+         */
+        public int available(AnimalType type) {
+            return count(type, AnimalStatus.AVAILABLE);
+        }
+
+        /**
+         * @param type Tipo de animal.
+         * @return Animales de ese tipo en cualquier estado.
+         */
+        public int total(AnimalType type) {
+            int total = 0;
+            for (AnimalStatus status : AnimalStatus.values()) {
+                total += count(type, status);
+            }
+            return total;
+        }
+    }
+
+    /** Versión inmutable de la vista. */
+    private static final class State {
+
+        static final State EMPTY = new State(PersistentIntMap.empty(), PersistentIntMap.empty(),
+                emptyBuckets(), new AvailabilityMatrix(new int[TYPES * STATUSES]));
+
+        /** Tipo y estado con los que está clasificado cada animal. */
+        final PersistentIntMap<Cell> cellById;
+        final PersistentIntMap<Animal> available;
+        final List<PersistentIntMap<Animal>> availableByType;
+        final AvailabilityMatrix matrix;
+
+        State(PersistentIntMap<Cell> cellById, PersistentIntMap<Animal> available,
+              List<PersistentIntMap<Animal>> availableByType, AvailabilityMatrix matrix) {
+            this.cellById = cellById;
+            this.available = available;
+            this.availableByType = availableByType;
+            this.matrix = matrix;
+        }
+
+        /** Versión siguiente con el animal reclasificado según su estado actual. */
+        State with(Animal animal) {
+            int id = animal.getId();
+            Cell previous = cellById.get(id);
+            AnimalType type = previous != null ? previous.type() : animal.getType();
+            AnimalStatus status = animal.getStatus();
+            if (type == null || (previous != null && previous.status() == status)) {
+                return this;
+            }
+
+            int[] counts = matrix.counts.clone();
+            if (previous != null && previous.status() != null) {
+                counts[previous.type().ordinal() * STATUSES + previous.status().ordinal()]--;
+            }
+            if (status != null) {
+                counts[type.ordinal() * STATUSES + status.ordinal()]++;
+            }
+
+            boolean isAvailable = status == AnimalStatus.AVAILABLE;
+            List<PersistentIntMap<Animal>> buckets = new ArrayList<>(availableByType);
+            PersistentIntMap<Animal> bucket = buckets.get(type.ordinal());
+            buckets.set(type.ordinal(), isAvailable ? bucket.with(id, animal) : bucket.without(id));
+
+            return new State(cellById.with(id, new Cell(type, status)),
+                    isAvailable ? available.with(id, animal) : available.without(id),
+                    List.copyOf(buckets), new AvailabilityMatrix(counts));
+        }
+
+        private static List<PersistentIntMap<Animal>> emptyBuckets() {
+            List<PersistentIntMap<Animal>> buckets = new ArrayList<>(TYPES);
+            for (int i = 0; i < TYPES; i++) {
+                buckets.add(PersistentIntMap.empty());
+            }
+            return List.copyOf(buckets);
+        }
+    }
+
+    /** Clasificación de un animal dentro de la vista. */
+    private record Cell(AnimalType type, AnimalStatus status) {
+    }
+}
@@ -7,6 +7,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Servicio encargado de manejar la lógica de negocio relacionada con los clientes.
@@ -15,6 +16,8 @@ import java.util.List;
  * <ul>
  *     <li>Registrar nuevos clientes.</li>
  *     <li>Listar todos los clientes del sistema.</li>
+ *     <li>Buscar clientes por nombre.</li>
+ *     <li>Detectar posibles clientes duplicados al registrar (ver {@link DuplicateCustomerDetector}).</li>
  * </ul>
  *
  * Este servicio sirve como capa intermedia entre el controlador y el repositorio,
@@ -28,15 +31,34 @@ public class CustomerService {
     // Logger del servicio (registrará eventos importantes del flujo de negocio)
     private static final Logger log = LoggerFactory.getLogger(CustomerService.class);
 
+    /** Candidatos a duplicado que se informan como mucho por registro. */
+    private static final int MAX_DUPLICATES = 5;
+
     private final CustomerRepository customerRepository;
+    private final DuplicateCustomerDetector duplicateDetector;
+
+    /** Hace atómicos la comprobación de duplicados y el guardado de cada registro. */
+    private final ReentrantLock registrationLock = new ReentrantLock();
 
     /**
-     * Construye un servicio de clientes inyectando un repositorio.
+     * Construye un servicio de clientes inyectando un repositorio; el detector de
+     * duplicados se carga con los clientes que ya contiene.
      *
      * @param customerRepository Repositorio que administra los datos de clientes.
      */
     public CustomerService(CustomerRepository customerRepository) {
+        this(customerRepository, new DuplicateCustomerDetector(customerRepository));
+    }
+
+    /**
+     * Construye un servicio de clientes con un detector de duplicados dado.
+     *
+     * @param customerRepository Repositorio que administra los datos de clientes.
+     * @param duplicateDetector  Detector de duplicados sobre el mismo repositorio.
+     */
+    public CustomerService(CustomerRepository customerRepository, DuplicateCustomerDetector duplicateDetector) {
         this.customerRepository = customerRepository;
+        this.duplicateDetector = duplicateDetector;
         log.info("CustomerService inicializado.");
         // Comentario: Log útil para saber cuándo el servicio se construyó (útil en despliegues PaaS)
     }
@@ -48,25 +70,88 @@ public class CustomerService {
      * <ul>
      *     <li>El nombre no debe ser nulo o vacío (opcional: validación futura).</li>
      *     <li>El ID es asignado automáticamente por el repositorio.</li>
+     *     <li>Si el nombre coincide con clientes existentes, se registra igualmente
+     *     y se deja aviso en el log; para preguntar antes, ver
+     *     {@link #registerCustomerChecked(String)}.</li>
      * </ul>
      *
      * @param name Nombre completo del cliente.
      * @return Cliente registrado y almacenado en el repositorio.
      */
     public Customer registerCustomer(String name) {
+        return registerCustomerChecked(name).customer();
+    }
 
-        log.debug("Intentando registrar cliente con nombre: '{}'", name);
-        // Comentario: DEBUG → seguimiento detallado de flujo, no se muestra en producción.
+    /**
+     * Registra un nuevo cliente e informa de los clientes existentes que
+     * probablemente sean la misma persona.
+     *
+     * @param name Nombre completo del cliente.
+     * @return Cliente registrado y posibles duplicados (vacío si no hay).
+     */
+    public Registration registerCustomerChecked(String name) {
+        return registerCustomerChecked(name, true);
+    }
 
-        Customer customer = new Customer();
-        customer.setFullName(name);
+    /**
+     * Comprueba los posibles duplicados y registra el cliente en un solo paso.
+     * <p>
+     * La comprobación y el guardado se hacen con el mismo cerrojo, así que dos
+     * registros simultáneos del mismo nombre no pueden pasar ambos la comprobación:
+     * el segundo ve al primero como posible duplicado.
+     *
+     * @param name  Nombre completo del cliente.
+     * @param force {@code true} para registrarlo aunque haya posibles duplicados;
+     *              con {@code false} y algún duplicado no se registra.
+     * @return Posibles duplicados y el cliente registrado, o {@code null} como
+     *         cliente si no se registró (ver {@link Registration#registered()}).
+     */
+    public Registration registerCustomerChecked(String name, boolean force) {
+        registrationLock.lock();
+        try {
+            List<Customer> duplicates = findPossibleDuplicates(name);
+            if (!duplicates.isEmpty()) {
+                log.warn("Posible cliente duplicado para '{}': IDs {}", name,
+                        duplicates.stream().map(Customer::getId).toList());
+                // Comentario: WARN → solo se bloquea el registro si no se indicó force.
+                if (!force) {
+                    return new Registration(null, duplicates);
+                }
+            }
+
+            log.debug("Intentando registrar cliente con nombre: '{}'", name);
+            // Comentario: DEBUG → seguimiento detallado de flujo, no se muestra en producción.
+
+            Customer customer = new Customer();
+            customer.setFullName(name);
+
+            Customer saved = customerRepository.save(customer);
+            duplicateDetector.add(saved);
+
+            log.info("Cliente registrado con ID {} y nombre '{}'", saved.getId(), saved.getFullName());
+            // Comentario: INFO → evento de negocio exitoso.
+
+            return new Registration(saved, duplicates);
+        } finally {
+            registrationLock.unlock();
+        }
+    }
 
-        Customer saved = customerRepository.save(customer);
+    /**
+     * Busca clientes que probablemente sean la misma persona que el nombre dado
+     * (misma pronunciación, en cualquier orden, o con una palabra de más o de menos).
+     *
+     * @param name Nombre completo a comprobar.
+     * @return Posibles duplicados, los más parecidos primero.
+     */
+    public List<Customer> findPossibleDuplicates(String name) {
+
+        List<Customer> duplicates = duplicateDetector.findPossibleDuplicates(name, MAX_DUPLICATES);
 
-        log.info("Cliente registrado con ID {} y nombre '{}'", saved.getId(), saved.getFullName());
-        // Comentario: INFO → evento de negocio exitoso.
+        log.debug("Comprobación de duplicados para '{}': {} candidatos.", name, duplicates.size());
+        // Comentario: DEBUG → se ejecuta en cada registro; solo los candidatos se leen del repositorio.
 
-        return saved;
+        return duplicates;
     }
 
     /**
@@ -86,4 +171,39 @@ public class CustomerService {
 
         return customers;
     }
+
+    /**
+     * Busca clientes por nombre, sin distinguir mayúsculas ni tildes
+     * (ver {@link CustomerRepository#searchByName}).
+     *
+     * @param query Texto buscado (por ejemplo, el comienzo del apellido).
+     * @param limit Número máximo de resultados.
+     * @return Clientes ordenados por cercanía al texto buscado.
+     */
+    public List<Customer> searchByName(String query, int limit) {
+
+        log.debug("Buscando clientes por nombre: '{}'", query);
+        // Comentario: DEBUG → seguimiento de consultas del sistema.
+
+        List<Customer> customers = customerRepository.searchByName(query, limit);
+
+        log.info("Búsqueda '{}' devolvió {} clientes.", query, customers.size());
+        // Comentario: INFO → resumen de la operación para monitoreo.
+
+        return customers;
+    }
+
+    /**
+     * Resultado de un registro.
+     *
+     * @param customer           Cliente registrado, o {@code null} si no se registró por los duplicados.
+     * @param possibleDuplicates Clientes existentes que probablemente sean la misma persona.
+     */
+    public record Registration(Customer customer, List<Customer> possibleDuplicates) {
+
+        /** @return {@code true} si el cliente quedó registrado. */
+        public boolean registered() {
+            return customer != null;
+        }
+    }
 }
@@ -0,0 +1,339 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.CustomerNameIndex;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.IntIntMap;
+import com.GranjaLaHerraduraFeliz.repository.IntObjectStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Detecta clientes probablemente duplicados comparando claves fonéticas de sus
+ * nombres ("blocking"): solo se comparan los clientes que comparten una clave,
+ * nunca todo el repositorio.
+ * <p>
+ * Cada palabra del nombre se normaliza (sin tildes, en minúsculas) y se codifica
+ * según cómo suena en español: {@code v/b}, {@code z/ce/ci/s}, {@code ge/gi/j},
+ * {@code ll/y}, {@code qu/k/c} y la {@code h} muda se igualan, y las letras
+ * dobles se reducen. Con los códigos ordenados se forman las claves:
+ * <ul>
+ *   <li>clave completa: todas las palabras ("Jiménez Vázquez, José" = "José Giménez Basquez");</li>
+ *   <li>claves sin una palabra, para nombres de tres o más: así "José García"
+ *   coincide con "José García López" (falta el segundo apellido).</li>
+ * </ul>
+ * Un cliente es candidato si su clave completa coincide con la del nombre nuevo,
+ * o si una de las claves sin una palabra de uno coincide con la clave completa
+ * del otro. Las claves completas y las parciales se guardan en índices separados,
+ * así que cada consulta solo recorre candidatos que cumplen la condición (dos
+ * hermanos "José/Lucía García López" comparten clave parcial, pero nunca se
+ * comparan) y se detiene al llegar al límite. Las claves son hash de 32 bits en
+ * mapas de primitivos (la mayoría tiene un único cliente) y cada candidato se
+ * verifica con su nombre real, así que las colisiones no producen falsos positivos.
+ * <p>
+ * El índice se carga una vez desde el repositorio y se actualiza con
+ * {@link #add(Customer)}; los cambios de nombre hechos directamente en el
+ * repositorio no se reflejan. Es seguro para uso concurrente.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class DuplicateCustomerDetector {
+
+    // Logger para trazar la carga del índice.
+    private static final Logger log = LoggerFactory.getLogger(DuplicateCustomerDetector.class);
+
+    private final CustomerRepository customerRepository;
+
+    /** Hash de la clave completa → clientes. */
+    private final Block byFullKey = new Block();
+
+    /** Hash de cada clave sin una palabra → clientes. */
+    private final Block byPartialKey = new Block();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Crea el detector y carga los clientes existentes.
+     *
+     * @param customerRepository Repositorio de clientes (para cargar y verificar candidatos).
+     */
+    public DuplicateCustomerDetector(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+        long startNanos = System.nanoTime();
+        long[] loaded = new long[1];
+        customerRepository.stream().forEach(customer -> {
+            add(customer);
+            loaded[0]++;
+        });
+        log.info("service=DuplicateCustomerDetector event=initialized customers={} keys={} elapsedMs={}",
+                loaded[0], byFullKey.keys() + byPartialKey.keys(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Agrega un cliente al índice.
+     *
+     * @param customer Cliente ya guardado (con ID).
+     */
+    public void add(Customer customer) {
+        Keys keys = Keys.of(customer.getFullName());
+        if (keys == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            byFullKey.add(keys.full.hashCode(), customer.getId());
+            for (String partial : keys.partial) {
+                byPartialKey.add(partial.hashCode(), customer.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca clientes que probablemente sean la misma persona que {@code fullName}.
+     *
+     * @param fullName Nombre a comprobar.
+     * @param limit    Número máximo de candidatos.
+     * @return Candidatos: primero los de nombre equivalente completo y luego los
+     *         que solo difieren en una palabra de más o de menos; a igualdad, por ID.
+     */
+    public List<Customer> findPossibleDuplicates(String fullName, int limit) {
+        Keys keys = Keys.of(fullName);
+        if (keys == null || limit <= 0) {
+            return List.of();
+        }
+        List<Customer> exact = new ArrayList<>();
+        List<Customer> partial = new ArrayList<>();
+        IntIntMap seen = new IntIntMap();
+        lock.readLock().lock();
+        try {
+            // Mismo nombre
+            collect(byFullKey, keys.full, limit, seen, exact,
+                    other -> other.full.equals(keys.full));
+            // Clientes con una palabra más que el nombre nuevo
+            collect(byPartialKey, keys.full, limit, seen, partial,
+                    other -> other.partial.contains(keys.full));
+            // Clientes con una palabra menos
+            for (String key : keys.partial) {
+                collect(byFullKey, key, limit, seen, partial, other -> other.full.equals(key));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        exact.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        partial.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        exact.addAll(partial);
+        return exact.size() > limit ? List.copyOf(exact.subList(0, limit)) : exact;
+    }
+
+    /**
+     * Código fonético de una palabra ya normalizada (ver {@link CustomerNameIndex#tokens}).
+     *
+     * @param word Palabra en minúsculas y sin tildes.
+     * @return Código: palabras que suenan igual en español tienen el mismo código.
+     */
+    static String phonetic(String word) {
+        StringBuilder code = new StringBuilder(word.length());
+        int length = word.length();
+        for (int i = 0; i < length; i++) {
+            char c = word.charAt(i);
+            char next = i + 1 < length ? word.charAt(i + 1) : 0;
+            char emitted;
+            switch (c) {
+                case 'h' -> {
+                    // La h es muda (la "ch" se trata con la c)
+                    continue;
+                }
+                case 'c' -> {
+                    if (next == 'h') {
+                        emitted = 'x';
+                        i++;
+                    } else {
+                        emitted = next == 'e' || next == 'i' ? 's' : 'k';
+                    }
+                }
+                case 'q' -> {
+                    emitted = 'k';
+                    if (next == 'u') {
+                        i++;
+                    }
+                }
+                case 'g' -> {
+                    char afterNext = i + 2 < length ? word.charAt(i + 2) : 0;
+                    if (next == 'e' || next == 'i') {
+                        emitted = 'j';
+                    } else {
+                        emitted = 'g';
+                        if (next == 'u' && (afterNext == 'e' || afterNext == 'i')) {
+                            i++;
+                        }
+                    }
+                }
+                case 'l' -> {
+                    if (next == 'l') {
+                        emitted = 'y';
+                        i++;
+                    } else {
+                        emitted = 'l';
+                    }
+                }
+                case 'y' -> emitted = isVowel(next) ? 'y' : 'i';
+                case 'v', 'w' -> emitted = 'b';
+                case 'z' -> emitted = 's';
+                case 'p' -> {
+                    if (next == 'h') {
+                        emitted = 'f';
+                        i++;
+                    } else {
+                        emitted = 'p';
+                    }
+                }
+                case 'x' -> {
+                    appendCollapsed(code, 'k');
+                    emitted = 's';
+                }
+                default -> emitted = c;
+            }
+            appendCollapsed(code, emitted);
+        }
+        return code.toString();
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+
+    /** Agrega la letra salvo que repita la anterior ("rr" → "r"). */
+    private static void appendCollapsed(StringBuilder code, char c) {
+        if (code.isEmpty() || code.charAt(code.length() - 1) != c) {
+            code.append(c);
+        }
+    }
+
+    /**
+     * Verifica los clientes de una clave, en orden de ID, hasta aceptar {@code limit}.
+     * Se llama con el cerrojo de lectura tomado.
+     */
+    private void collect(Block block, String key, int limit, IntIntMap seen, List<Customer> accepted,
+                         Predicate<Keys> matches) {
+        int[] taken = {0};
+        block.forEach(key.hashCode(), customerId -> {
+            if (taken[0] >= limit || seen.put(customerId, 1) != IntIntMap.MISSING) {
+                return taken[0] < limit;
+            }
+            Customer candidate = customerRepository.findById(customerId);
+            Keys other = candidate == null ? null : Keys.of(candidate.getFullName());
+            if (other != null && matches.test(other)) {
+                accepted.add(candidate);
+                taken[0]++;
+            }
+            return taken[0] < limit;
+        });
+    }
+
+    /**
+     * Clientes por hash de clave. La mayoría de claves tiene un único cliente, que
+     * se guarda en un {@link IntIntMap}; el resto va a un arreglo cuya posición 0
+     * guarda cuántos IDs hay y que crece un 50 % cuando se llena. No es seguro para
+     * uso concurrente (lo protege el cerrojo del detector).
+     */
+    private static final class Block {
+
+        /** Hash de clave → primer cliente con esa clave. */
+        private final IntIntMap first = new IntIntMap();
+
+        /** Hash de clave → resto de clientes con esa clave (solo si hay más de uno). */
+        private final IntObjectStore<int[]> more = new IntObjectStore<>();
+
+        void add(int hash, int customerId) {
+            int firstId = first.get(hash);
+            if (firstId == IntIntMap.MISSING) {
+                first.put(hash, customerId);
+                return;
+            }
+            if (firstId == customerId) {
+                return;
+            }
+            int[] ids = more.get(hash);
+            if (ids == null) {
+                more.put(hash, new int[]{1, customerId, 0, 0});
+                return;
+            }
+            int count = ids[0];
+            // Los IDs suelen llegar en orden: basta mirar el último para evitar repetidos
+            if (ids[count] == customerId) {
+                return;
+            }
+            if (count + 1 == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length + (ids.length >> 1));
+                more.put(hash, ids);
+            }
+            ids[count + 1] = customerId;
+            ids[0] = count + 1;
+        }
+
+        /** Recorre los clientes de la clave mientras {@code action} devuelva {@code true}. */
+        void forEach(int hash, IntPredicate action) {
+            int firstId = first.get(hash);
+            if (firstId == IntIntMap.MISSING || !action.test(firstId)) {
+                return;
+            }
+            int[] ids = more.get(hash);
+            if (ids != null) {
+                for (int i = 1; i <= ids[0]; i++) {
+                    if (!action.test(ids[i])) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        int keys() {
+            return first.size();
+        }
+    }
+
+    /**
+     * Claves de un nombre.
+     *
+     * @param full    Códigos de todas las palabras, ordenados.
+     * @param partial Claves quitando una palabra (solo con tres o más palabras).
+     */
+    private record Keys(String full, List<String> partial) {
+
+        /** @return Claves del nombre, o {@code null} si no tiene palabras. */
+        static Keys of(String fullName) {
+            String[] words = CustomerNameIndex.tokens(fullName);
+            if (words.length == 0) {
+                return null;
+            }
+            String[] codes = new String[words.length];
+            for (int i = 0; i < words.length; i++) {
+                codes[i] = phonetic(words[i]);
+            }
+            Arrays.sort(codes);
+            List<String> partial = new ArrayList<>();
+            if (codes.length >= 3) {
+                for (int skip = 0; skip < codes.length; skip++) {
+                    StringBuilder key = new StringBuilder();
+                    for (int i = 0; i < codes.length; i++) {
+                        if (i != skip) {
+                            key.append(codes[i]).append(' ');
+                        }
+                    }
+                    partial.add(key.toString());
+                }
+            }
+            return new Keys(String.join(" ", codes) + ' ', partial);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.util.HashedTimerWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Vigila la duración de los alquileres activos y detecta los vencidos.
+ * <p>
+ * Cada {@link RentalType} tiene un tiempo máximo (por ejemplo, 30 minutos un
+ * paseo corto). Al iniciarse un alquiler se programa su plazo en una
+ * {@link HashedTimerWheel} y al finalizarse se cancela, ambas cosas en
+ * {@code O(1)}: decenas de miles de plazos simultáneos cuestan un único hilo y
+ * no hay que recorrer los alquileres para saber cuáles se pasaron de tiempo.
+ * <p>
+ * Cuando un plazo vence, el alquiler pasa a {@link #overdueRentals()}, se avisa a
+ * los manejadores registrados y, si se pidió, se finaliza automáticamente. Ese
+ * trabajo se hace en un hilo propio para no retrasar la rueda.
+ * <p>
+ * El vencimiento y la finalización se deciden por la entrada del alquiler en el
+ * mapa de vigilados, con operaciones atómicas sobre ella, y no por el
+ * {@code endTime} del objeto recibido al iniciarse: con repositorios que devuelven
+ * copias (JDBC, historial), {@code finishRental} fija la hora de fin en otra instancia.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class OverdueMonitor implements RentalListener, AutoCloseable {
+
+    // Logger para trazar los vencimientos.
+    private static final Logger log = LoggerFactory.getLogger(OverdueMonitor.class);
+
+    private final RentalService rentalService;
+    private final Map<RentalType, Duration> limits;
+    private final boolean autoFinish;
+    private final HashedTimerWheel wheel;
+
+    /** Hilo que avisa a los manejadores y finaliza los vencidos, fuera de la rueda. */
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "granja-overdue-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /** ID de alquiler activo → su plazo; al finalizar el alquiler se quita. */
+    private final ConcurrentHashMap<Integer, Watch> watched = new ConcurrentHashMap<>();
+
+    private final List<Consumer<Rental>> handlers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Crea el monitor con una rueda de ticks de un segundo.
+     *
+     * @param rentalService Servicio cuyos alquileres se vigilan.
+     * @param limits        Tiempo máximo por tipo de alquiler; los tipos sin límite no se vigilan.
+     * @param autoFinish    {@code true} para finalizar automáticamente los alquileres vencidos.
+     */
+    public OverdueMonitor(RentalService rentalService, Map<RentalType, Duration> limits, boolean autoFinish) {
+        this(rentalService, limits, autoFinish,
+                new HashedTimerWheel(Duration.ofSeconds(1), 512, "granja-overdue-wheel"));
+    }
+
+    /**
+     * Crea el monitor sobre una rueda dada, se registra en el servicio y programa
+     * los plazos de los alquileres que ya están activos.
+     *
+     * @param rentalService Servicio cuyos alquileres se vigilan.
+     * @param limits        Tiempo máximo por tipo de alquiler; los tipos sin límite no se vigilan.
+     * @param autoFinish    {@code true} para finalizar automáticamente los alquileres vencidos.
+     * @param wheel         Rueda de temporización; el monitor la cierra al cerrarse.
+     */
+    public OverdueMonitor(RentalService rentalService, Map<RentalType, Duration> limits, boolean autoFinish,
+                          HashedTimerWheel wheel) {
+        this.rentalService = rentalService;
+        this.limits = limits.isEmpty() ? new EnumMap<>(RentalType.class) : new EnumMap<>(limits);
+        this.autoFinish = autoFinish;
+        this.wheel = wheel;
+
+        rentalService.addRentalListener(this);
+        rentalService.streamRentals()
+                .filter(rental -> rental.getEndTime() == null)
+                .forEach(this::rentalStarted);
+
+        log.info("service=OverdueMonitor event=initialized limits={} autoFinish={} watching={}",
+                this.limits, autoFinish, watching());
+    }
+
+    /**
+     * Registra un manejador de alquileres vencidos. Se invoca en el hilo del
+     * monitor, antes de la finalización automática.
+     *
+     * @param handler Manejador a invocar con cada alquiler vencido.
+     */
+    public void addOverdueHandler(Consumer<Rental> handler) {
+        handlers.add(handler);
+    }
+
+    /**
+     * Programa el plazo del alquiler según su tipo.
+     *
+     * @param rental Alquiler iniciado.
+     */
+    @Override
+    public void rentalStarted(Rental rental) {
+        Duration limit = limits.get(rental.getRentalType());
+        if (limit == null || rental.getStartTime() == null) {
+            return;
+        }
+        Duration delay = Duration.between(LocalDateTime.now(), rental.getStartTime().plus(limit));
+        Watch watch = new Watch(rental);
+        Watch previous = watched.put(rental.getId(), watch);
+        if (previous != null) {
+            previous.cancel();
+        }
+        watch.timeout = wheel.schedule(() -> expire(watch), delay);
+    }
+
+    /**
+     * Cancela el plazo del alquiler y lo quita de los vencidos.
+     *
+     * @param rental Alquiler finalizado.
+     */
+    @Override
+    public void rentalFinished(Rental rental) {
+        Watch watch = watched.remove(rental.getId());
+        if (watch != null) {
+            watch.cancel();
+        }
+    }
+
+    /**
+     * @return Alquileres vencidos que siguen activos, ordenados por ID.
+     */
+    public List<Rental> overdueRentals() {
+        List<Rental> result = new ArrayList<>();
+        for (Watch watch : watched.values()) {
+            if (watch.overdue) {
+                result.add(watch.rental);
+            }
+        }
+        result.sort(Comparator.comparingInt(Rental::getId));
+        return result;
+    }
+
+    /** @return Alquileres con un plazo pendiente. */
+    public int watching() {
+        int pending = 0;
+        for (Watch watch : watched.values()) {
+            if (!watch.overdue) {
+                pending++;
+            }
+        }
+        return pending;
+    }
+
+    /** Detiene la rueda y el hilo de avisos. */
+    @Override
+    public void close() {
+        wheel.close();
+        dispatcher.shutdown();
+    }
+
+    /** Se ejecuta en el hilo de la rueda: debe ser breve. */
+    private void expire(Watch watch) {
+        Rental rental = watch.rental;
+        int rentalId = rental.getId();
+        // Solo vence si sigue siendo la entrada vigente: si el alquiler ya finalizó (o se
+        // reprogramó), rentalFinished la quitó y aquí no se marca ni se avisa
+        boolean[] expired = {false};
+        watched.computeIfPresent(rentalId, (id, current) -> {
+            if (current == watch) {
+                current.overdue = true;
+                expired[0] = true;
+            }
+            return current;
+        });
+        if (!expired[0]) {
+            return;
+        }
+
+        log.warn("service=OverdueMonitor event=rentalOverdue rentalId={} animalId={} rentalType={} startTime={}",
+                rentalId, rental.getAnimal().getId(), rental.getRentalType(), rental.getStartTime());
+        dispatcher.execute(() -> dispatch(rental));
+    }
+
+    private void dispatch(Rental rental) {
+        for (Consumer<Rental> handler : handlers) {
+            try {
+                handler.accept(rental);
+            } catch (RuntimeException e) {
+                log.warn("service=OverdueMonitor event=overdueHandlerFailed rentalId={}", rental.getId(), e);
+            }
+        }
+        if (autoFinish) {
+            try {
+                rentalService.finishRental(rental.getId());
+                log.info("service=OverdueMonitor event=rentalAutoFinished rentalId={}", rental.getId());
+            } catch (RuntimeException e) {
+                log.error("service=OverdueMonitor event=autoFinishFailed rentalId={}", rental.getId(), e);
+            }
+        }
+    }
+
+    /** Plazo de un alquiler activo; se marca como vencido cuando la rueda lo dispara. */
+    private static final class Watch {
+        final Rental rental;
+        /** Se asigna tras programarlo; puede ser {@code null} si el alquiler finaliza antes. */
+        volatile HashedTimerWheel.Timeout timeout;
+        volatile boolean overdue;
+
+        Watch(Rental rental) {
+            this.rental = rental;
+        }
+
+        void cancel() {
+            HashedTimerWheel.Timeout scheduled = timeout;
+            if (scheduled != null) {
+                scheduled.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.Rental;
+
+/**
+ * Recibe el inicio y el fin de los alquileres que gestiona {@link RentalService},
+ * incluidos los que se crean al entregar un animal a la lista de espera.
+ * <p>
+ * Igual que {@link AnimalStatusListener}: se invoca después de persistir y bajo
+ * el cerrojo del animal, debe ser rápido y sus excepciones solo se registran.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public interface RentalListener {
+
+    /** @param rental Alquiler recién iniciado y guardado. */
+    default void rentalStarted(Rental rental) {
+    }
+
+    /** @param rental Alquiler recién finalizado y guardado. */
+    default void rentalFinished(Rental rental) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+
+/**
+ * Solicitud de alquiler dentro de un lote (ver {@link RentalService#startRentals(java.util.List)}).
+ *
+ * @param animalId   ID del animal a alquilar.
+ * @param customerId ID del cliente que realiza el alquiler.
+ * @param rentalType Tipo de alquiler.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public record RentalRequest(int animalId, int customerId, RentalType rentalType) {
+}
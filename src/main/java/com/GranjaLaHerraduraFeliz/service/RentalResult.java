@@ -0,0 +1,31 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.Rental;
+
+/**
+ * Resultado de un elemento de una operación por lotes de {@link RentalService}:
+ * el alquiler afectado o la excepción que habría lanzado la operación individual.
+ *
+ * @param rental Alquiler iniciado o finalizado; {@code null} si falló.
+ * @param error  Motivo del fallo; {@code null} si tuvo éxito.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public record RentalResult(Rental rental, RuntimeException error) {
+
+    /** @return Resultado exitoso con el alquiler indicado. */
+    public static RentalResult success(Rental rental) {
+        return new RentalResult(rental, null);
+    }
+
+    /** @return Resultado fallido con el motivo indicado. */
+    public static RentalResult failure(RuntimeException error) {
+        return new RentalResult(null, error);
+    }
+
+    /** @return {@code true} si el elemento se procesó correctamente. */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -4,17 +4,33 @@ import com.GranjaLaHerraduraFeliz.Exception.AnimalNotAvailableException;
 import com.GranjaLaHerraduraFeliz.Exception.RentalNotFoundException;
 import com.GranjaLaHerraduraFeliz.model.Animal;
 import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
 import com.GranjaLaHerraduraFeliz.model.Customer;
 import com.GranjaLaHerraduraFeliz.model.Rental;
 import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.model.Reservation;
 import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
 import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
 import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.util.StripedLocks;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Servicio encargado de gestionar la lógica de negocio relacionada con los alquileres.
@@ -25,10 +41,30 @@ import java.util.List;
  *     <li>Finalizar un alquiler registrando la fecha de devolución.</li>
  *     <li>Actualizar el estado del animal según corresponda.</li>
  *     <li>Listar los alquileres registrados.</li>
+ *     <li>Iniciar y finalizar alquileres por lotes, con un resultado por elemento.</li>
+ *     <li>Avisar de los cambios de estado de los animales ({@link AnimalStatusListener})
+ *     y del inicio y fin de cada alquiler ({@link RentalListener}).</li>
+ *     <li>Mantener una lista de espera FIFO por tipo de animal: al finalizar un
+ *     alquiler, el animal pasa directamente al primero de la cola; mientras haya
+ *     clientes esperando un tipo, sus animales libres no se alquilan por mostrador.</li>
+ *     <li>Respetar las reservas anticipadas ({@link #useReservations}): no se alquila
+ *     un animal reservado dentro de la duración prevista del alquiler.</li>
  * </ul>
  *
  * Este servicio actúa como intermediario entre los controladores y los repositorios,
  * encapsulando toda la lógica relacionada con el proceso de alquiler.
+ * <p>
+ * Es seguro para varios puestos de atención trabajando a la vez: la verificación
+ * de disponibilidad y la reserva del animal se hacen bajo un cerrojo por animal
+ * ({@link StripedLocks}), de modo que dos solicitudes para el mismo animal nunca
+ * pueden ganar ambas, mientras que las solicitudes para animales distintos avanzan
+ * en paralelo. Para ello los repositorios inyectados deben ser seguros para hilos
+ * (por ejemplo, las implementaciones {@code Concurrent*Repository}).
+ * <p>
+ * La lista de espera de cada tipo tiene su propio cerrojo, que se toma siempre
+ * antes que los cerrojos por animal. Así la entrega al siguiente cliente ocurre
+ * en el mismo paso atómico que el cierre del alquiler: el animal nunca queda
+ * libre, ni a la vista de otros mostradores, mientras haya alguien esperando.
  *
  * @author Marcos
  * @since 1.0 (versión consola)
@@ -42,6 +78,24 @@ public class RentalService {
     private final CustomerRepository customerRepository;
     private final RentalRepository rentalRepository;
 
+    /** Cerrojos por ID de animal que hacen atómica la secuencia verificar-y-reservar. */
+    private final StripedLocks animalLocks = new StripedLocks();
+
+    /** Colas de espera por tipo de animal; su cerrojo se toma antes que el del animal. */
+    private final Waitlist waitlist = new Waitlist();
+
+    /** Observadores de los cambios de estado de los animales. */
+    private final List<AnimalStatusListener> statusListeners = new CopyOnWriteArrayList<>();
+
+    /** Observadores del inicio y fin de los alquileres. */
+    private final List<RentalListener> rentalListeners = new CopyOnWriteArrayList<>();
+
+    /** Reservas a respetar al iniciar alquileres; {@code null} si no se consultan. */
+    private volatile ReservationService reservationService;
+
+    /** Duración prevista de cada tipo de alquiler: la franja que no debe chocar con una reserva. */
+    private volatile Map<RentalType, Duration> expectedDurations = Map.of();
+
     /**
      * Crea un servicio de alquiler inyectando los repositorios necesarios.
      *
@@ -57,6 +111,41 @@ public class RentalService {
         this.rentalRepository = rentalRepository;
     }
 
+    /**
+     * Registra un observador de los cambios de estado que hace este servicio
+     * (AVAILABLE → RENTED al iniciar, RENTED → AVAILABLE al finalizar).
+     *
+     * @param listener Observador a avisar.
+     */
+    public void addStatusListener(AnimalStatusListener listener) {
+        statusListeners.add(listener);
+    }
+
+    /**
+     * Registra un observador del inicio y fin de los alquileres.
+     *
+     * @param listener Observador a avisar.
+     */
+    public void addRentalListener(RentalListener listener) {
+        rentalListeners.add(listener);
+    }
+
+    /**
+     * Hace que los alquileres nuevos respeten las reservas anticipadas: un animal
+     * no se alquila ni se entrega a la lista de espera si tiene una reserva vigente
+     * de otro cliente que se solapa con {@code [ahora, ahora + duración prevista)}.
+     * El titular de la reserva sí puede alquilarlo en esa franja.
+     *
+     * @param reservationService Servicio de reservas a consultar.
+     * @param expectedDurations  Duración prevista por tipo de alquiler (por ejemplo, los
+     *                           límites de {@link OverdueMonitor}); sin duración para un
+     *                           tipo, solo cuenta una reserva que ya haya empezado.
+     */
+    public void useReservations(ReservationService reservationService, Map<RentalType, Duration> expectedDurations) {
+        this.expectedDurations = Map.copyOf(expectedDurations);
+        this.reservationService = reservationService;
+    }
+
     /**
      * Inicia un nuevo alquiler validando animal, cliente y disponibilidad.
      * <p>
@@ -64,6 +153,11 @@ public class RentalService {
      * <ul>
      *     <li>El animal debe existir.</li>
      *     <li>El animal debe estar en estado {@code AVAILABLE}.</li>
+     *     <li>No debe haber clientes en la lista de espera de su tipo: esos animales
+     *     se entregan por orden de cola. El titular de una reserva del animal que
+     *     viene a usarla no pasa por la cola.</li>
+     *     <li>No debe tener una reserva de otro cliente dentro de la duración prevista
+     *     del alquiler (ver {@link #useReservations}).</li>
      *     <li>El cliente debe existir.</li>
      *     <li>El alquiler inicia con {@code startTime = now} y {@code endTime = null}.</li>
      *     <li>El animal cambia su estado a {@code RENTED}.</li>
@@ -75,7 +169,9 @@ public class RentalService {
      * @return El nuevo alquiler registrado.
      *
      * @throws IllegalArgumentException      Si el animal o el cliente no existen.
-     * @throws AnimalNotAvailableException   Si el animal no está disponible.
+     * @throws AnimalNotAvailableException   Si el animal no está disponible, está
+     *                                       reservado o hay clientes esperando un
+     *                                       animal de su tipo.
      */
     public Rental startRental(int animalId, int customerId, RentalType rentalType) {
 
@@ -83,52 +179,83 @@ public class RentalService {
         log.info("service=RentalService event=startRentalInit animalId={} customerId={} rentalType={}",
                 animalId, customerId, rentalType);
 
-        // Validar existencia del animal
-        Animal animal = animalRepository.findById(animalId);
-        if (animal == null) {
-            // Log de validación fallida: el animal no existe.
-            log.warn("service=RentalService event=animalNotFound animalId={}", animalId);
-            throw new IllegalArgumentException("Animal no encontrado con id: " + animalId);
+        // La cola se consulta antes del cerrojo del animal (orden de cerrojos: cola y luego animal)
+        if (waitlist.mayHaveWaiters()) {
+            Animal requested = animalRepository.findById(animalId);
+            if (requested != null && requested.getStatus() == AnimalStatus.AVAILABLE
+                    && waitlist.mayHaveWaiters(requested.getType()) && waitlistSize(requested.getType()) > 0
+                    && !holdsReservation(animalId, customerId, rentalType, LocalDateTime.now())) {
+                // Log de validación fallida: otros clientes esperan un animal de este tipo.
+                log.warn("service=RentalService event=waitlistFirst animalId={} type={}",
+                        animalId, requested.getType());
+                throw waitlistFirst(requested);
+            }
         }
 
-        // Validar disponibilidad
-        if (animal.getStatus() != AnimalStatus.AVAILABLE) {
-            // Log de validación fallida: el animal existe pero no está disponible.
-            log.warn("service=RentalService event=animalNotAvailable animalId={} status={}",
-                    animalId, animal.getStatus());
-            throw new AnimalNotAvailableException(
-                    "El animal con id " + animalId + " no está disponible para alquiler."
-            );
-        }
+        // Toda la secuencia verificar-y-reservar se ejecuta bajo el cerrojo del animal
+        Lock lock = animalLocks.lockFor(animalId);
+        lock.lock();
+        try {
+            // Validar existencia del animal
+            Animal animal = animalRepository.findById(animalId);
+            if (animal == null) {
+                // Log de validación fallida: el animal no existe.
+                log.warn("service=RentalService event=animalNotFound animalId={}", animalId);
+                throw new IllegalArgumentException("Animal no encontrado con id: " + animalId);
+            }
 
-        // Validar existencia del cliente
-        Customer customer = customerRepository.findById(customerId);
-        if (customer == null) {
-            // Log de validación fallida: cliente inexistente.
-            log.warn("service=RentalService event=customerNotFound customerId={}", customerId);
-            throw new IllegalArgumentException("Cliente no encontrado con id: " + customerId);
-        }
+            // Validar disponibilidad
+            if (animal.getStatus() != AnimalStatus.AVAILABLE) {
+                // Log de validación fallida: el animal existe pero no está disponible.
+                log.warn("service=RentalService event=animalNotAvailable animalId={} status={}",
+                        animalId, animal.getStatus());
+                throw new AnimalNotAvailableException(
+                        "El animal con id " + animalId + " no está disponible para alquiler."
+                );
+            }
 
-        // Crear alquiler (startTime y endTime se manejan desde el constructor)
-        Rental rental = new Rental();
-        rental.setAnimal(animal);
-        rental.setCustomer(customer);
-        rental.setRentalType(rentalType);
+            // Validar que ninguna reserva caiga dentro del alquiler
+            Reservation reserved = reservationWithin(animalId, customerId, rentalType, LocalDateTime.now());
+            if (reserved != null) {
+                // Log de validación fallida: el animal está reservado en la franja del alquiler.
+                log.warn("service=RentalService event=animalReserved animalId={} reservationId={} start={}",
+                        animalId, reserved.getId(), reserved.getStartTime());
+                throw reservedError(animalId, reserved);
+            }
 
-        rental = rentalRepository.save(rental);
+            // Validar existencia del cliente
+            Customer customer = customerRepository.findById(customerId);
+            if (customer == null) {
+                // Log de validación fallida: cliente inexistente.
+                log.warn("service=RentalService event=customerNotFound customerId={}", customerId);
+                throw new IllegalArgumentException("Cliente no encontrado con id: " + customerId);
+            }
 
-        // Log de creación exitosa del alquiler.
-        log.info("service=RentalService event=rentalCreated rentalId={} animalId={} customerId={}",
-                rental.getId(), animalId, customerId);
+            // Crear alquiler (startTime y endTime se manejan desde el constructor)
+            Rental rental = new Rental();
+            rental.setAnimal(animal);
+            rental.setCustomer(customer);
+            rental.setRentalType(rentalType);
 
-        // Cambiar estado del animal
-        animal.setStatus(AnimalStatus.RENTED);
-        animalRepository.save(animal);
+            rental = rentalRepository.save(rental);
 
-        // Log de cambio de estado del animal.
-        log.info("service=RentalService event=animalStatusUpdated animalId={} status=RENTED", animalId);
+            // Log de creación exitosa del alquiler.
+            log.info("service=RentalService event=rentalCreated rentalId={} animalId={} customerId={}",
+                    rental.getId(), animalId, customerId);
 
-        return rental;
+            // Cambiar estado del animal
+            animal.setStatus(AnimalStatus.RENTED);
+            animalRepository.save(animal);
+            notifyStatusChanged(animal, AnimalStatus.AVAILABLE);
+            notifyRentalStarted(rental);
+
+            // Log de cambio de estado del animal.
+            log.info("service=RentalService event=animalStatusUpdated animalId={} status=RENTED", animalId);
+
+            return rental;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -159,31 +286,417 @@ public class RentalService {
             throw new RentalNotFoundException("Alquiler no encontrado con id: " + rentalId);
         }
 
-        // Si ya estaba finalizado
-        if (rental.getEndTime() != null) {
-            // Log de intento de finalizar un alquiler ya finalizado.
-            log.info("service=RentalService event=rentalAlreadyFinished rentalId={}", rentalId);
-            return rental;
-        }
+        // El cierre se serializa con startRental sobre el mismo animal; así dos
+        // finalizaciones simultáneas no pueden liberar el animal dos veces.
+        // La cola del tipo se bloquea antes que el animal, igual que en joinWaitlist.
+        Animal animal = rental.getAnimal();
+        Lock typeLock = waitlist.lockFor(animal.getType());
+        Lock lock = animalLocks.lockFor(animal.getId());
+        Handoff handoff = null;
+        typeLock.lock();
+        lock.lock();
+        try {
+            // Releer bajo el cerrojo: los repositorios que devuelven copias
+            // (por ejemplo, JDBC) no reflejan un cierre concurrente en el objeto leído antes
+            Rental current = rentalRepository.findById(rentalId);
+            if (current != null) {
+                rental = current;
+                animal = rental.getAnimal();
+            }
 
-        rental.setEndTime(LocalDateTime.now());
+            // Si ya estaba finalizado
+            if (rental.getEndTime() != null) {
+                // Log de intento de finalizar un alquiler ya finalizado.
+                log.info("service=RentalService event=rentalAlreadyFinished rentalId={}", rentalId);
+                return rental;
+            }
 
-        // Restablecer estado del animal
-        Animal animal = rental.getAnimal();
-        animal.setStatus(AnimalStatus.AVAILABLE);
-        animalRepository.save(animal);
+            LocalDateTime now = LocalDateTime.now();
+            rental.setEndTime(now);
+
+            Waitlist.Waiter next = waitlist.poll(animal.getType(), canTake(animal, now));
+            if (next != null) {
+                // Entrega directa: el animal sigue RENTED y pasa al primero de la cola
+                rental = rentalRepository.save(rental);
+                handoff = new Handoff(next, rentalRepository.save(handedRental(animal, next)));
+                notifyRentalFinished(rental);
+                notifyRentalStarted(handoff.rental());
+                logHandoff(handoff);
+            } else {
+                // Restablecer estado del animal
+                AnimalStatus previous = animal.getStatus();
+                animal.setStatus(AnimalStatus.AVAILABLE);
+                animalRepository.save(animal);
+                notifyStatusChanged(animal, previous);
 
-        rental = rentalRepository.save(rental);
+                rental = rentalRepository.save(rental);
+                notifyRentalFinished(rental);
+            }
 
-        // Log de finalización correcta de alquiler y actualización del animal.
-        log.info("service=RentalService event=rentalFinished rentalId={} endTime={} animalId={} animalStatus=AVAILABLE",
-                rentalId, rental.getEndTime(), animal.getId());
+            // Log de finalización correcta de alquiler y actualización del animal.
+            log.info("service=RentalService event=rentalFinished rentalId={} endTime={} animalId={} animalStatus={}",
+                    rentalId, rental.getEndTime(), animal.getId(), animal.getStatus());
+        } finally {
+            lock.unlock();
+            typeLock.unlock();
+        }
 
+        // El aviso al cliente en espera se hace fuera de los cerrojos
+        if (handoff != null) {
+            completeHandoffs(List.of(handoff));
+        }
         return rental;
     }
 
+    /**
+     * Pone al cliente en la lista de espera de un tipo de animal.
+     * <p>
+     * Reglas del negocio:
+     * <ul>
+     *     <li>El cliente debe existir.</li>
+     *     <li>La cola es FIFO: cada animal del tipo que se libera con
+     *     {@link #finishRental} se entrega al primero de la cola, que recibe un
+     *     alquiler ya iniciado sin volver a pasar por el mostrador.</li>
+     *     <li>Si ya hay animales del tipo disponibles (por ejemplo, recién
+     *     registrados), se asignan en ese mismo momento, respetando el orden de la cola.</li>
+     * </ul>
+     *
+     * @param type       Tipo de animal que se espera.
+     * @param customerId ID del cliente.
+     * @param rentalType Tipo de alquiler que se iniciará.
+     * @return Futuro que se completa con el alquiler cuando se asigna un animal;
+     *         se cancela si el cliente sale de la cola con {@link #leaveWaitlist}.
+     *         Cancelarlo (o que venza) solo tiene efecto mientras el cliente sigue en
+     *         la cola: una vez elegido para recibir un animal, la entrega sigue adelante.
+     * @throws IllegalArgumentException Si no se indica el tipo o el cliente no existe.
+     */
+    public CompletableFuture<Rental> joinWaitlist(AnimalType type, int customerId, RentalType rentalType) {
+
+        log.info("service=RentalService event=joinWaitlistInit type={} customerId={} rentalType={}",
+                type, customerId, rentalType);
+
+        if (type == null) {
+            throw new IllegalArgumentException("Hay que indicar el tipo de animal que se espera");
+        }
+
+        Customer customer = customerRepository.findById(customerId);
+        if (customer == null) {
+            log.warn("service=RentalService event=customerNotFound customerId={}", customerId);
+            throw new IllegalArgumentException("Cliente no encontrado con id: " + customerId);
+        }
+
+        Waitlist.Ticket future = new Waitlist.Ticket();
+        List<Handoff> handoffs = new ArrayList<>();
+        int waiting;
+        Lock typeLock = waitlist.lockFor(type);
+        typeLock.lock();
+        try {
+            waitlist.add(type, new Waitlist.Waiter(customer, rentalType, future, System.nanoTime()));
+
+            // Animales del tipo que estén libres ahora mismo pasan a la cola en orden
+            assignAvailable(type, animalRepository.findByStatus(AnimalStatus.AVAILABLE), handoffs);
+            waiting = waitlist.size(type);
+        } finally {
+            typeLock.unlock();
+        }
+
+        completeHandoffs(handoffs);
+
+        log.info("service=RentalService event=waitlistJoined type={} customerId={} assigned={} waiting={}",
+                type, customerId, future.isDone(), waiting);
+        return future;
+    }
+
+    /**
+     * Ofrece a la lista de espera de su tipo un animal que acaba de quedar
+     * disponible sin pasar por {@link #finishRental} (por ejemplo, un alta). Debe
+     * llamarse después de guardarlo como {@code AVAILABLE}: un cliente que entre en
+     * la cola a la vez lo encontrará libre en {@link #joinWaitlist}.
+     *
+     * @param animalId ID del animal.
+     * @return El alquiler con el que se entregó al primero de la cola, o
+     *         {@code null} si nadie esperaba o el animal ya no estaba libre.
+     */
+    public Rental offerToWaitlist(int animalId) {
+        Animal animal = animalRepository.findById(animalId);
+        if (animal == null || !waitlist.mayHaveWaiters(animal.getType())) {
+            return null;
+        }
+        List<Handoff> handoffs = new ArrayList<>(1);
+        Lock typeLock = waitlist.lockFor(animal.getType());
+        typeLock.lock();
+        try {
+            assignAvailable(animal.getType(), List.of(animal), handoffs);
+        } finally {
+            typeLock.unlock();
+        }
+        completeHandoffs(handoffs);
+        return handoffs.isEmpty() ? null : handoffs.get(0).rental();
+    }
+
+    /**
+     * Saca al cliente de la lista de espera de un tipo y cancela sus futuros pendientes.
+     *
+     * @param type       Tipo de animal.
+     * @param customerId ID del cliente.
+     * @return Número de esperas canceladas.
+     */
+    public int leaveWaitlist(AnimalType type, int customerId) {
+        Lock typeLock = waitlist.lockFor(type);
+        typeLock.lock();
+        try {
+            int removed = waitlist.remove(type, customerId);
+            log.info("service=RentalService event=waitlistLeft type={} customerId={} removed={}",
+                    type, customerId, removed);
+            return removed;
+        } finally {
+            typeLock.unlock();
+        }
+    }
+
+    /**
+     * @param type Tipo de animal.
+     * @return Clientes esperando un animal de ese tipo.
+     */
+    public int waitlistSize(AnimalType type) {
+        Lock typeLock = waitlist.lockFor(type);
+        typeLock.lock();
+        try {
+            return waitlist.size(type);
+        } finally {
+            typeLock.unlock();
+        }
+    }
+
+    /**
+     * Inicia varios alquileres en una sola pasada.
+     * <p>
+     * Cada solicitud sigue las mismas reglas que {@link #startRental}, pero los
+     * cerrojos de todos los animales se toman una sola vez (en orden, sin riesgo de
+     * interbloqueo), cada animal y cliente se busca una sola vez y los cambios se
+     * persisten con {@code saveAll}. Si dos solicitudes piden el mismo animal, solo
+     * la primera lo obtiene. Las colas de espera se consultan una vez, antes de
+     * tomar los cerrojos.
+     *
+     * @param requests Solicitudes a procesar.
+     * @return Un resultado por solicitud, en el mismo orden; los fallos llevan la
+     *         excepción que habría lanzado {@link #startRental}.
+     */
+    public List<RentalResult> startRentals(List<RentalRequest> requests) {
+
+        // Un único log de inicio para todo el lote.
+        log.info("service=RentalService event=startRentalsInit requested={}", requests.size());
+
+        int[] animalIds = new int[requests.size()];
+        for (int i = 0; i < animalIds.length; i++) {
+            animalIds[i] = requests.get(i).animalId();
+        }
+
+        List<RentalResult> results = new ArrayList<>(requests.size());
+        List<Rental> rentals = new ArrayList<>();
+        List<Animal> rentedAnimals = new ArrayList<>();
+        List<Integer> rentalSlots = new ArrayList<>();
+
+        Set<AnimalType> queued = typesWithWaiters();
+        int[] stripes = animalLocks.lockAll(animalIds);
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Integer, Animal> animals = new HashMap<>();
+            Map<Integer, Customer> customers = new HashMap<>();
+            Set<Integer> claimed = new HashSet<>();
+
+            for (RentalRequest request : requests) {
+                int animalId = request.animalId();
+                int customerId = request.customerId();
+
+                Animal animal = animals.computeIfAbsent(animalId, animalRepository::findById);
+                if (animal == null) {
+                    results.add(rejected(new IllegalArgumentException("Animal no encontrado con id: " + animalId)));
+                    continue;
+                }
+                if (animal.getStatus() == AnimalStatus.AVAILABLE && queued.contains(animal.getType())
+                        && !holdsReservation(animalId, customerId, request.rentalType(), now)) {
+                    results.add(rejected(waitlistFirst(animal)));
+                    continue;
+                }
+                // Un animal ya reservado en este mismo lote cuenta como no disponible
+                if (animal.getStatus() != AnimalStatus.AVAILABLE || !claimed.add(animalId)) {
+                    results.add(rejected(new AnimalNotAvailableException(
+                            "El animal con id " + animalId + " no está disponible para alquiler.")));
+                    continue;
+                }
+                Reservation reserved = reservationWithin(animalId, customerId, request.rentalType(), now);
+                if (reserved != null) {
+                    claimed.remove(animalId);
+                    results.add(rejected(reservedError(animalId, reserved)));
+                    continue;
+                }
+                Customer customer = customers.computeIfAbsent(customerId, customerRepository::findById);
+                if (customer == null) {
+                    claimed.remove(animalId);
+                    results.add(rejected(new IllegalArgumentException("Cliente no encontrado con id: " + customerId)));
+                    continue;
+                }
+
+                Rental rental = new Rental();
+                rental.setAnimal(animal);
+                rental.setCustomer(customer);
+                rental.setRentalType(request.rentalType());
+
+                rentalSlots.add(results.size());
+                results.add(null);
+                rentals.add(rental);
+                rentedAnimals.add(animal);
+            }
+
+            List<Rental> saved = rentalRepository.saveAll(rentals);
+            for (int i = 0; i < saved.size(); i++) {
+                results.set(rentalSlots.get(i), RentalResult.success(saved.get(i)));
+            }
+
+            for (Animal animal : rentedAnimals) {
+                animal.setStatus(AnimalStatus.RENTED);
+            }
+            animalRepository.saveAll(rentedAnimals);
+            for (Animal animal : rentedAnimals) {
+                notifyStatusChanged(animal, AnimalStatus.AVAILABLE);
+            }
+            saved.forEach(this::notifyRentalStarted);
+        } finally {
+            animalLocks.unlockAll(stripes);
+        }
+
+        // Log de resumen del lote.
+        log.info("service=RentalService event=rentalsCreated requested={} started={} failed={}",
+                requests.size(), rentals.size(), requests.size() - rentals.size());
+        return results;
+    }
+
+    /**
+     * Finaliza varios alquileres en una sola pasada.
+     * <p>
+     * Cada alquiler sigue las mismas reglas que {@link #finishRental}: si ya estaba
+     * finalizado (o aparece repetido en el lote) se devuelve tal cual y, si hay
+     * clientes esperando ese tipo de animal, se le entrega al primero. Los cerrojos
+     * (todas las colas de espera y luego los animales) se toman una sola vez y los
+     * cambios se persisten con {@code saveAll}.
+     *
+     * @param rentalIds IDs de los alquileres a finalizar.
+     * @return Un resultado por ID, en el mismo orden; los inexistentes fallan con
+     *         {@link RentalNotFoundException}.
+     */
+    public List<RentalResult> finishRentals(List<Integer> rentalIds) {
+
+        // Un único log de inicio para todo el lote.
+        log.info("service=RentalService event=finishRentalsInit requested={}", rentalIds.size());
+
+        // Primera lectura para conocer los animales que hay que bloquear
+        List<Integer> animalIds = new ArrayList<>(rentalIds.size());
+        for (int rentalId : rentalIds) {
+            Rental rental = rentalRepository.findById(rentalId);
+            if (rental != null) {
+                animalIds.add(rental.getAnimal().getId());
+            }
+        }
+
+        List<RentalResult> results = new ArrayList<>(rentalIds.size());
+        List<Rental> finished = new ArrayList<>();
+        List<Animal> releasedAnimals = new ArrayList<>();
+        List<AnimalStatus> previousStatuses = new ArrayList<>();
+        List<Integer> rentalSlots = new ArrayList<>();
+        List<Rental> handedRentals = new ArrayList<>();
+        List<Waitlist.Waiter> handedWaiters = new ArrayList<>();
+        List<Handoff> handoffs = new ArrayList<>();
+
+        waitlist.lockAll();
+        int[] stripes = animalLocks.lockAll(animalIds.stream().mapToInt(Integer::intValue).toArray());
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Integer, Rental> closing = new HashMap<>();
+
+            for (int rentalId : rentalIds) {
+                if (closing.containsKey(rentalId)) {
+                    // Repetido en el lote: ya se está finalizando
+                    rentalSlots.add(results.size());
+                    results.add(null);
+                    continue;
+                }
+
+                // Releer bajo el cerrojo, igual que en finishRental
+                Rental rental = rentalRepository.findById(rentalId);
+                if (rental == null) {
+                    results.add(rejected(new RentalNotFoundException("Alquiler no encontrado con id: " + rentalId)));
+                    continue;
+                }
+                if (rental.getEndTime() != null) {
+                    results.add(RentalResult.success(rental));
+                    continue;
+                }
+
+                rental.setEndTime(now);
+                Animal animal = rental.getAnimal();
+                Waitlist.Waiter next = waitlist.poll(animal.getType(), canTake(animal, now));
+                if (next != null) {
+                    // Entrega directa al primero de la cola, como en finishRental
+                    handedRentals.add(handedRental(animal, next));
+                    handedWaiters.add(next);
+                } else {
+                    previousStatuses.add(animal.getStatus());
+                    animal.setStatus(AnimalStatus.AVAILABLE);
+                    releasedAnimals.add(animal);
+                }
+
+                closing.put(rentalId, rental);
+                rentalSlots.add(results.size());
+                results.add(null);
+                finished.add(rental);
+            }
+
+            animalRepository.saveAll(releasedAnimals);
+            List<Rental> saved = rentalRepository.saveAll(finished);
+            for (int i = 0; i < releasedAnimals.size(); i++) {
+                notifyStatusChanged(releasedAnimals.get(i), previousStatuses.get(i));
+            }
+            saved.forEach(this::notifyRentalFinished);
+            List<Rental> handedSaved = rentalRepository.saveAll(handedRentals);
+            for (int i = 0; i < handedSaved.size(); i++) {
+                Handoff handoff = new Handoff(handedWaiters.get(i), handedSaved.get(i));
+                notifyRentalStarted(handoff.rental());
+                logHandoff(handoff);
+                handoffs.add(handoff);
+            }
+
+            // Los huecos se llenan en el orden en que se reservaron
+            Map<Integer, Rental> savedById = new HashMap<>();
+            for (Rental rental : saved) {
+                savedById.put(rental.getId(), rental);
+            }
+            for (int slot : rentalSlots) {
+                results.set(slot, RentalResult.success(savedById.get(rentalIds.get(slot))));
+            }
+        } finally {
+            animalLocks.unlockAll(stripes);
+            waitlist.unlockAll();
+        }
+
+        completeHandoffs(handoffs);
+        // Los animales liberados pasan por la cola igual que un alta
+        for (Animal animal : releasedAnimals) {
+            offerToWaitlist(animal.getId());
+        }
+
+        // Log de resumen del lote.
+        log.info("service=RentalService event=rentalsFinished requested={} finished={} handedOff={} failed={}",
+                rentalIds.size(), finished.size(), handoffs.size(),
+                results.stream().filter(result -> !result.isSuccess()).count());
+        return results;
+    }
+
     /**
      * Obtiene un listado completo de alquileres registrados.
+     * <p>
+     * Copia todo el historial; para mostrarlo por partes usar
+     * {@link #listRentalsPage(int, int)} o {@link #streamRentals()}.
      *
      * @return Lista de {@link Rental}.
      */
@@ -192,4 +705,202 @@ public class RentalService {
         log.info("service=RentalService event=listAllRentals");
         return rentalRepository.findAll();
     }
+
+    /**
+     * Obtiene una página de alquileres ordenada por ID.
+     *
+     * @param afterId ID del último alquiler ya mostrado ({@code 0} para empezar).
+     * @param limit   Tamaño máximo de la página.
+     * @return Alquileres con ID mayor que {@code afterId}.
+     */
+    public List<Rental> listRentalsPage(int afterId, int limit) {
+        // Log de consulta paginada.
+        log.debug("service=RentalService event=listRentalsPage afterId={} limit={}", afterId, limit);
+        return rentalRepository.findPage(afterId, limit);
+    }
+
+    /**
+     * Recorre todos los alquileres en orden de ID con memoria constante.
+     *
+     * @return Flujo perezoso de alquileres.
+     */
+    public Stream<Rental> streamRentals() {
+        // Log de consulta en flujo.
+        log.info("service=RentalService event=streamRentals");
+        return rentalRepository.stream();
+    }
+
+    /**
+     * Entrega a los primeros de la cola los animales de {@code candidates} de ese
+     * tipo que sigan libres, releyéndolos bajo su cerrojo. Requiere el cerrojo de
+     * la cola; los futuros se completan después con {@link #completeHandoffs}.
+     */
+    private void assignAvailable(AnimalType type, List<Animal> candidates, List<Handoff> handoffs) {
+        for (Animal candidate : candidates) {
+            if (candidate.getType() != type) {
+                continue;
+            }
+            Lock lock = animalLocks.lockFor(candidate.getId());
+            lock.lock();
+            try {
+                Animal animal = animalRepository.findById(candidate.getId());
+                if (animal == null || animal.getStatus() != AnimalStatus.AVAILABLE) {
+                    continue; // lo ganó un startRental concurrente
+                }
+                Waitlist.Waiter next = waitlist.poll(type, canTake(animal, LocalDateTime.now()));
+                if (next == null) {
+                    if (!waitlist.mayHaveWaiters(type)) {
+                        break;
+                    }
+                    continue; // el primero de la cola no puede llevarse este animal por una reserva
+                }
+                Handoff handoff = new Handoff(next, rentalRepository.save(handedRental(animal, next)));
+                animal.setStatus(AnimalStatus.RENTED);
+                animalRepository.save(animal);
+                notifyStatusChanged(animal, AnimalStatus.AVAILABLE);
+                notifyRentalStarted(handoff.rental());
+                logHandoff(handoff);
+                handoffs.add(handoff);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** @return Tipos con clientes en la lista de espera (toma el cerrojo de las colas no vacías). */
+    private Set<AnimalType> typesWithWaiters() {
+        Set<AnimalType> types = EnumSet.noneOf(AnimalType.class);
+        for (AnimalType type : AnimalType.values()) {
+            if (waitlist.mayHaveWaiters(type) && waitlistSize(type) > 0) {
+                types.add(type);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @return La primera reserva vigente del animal, de otro cliente, que se solapa
+     *         con un alquiler de ese tipo que empiece en {@code now}, o {@code null}
+     *         si no hay ninguna (o no se consultan reservas). La reserva del propio
+     *         cliente no cuenta: es justo la que viene a usar.
+     */
+    private Reservation reservationWithin(int animalId, int customerId, RentalType rentalType, LocalDateTime now) {
+        for (Reservation reservation : reservationsWithin(animalId, rentalType, now)) {
+            if (reservation.getCustomer() == null || reservation.getCustomer().getId() != customerId) {
+                return reservation;
+            }
+        }
+        return null;
+    }
+
+    /** @return Si el cliente tiene una reserva del animal que se solapa con un alquiler que empiece en {@code now}. */
+    private boolean holdsReservation(int animalId, int customerId, RentalType rentalType, LocalDateTime now) {
+        for (Reservation reservation : reservationsWithin(animalId, rentalType, now)) {
+            if (reservation.getCustomer() != null && reservation.getCustomer().getId() == customerId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return Reservas vigentes del animal en {@code [now, now + duración prevista)}. */
+    private List<Reservation> reservationsWithin(int animalId, RentalType rentalType, LocalDateTime now) {
+        ReservationService reservations = reservationService;
+        if (reservations == null) {
+            return List.of();
+        }
+        Duration expected = rentalType == null ? null : expectedDurations.get(rentalType);
+        LocalDateTime until = expected == null || expected.isZero() ? now.plusNanos(1) : now.plus(expected);
+        return reservations.findReservations(animalId, now, until);
+    }
+
+    /**
+     * @return Si el cliente en espera puede llevarse el animal que se libera en
+     *         {@code now} sin pisar la reserva de otro cliente.
+     */
+    private Predicate<Waitlist.Waiter> canTake(Animal animal, LocalDateTime now) {
+        return waiter -> reservationWithin(animal.getId(), waiter.customer().getId(), waiter.rentalType(), now) == null;
+    }
+
+    private static AnimalNotAvailableException reservedError(int animalId, Reservation reservation) {
+        return new AnimalNotAvailableException("El animal con id " + animalId + " está reservado entre "
+                + reservation.getStartTime() + " y " + reservation.getEndTime() + ".");
+    }
+
+    /** Rechazo de un alquiler directo mientras otros clientes esperan ese tipo de animal. */
+    private static AnimalNotAvailableException waitlistFirst(Animal animal) {
+        return new AnimalNotAvailableException("Hay clientes en la lista de espera de " + animal.getType()
+                + ": el animal con id " + animal.getId() + " se entrega por orden de llegada.");
+    }
+
+    /** Alquiler (sin guardar) con el que el animal pasa al cliente en espera. */
+    private static Rental handedRental(Animal animal, Waitlist.Waiter waiter) {
+        Rental rental = new Rental();
+        rental.setAnimal(animal);
+        rental.setCustomer(waiter.customer());
+        rental.setRentalType(waiter.rentalType());
+        return rental;
+    }
+
+    private static void logHandoff(Handoff handoff) {
+        Rental rental = handoff.rental();
+        log.info("service=RentalService event=waitlistHandoff rentalId={} animalId={} customerId={} waitedMs={}",
+                rental.getId(), rental.getAnimal().getId(), rental.getCustomer().getId(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - handoff.waiter().enqueuedNanos()));
+    }
+
+    /**
+     * Completa los futuros de los clientes atendidos, ya fuera de los cerrojos. Los
+     * clientes se reclamaron al sacarlos de la cola, así que ninguno puede haber
+     * abandonado la espera entre medias.
+     */
+    private void completeHandoffs(List<Handoff> handoffs) {
+        for (Handoff handoff : handoffs) {
+            handoff.waiter().future().deliver(handoff.rental());
+        }
+    }
+
+    /** Avisa a los observadores; un observador que falla no interrumpe la operación. */
+    private void notifyStatusChanged(Animal animal, AnimalStatus previous) {
+        for (AnimalStatusListener listener : statusListeners) {
+            try {
+                listener.statusChanged(animal, previous);
+            } catch (RuntimeException e) {
+                log.warn("service=RentalService event=statusListenerFailed animalId={} listener={}",
+                        animal.getId(), listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void notifyRentalStarted(Rental rental) {
+        for (RentalListener listener : rentalListeners) {
+            try {
+                listener.rentalStarted(rental);
+            } catch (RuntimeException e) {
+                log.warn("service=RentalService event=rentalListenerFailed rentalId={} listener={}",
+                        rental.getId(), listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void notifyRentalFinished(Rental rental) {
+        for (RentalListener listener : rentalListeners) {
+            try {
+                listener.rentalFinished(rental);
+            } catch (RuntimeException e) {
+                log.warn("service=RentalService event=rentalListenerFailed rentalId={} listener={}",
+                        rental.getId(), listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    /** Resultado fallido de un elemento del lote; el detalle queda en DEBUG para no inundar el log. */
+    private static RentalResult rejected(RuntimeException error) {
+        log.debug("service=RentalService event=batchItemRejected reason={}", error.getMessage());
+        return RentalResult.failure(error);
+    }
+
+    /** Alquiler entregado a un cliente de la lista de espera. */
+    private record Handoff(Waitlist.Waiter waiter, Rental rental) {
+    }
 }
@@ -0,0 +1,300 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.Exception.ReservationConflictException;
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.model.Reservation;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+import com.GranjaLaHerraduraFeliz.util.IntervalTree;
+import com.GranjaLaHerraduraFeliz.util.StripedLocks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Servicio de reservas anticipadas: un cliente reserva un animal concreto, o
+ * cualquiera de un {@link AnimalType}, para una franja futura {@code [inicio, fin)}.
+ * <p>
+ * Cada animal tiene un {@link IntervalTree} con sus reservas vigentes, de modo
+ * que comprobar si una franja nueva choca con miles de reservas existentes cuesta
+ * {@code O(log n)} en lugar de recorrer el repositorio. Los árboles se
+ * reconstruyen desde el {@link ReservationRepository} al crear el servicio.
+ * <p>
+ * Comprobar y reservar se hace bajo el cerrojo del animal ({@link StripedLocks}),
+ * igual que en {@link RentalService}: dos reservas solapadas del mismo animal
+ * nunca pueden ganar ambas.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class ReservationService {
+
+    // Logger para trazar el comportamiento del servicio en tiempo de ejecución.
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
+    private final AnimalRepository animalRepository;
+    private final CustomerRepository customerRepository;
+    private final ReservationRepository reservationRepository;
+    private final Clock clock;
+
+    /** ID de animal → reservas vigentes; cada árbol solo se usa bajo el cerrojo de su animal. */
+    private final ConcurrentHashMap<Integer, IntervalTree<Reservation>> byAnimal = new ConcurrentHashMap<>();
+
+    /** Cerrojos por ID de animal. */
+    private final StripedLocks animalLocks = new StripedLocks();
+
+    /**
+     * Crea el servicio con el reloj del sistema.
+     *
+     * @param animalRepository      Repositorio de animales.
+     * @param customerRepository    Repositorio de clientes.
+     * @param reservationRepository Repositorio de reservas (seguro para hilos).
+     */
+    public ReservationService(AnimalRepository animalRepository,
+                              CustomerRepository customerRepository,
+                              ReservationRepository reservationRepository) {
+        this(animalRepository, customerRepository, reservationRepository, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Crea el servicio con un reloj propio, que decide qué franjas están en el pasado.
+     *
+     * @param animalRepository      Repositorio de animales.
+     * @param customerRepository    Repositorio de clientes.
+     * @param reservationRepository Repositorio de reservas (seguro para hilos).
+     * @param clock                 Reloj de referencia.
+     */
+    public ReservationService(AnimalRepository animalRepository,
+                              CustomerRepository customerRepository,
+                              ReservationRepository reservationRepository,
+                              Clock clock) {
+        this.animalRepository = animalRepository;
+        this.customerRepository = customerRepository;
+        this.reservationRepository = reservationRepository;
+        this.clock = clock;
+
+        reservationRepository.stream()
+                .filter(reservation -> !reservation.isCancelled())
+                .forEach(this::index);
+
+        log.info("service=ReservationService event=initialized animalsWithReservations={}", byAnimal.size());
+    }
+
+    /**
+     * Reserva un animal concreto para la franja {@code [start, end)}.
+     *
+     * @param animalId   ID del animal.
+     * @param customerId ID del cliente.
+     * @param start      Inicio de la franja (inclusive); no puede estar en el pasado.
+     * @param end        Fin de la franja (exclusivo); posterior a {@code start}.
+     * @param rentalType Tipo de alquiler previsto.
+     * @return La reserva registrada.
+     *
+     * @throws IllegalArgumentException     Si la franja no es válida o el animal o el cliente no existen.
+     * @throws ReservationConflictException Si el animal ya está reservado en parte de la franja.
+     */
+    public Reservation reserve(int animalId, int customerId, LocalDateTime start, LocalDateTime end,
+                               RentalType rentalType) {
+
+        log.info("service=ReservationService event=reserveInit animalId={} customerId={} start={} end={}",
+                animalId, customerId, start, end);
+
+        validateWindow(start, end);
+        Customer customer = requireCustomer(customerId);
+        Animal animal = animalRepository.findById(animalId);
+        if (animal == null) {
+            log.warn("service=ReservationService event=animalNotFound animalId={}", animalId);
+            throw new IllegalArgumentException("Animal no encontrado con id: " + animalId);
+        }
+
+        Reservation reservation = tryReserve(animal, customer, start, end, rentalType);
+        if (reservation == null) {
+            log.warn("service=ReservationService event=reservationConflict animalId={} start={} end={}",
+                    animalId, start, end);
+            throw new ReservationConflictException("El animal con id " + animalId
+                    + " ya está reservado entre " + start + " y " + end + ".");
+        }
+        return reservation;
+    }
+
+    /**
+     * Reserva el primer animal del tipo indicado (por orden de ID) que esté libre
+     * en toda la franja {@code [start, end)}.
+     *
+     * @param type       Tipo de animal.
+     * @param customerId ID del cliente.
+     * @param start      Inicio de la franja (inclusive); no puede estar en el pasado.
+     * @param end        Fin de la franja (exclusivo); posterior a {@code start}.
+     * @param rentalType Tipo de alquiler previsto.
+     * @return La reserva registrada.
+     *
+     * @throws IllegalArgumentException     Si la franja no es válida o el cliente no existe.
+     * @throws ReservationConflictException Si ningún animal del tipo está libre en la franja.
+     */
+    public Reservation reserveAny(AnimalType type, int customerId, LocalDateTime start, LocalDateTime end,
+                                  RentalType rentalType) {
+
+        log.info("service=ReservationService event=reserveAnyInit type={} customerId={} start={} end={}",
+                type, customerId, start, end);
+
+        validateWindow(start, end);
+        Customer customer = requireCustomer(customerId);
+
+        Iterator<Animal> animals = animalRepository.stream()
+                .filter(animal -> animal.getType() == type)
+                .iterator();
+        while (animals.hasNext()) {
+            Reservation reservation = tryReserve(animals.next(), customer, start, end, rentalType);
+            if (reservation != null) {
+                return reservation;
+            }
+        }
+
+        log.warn("service=ReservationService event=noAnimalFree type={} start={} end={}", type, start, end);
+        throw new ReservationConflictException("No hay ningún animal de tipo " + type
+                + " libre entre " + start + " y " + end + ".");
+    }
+
+    /**
+     * Cancela una reserva y libera su franja. Cancelar una reserva ya cancelada no hace nada.
+     *
+     * @param reservationId ID de la reserva.
+     * @return La reserva cancelada.
+     * @throws IllegalArgumentException Si la reserva no existe.
+     */
+    public Reservation cancel(int reservationId) {
+        Reservation reservation = reservationRepository.findById(reservationId);
+        if (reservation == null) {
+            log.warn("service=ReservationService event=reservationNotFound reservationId={}", reservationId);
+            throw new IllegalArgumentException("Reserva no encontrada con id: " + reservationId);
+        }
+
+        int animalId = reservation.getAnimal().getId();
+        Lock lock = animalLocks.lockFor(animalId);
+        lock.lock();
+        try {
+            if (reservation.isCancelled()) {
+                return reservation;
+            }
+            reservation.setCancelled(true);
+            reservationRepository.save(reservation);
+            IntervalTree<Reservation> tree = byAnimal.get(animalId);
+            if (tree != null) {
+                tree.remove(key(reservation.getStartTime()), reservation.getId());
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        log.info("service=ReservationService event=reservationCancelled reservationId={} animalId={}",
+                reservationId, animalId);
+        return reservation;
+    }
+
+    /**
+     * Indica si el animal no tiene reservas vigentes en ninguna parte de la franja.
+     *
+     * @param animalId ID del animal.
+     * @param start    Inicio de la franja (inclusive).
+     * @param end      Fin de la franja (exclusivo).
+     * @return {@code true} si la franja está libre.
+     */
+    public boolean isFree(int animalId, LocalDateTime start, LocalDateTime end) {
+        Lock lock = animalLocks.lockFor(animalId);
+        lock.lock();
+        try {
+            IntervalTree<Reservation> tree = byAnimal.get(animalId);
+            return tree == null || !tree.overlaps(key(start), key(end));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene las reservas vigentes de un animal que se solapan con la franja.
+     *
+     * @param animalId ID del animal.
+     * @param from     Inicio de la franja (inclusive).
+     * @param to       Fin de la franja (exclusivo).
+     * @return Reservas ordenadas por hora de inicio (posiblemente vacía).
+     */
+    public List<Reservation> findReservations(int animalId, LocalDateTime from, LocalDateTime to) {
+        Lock lock = animalLocks.lockFor(animalId);
+        lock.lock();
+        try {
+            IntervalTree<Reservation> tree = byAnimal.get(animalId);
+            return tree == null ? List.of() : tree.findOverlapping(key(from), key(to));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Comprueba la franja y reserva bajo el cerrojo del animal.
+     *
+     * @return La reserva, o {@code null} si la franja choca con otra reserva.
+     */
+    private Reservation tryReserve(Animal animal, Customer customer, LocalDateTime start, LocalDateTime end,
+                                   RentalType rentalType) {
+        Lock lock = animalLocks.lockFor(animal.getId());
+        lock.lock();
+        try {
+            IntervalTree<Reservation> tree = byAnimal.get(animal.getId());
+            if (tree != null && tree.overlaps(key(start), key(end))) {
+                return null;
+            }
+            Reservation reservation = reservationRepository.save(
+                    new Reservation(0, animal, customer, start, end, rentalType));
+            index(reservation);
+
+            log.info("service=ReservationService event=reservationCreated reservationId={} animalId={} customerId={}",
+                    reservation.getId(), animal.getId(), customer.getId());
+            return reservation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void index(Reservation reservation) {
+        byAnimal.computeIfAbsent(reservation.getAnimal().getId(), id -> new IntervalTree<>())
+                .insert(key(reservation.getStartTime()), key(reservation.getEndTime()),
+                        reservation.getId(), reservation);
+    }
+
+    private void validateWindow(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("La franja de la reserva no es válida: " + start + " - " + end);
+        }
+        if (start.isBefore(LocalDateTime.now(clock))) {
+            throw new IllegalArgumentException("La reserva no puede empezar en el pasado: " + start);
+        }
+    }
+
+    private Customer requireCustomer(int customerId) {
+        Customer customer = customerRepository.findById(customerId);
+        if (customer == null) {
+            log.warn("service=ReservationService event=customerNotFound customerId={}", customerId);
+            throw new IllegalArgumentException("Cliente no encontrado con id: " + customerId);
+        }
+        return customer;
+    }
+
+    /**
+     * Clave del árbol: nanosegundos desde la época, tomando la hora local como UTC
+     * (solo importa el orden). Cabe en un {@code long} hasta el año 2262.
+     */
+    private static long key(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+}
@@ -0,0 +1,149 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Libro de liquidaciones: acumula el importe de cada alquiler en el momento en
+ * que finaliza, por día y por cliente.
+ * <p>
+ * Se registra como {@link RentalListener} en {@link RentalService}; cada
+ * {@code finishRental} calcula el importe con el {@link TariffEngine} y lo suma
+ * a los totales del día de finalización con {@link LongAdder}, así que varios
+ * mostradores pueden cerrar alquileres a la vez sin competir por un cerrojo. La
+ * liquidación de un día ({@link #settlement(LocalDate)}) se arma con esos totales
+ * y no vuelve a recorrer los alquileres.
+ * <p>
+ * Al crearse, carga una sola vez los alquileres ya finalizados del repositorio.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class SettlementLedger implements RentalListener {
+
+    // Logger para trazar los cobros.
+    private static final Logger log = LoggerFactory.getLogger(SettlementLedger.class);
+
+    private final TariffEngine tariffEngine;
+
+    /** Totales por día de finalización. */
+    private final ConcurrentHashMap<LocalDate, DayTotals> days = new ConcurrentHashMap<>();
+
+    /**
+     * Crea el libro, se registra en el servicio y carga los alquileres ya finalizados.
+     *
+     * @param tariffEngine  Tarifas con las que se calcula cada importe.
+     * @param rentalService Servicio cuyos alquileres se liquidan.
+     */
+    public SettlementLedger(TariffEngine tariffEngine, RentalService rentalService) {
+        this.tariffEngine = tariffEngine;
+        rentalService.addRentalListener(this);
+        long[] loaded = new long[1];
+        rentalService.streamRentals()
+                .filter(rental -> rental.getEndTime() != null)
+                .forEach(rental -> {
+                    try {
+                        record(rental);
+                        loaded[0]++;
+                    } catch (IllegalArgumentException e) {
+                        // Un alquiler sin tarifa no impide cargar los demás
+                        log.warn("service=SettlementLedger event=rentalNotCharged rentalId={} reason={}",
+                                rental.getId(), e.getMessage());
+                    }
+                });
+        log.info("service=SettlementLedger event=initialized loadedRentals={} days={}", loaded[0], days.size());
+    }
+
+    /**
+     * Calcula el importe del alquiler y lo suma a los totales de su día.
+     *
+     * @param rental Alquiler recién finalizado.
+     * @throws IllegalArgumentException Si su combinación de tipos no tiene tarifa
+     *                                  ({@link RentalService} lo registra y continúa).
+     */
+    @Override
+    public void rentalFinished(Rental rental) {
+        long cents = record(rental);
+        log.debug("service=SettlementLedger event=rentalCharged rentalId={} cents={}", rental.getId(), cents);
+    }
+
+    /**
+     * Liquidación de un día.
+     *
+     * @param day Día de finalización de los alquileres.
+     * @return Totales del día (vacíos si no hubo alquileres).
+     */
+    public DailySettlement settlement(LocalDate day) {
+        DayTotals totals = days.get(day);
+        if (totals == null) {
+            return new DailySettlement(day, 0, 0, Map.of(), Map.of());
+        }
+        Map<Integer, Long> byCustomer = new TreeMap<>();
+        totals.byCustomer.forEach((customerId, cents) -> byCustomer.put(customerId, cents.sum()));
+        Map<AnimalType, Long> byAnimalType = new EnumMap<>(AnimalType.class);
+        for (AnimalType type : AnimalType.values()) {
+            byAnimalType.put(type, totals.byAnimalType[type.ordinal()].sum());
+        }
+        return new DailySettlement(day, totals.cents.sum(), totals.rentals.sum(), byCustomer, byAnimalType);
+    }
+
+    /**
+     * Total de un cliente en un día, en tiempo constante.
+     *
+     * @param day        Día de finalización.
+     * @param customerId ID del cliente.
+     * @return Importe en céntimos.
+     */
+    public long customerTotal(LocalDate day, int customerId) {
+        DayTotals totals = days.get(day);
+        LongAdder cents = totals == null ? null : totals.byCustomer.get(customerId);
+        return cents == null ? 0 : cents.sum();
+    }
+
+    private long record(Rental rental) {
+        long cents = tariffEngine.charge(rental);
+        DayTotals totals = days.computeIfAbsent(rental.getEndTime().toLocalDate(), day -> new DayTotals());
+        totals.cents.add(cents);
+        totals.rentals.increment();
+        int customerId = rental.getCustomer() == null ? 0 : rental.getCustomer().getId();
+        totals.byCustomer.computeIfAbsent(customerId, id -> new LongAdder()).add(cents);
+        totals.byAnimalType[rental.getAnimal().getType().ordinal()].add(cents);
+        return cents;
+    }
+
+    /** Contadores de un día; todos admiten sumas concurrentes. */
+    private static final class DayTotals {
+        final LongAdder cents = new LongAdder();
+        final LongAdder rentals = new LongAdder();
+        final ConcurrentHashMap<Integer, LongAdder> byCustomer = new ConcurrentHashMap<>();
+        final LongAdder[] byAnimalType = new LongAdder[AnimalType.values().length];
+
+        DayTotals() {
+            for (int i = 0; i < byAnimalType.length; i++) {
+                byAnimalType[i] = new LongAdder();
+            }
+        }
+    }
+
+    /**
+     * Liquidación de un día.
+     *
+     * @param day          Día liquidado.
+     * @param totalCents   Importe total en céntimos.
+     * @param rentals      Alquileres finalizados ese día.
+     * @param byCustomer   Importe por ID de cliente, ordenado por ID.
+     * @param byAnimalType Importe por tipo de animal.
+     */
+    public record DailySettlement(LocalDate day, long totalCents, long rentals,
+                                  Map<Integer, Long> byCustomer, Map<AnimalType, Long> byAnimalType) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Calcula el importe de un alquiler finalizado según su {@link AnimalType} y su
+ * {@link RentalType}.
+ * <p>
+ * Cada combinación tiene una {@link Rate}: un precio base que cubre un tiempo
+ * incluido y un precio por cada unidad adicional (por ejemplo, cada 15 minutos).
+ * Las unidades adicionales se redondean con el {@link RoundingMode} de la tarifa:
+ * {@code UP} cobra cada unidad empezada y {@code HALF_UP} solo a partir de media
+ * unidad, lo que funciona como margen de cortesía.
+ * <p>
+ * Los importes son céntimos en un {@code long}: nunca se usan decimales binarios.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public class TariffEngine {
+
+    private static final int RENTAL_TYPES = RentalType.values().length;
+
+    /** Tarifas indexadas por {@code tipoAnimal * RENTAL_TYPES + tipoAlquiler}. */
+    private final Rate[] rates = new Rate[AnimalType.values().length * RENTAL_TYPES];
+
+    /**
+     * Crea el motor con las tarifas indicadas.
+     *
+     * @param rates Tarifa por tipo de animal y tipo de alquiler; las combinaciones
+     *              ausentes no se pueden cobrar.
+     */
+    public TariffEngine(Map<AnimalType, Map<RentalType, Rate>> rates) {
+        rates.forEach((animalType, byRentalType) -> byRentalType.forEach((rentalType, rate) ->
+                this.rates[index(animalType, rentalType)] = rate));
+    }
+
+    /**
+     * Tarifas estándar de la granja: el paseo corto incluye 30 minutos y cobra
+     * cada 15 minutos empezados; el alquiler por hora incluye una hora y cobra las
+     * horas adicionales a partir de la media hora.
+     *
+     * @return Motor con las tarifas estándar.
+     */
+    public static TariffEngine standard() {
+        return new TariffEngine(Map.of(
+                AnimalType.HORSE, Map.of(
+                        RentalType.SHORT_RIDE, Rate.shortRide(1_500, 500),
+                        RentalType.HOURLY, Rate.hourly(2_500)),
+                AnimalType.DONKEY, Map.of(
+                        RentalType.SHORT_RIDE, Rate.shortRide(1_000, 300),
+                        RentalType.HOURLY, Rate.hourly(1_800)),
+                AnimalType.PIG, Map.of(
+                        RentalType.SHORT_RIDE, Rate.shortRide(500, 200),
+                        RentalType.HOURLY, Rate.hourly(1_000))));
+    }
+
+    /**
+     * Calcula el importe de un alquiler finalizado.
+     *
+     * @param rental Alquiler con hora de inicio y de fin.
+     * @return Importe en céntimos.
+     * @throws IllegalArgumentException Si el alquiler no ha finalizado o su combinación no tiene tarifa.
+     */
+    public long charge(Rental rental) {
+        if (rental.getStartTime() == null || rental.getEndTime() == null) {
+            throw new IllegalArgumentException("El alquiler " + rental.getId() + " no ha finalizado");
+        }
+        AnimalType animalType = rental.getAnimal() == null ? null : rental.getAnimal().getType();
+        return charge(animalType, rental.getRentalType(),
+                Duration.between(rental.getStartTime(), rental.getEndTime()));
+    }
+
+    /**
+     * Calcula el importe de un alquiler de la duración indicada.
+     *
+     * @param animalType Tipo de animal.
+     * @param rentalType Tipo de alquiler.
+     * @param duration   Duración del alquiler (las negativas cuentan como cero).
+     * @return Importe en céntimos.
+     * @throws IllegalArgumentException Si la combinación no tiene tarifa.
+     */
+    public long charge(AnimalType animalType, RentalType rentalType, Duration duration) {
+        Rate rate = animalType == null || rentalType == null ? null : rates[index(animalType, rentalType)];
+        if (rate == null) {
+            throw new IllegalArgumentException("No hay tarifa para " + animalType + "/" + rentalType);
+        }
+        return rate.charge(duration);
+    }
+
+    private static int index(AnimalType animalType, RentalType rentalType) {
+        return animalType.ordinal() * RENTAL_TYPES + rentalType.ordinal();
+    }
+
+    /**
+     * Tarifa de una combinación de tipo de animal y tipo de alquiler.
+     *
+     * @param baseCents Precio base, que cubre el tiempo incluido.
+     * @param included  Tiempo cubierto por el precio base.
+     * @param unitCents Precio de cada unidad adicional.
+     * @param unit      Duración de una unidad adicional (al menos un segundo).
+     * @param rounding  Redondeo de las unidades adicionales.
+     */
+    public record Rate(long baseCents, Duration included, long unitCents, Duration unit, RoundingMode rounding) {
+
+        public Rate {
+            if (baseCents < 0 || unitCents < 0) {
+                throw new IllegalArgumentException("Los precios no pueden ser negativos");
+            }
+            if (unit.getSeconds() <= 0) {
+                throw new IllegalArgumentException("La unidad de cobro debe ser de al menos un segundo: " + unit);
+            }
+        }
+
+        /** Paseo corto: 30 minutos incluidos y unidades de 15 minutos, cobradas si se empiezan. */
+        static Rate shortRide(long baseCents, long quarterCents) {
+            return new Rate(baseCents, Duration.ofMinutes(30), quarterCents, Duration.ofMinutes(15), RoundingMode.UP);
+        }
+
+        /** Por hora: una hora incluida y horas adicionales cobradas a partir de la media hora. */
+        static Rate hourly(long hourCents) {
+            return new Rate(hourCents, Duration.ofHours(1), hourCents, Duration.ofHours(1), RoundingMode.HALF_UP);
+        }
+
+        /**
+         * @param duration Duración del alquiler.
+         * @return Importe en céntimos.
+         */
+        public long charge(Duration duration) {
+            Duration extra = duration.minus(included);
+            if (extra.isNegative() || extra.isZero()) {
+                return baseCents;
+            }
+            long units = BigDecimal.valueOf(extra.getSeconds())
+                    .divide(BigDecimal.valueOf(unit.getSeconds()), 0, rounding)
+                    .longValueExact();
+            return Math.addExact(baseCents, Math.multiplyExact(units, unitCents));
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Estadísticas de uso de los animales, mantenidas a medida que se inician y
+ * finalizan los alquileres.
+ * <p>
+ * Se registra como {@link RentalListener} en {@link RentalService} y actualiza
+ * contadores de tamaño fijo:
+ * <ul>
+ *   <li>por animal: paseos y tiempo alquilado;</li>
+ *   <li>por {@link AnimalType}: paseos, tiempo alquilado y alquileres activos;</li>
+ *   <li>por hora del día (24 casillas): tiempo alquilado dentro de esa hora;</li>
+ *   <li>por día: paseos iniciados, en un anillo de los últimos {@code windowDays} días.</li>
+ * </ul>
+ * Ningún informe recorre el historial: cuestan {@code O(casillas)} y la memoria
+ * no crece con el número de alquileres. Al crearse, carga una sola vez los
+ * alquileres existentes.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class UtilizationAnalytics implements RentalListener {
+
+    // Logger para trazar la carga inicial.
+    private static final Logger log = LoggerFactory.getLogger(UtilizationAnalytics.class);
+
+    private static final int HOURS = 24;
+    private static final long SECONDS_PER_HOUR = 3_600;
+
+    private final Clock clock;
+
+    /** ID de animal → uso acumulado. */
+    private final ConcurrentHashMap<Integer, Usage> byAnimal = new ConcurrentHashMap<>();
+
+    /** Uso por tipo de animal, indexado por ordinal. */
+    private final Usage[] byType = new Usage[AnimalType.values().length];
+    private final LongAdder[] activeByType = new LongAdder[AnimalType.values().length];
+
+    /** Segundos alquilados dentro de cada hora del día. */
+    private final LongAdder[] hourlyBusySeconds = new LongAdder[HOURS];
+
+    /** Paseos por día; la casilla {@code epochDay mod windowDays} guarda un único día. */
+    private final AtomicReferenceArray<DayBucket> days;
+
+    /** Primer inicio observado (segundos de época local), para el tiempo de observación. */
+    private final LongAccumulator firstStart = new LongAccumulator(Math::min, Long.MAX_VALUE);
+
+    /**
+     * Crea las estadísticas con una ventana de 90 días y el reloj del sistema.
+     *
+     * @param rentalService Servicio cuyos alquileres se analizan.
+     */
+    public UtilizationAnalytics(RentalService rentalService) {
+        this(rentalService, 90, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Crea las estadísticas, se registra en el servicio y carga los alquileres existentes.
+     *
+     * @param rentalService Servicio cuyos alquileres se analizan.
+     * @param windowDays    Días que se conservan en el recuento diario de paseos.
+     * @param clock         Reloj con el que se calcula el tiempo de observación.
+     */
+    public UtilizationAnalytics(RentalService rentalService, int windowDays, Clock clock) {
+        if (windowDays <= 0) {
+            throw new IllegalArgumentException("La ventana debe tener al menos un día: " + windowDays);
+        }
+        this.clock = clock;
+        this.days = new AtomicReferenceArray<>(windowDays);
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new Usage();
+            activeByType[i] = new LongAdder();
+        }
+        for (int i = 0; i < HOURS; i++) {
+            hourlyBusySeconds[i] = new LongAdder();
+        }
+
+        rentalService.addRentalListener(this);
+        long[] loaded = new long[1];
+        rentalService.streamRentals().forEach(rental -> {
+            rentalStarted(rental);
+            if (rental.getEndTime() != null) {
+                rentalFinished(rental);
+            }
+            loaded[0]++;
+        });
+        log.info("service=UtilizationAnalytics event=initialized loadedRentals={} windowDays={}",
+                loaded[0], windowDays);
+    }
+
+    /**
+     * Cuenta el paseo del animal, de su tipo y de su día de inicio.
+     *
+     * @param rental Alquiler iniciado.
+     */
+    @Override
+    public void rentalStarted(Rental rental) {
+        if (rental.getAnimal() == null || rental.getStartTime() == null) {
+            return;
+        }
+        Animal animal = rental.getAnimal();
+        byAnimal.computeIfAbsent(animal.getId(), id -> new Usage()).rides.increment();
+        if (animal.getType() != null) {
+            byType[animal.getType().ordinal()].rides.increment();
+            activeByType[animal.getType().ordinal()].increment();
+        }
+        firstStart.accumulate(epochSecond(rental.getStartTime()));
+        DayBucket day = dayBucket(rental.getStartTime().toLocalDate(), true);
+        if (day != null) {
+            day.rides.increment();
+        }
+    }
+
+    /**
+     * Suma el tiempo alquilado al animal, a su tipo y a las horas del día que ocupó.
+     *
+     * @param rental Alquiler finalizado.
+     */
+    @Override
+    public void rentalFinished(Rental rental) {
+        if (rental.getAnimal() == null || rental.getStartTime() == null || rental.getEndTime() == null) {
+            return;
+        }
+        Animal animal = rental.getAnimal();
+        long seconds = Math.max(0, Duration.between(rental.getStartTime(), rental.getEndTime()).getSeconds());
+        byAnimal.computeIfAbsent(animal.getId(), id -> new Usage()).busySeconds.add(seconds);
+        if (animal.getType() != null) {
+            byType[animal.getType().ordinal()].busySeconds.add(seconds);
+            activeByType[animal.getType().ordinal()].decrement();
+        }
+        addHourly(rental.getStartTime(), rental.getEndTime());
+    }
+
+    /**
+     * Uso de un animal.
+     *
+     * @param animalId ID del animal.
+     * @return Paseos, tiempo alquilado y fracción del tiempo observado que estuvo alquilado.
+     */
+    public AnimalUsage animalUsage(int animalId) {
+        Usage usage = byAnimal.get(animalId);
+        if (usage == null) {
+            return new AnimalUsage(animalId, 0, Duration.ZERO, 0.0);
+        }
+        return toAnimalUsage(animalId, usage, observedSeconds());
+    }
+
+    /**
+     * Animales más usados, en {@code O(animales)}.
+     *
+     * @param limit Número máximo de animales.
+     * @return Uso de los animales, de mayor a menor tiempo alquilado.
+     */
+    public List<AnimalUsage> mostUsedAnimals(int limit) {
+        long observed = observedSeconds();
+        List<AnimalUsage> result = new ArrayList<>(byAnimal.size());
+        byAnimal.forEach((animalId, usage) -> result.add(toAnimalUsage(animalId, usage, observed)));
+        result.sort(Comparator.comparing(AnimalUsage::busy).reversed()
+                .thenComparingInt(AnimalUsage::animalId));
+        return result.size() > limit ? List.copyOf(result.subList(0, limit)) : result;
+    }
+
+    /**
+     * @return Paseos, horas alquiladas (facturables) y alquileres activos por tipo de animal.
+     */
+    public Map<AnimalType, TypeUsage> usageByType() {
+        Map<AnimalType, TypeUsage> result = new EnumMap<>(AnimalType.class);
+        for (AnimalType type : AnimalType.values()) {
+            Usage usage = byType[type.ordinal()];
+            result.put(type, new TypeUsage(usage.rides.sum(),
+                    Duration.ofSeconds(usage.busySeconds.sum()), activeByType[type.ordinal()].sum()));
+        }
+        return result;
+    }
+
+    /**
+     * Paseos iniciados por día. Solo se conservan los últimos {@code windowDays}
+     * días; los anteriores no aparecen.
+     *
+     * @param from Primer día, incluido.
+     * @param to   Último día, incluido.
+     * @return Paseos por día, ordenados por fecha (los días sin paseos valen cero).
+     */
+    public Map<LocalDate, Long> ridesPerDay(LocalDate from, LocalDate to) {
+        Map<LocalDate, Long> result = new TreeMap<>();
+        LocalDate oldest = LocalDate.now(clock).minusDays(days.length() - 1L);
+        for (LocalDate day = from.isBefore(oldest) ? oldest : from; !day.isAfter(to); day = day.plusDays(1)) {
+            DayBucket bucket = dayBucket(day, false);
+            result.put(day, bucket == null ? 0L : bucket.rides.sum());
+        }
+        return result;
+    }
+
+    /**
+     * @return Minutos alquilados dentro de cada hora del día (índice 0–23).
+     */
+    public long[] hourlyLoadMinutes() {
+        long[] minutes = new long[HOURS];
+        for (int hour = 0; hour < HOURS; hour++) {
+            minutes[hour] = hourlyBusySeconds[hour].sum() / 60;
+        }
+        return minutes;
+    }
+
+    /**
+     * @return Hora del día con más tiempo alquilado, o {@code -1} si aún no hay datos.
+     */
+    public int peakHour() {
+        int peak = -1;
+        long max = 0;
+        for (int hour = 0; hour < HOURS; hour++) {
+            long seconds = hourlyBusySeconds[hour].sum();
+            if (seconds > max) {
+                max = seconds;
+                peak = hour;
+            }
+        }
+        return peak;
+    }
+
+    private AnimalUsage toAnimalUsage(int animalId, Usage usage, long observedSeconds) {
+        long busy = usage.busySeconds.sum();
+        double utilization = observedSeconds <= 0 ? 0.0 : Math.min(1.0, (double) busy / observedSeconds);
+        return new AnimalUsage(animalId, usage.rides.sum(), Duration.ofSeconds(busy), utilization);
+    }
+
+    /** Segundos entre el primer inicio observado y ahora. */
+    private long observedSeconds() {
+        long first = firstStart.get();
+        return first == Long.MAX_VALUE ? 0 : epochSecond(LocalDateTime.now(clock)) - first;
+    }
+
+    /** Reparte el intervalo entre las casillas de las horas del día que ocupa. */
+    private void addHourly(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            return;
+        }
+        // Los días completos suman una hora a cada casilla sin recorrerlos
+        long fullDays = ChronoUnit.DAYS.between(start, end);
+        if (fullDays > 0) {
+            for (LongAdder hour : hourlyBusySeconds) {
+                hour.add(fullDays * SECONDS_PER_HOUR);
+            }
+            start = start.plusDays(fullDays);
+        }
+        while (start.isBefore(end)) {
+            LocalDateTime nextHour = start.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+            LocalDateTime sliceEnd = nextHour.isBefore(end) ? nextHour : end;
+            hourlyBusySeconds[start.getHour()].add(Duration.between(start, sliceEnd).getSeconds());
+            start = sliceEnd;
+        }
+    }
+
+    /**
+     * Casilla del día en el anillo. Si la casilla guarda un día más antiguo y
+     * {@code create} es {@code true}, se reemplaza por una vacía.
+     *
+     * @return La casilla, o {@code null} si el día ya salió de la ventana o no tiene datos.
+     */
+    private DayBucket dayBucket(LocalDate date, boolean create) {
+        long epochDay = date.toEpochDay();
+        int slot = (int) Math.floorMod(epochDay, (long) days.length());
+        while (true) {
+            DayBucket current = days.get(slot);
+            if (current != null && current.epochDay == epochDay) {
+                return current;
+            }
+            if (!create || (current != null && current.epochDay > epochDay)) {
+                return null;
+            }
+            DayBucket fresh = new DayBucket(epochDay);
+            if (days.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * HOURS * SECONDS_PER_HOUR + time.toLocalTime().toSecondOfDay();
+    }
+
+    /** Contadores de paseos y tiempo alquilado. */
+    private static final class Usage {
+        final LongAdder rides = new LongAdder();
+        final LongAdder busySeconds = new LongAdder();
+    }
+
+    /** Paseos de un día concreto. */
+    private static final class DayBucket {
+        final long epochDay;
+        final LongAdder rides = new LongAdder();
+
+        DayBucket(long epochDay) {
+            this.epochDay = epochDay;
+        }
+    }
+
+    /**
+     * Uso de un animal.
+     *
+     * @param animalId    ID del animal.
+     * @param rides       Paseos iniciados.
+     * @param busy        Tiempo alquilado en alquileres finalizados.
+     * @param utilization Fracción (0–1) del tiempo observado que estuvo alquilado.
+     */
+    public record AnimalUsage(int animalId, long rides, Duration busy, double utilization) {
+    }
+
+    /**
+     * Uso de un tipo de animal.
+     *
+     * @param rides  Paseos iniciados.
+     * @param busy   Tiempo alquilado (horas facturables) en alquileres finalizados.
+     * @param active Alquileres en curso.
+     */
+    public record TypeUsage(long rides, Duration busy, long active) {
+    }
+}
@@ -0,0 +1,220 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * Colas FIFO de clientes que esperan un animal de cada {@link AnimalType}.
+ * <p>
+ * Cada tipo tiene su cola y su cerrojo. Todas las operaciones sobre una cola
+ * exigen tener su cerrojo; {@link RentalService} lo toma siempre <b>antes</b> que
+ * los cerrojos por animal, de modo que un cierre de alquiler puede entregar el
+ * animal al primero de la cola sin que nadie más lo vea libre entre medias.
+ * <p>
+ * El largo de cada cola se publica además en un contador que se lee sin
+ * cerrojo ({@link #mayHaveWaiters}), para que iniciar un alquiler con la cola
+ * vacía, que es lo habitual, no tenga que tomar el cerrojo del tipo.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+final class Waitlist {
+
+    private final Map<AnimalType, ReentrantLock> locks = new EnumMap<>(AnimalType.class);
+    private final Map<AnimalType, ArrayDeque<Waiter>> queues = new EnumMap<>(AnimalType.class);
+
+    /** Elementos de cada cola, incluidos los que ya abandonaron y aún no se descartaron. */
+    private final Map<AnimalType, AtomicInteger> lengths = new EnumMap<>(AnimalType.class);
+
+    /** Cerrojo para animales sin tipo, que no tienen cola. */
+    private final ReentrantLock untypedLock = new ReentrantLock();
+
+    Waitlist() {
+        for (AnimalType type : AnimalType.values()) {
+            locks.put(type, new ReentrantLock());
+            queues.put(type, new ArrayDeque<>());
+            lengths.put(type, new AtomicInteger());
+        }
+    }
+
+    /** @return Cerrojo de la cola del tipo. */
+    ReentrantLock lockFor(AnimalType type) {
+        return type == null ? untypedLock : locks.get(type);
+    }
+
+    /** Toma los cerrojos de todas las colas, en orden de tipo (para lotes). */
+    void lockAll() {
+        for (AnimalType type : AnimalType.values()) {
+            locks.get(type).lock();
+        }
+    }
+
+    /** Libera los cerrojos tomados con {@link #lockAll()}. */
+    void unlockAll() {
+        AnimalType[] types = AnimalType.values();
+        for (int i = types.length - 1; i >= 0; i--) {
+            locks.get(types[i]).unlock();
+        }
+    }
+
+    /** Agrega un cliente al final de la cola. Requiere el cerrojo del tipo. */
+    void add(AnimalType type, Waiter waiter) {
+        queues.get(type).addLast(waiter);
+        lengths.get(type).incrementAndGet();
+    }
+
+    /**
+     * Lectura sin cerrojo: si devuelve {@code false}, la cola estaba vacía en ese
+     * instante; si devuelve {@code true}, hay que confirmarlo con {@link #size}.
+     */
+    boolean mayHaveWaiters(AnimalType type) {
+        return type != null && lengths.get(type).get() > 0;
+    }
+
+    /** Como {@link #mayHaveWaiters(AnimalType)}, para cualquier tipo. */
+    boolean mayHaveWaiters() {
+        for (AtomicInteger length : lengths.values()) {
+            if (length.get() > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Saca al primero de la cola que siga esperando y lo reclama
+     * ({@link Ticket#claim()}); descarta los que ya abandonaron. Requiere el
+     * cerrojo del tipo. Desde ese momento el cliente no puede cancelar su espera y
+     * su alquiler se le entrega siempre.
+     *
+     * @return El cliente a atender, o {@code null} si no hay nadie esperando.
+     */
+    Waiter poll(AnimalType type) {
+        return poll(type, waiter -> true);
+    }
+
+    /**
+     * Como {@link #poll(AnimalType)}, pero solo si el primero de la cola puede
+     * recibir el animal: si {@code accepts} lo rechaza, sigue el primero y se
+     * devuelve {@code null} (nadie se salta la cola).
+     *
+     * @param type    Tipo de animal.
+     * @param accepts Si el cliente puede recibir el animal que se libera.
+     * @return El cliente a atender, ya reclamado, o {@code null}.
+     */
+    Waiter poll(AnimalType type, Predicate<Waiter> accepts) {
+        if (type == null) {
+            return null;
+        }
+        ArrayDeque<Waiter> queue = queues.get(type);
+        Waiter waiter;
+        while ((waiter = queue.peekFirst()) != null) {
+            if (!waiter.future().isDone() && !accepts.test(waiter)) {
+                return null;
+            }
+            queue.pollFirst();
+            lengths.get(type).decrementAndGet();
+            if (waiter.future().claim()) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    /** Quita de la cola las esperas del cliente. Requiere el cerrojo del tipo. */
+    int remove(AnimalType type, int customerId) {
+        int removed = 0;
+        for (Iterator<Waiter> it = queues.get(type).iterator(); it.hasNext(); ) {
+            Waiter waiter = it.next();
+            if (waiter.customer().getId() == customerId) {
+                it.remove();
+                lengths.get(type).decrementAndGet();
+                waiter.future().cancel(false);
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return Clientes que siguen esperando. Requiere el cerrojo del tipo; de paso
+     *         descarta los que ya abandonaron.
+     */
+    int size(AnimalType type) {
+        ArrayDeque<Waiter> queue = queues.get(type);
+        queue.removeIf(waiter -> waiter.future().isDone());
+        lengths.get(type).set(queue.size());
+        return queue.size();
+    }
+
+    /**
+     * Cliente en espera.
+     *
+     * @param customer      Cliente.
+     * @param rentalType    Tipo de alquiler que iniciará al recibir el animal.
+     * @param future        Se completa con el alquiler cuando se le asigna un animal.
+     * @param enqueuedNanos Momento de entrada en la cola ({@link System#nanoTime()}).
+     */
+    record Waiter(Customer customer, RentalType rentalType, Ticket future, long enqueuedNanos) {
+    }
+
+    /**
+     * Futuro que recibe el cliente en espera.
+     * <p>
+     * Mientras espera, el cliente puede cancelarlo (o dejar que venza con
+     * {@code orTimeout}). Al sacarlo de la cola se reclama bajo el cerrojo del tipo
+     * y, a partir de ahí, cancelarlo o completarlo desde fuera ya no tiene efecto:
+     * así nunca se guarda un alquiler para alguien que abandonó después del
+     * {@link #poll}.
+     */
+    static final class Ticket extends CompletableFuture<Rental> {
+
+        private static final int WAITING = 0;
+        private static final int CLAIMED = 1;
+        private static final int ABANDONED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        /** @return {@code true} si el cliente seguía esperando y queda reservado para la entrega. */
+        boolean claim() {
+            return state.compareAndSet(WAITING, CLAIMED);
+        }
+
+        /** Entrega el alquiler a un cliente reclamado. */
+        void deliver(Rental rental) {
+            super.complete(rental);
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return state.compareAndSet(WAITING, ABANDONED) && super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            return state.compareAndSet(WAITING, ABANDONED) && super.completeExceptionally(ex);
+        }
+
+        @Override
+        public boolean complete(Rental value) {
+            return state.compareAndSet(WAITING, ABANDONED) && super.complete(value);
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            // Las etapas derivadas son futuros normales
+            return new CompletableFuture<>();
+        }
+    }
+}
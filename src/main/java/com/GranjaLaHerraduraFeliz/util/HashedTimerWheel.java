@@ -0,0 +1,279 @@
+package com.GranjaLaHerraduraFeliz.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Planificador de plazos sobre una rueda de temporización ("hashed timer wheel").
+ * <p>
+ * La rueda tiene {@code N} casillas y avanza una casilla por tick. Un plazo se
+ * guarda en la casilla {@code (tick de vencimiento) mod N}, con el número de
+ * vueltas que faltan; programar y cancelar cuestan {@code O(1)} sin importar
+ * cuántos plazos haya pendientes, y un único hilo atiende a todos. La precisión
+ * es de un tick: un plazo vence como mucho un tick después de lo pedido.
+ * <p>
+ * Los hilos que programan o cancelan solo escriben en colas sin cerrojos; las
+ * casillas las modifica únicamente el hilo de la rueda. Las tareas vencidas se
+ * ejecutan en ese hilo, así que deben ser breves (o derivar el trabajo a otro
+ * ejecutor).
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class HashedTimerWheel implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimerWheel.class);
+
+    /** Plazos que se pasan a las casillas por tick, para no retrasar el vencimiento. */
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    /** Tick actual; solo lo usa el hilo de la rueda. */
+    private long tick;
+
+    /**
+     * Crea la rueda y arranca su hilo (demonio).
+     *
+     * @param tickDuration Duración de un tick (precisión de los plazos).
+     * @param buckets      Número mínimo de casillas (se redondea a potencia de dos).
+     * @param threadName   Nombre del hilo de la rueda.
+     */
+    public HashedTimerWheel(Duration tickDuration, int buckets, String threadName) {
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("El tick debe ser positivo: " + tickDuration);
+        }
+        if (buckets <= 0 || buckets > 1 << 20) {
+            throw new IllegalArgumentException("Número de casillas fuera de rango: " + buckets);
+        }
+        int size = Integer.highestOneBit(buckets);
+        if (size < buckets) {
+            size <<= 1;
+        }
+        this.tickNanos = tickDuration.toNanos();
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Programa una tarea para dentro de {@code delay}.
+     *
+     * @param task  Tarea a ejecutar en el hilo de la rueda.
+     * @param delay Espera; si es cero o negativa, vence en el siguiente tick.
+     * @return Manejador con el que cancelar el plazo.
+     * @throws IllegalStateException Si la rueda ya se cerró.
+     */
+    public Timeout schedule(Runnable task, Duration delay) {
+        if (!running) {
+            throw new IllegalStateException("La rueda de temporización está cerrada");
+        }
+        long delayNanos = Math.max(0, delay.toNanos());
+        long deadline = System.nanoTime() - startNanos + delayNanos;
+        Timeout timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /** @return Plazos programados que todavía no vencieron ni se cancelaron. */
+    public long pending() {
+        return pending.get();
+    }
+
+    /**
+     * Detiene el hilo de la rueda. Los plazos pendientes ya no vencerán.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = tickNanos * (tick + 1);
+            long sleep;
+            while (running && (sleep = tickDeadline - (System.nanoTime() - startNanos)) > 0) {
+                LockSupport.parkNanos(this, sleep);
+            }
+            if (!running) {
+                return;
+            }
+            removeCancelled();
+            transferScheduled();
+            wheel[(int) (tick & mask)].expire(tickDeadline);
+            tick++;
+        }
+    }
+
+    private void removeCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = scheduled.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.WAITING) {
+                continue;
+            }
+            long dueTick = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (dueTick - tick) / wheel.length;
+            // Un plazo ya vencido va a la casilla actual para no esperar una vuelta completa
+            long target = Math.max(dueTick, tick);
+            wheel[(int) (target & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Plazo programado en la rueda.
+     */
+    public static final class Timeout {
+
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final HashedTimerWheel owner;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        // Campos de la lista de la casilla; solo los usa el hilo de la rueda
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout previous;
+        private Timeout next;
+
+        private Timeout(HashedTimerWheel owner, Runnable task, long deadline) {
+            this.owner = owner;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancela el plazo si todavía no venció.
+         *
+         * @return {@code true} si se canceló; {@code false} si ya había vencido o estaba cancelado.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(WAITING, CANCELLED)) {
+                return false;
+            }
+            owner.pending.decrementAndGet();
+            owner.cancelled.add(this);
+            return true;
+        }
+
+        /** @return {@code true} si se canceló. */
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /** @return {@code true} si venció y su tarea se ejecutó (o se está ejecutando). */
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(WAITING, EXPIRED)) {
+                return;
+            }
+            owner.pending.decrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("Una tarea de la rueda de temporización falló", e);
+            }
+        }
+    }
+
+    /** Lista doblemente enlazada de plazos de una casilla. */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.previous = tail;
+                tail = timeout;
+            }
+        }
+
+        /** Vence los plazos de esta vuelta y descuenta una vuelta a los demás. */
+        void expire(long tickDeadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= tickDeadline) {
+                    remove(timeout);
+                    timeout.expire();
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            } else {
+                tail = timeout.previous;
+            }
+            timeout.previous = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.GranjaLaHerraduraFeliz.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Árbol de intervalos semiabiertos {@code [start, end)} sobre un árbol AVL.
+ * <p>
+ * Los nodos se ordenan por inicio (y por un ID que desempata inicios iguales) y
+ * cada uno guarda el mayor {@code end} de su subárbol. Con eso, saber si un
+ * intervalo nuevo choca con alguno existente cuesta {@code O(log n)}, y listar los
+ * {@code k} que se solapan cuesta {@code O(log n + k)}: se descartan enteros los
+ * subárboles cuyo máximo termina antes del intervalo buscado o que empiezan
+ * después de su final.
+ * <p>
+ * No es seguro para hilos; quien lo comparta debe protegerlo con un cerrojo.
+ *
+ * @param <T> Tipo del valor asociado a cada intervalo.
+ * @author Marcos
+ * @since 1.1
+ */
+public final class IntervalTree<T> {
+
+    private Node<T> root;
+    private int size;
+
+    /**
+     * Agrega un intervalo.
+     *
+     * @param start Inicio (inclusive).
+     * @param end   Fin (exclusivo), mayor que {@code start}.
+     * @param id    Identificador del intervalo; junto con {@code start} debe ser único.
+     * @param value Valor asociado.
+     * @throws IllegalArgumentException Si el intervalo está vacío o la clave ya existe.
+     */
+    public void insert(long start, long end, int id, T value) {
+        if (end <= start) {
+            throw new IllegalArgumentException("Intervalo vacío: [" + start + ", " + end + ")");
+        }
+        root = insert(root, new Node<>(start, end, id, value));
+        size++;
+    }
+
+    /**
+     * Quita el intervalo con la clave indicada.
+     *
+     * @param start Inicio con el que se insertó.
+     * @param id    Identificador con el que se insertó.
+     * @return {@code true} si existía.
+     */
+    public boolean remove(long start, int id) {
+        int before = size;
+        root = remove(root, start, id);
+        return size < before;
+    }
+
+    /**
+     * Indica si algún intervalo se solapa con {@code [start, end)}.
+     *
+     * @param start Inicio (inclusive).
+     * @param end   Fin (exclusivo).
+     * @return {@code true} si hay al menos un solapamiento.
+     */
+    public boolean overlaps(long start, long end) {
+        Node<T> node = root;
+        while (node != null) {
+            if (node.start < end && start < node.end) {
+                return true;
+            }
+            // Si el subárbol izquierdo llega más allá de start, el candidato está ahí:
+            // todo lo de la derecha empieza después que el nodo actual, que ya no solapa
+            if (node.left != null && node.left.maxEnd > start) {
+                node = node.left;
+            } else if (node.start < end) {
+                node = node.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Devuelve los valores cuyos intervalos se solapan con {@code [start, end)}.
+     *
+     * @param start Inicio (inclusive).
+     * @param end   Fin (exclusivo).
+     * @return Valores ordenados por inicio del intervalo.
+     */
+    public List<T> findOverlapping(long start, long end) {
+        List<T> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    /** @return Número de intervalos. */
+    public int size() {
+        return size;
+    }
+
+    /** @return {@code true} si no hay intervalos. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static <T> void collect(Node<T> node, long start, long end, List<T> result) {
+        if (node == null || node.maxEnd <= start) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (node.start >= end) {
+            // Este nodo y todo su subárbol derecho empiezan después del intervalo
+            return;
+        }
+        if (start < node.end) {
+            result.add(node.value);
+        }
+        collect(node.right, start, end, result);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> added) {
+        if (node == null) {
+            return added;
+        }
+        int cmp = compare(added.start, added.id, node);
+        if (cmp == 0) {
+            throw new IllegalArgumentException("Intervalo duplicado: inicio=" + added.start + " id=" + added.id);
+        }
+        if (cmp < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> remove(Node<T> node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, start, id);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, start, id);
+        } else {
+            size--;
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            // Reemplazar por el sucesor, que se desengancha del subárbol derecho
+            Node<T> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            return rebalance(successor);
+        }
+        return rebalance(node);
+    }
+
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private static int compare(long start, int id, Node<?> node) {
+        int byStart = Long.compare(start, node.start);
+        return byStart != 0 ? byStart : Integer.compare(id, node.id);
+    }
+
+    private static <T> Node<T> rebalance(Node<T> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static <T> Node<T> rotateRight(Node<T> node) {
+        Node<T> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static <T> Node<T> rotateLeft(Node<T> node) {
+        Node<T> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /** Recalcula altura y fin máximo a partir de los hijos. */
+    private static void update(Node<?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        long maxEnd = node.end;
+        if (node.left != null) {
+            maxEnd = Math.max(maxEnd, node.left.maxEnd);
+        }
+        if (node.right != null) {
+            maxEnd = Math.max(maxEnd, node.right.maxEnd);
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node<T> {
+        final long start;
+        final long end;
+        final int id;
+        final T value;
+        long maxEnd;
+        int height = 1;
+        Node<T> left;
+        Node<T> right;
+
+        Node(long start, long end, int id, T value) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.GranjaLaHerraduraFeliz.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conjunto fijo de cerrojos repartidos por clave entera ("lock striping").
+ * <p>
+ * En lugar de un único cerrojo global, cada clave (por ejemplo, el ID de un
+ * animal) se asigna a una de {@code N} franjas. Dos operaciones sobre claves
+ * distintas casi nunca comparten franja, por lo que pueden ejecutarse en
+ * paralelo; dos operaciones sobre la misma clave siempre se serializan.
+ * <p>
+ * Los cerrojos son reentrantes: un hilo que ya posee la franja puede volver
+ * a adquirirla sin bloquearse.
+ *
+ * @author Marcos
+ * @since 1.1
+ */
+public final class StripedLocks {
+
+    /** Número de franjas por defecto, suficiente para varias decenas de hilos. */
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /** Crea un conjunto con {@link #DEFAULT_STRIPES} franjas. */
+    public StripedLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Crea un conjunto con al menos {@code stripes} franjas (se redondea a potencia de dos).
+     *
+     * @param stripes Número mínimo de franjas.
+     */
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("El número de franjas debe ser positivo: " + stripes);
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Devuelve la franja a la que pertenece la clave.
+     *
+     * @param key Clave entera (por ejemplo, un ID).
+     * @return Índice de franja entre {@code 0} y {@code stripes() - 1}.
+     */
+    public int stripeOf(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Devuelve el cerrojo asociado a la clave.
+     *
+     * @param key Clave entera.
+     * @return Cerrojo de la franja correspondiente.
+     */
+    public ReentrantLock lockFor(int key) {
+        return locks[stripeOf(key)];
+    }
+
+    /**
+     * Devuelve el cerrojo de una franja concreta. Útil para adquirir varias
+     * franjas siempre en orden ascendente y así evitar interbloqueos.
+     *
+     * @param stripe Índice de franja.
+     * @return Cerrojo de esa franja.
+     */
+    public ReentrantLock lockAt(int stripe) {
+        return locks[stripe];
+    }
+
+    /**
+     * Adquiere los cerrojos de todas las claves, cada franja una sola vez y en
+     * orden ascendente: dos lotes que se solapan nunca pueden interbloquearse
+     * entre sí ni con operaciones de una sola clave.
+     *
+     * @param keys Claves a bloquear (pueden repetirse).
+     * @return Franjas adquiridas, para pasarlas a {@link #unlockAll(int[])}.
+     */
+    public int[] lockAll(int[] keys) {
+        boolean[] needed = new boolean[locks.length];
+        int count = 0;
+        for (int key : keys) {
+            int stripe = stripeOf(key);
+            if (!needed[stripe]) {
+                needed[stripe] = true;
+                count++;
+            }
+        }
+        int[] stripes = new int[count];
+        int next = 0;
+        for (int stripe = 0; stripe < needed.length; stripe++) {
+            if (needed[stripe]) {
+                stripes[next++] = stripe;
+            }
+        }
+        for (int i = 0; i < stripes.length; i++) {
+            try {
+                locks[stripes[i]].lock();
+            } catch (RuntimeException | Error e) {
+                for (int j = i - 1; j >= 0; j--) {
+                    locks[stripes[j]].unlock();
+                }
+                throw e;
+            }
+        }
+        return stripes;
+    }
+
+    /**
+     * Libera las franjas adquiridas con {@link #lockAll(int[])}.
+     *
+     * @param stripes Franjas devueltas por {@code lockAll}.
+     */
+    public void unlockAll(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    /** @return Número de franjas. */
+    public int stripes() {
+        return locks.length;
+    }
+}
@@ -0,0 +1,84 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.IndexedAnimalRepository;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Micro-benchmark que compara la curva de escalado de {@link InMemoryAnimalRepository}
+ * (lista) frente a {@link IndexedAnimalRepository} (índices por ID y por estado).
+ * <p>
+ * Para cada tamaño de flota se mide el costo medio de:
+ * <ul>
+ *     <li>{@code findById} con IDs aleatorios.</li>
+ *     <li>{@code findByStatus(AVAILABLE)} cuando solo 50 animales están disponibles
+ *     y el resto está alquilado (situación típica de un fin de semana con mucha demanda).</li>
+ * </ul>
+ *
+ * No forma parte de la suite de pruebas (Surefire solo ejecuta clases {@code *Test});
+ * se ejecuta manualmente desde el IDE o con {@code java} usando el classpath de pruebas
+ * tras {@code mvn test-compile}.
+ */
+public class AnimalRepositoryBenchmark {
+
+    private static final int[] FLEET_SIZES = {50, 500, 5_000, 50_000, 500_000};
+    private static final int AVAILABLE_ANIMALS = 50;
+
+    public static void main(String[] args) {
+        System.out.printf("%-10s %-10s %18s %24s%n", "repo", "animals", "findById (ns/op)", "findByStatus (ns/op)");
+        for (int size : FLEET_SIZES) {
+            run("list", size, InMemoryAnimalRepository::new);
+            run("indexed", size, IndexedAnimalRepository::new);
+        }
+    }
+
+    private static void run(String label, int size, Supplier<AnimalRepository> factory) {
+        AnimalRepository repository = factory.get();
+        for (int i = 0; i < size; i++) {
+            AnimalStatus status = i < AVAILABLE_ANIMALS ? AnimalStatus.AVAILABLE : AnimalStatus.RENTED;
+            repository.save(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], status));
+        }
+
+        // Menos iteraciones para las flotas grandes en la versión lineal, para que termine en tiempo razonable
+        int lookups = Math.max(1_000, 20_000_000 / size);
+        int statusQueries = Math.max(200, 2_000_000 / size);
+
+        // Calentamiento del JIT
+        measureFindById(repository, size, lookups);
+        measureFindByStatus(repository, statusQueries);
+
+        double byId = measureFindById(repository, size, lookups);
+        double byStatus = measureFindByStatus(repository, statusQueries);
+        System.out.printf("%-10s %-10d %18.1f %24.1f%n", label, size, byId, byStatus);
+    }
+
+    private static double measureFindById(AnimalRepository repository, int size, int iterations) {
+        Random random = new Random(42);
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            Animal animal = repository.findById(1 + random.nextInt(size));
+            checksum += animal.getId();
+        }
+        long elapsed = System.nanoTime() - start;
+        BenchmarkSupport.blackhole(checksum);
+        return (double) elapsed / iterations;
+    }
+
+    private static double measureFindByStatus(AnimalRepository repository, int iterations) {
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            checksum += repository.findByStatus(AnimalStatus.AVAILABLE).size();
+        }
+        long elapsed = System.nanoTime() - start;
+        BenchmarkSupport.blackhole(checksum);
+        return (double) elapsed / iterations;
+    }
+}
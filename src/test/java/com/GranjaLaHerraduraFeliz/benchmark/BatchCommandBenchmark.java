@@ -0,0 +1,74 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.controller.BatchCommandRunner;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.service.AnimalService;
+import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.Random;
+
+/**
+ * Mide cuántos comandos por segundo ejecuta {@link BatchCommandRunner} con un
+ * guion como el registro de un día: alta de la flota y de los clientes y luego
+ * tandas de alquileres y finalizaciones.
+ * <p>
+ * El guion se genera en memoria y la salida se descarta, para medir solo el
+ * análisis y los servicios. Se ejecuta manualmente tras {@code mvn test-compile},
+ * igual que los demás benchmarks; el número de alquileres puede indicarse como
+ * primer argumento (por defecto 200.000).
+ */
+public class BatchCommandBenchmark {
+
+    private static final int ANIMALS = 1_000;
+    private static final int CUSTOMERS = 20_000;
+    private static final int ROUND = 200;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        int rentals = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        StringBuilder script = new StringBuilder();
+        String[] types = {"HORSE", "DONKEY", "PIG"};
+        for (int i = 0; i < ANIMALS; i++) {
+            script.append("animal ").append(types[i % 3]).append(" Animal ").append(i).append('\n');
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            script.append("cliente ").append(BenchmarkSupport.spanishName(random)).append('\n');
+        }
+        // Cada ronda alquila animales distintos y luego los finaliza
+        int rentalId = 0;
+        for (int done = 0; done < rentals; done += ROUND) {
+            int firstAnimal = 1 + (done / ROUND * ROUND) % ANIMALS;
+            for (int i = 0; i < ROUND; i++) {
+                script.append("alquilar ").append(firstAnimal + i).append(' ')
+                        .append(1 + random.nextInt(CUSTOMERS)).append(i % 2 == 0 ? " HOURLY\n" : " SHORT_RIDE\n");
+            }
+            for (int i = 0; i < ROUND; i++) {
+                script.append("finalizar ").append(++rentalId).append('\n');
+            }
+        }
+
+        for (int run = 0; run < 3; run++) {
+            var animalRepository = new InMemoryAnimalRepository();
+            var customerRepository = new InMemoryCustomerRepository();
+            var runner = new BatchCommandRunner(new AnimalService(animalRepository),
+                    new CustomerService(customerRepository),
+                    new RentalService(animalRepository, customerRepository, new InMemoryRentalRepository()));
+            BatchCommandRunner.Summary summary = runner.run(
+                    new BufferedReader(new StringReader(script.toString())),
+                    new PrintWriter(new BufferedWriter(Writer.nullWriter())));
+            System.out.printf("run=%d commands=%d failed=%d elapsed=%.0f ms throughput=%.0f commands/s%n",
+                    run, summary.commands(), summary.failed(), summary.elapsedNanos() / 1e6,
+                    summary.commandsPerSecond());
+        }
+    }
+}
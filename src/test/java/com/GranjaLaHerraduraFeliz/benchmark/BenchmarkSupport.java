@@ -0,0 +1,68 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Random;
+
+/**
+ * Utilidades compartidas por los benchmarks manuales.
+ */
+final class BenchmarkSupport {
+
+    private static final String[] FIRST_NAMES = {"Ana", "María", "José", "Luis", "Carmen", "Javier", "Lucía",
+            "Manuel", "Pilar", "Antonio", "Marta", "Francisco", "Elena", "David", "Isabel", "Jesús", "Raquel",
+            "Álvaro", "Nuria", "Sergio"};
+    private static final String[] SURNAMES = {"García", "Rodríguez", "González", "Fernández", "López",
+            "Martínez", "Sánchez", "Pérez", "Gómez", "Martín", "Jiménez", "Ruiz", "Hernández", "Díaz", "Moreno",
+            "Muñoz", "Álvarez", "Romero", "Alonso", "Gutiérrez", "Navarro", "Torres", "Domínguez", "Vázquez",
+            "Ramos", "Gil", "Ramírez", "Serrano", "Blanco", "Molina", "Garcimartín", "Garrido", "Gallego"};
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Desactiva el logging: los servicios registran varias líneas INFO por
+     * operación y, sin esto, se estaría midiendo la consola y no el código.
+     */
+    static void silenceLogging() {
+        Logger root = (Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.OFF);
+    }
+
+    /**
+     * Heap ocupado tras forzar varias recolecciones; sirve para comparar
+     * el tamaño retenido por dos estructuras, no como medida exacta.
+     */
+    static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /** Evita que el JIT elimine cálculos cuyo resultado no se usa. */
+    static void blackhole(long value) {
+        if (value == Long.MIN_VALUE) {
+            System.out.println(value);
+        }
+    }
+
+    /**
+     * Nombre completo al estilo español (nombre y dos apellidos habituales); con
+     * muchos clientes se repiten, como en la realidad.
+     */
+    static String spanishName(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + SURNAMES[random.nextInt(SURNAMES.length)] + " " + SURNAMES[random.nextInt(SURNAMES.length)];
+    }
+}
@@ -0,0 +1,133 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CopyOnWriteAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Mide el rendimiento mixto lectura/escritura de los repositorios de animales:
+ * hilos lectores que listan los animales disponibles y los recorren (como un
+ * informe) mientras hilos escritores cambian estados con {@code save}.
+ * <p>
+ * Variantes:
+ * <ul>
+ *     <li>{@code inMemory}: {@link InMemoryAnimalRepository} protegido con un cerrojo
+ *     de lectura/escritura (no es seguro para hilos por sí mismo).</li>
+ *     <li>{@code concurrent}: {@link ConcurrentAnimalRepository}.</li>
+ *     <li>{@code copyOnWrite}: {@link CopyOnWriteAnimalRepository}.</li>
+ * </ul>
+ * Se ejecuta manualmente tras {@code mvn test-compile}, igual que los demás benchmarks.
+ */
+public class CopyOnWriteRepositoryBenchmark {
+
+    private static final int ANIMALS = 10_000;
+    private static final int READERS = 4;
+    private static final int[] WRITERS = {1, 4};
+    private static final long DURATION_MS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        System.out.printf("%-12s %-8s %14s %14s%n", "repository", "writers", "reads/s", "writes/s");
+        for (int writers : WRITERS) {
+            run("inMemory", new InMemoryAnimalRepository(), new ReentrantReadWriteLock(), writers);
+            run("concurrent", new ConcurrentAnimalRepository(), null, writers);
+            run("copyOnWrite", new CopyOnWriteAnimalRepository(), null, writers);
+        }
+    }
+
+    private static void run(String label, AnimalRepository repository, ReadWriteLock guard, int writers)
+            throws Exception {
+        for (int i = 0; i < ANIMALS; i++) {
+            repository.save(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], AnimalStatus.AVAILABLE));
+        }
+
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        long deadline = System.nanoTime() + (DURATION_MS + 100) * 1_000_000;
+
+        for (int r = 0; r < READERS; r++) {
+            threads.add(new Thread(() -> {
+                await(startGate);
+                long horses = 0;
+                while (System.nanoTime() < deadline) {
+                    List<Animal> available;
+                    if (guard != null) {
+                        guard.readLock().lock();
+                        try {
+                            available = repository.findByStatus(AnimalStatus.AVAILABLE);
+                        } finally {
+                            guard.readLock().unlock();
+                        }
+                    } else {
+                        available = repository.findByStatus(AnimalStatus.AVAILABLE);
+                    }
+                    for (Animal animal : available) {
+                        if (animal.getType() == AnimalType.HORSE) {
+                            horses++;
+                        }
+                    }
+                    reads.increment();
+                }
+                BenchmarkSupport.blackhole(horses);
+            }));
+        }
+        for (int w = 0; w < writers; w++) {
+            threads.add(new Thread(() -> {
+                await(startGate);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int id = 1 + random.nextInt(ANIMALS);
+                    AnimalStatus status = random.nextBoolean() ? AnimalStatus.AVAILABLE : AnimalStatus.RENTED;
+                    if (guard != null) {
+                        guard.writeLock().lock();
+                        try {
+                            save(repository, id, status);
+                        } finally {
+                            guard.writeLock().unlock();
+                        }
+                    } else {
+                        save(repository, id, status);
+                    }
+                    writes.increment();
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        long start = System.nanoTime();
+        startGate.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-12s %-8d %14.0f %14.0f%n", label, writers, reads.sum() / seconds, writes.sum() / seconds);
+    }
+
+    /** Guarda una copia con el nuevo estado, como hacen los servicios con objetos nuevos. */
+    private static void save(AnimalRepository repository, int id, AnimalStatus status) {
+        Animal current = repository.findById(id);
+        repository.save(new Animal(id, current.getName(), current.getType(), status));
+    }
+
+    private static void await(CountDownLatch gate) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
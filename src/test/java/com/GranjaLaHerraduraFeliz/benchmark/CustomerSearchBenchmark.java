@@ -0,0 +1,62 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.CustomerNameIndex;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide la latencia de {@code searchByName} con el {@link CustomerNameIndex} de
+ * {@link InMemoryCustomerRepository} frente al recorrido completo de los clientes
+ * ({@link CustomerNameIndex#scan}), que es lo que haría un repositorio sin índice.
+ * <p>
+ * Los nombres combinan nombres de pila y apellidos habituales, así que un
+ * prefijo como "gar" coincide con decenas de miles de clientes. Se ejecuta
+ * manualmente tras {@code mvn test-compile}, igual que los demás benchmarks; el
+ * número de clientes puede indicarse como primer argumento (por defecto 1.000.000).
+ */
+public class CustomerSearchBenchmark {
+
+    private static final List<String> QUERIES = List.of("gar", "garcia", "rodr", "muñoz", "mar gar", "javier gutierrez",
+            "al", "zzz");
+    private static final int SEARCHES = 20_000;
+    private static final int LIMIT = 20;
+
+    public static void main(String[] args) {
+        BenchmarkSupport.silenceLogging();
+        int customerCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        InMemoryCustomerRepository repository = new InMemoryCustomerRepository();
+        Random random = new Random(42);
+        long buildStart = System.nanoTime();
+        for (int i = 0; i < customerCount; i++) {
+            repository.save(new Customer(0, BenchmarkSupport.spanishName(random)));
+        }
+        System.out.printf("customers=%d indexBuild+save=%.0f ms%n", customerCount,
+                (System.nanoTime() - buildStart) / 1e6);
+
+        System.out.printf("%-18s %10s %10s %10s %12s%n", "query", "p50 us", "p99 us", "results", "scan ms");
+        for (String query : QUERIES) {
+            long[] latencies = new long[SEARCHES];
+            int results = 0;
+            for (int i = 0; i < SEARCHES; i++) {
+                long start = System.nanoTime();
+                results = repository.searchByName(query, LIMIT).size();
+                latencies[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            // El recorrido completo es miles de veces más lento: bastan tres repeticiones
+            long scanStart = System.nanoTime();
+            int scanned = 0;
+            for (int i = 0; i < 3; i++) {
+                scanned += CustomerNameIndex.scan(repository.stream(), query, LIMIT).size();
+            }
+            BenchmarkSupport.blackhole(scanned);
+            System.out.printf("%-18s %10.1f %10.1f %10d %12.1f%n", query, latencies[SEARCHES / 2] / 1e3,
+                    latencies[SEARCHES * 99 / 100] / 1e3, results, (System.nanoTime() - scanStart) / 3e6);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.DuplicateCustomerDetector;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Mide el coste de comprobar duplicados al registrar clientes con
+ * {@link DuplicateCustomerDetector} sobre un repositorio ya poblado: tiempo de
+ * carga del índice, heap que ocupa y latencia de {@code registerCustomer} frente
+ * a guardar directamente en el repositorio.
+ * <p>
+ * Los nombres generados se repiten mucho (20 nombres y 33 apellidos), así que
+ * casi todos los registros tienen candidatos: es el peor caso para la
+ * verificación. Se ejecuta manualmente tras {@code mvn test-compile}, igual que
+ * los demás benchmarks; el número de clientes puede indicarse como primer
+ * argumento (por defecto 1.000.000).
+ */
+public class DuplicateDetectionBenchmark {
+
+    private static final int REGISTRATIONS = 20_000;
+
+    public static void main(String[] args) {
+        BenchmarkSupport.silenceLogging();
+        int customerCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        InMemoryCustomerRepository repository = new InMemoryCustomerRepository();
+        Random random = new Random(7);
+        for (int i = 0; i < customerCount; i++) {
+            repository.save(new Customer(0, BenchmarkSupport.spanishName(random)));
+        }
+
+        long heapBefore = BenchmarkSupport.usedHeapAfterGc();
+        long loadStart = System.nanoTime();
+        DuplicateCustomerDetector detector = new DuplicateCustomerDetector(repository);
+        long loadMs = (System.nanoTime() - loadStart) / 1_000_000;
+        long heapBytes = BenchmarkSupport.usedHeapAfterGc() - heapBefore;
+        System.out.printf("customers=%d load=%d ms index=%.1f MB (%.0f bytes/customer)%n", customerCount, loadMs,
+                heapBytes / 1e6, (double) heapBytes / customerCount);
+
+        CustomerService service = new CustomerService(repository, detector);
+        long[] plain = new long[REGISTRATIONS];
+        long[] checked = new long[REGISTRATIONS];
+        long flagged = 0;
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            String name = BenchmarkSupport.spanishName(random);
+            long start = System.nanoTime();
+            repository.save(new Customer(0, name));
+            plain[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            flagged += service.registerCustomerChecked(name).possibleDuplicates().isEmpty() ? 0 : 1;
+            checked[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(plain);
+        Arrays.sort(checked);
+        System.out.printf("%-22s %10s %10s%n", "registration", "p50 us", "p99 us");
+        System.out.printf("%-22s %10.1f %10.1f%n", "save only", plain[REGISTRATIONS / 2] / 1e3,
+                plain[REGISTRATIONS * 99 / 100] / 1e3);
+        System.out.printf("%-22s %10.1f %10.1f%n", "with duplicate check", checked[REGISTRATIONS / 2] / 1e3,
+                checked[REGISTRATIONS * 99 / 100] / 1e3);
+        System.out.printf("flagged=%d/%d%n", flagged, REGISTRATIONS);
+    }
+}
@@ -0,0 +1,78 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.history.ColumnarRentalHistory;
+import com.GranjaLaHerraduraFeliz.repository.history.HistoryAnalytics;
+import com.GranjaLaHerraduraFeliz.repository.history.RentalHistory;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Mide la aceleración de {@link HistoryAnalytics} con pools de 1, 2, 4 y 8 hilos
+ * sobre un {@link ColumnarRentalHistory} sintético.
+ * <p>
+ * La consulta combina tres columnas (animal, inicio y tipo) y acumula dos
+ * resultados: los clientes que alquilaron cerdos por horas en sábado y los
+ * minutos por animal. La aceleración solo puede acercarse a la lineal hasta el
+ * número de núcleos de la máquina. Se ejecuta manualmente tras
+ * {@code mvn test-compile}, igual que los demás benchmarks; el número de
+ * alquileres puede indicarse como primer argumento (por defecto 10.000.000,
+ * con {@code -Xmx2g}).
+ */
+public class HistoryAnalyticsBenchmark {
+
+    private static final int ANIMALS = 1_000;
+    private static final int CUSTOMERS = 100_000;
+    private static final int[] THREADS = {1, 2, 4, 8};
+    private static final int ROUNDS = 7;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        ColumnarRentalHistory history = new ColumnarRentalHistory(rows);
+        long base = RentalHistory.toEpochNanos(LocalDateTime.of(2015, 1, 1, 9, 0));
+        for (int i = 0; i < rows; i++) {
+            long start = base + i * 37_000_000_000L;
+            history.put(i + 1, 1 + i % ANIMALS, 1 + (int) ((i * 2_654_435_761L) % CUSTOMERS),
+                    start, start + (15 + i % 90) * 60_000_000_000L, (byte) (i % 2));
+        }
+        BitSet pigs = new BitSet();
+        for (int animalId = 3; animalId <= ANIMALS; animalId += 3) {
+            pigs.set(animalId);
+        }
+        HistoryAnalytics.RowPredicate query = HistoryAnalytics.animalIn(pigs)
+                .and(HistoryAnalytics.startedOn(DayOfWeek.SATURDAY))
+                .and(HistoryAnalytics.rentalType(RentalType.HOURLY));
+
+        System.out.printf("rows=%d cores=%d%n", rows, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-8s %12s %10s %14s%n", "threads", "median ms", "speedup", "rows/s");
+        double baseline = 0;
+        for (int threads : THREADS) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                HistoryAnalytics analytics = new HistoryAnalytics(pool);
+                long[] times = new long[ROUNDS];
+                for (int round = 0; round < ROUNDS; round++) {
+                    long startNanos = System.nanoTime();
+                    BitSet customers = analytics.customers(history, query);
+                    long[] minutes = analytics.minutesByAnimal(history, query, ANIMALS);
+                    times[round] = System.nanoTime() - startNanos;
+                    BenchmarkSupport.blackhole(customers.cardinality() + minutes[3]);
+                }
+                Arrays.sort(times);
+                double medianMs = times[ROUNDS / 2] / 1e6;
+                if (threads == 1) {
+                    baseline = medianMs;
+                }
+                System.out.printf("%-8d %12.1f %9.2fx %14.0f%n", threads, medianMs, baseline / medianMs,
+                        2.0 * rows / (medianMs / 1e3));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.controller.HttpApiServer;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.service.AnimalService;
+import com.GranjaLaHerraduraFeliz.service.AvailabilityView;
+import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga local de {@link HttpApiServer}: varios mostradores simulados
+ * (un hilo virtual cada uno) alquilan un animal al azar, consultan los
+ * disponibles de un tipo y finalizan el alquiler, contra el servidor en el mismo
+ * proceso sobre repositorios concurrentes en memoria.
+ * <p>
+ * Informa las peticiones por segundo y la latencia p50/p99/p99.9 por ruta. Se
+ * ejecuta manualmente tras {@code mvn test-compile}, igual que los demás
+ * benchmarks; los mostradores y las iteraciones por mostrador pueden indicarse como
+ * argumentos (por defecto 32 y 500).
+ */
+public class HttpApiLoadBenchmark {
+
+    private static final int ANIMALS = 200;
+    private static final int CUSTOMERS = 1_000;
+    private static final Pattern ID = Pattern.compile("^\\{\"id\":(\\d+)");
+    private static final String[] TYPES = {"HORSE", "DONKEY", "PIG"};
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        int clerks = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        var animalRepository = new ConcurrentAnimalRepository();
+        var customerRepository = new ConcurrentCustomerRepository();
+        var availabilityView = new AvailabilityView(animalRepository);
+        var rentalService = new RentalService(animalRepository, customerRepository, new ConcurrentRentalRepository());
+        rentalService.addStatusListener(availabilityView);
+        try (var server = new HttpApiServer(new AnimalService(animalRepository, availabilityView),
+                new CustomerService(customerRepository), rentalService, 0);
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.start();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String base = "http://localhost:" + server.port();
+            for (int i = 0; i < ANIMALS; i++) {
+                post(client, base + "/animals", "{\"name\":\"Animal " + i + "\",\"type\":\"" + TYPES[i % 3] + "\"}");
+            }
+            Random names = new Random(42);
+            for (int i = 0; i < CUSTOMERS; i++) {
+                post(client, base + "/customers",
+                        "{\"fullName\":\"" + BenchmarkSupport.spanishName(names) + "\",\"force\":true}");
+            }
+
+            // Una vuelta corta para calentar el JIT y las conexiones, y luego la medida
+            run(clients, client, base, clerks, Math.max(1, iterations / 10));
+            long start = System.nanoTime();
+            Latencies[] results = run(clients, client, base, clerks, iterations);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long requests = 0;
+            for (Latencies latencies : results) {
+                requests += latencies.size();
+            }
+            System.out.printf("clerks=%d requests=%d elapsed=%.2f s throughput=%.0f req/s cores=%d%n",
+                    clerks, requests, seconds, requests / seconds, Runtime.getRuntime().availableProcessors());
+            System.out.printf("%-22s %8s %9s %9s %9s%n", "route", "count", "p50 ms", "p99 ms", "p99.9 ms");
+            for (Latencies latencies : results) {
+                latencies.print();
+            }
+        }
+    }
+
+    /** @return Latencias de cada ruta: alquilar, consultar disponibles y finalizar. */
+    private static Latencies[] run(ExecutorService clients, HttpClient client, String base,
+                                   int clerks, int iterations) throws Exception {
+        Latencies start = new Latencies("POST /rentals", clerks * iterations);
+        Latencies available = new Latencies("GET /animals?available", clerks * iterations);
+        Latencies finish = new Latencies("POST /rentals/{id}/finish", clerks * iterations);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clerks; c++) {
+            int clerk = c;
+            futures.add(clients.submit(() -> {
+                Random random = new Random(clerk);
+                for (int i = 0; i < iterations; i++) {
+                    String body = "{\"animalId\":" + (1 + random.nextInt(ANIMALS))
+                            + ",\"customerId\":" + (1 + random.nextInt(CUSTOMERS)) + ",\"type\":\"SHORT_RIDE\"}";
+                    long t0 = System.nanoTime();
+                    HttpResponse<String> rental = post(client, base + "/rentals", body);
+                    long t1 = System.nanoTime();
+                    start.add(t1 - t0);
+                    get(client, base + "/animals?status=AVAILABLE&type=" + TYPES[random.nextInt(3)]);
+                    long t2 = System.nanoTime();
+                    available.add(t2 - t1);
+                    // 409 si otro mostrador tiene el animal: es parte del escenario
+                    if (rental.statusCode() == 201) {
+                        Matcher id = ID.matcher(rental.body());
+                        if (id.find()) {
+                            post(client, base + "/rentals/" + id.group(1) + "/finish", "");
+                            finish.add(System.nanoTime() - t2);
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return new Latencies[]{start, available, finish};
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String url, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).POST(HttpRequest.BodyPublishers.ofString(body)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static HttpResponse<String> get(HttpClient client, String url) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    /** Latencias de una ruta, en nanosegundos; varios hilos agregan a la vez. */
+    private static final class Latencies {
+        private final String route;
+        private final long[] nanos;
+        private int size;
+
+        Latencies(String route, int capacity) {
+            this.route = route;
+            this.nanos = new long[capacity];
+        }
+
+        synchronized void add(long value) {
+            nanos[size++] = value;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void print() {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            System.out.printf("%-22s %8d %9.2f %9.2f %9.2f%n", route, size,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * p)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcConnectionPool;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcSchema;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara guardar alquileres uno a uno frente a {@code saveAll} (lote JDBC en una
+ * transacción) en una base H2 en archivo, y mide {@code findActiveByAnimal} con
+ * el historial ya cargado.
+ * <p>
+ * Se ejecuta manualmente tras {@code mvn test-compile}; el número de alquileres
+ * puede indicarse como primer argumento (por defecto 100.000).
+ */
+public class JdbcBatchBenchmark {
+
+    private static final int ANIMALS = 500;
+    private static final int BATCH = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        int rentalCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        Path dir = Files.createTempDirectory("granja-jdbc-bench");
+
+        System.out.printf("%-10s %10s %12s%n", "mode", "rentals", "rentals/s");
+        for (boolean batched : new boolean[]{false, true}) {
+            String url = "jdbc:h2:" + dir.resolve(batched ? "batched" : "single").toAbsolutePath();
+            try (JdbcConnectionPool pool = new JdbcConnectionPool(url, "sa", "", 1)) {
+                JdbcSchema.create(pool);
+                var animals = new JdbcAnimalRepository(pool);
+                var rentals = new JdbcRentalRepository(pool);
+                Customer customer = new JdbcCustomerRepository(pool).save(new Customer(0, "Colegio San Prado"));
+                List<Animal> herd = new ArrayList<>();
+                for (int i = 0; i < ANIMALS; i++) {
+                    herd.add(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], AnimalStatus.AVAILABLE));
+                }
+                animals.saveAll(herd);
+
+                LocalDateTime base = LocalDateTime.of(2020, 1, 1, 9, 0);
+                long start = System.nanoTime();
+                List<Rental> pending = new ArrayList<>(BATCH);
+                for (int i = 0; i < rentalCount; i++) {
+                    Rental rental = new Rental(0, herd.get(i % ANIMALS), customer, base.plusMinutes(i), RentalType.HOURLY);
+                    rental.setEndTime(base.plusMinutes(i + 30));
+                    if (batched) {
+                        pending.add(rental);
+                        if (pending.size() == BATCH) {
+                            rentals.saveAll(pending);
+                            pending = new ArrayList<>(BATCH);
+                        }
+                    } else {
+                        rentals.save(rental);
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    rentals.saveAll(pending);
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-10s %10d %12.0f%n", batched ? "saveAll" : "save", rentalCount, rentalCount / seconds);
+
+                if (batched) {
+                    int lookups = 10_000;
+                    start = System.nanoTime();
+                    long found = 0;
+                    for (int i = 0; i < lookups; i++) {
+                        found += rentals.findActiveByAnimal(herd.get(i % ANIMALS)).size();
+                    }
+                    System.out.printf("findActiveByAnimal: %.1f us/lookup over %d rentals%n",
+                            (System.nanoTime() - start) / 1e3 / lookups, rentalCount);
+                    BenchmarkSupport.blackhole(found);
+                }
+            }
+        }
+    }
+}
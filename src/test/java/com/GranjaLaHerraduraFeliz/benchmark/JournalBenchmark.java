@@ -0,0 +1,103 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.Exception.AnimalNotAvailableException;
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.FsyncPolicy;
+import com.GranjaLaHerraduraFeliz.repository.journal.Journal;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledRentalRepository;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide alquileres completos (iniciar + finalizar) por segundo con persistencia
+ * en journal, para cada {@link FsyncPolicy} y distintos números de hilos.
+ * <p>
+ * Cada alquiler completo escribe cuatro registros (alquiler y animal al iniciar,
+ * animal y alquiler al finalizar). Con {@code ALWAYS} y un solo hilo, el resultado
+ * queda acotado por la latencia de {@code fsync} del disco; con {@code GROUP} y
+ * varios hilos, un mismo {@code fsync} cubre los registros de muchos alquileres.
+ * <p>
+ * Se ejecuta manualmente tras {@code mvn test-compile}; el directorio del journal
+ * puede indicarse como primer argumento (por defecto, uno temporal).
+ */
+public class JournalBenchmark {
+
+    private static final int[] THREADS = {1, 4, 16, 64};
+    private static final int ANIMALS = 4_096;
+    private static final long DURATION_MS = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        Path dir = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("granja-journal-bench");
+
+        System.out.printf("%-8s %-10s %-8s %14s%n", "policy", "latencyMs", "threads", "rentals/s");
+        for (int threads : THREADS) {
+            run(dir, FsyncPolicy.NONE, 0, threads);
+            run(dir, FsyncPolicy.ALWAYS, 0, threads);
+            run(dir, FsyncPolicy.GROUP, 0, threads);
+            run(dir, FsyncPolicy.GROUP, 2, threads);
+        }
+    }
+
+    private static void run(Path dir, FsyncPolicy policy, int latencyMs, int threads) throws Exception {
+        Path path = dir.resolve("bench-" + policy + "-" + latencyMs + "-" + threads + ".journal");
+        Files.deleteIfExists(path);
+
+        try (Journal journal = Journal.open(path, policy, Duration.ofMillis(latencyMs))) {
+            var animals = new JournaledAnimalRepository(new ConcurrentAnimalRepository(), journal);
+            var customers = new JournaledCustomerRepository(new ConcurrentCustomerRepository(), journal);
+            var rentals = new JournaledRentalRepository(new ConcurrentRentalRepository(), journal);
+            for (int i = 0; i < ANIMALS; i++) {
+                animals.save(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], AnimalStatus.AVAILABLE));
+            }
+            int customerId = customers.save(new Customer(0, "Colegio San Prado")).getId();
+            RentalService service = new RentalService(animals, customers, rentals);
+
+            LongAdder completed = new LongAdder();
+            long deadline = System.nanoTime() + DURATION_MS * 1_000_000L;
+            List<Thread> workers = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                Thread worker = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            Rental rental = service.startRental(1 + random.nextInt(ANIMALS), customerId,
+                                    RentalType.SHORT_RIDE);
+                            service.finishRental(rental.getId());
+                            completed.increment();
+                        } catch (AnimalNotAvailableException e) {
+                            // Otro hilo tiene el animal; se prueba con otro
+                        }
+                    }
+                });
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-8s %-10d %-8d %14.0f%n", policy, latencyMs, threads, completed.sum() / seconds);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
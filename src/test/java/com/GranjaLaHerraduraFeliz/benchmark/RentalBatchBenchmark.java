@@ -0,0 +1,101 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.FsyncPolicy;
+import com.GranjaLaHerraduraFeliz.repository.journal.Journal;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournaledRentalRepository;
+import com.GranjaLaHerraduraFeliz.service.RentalRequest;
+import com.GranjaLaHerraduraFeliz.service.RentalResult;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compara N llamadas a {@code startRental}/{@code finishRental} frente a
+ * {@code startRentals}/{@code finishRentals} con lotes del mismo tamaño, en
+ * memoria y con journal ({@link FsyncPolicy#ALWAYS}), donde el lote ahorra un
+ * {@code fsync} por elemento.
+ * <p>
+ * Se ejecuta manualmente tras {@code mvn test-compile}; el tamaño de lote puede
+ * indicarse como primer argumento (por defecto 500).
+ */
+public class RentalBatchBenchmark {
+
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        int batch = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        Path dir = Files.createTempDirectory("granja-batch-bench");
+
+        System.out.printf("%-8s %-8s %12s%n", "store", "mode", "rentals/s");
+        for (boolean journaled : new boolean[]{false, true}) {
+            for (boolean batched : new boolean[]{false, true}) {
+                Journal journal = journaled
+                        ? Journal.open(dir.resolve((batched ? "batched" : "single") + ".journal"),
+                                FsyncPolicy.ALWAYS, Duration.ofMillis(2))
+                        : null;
+                AnimalRepository animals = new ConcurrentAnimalRepository();
+                CustomerRepository customers = new ConcurrentCustomerRepository();
+                RentalRepository rentals = new ConcurrentRentalRepository();
+                if (journal != null) {
+                    animals = new JournaledAnimalRepository(animals, journal);
+                    customers = new JournaledCustomerRepository(customers, journal);
+                    rentals = new JournaledRentalRepository(rentals, journal);
+                }
+                RentalService service = new RentalService(animals, customers, rentals);
+
+                List<Integer> animalIds = new ArrayList<>(batch);
+                for (int i = 0; i < batch; i++) {
+                    animalIds.add(animals.save(new Animal(0, "Animal " + i, AnimalType.values()[i % 3],
+                            AnimalStatus.AVAILABLE)).getId());
+                }
+                int customerId = customers.save(new Customer(0, "Colegio San Prado")).getId();
+
+                long start = System.nanoTime();
+                for (int round = 0; round < ROUNDS; round++) {
+                    List<Integer> rentalIds = new ArrayList<>(batch);
+                    if (batched) {
+                        List<RentalRequest> requests = new ArrayList<>(batch);
+                        for (int animalId : animalIds) {
+                            requests.add(new RentalRequest(animalId, customerId, RentalType.SHORT_RIDE));
+                        }
+                        for (RentalResult result : service.startRentals(requests)) {
+                            rentalIds.add(result.rental().getId());
+                        }
+                        service.finishRentals(rentalIds);
+                    } else {
+                        for (int animalId : animalIds) {
+                            rentalIds.add(service.startRental(animalId, customerId, RentalType.SHORT_RIDE).getId());
+                        }
+                        for (int rentalId : rentalIds) {
+                            service.finishRental(rentalId);
+                        }
+                    }
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-8s %-8s %12.0f%n", journaled ? "journal" : "memory",
+                        batched ? "batch" : "single", ROUNDS * batch / seconds);
+                if (journal != null) {
+                    journal.close();
+                }
+            }
+        }
+    }
+}
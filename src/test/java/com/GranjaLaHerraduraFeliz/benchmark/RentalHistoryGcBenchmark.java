@@ -0,0 +1,84 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.history.ColumnarRentalHistory;
+import com.GranjaLaHerraduraFeliz.repository.history.HistoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.history.OffHeapRentalHistory;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Compara el heap ocupado y la duración de una recolección completa con el
+ * historial guardado como objetos, en columnas del heap y fuera del heap.
+ * <p>
+ * Una recolección completa recorre todos los objetos vivos: con objetos crece con
+ * el historial, mientras que las columnas (arreglos sin referencias) y los
+ * segmentos fuera del heap apenas le suman trabajo.
+ * <p>
+ * Se ejecuta manualmente tras {@code mvn test-compile} con {@code --enable-preview}
+ * en Java 21; el número de alquileres puede indicarse como primer argumento
+ * (por defecto 3.000.000, conviene usar {@code -Xmx3g}).
+ */
+public class RentalHistoryGcBenchmark {
+
+    private static final int ANIMALS = 1_000;
+    private static final int CUSTOMERS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        int rentalCount = args.length > 0 ? Integer.parseInt(args[0]) : 3_000_000;
+
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        for (int i = 0; i < ANIMALS; i++) {
+            animals.save(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], AnimalStatus.AVAILABLE));
+        }
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.save(new Customer(0, "Cliente " + i));
+        }
+
+        System.out.printf("%-10s %10s %10s %12s%n", "history", "rentals", "heapMB", "fullGcMs");
+        measure("objects", rentalCount, animals, customers, InMemoryRentalRepository::new);
+        measure("columnar", rentalCount, animals, customers,
+                () -> new HistoryRentalRepository(animals, customers, new ColumnarRentalHistory(rentalCount)));
+        try (OffHeapRentalHistory offHeap = OffHeapRentalHistory.inMemory()) {
+            measure("offheap", rentalCount, animals, customers,
+                    () -> new HistoryRentalRepository(animals, customers, offHeap));
+        }
+    }
+
+    private static void measure(String name, int rentalCount, AnimalRepository animals,
+                                CustomerRepository customers, Supplier<RentalRepository> factory) {
+        RentalRepository rentals = factory.get();
+        LocalDateTime base = LocalDateTime.of(2015, 1, 1, 9, 0);
+        for (int i = 0; i < rentalCount; i++) {
+            LocalDateTime start = base.plusMinutes(i);
+            Rental rental = rentals.save(new Rental(0, animals.findById(1 + i % ANIMALS),
+                    customers.findById(1 + i % CUSTOMERS), start, RentalType.values()[i % RentalType.values().length]));
+            rental.setEndTime(start.plusMinutes(45));
+            rentals.save(rental);
+        }
+        long heap = BenchmarkSupport.usedHeapAfterGc();
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            System.gc();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-10s %10d %10d %12.1f%n", name, rentalCount, heap >> 20, best / 1e6);
+        BenchmarkSupport.blackhole(rentals.findById(rentalCount).getId());
+    }
+}
@@ -0,0 +1,69 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.history.ColumnarRentalHistory;
+import com.GranjaLaHerraduraFeliz.repository.history.HistoryRentalRepository;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Mide el heap retenido por alquiler finalizado en {@link InMemoryRentalRepository}
+ * (objetos con sus índices) frente a {@link HistoryRentalRepository} con
+ * {@link ColumnarRentalHistory} (columnas de primitivos).
+ * <p>
+ * Se ejecuta manualmente tras {@code mvn test-compile}; el número de alquileres
+ * puede indicarse como primer argumento (por defecto 1.000.000).
+ */
+public class RentalHistoryHeapBenchmark {
+
+    private static final int ANIMALS = 1_000;
+    private static final int CUSTOMERS = 10_000;
+
+    public static void main(String[] args) {
+        BenchmarkSupport.silenceLogging();
+        int rentalCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        for (int i = 0; i < ANIMALS; i++) {
+            animals.save(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], AnimalStatus.AVAILABLE));
+        }
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.save(new Customer(0, "Cliente " + i));
+        }
+
+        System.out.printf("%-12s %10s %14s%n", "repository", "rentals", "bytes/rental");
+        measure("objects", rentalCount, animals, customers, InMemoryRentalRepository::new);
+        measure("columnar", rentalCount, animals, customers,
+                () -> new HistoryRentalRepository(animals, customers, new ColumnarRentalHistory(rentalCount)));
+    }
+
+    private static void measure(String name, int rentalCount, AnimalRepository animals,
+                                CustomerRepository customers, Supplier<RentalRepository> factory) {
+        long before = BenchmarkSupport.usedHeapAfterGc();
+        RentalRepository rentals = factory.get();
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 9, 0);
+        for (int i = 0; i < rentalCount; i++) {
+            LocalDateTime start = base.plusMinutes(i);
+            Rental rental = rentals.save(new Rental(0, animals.findById(1 + i % ANIMALS),
+                    customers.findById(1 + i % CUSTOMERS), start, RentalType.values()[i % RentalType.values().length]));
+            rental.setEndTime(start.plusMinutes(45));
+            rentals.save(rental);
+        }
+        long after = BenchmarkSupport.usedHeapAfterGc();
+        System.out.printf("%-12s %10d %14.1f%n", name, rentals.findAll().size(), (after - before) / (double) rentalCount);
+        BenchmarkSupport.blackhole(rentals.findById(rentalCount).getId());
+    }
+}
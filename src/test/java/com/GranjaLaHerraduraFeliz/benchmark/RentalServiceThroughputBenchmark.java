@@ -0,0 +1,114 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.Exception.AnimalNotAvailableException;
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mide el rendimiento de {@link RentalService} (ciclos iniciar + finalizar alquiler
+ * por segundo) con 1 a 64 hilos.
+ * <p>
+ * Compara dos variantes sobre los repositorios concurrentes:
+ * <ul>
+ *     <li>{@code striped}: el servicio tal cual, con cerrojos por animal.</li>
+ *     <li>{@code global}: el mismo servicio envuelto en un único cerrojo global,
+ *     como referencia de lo que costaría serializar toda la granja.</li>
+ * </ul>
+ * También informa cuántas solicitudes encontraron el animal ya alquilado
+ * (conflictos esperados, no errores).
+ * <p>
+ * Se ejecuta manualmente tras {@code mvn test-compile}, igual que los demás benchmarks.
+ */
+public class RentalServiceThroughputBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int ANIMALS = 4_096;
+    private static final int CUSTOMERS = 1_000;
+    private static final long DURATION_MS = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        System.out.printf("%-8s %-8s %16s %12s%n", "mode", "threads", "rentals/s", "conflicts");
+        for (int threads : THREADS) {
+            run("striped", threads, false);
+            run("global", threads, true);
+        }
+    }
+
+    private static void run(String label, int threads, boolean globalLock) throws Exception {
+        var animals = new ConcurrentAnimalRepository();
+        var customers = new ConcurrentCustomerRepository();
+        var rentals = new ConcurrentRentalRepository();
+        for (int i = 0; i < ANIMALS; i++) {
+            animals.save(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], AnimalStatus.AVAILABLE));
+        }
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.save(new Customer(0, "Cliente " + i));
+        }
+        RentalService service = new RentalService(animals, customers, rentals);
+        Object global = new Object();
+
+        LongAdder completed = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        long[] deadline = new long[1];
+
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    startGate.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (System.nanoTime() < deadline[0]) {
+                    int animalId = 1 + random.nextInt(ANIMALS);
+                    int customerId = 1 + random.nextInt(CUSTOMERS);
+                    try {
+                        Rental rental;
+                        if (globalLock) {
+                            synchronized (global) {
+                                rental = service.startRental(animalId, customerId, RentalType.SHORT_RIDE);
+                            }
+                            synchronized (global) {
+                                service.finishRental(rental.getId());
+                            }
+                        } else {
+                            rental = service.startRental(animalId, customerId, RentalType.SHORT_RIDE);
+                            service.finishRental(rental.getId());
+                        }
+                        completed.increment();
+                    } catch (AnimalNotAvailableException e) {
+                        conflicts.increment();
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        long start = System.nanoTime();
+        deadline[0] = start + DURATION_MS * 1_000_000L;
+        startGate.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-8s %-8d %16.0f %12d%n", label, threads, completed.sum() / seconds, conflicts.sum());
+    }
+}
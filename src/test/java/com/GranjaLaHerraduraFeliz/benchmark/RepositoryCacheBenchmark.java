@@ -0,0 +1,101 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.cache.BoundedCache;
+import com.GranjaLaHerraduraFeliz.repository.cache.CachingAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.cache.CachingCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcConnectionPool;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.jdbc.JdbcSchema;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mide {@code findById} de animales y clientes sobre H2 en memoria, sin caché y con
+ * {@link CachingAnimalRepository}/{@link CachingCustomerRepository}, con el patrón
+ * de un mostrador: pocos animales muy pedidos y muchos clientes, de los que el 90 %
+ * de las lecturas son de los {@value #REGULARS} más recientes. Un 1 % de las lecturas va seguido de un {@code save}.
+ * <p>
+ * Se ejecuta manualmente tras {@code mvn test-compile}, igual que los demás
+ * benchmarks; la capacidad de la caché puede indicarse como primer argumento
+ * (por defecto 10.000).
+ */
+public class RepositoryCacheBenchmark {
+
+    private static final int ANIMALS = 500;
+    private static final int CUSTOMERS = 200_000;
+    private static final int REGULARS = 5_000;
+    private static final int LOOKUPS = 200_000;
+
+    public static void main(String[] args) {
+        BenchmarkSupport.silenceLogging();
+        int capacity = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+
+        try (JdbcConnectionPool pool = new JdbcConnectionPool("jdbc:h2:mem:cache-bench;DB_CLOSE_DELAY=-1", "sa", "", 4)) {
+            JdbcSchema.create(pool);
+            var animals = new JdbcAnimalRepository(pool);
+            var customers = new JdbcCustomerRepository(pool);
+            List<Animal> herd = new ArrayList<>();
+            for (int i = 0; i < ANIMALS; i++) {
+                herd.add(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], AnimalStatus.AVAILABLE));
+            }
+            animals.saveAll(herd);
+            Random names = new Random(42);
+            List<Customer> pending = new ArrayList<>();
+            for (int i = 0; i < CUSTOMERS; i++) {
+                pending.add(new Customer(0, BenchmarkSupport.spanishName(names)));
+                if (pending.size() == 1_000) {
+                    customers.saveAll(pending);
+                    pending = new ArrayList<>();
+                }
+            }
+
+            // Primero sin medir, para que el JIT compile el camino JDBC
+            run(animals, customers);
+            double uncached = run(animals, customers);
+            var cachedAnimals = new CachingAnimalRepository(animals, capacity);
+            var cachedCustomers = new CachingCustomerRepository(customers, capacity);
+            double cached = run(cachedAnimals, cachedCustomers);
+
+            System.out.printf("%-8s %12s %12s%n", "mode", "lookups/s", "us/lookup");
+            System.out.printf("%-8s %12.0f %12.2f%n", "jdbc", LOOKUPS / uncached, uncached * 1e6 / LOOKUPS);
+            System.out.printf("%-8s %12.0f %12.2f%n", "cached", LOOKUPS / cached, cached * 1e6 / LOOKUPS);
+            print("animals", cachedAnimals.cacheStats());
+            print("customers", cachedCustomers.cacheStats());
+        }
+    }
+
+    private static void print(String name, BoundedCache.Stats stats) {
+        System.out.printf("%-9s capacity=%d hitRate=%.3f evictions=%d%n",
+                name, stats.capacity(), stats.hitRate(), stats.evictions());
+    }
+
+    /** @return Segundos que tardan las lecturas. */
+    private static double run(AnimalRepository animals, CustomerRepository customers) {
+        Random random = new Random(7);
+        long found = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            // Sesgo cuadrático en animales: los IDs bajos se piden más
+            double a = random.nextDouble();
+            Animal animal = animals.findById(1 + (int) (a * a * ANIMALS));
+            int customerId = random.nextInt(10) == 0 ? 1 + random.nextInt(CUSTOMERS)
+                    : CUSTOMERS - random.nextInt(REGULARS);
+            Customer customer = customers.findById(customerId);
+            if (i % 100 == 0) {
+                animals.save(animal);
+            }
+            found += animal.getId() + customer.getId();
+        }
+        BenchmarkSupport.blackhole(found);
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
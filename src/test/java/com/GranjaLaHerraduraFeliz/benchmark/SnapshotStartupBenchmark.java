@@ -0,0 +1,101 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.journal.FsyncPolicy;
+import com.GranjaLaHerraduraFeliz.repository.journal.Journal;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournalCodec;
+import com.GranjaLaHerraduraFeliz.repository.journal.JournalRecovery;
+import com.GranjaLaHerraduraFeliz.repository.snapshot.MappedSnapshot;
+import com.GranjaLaHerraduraFeliz.repository.snapshot.SnapshotRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.snapshot.SnapshotWriter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Compara el tiempo de arranque reproduciendo el journal completo frente a
+ * mapear una instantánea, con un historial de millones de alquileres finalizados.
+ * <p>
+ * Se ejecuta manualmente tras {@code mvn test-compile}; el número de alquileres
+ * puede indicarse como primer argumento (por defecto 2.000.000). La reproducción
+ * completa mantiene todo el historial en memoria: conviene usar {@code -Xmx2g}.
+ */
+public class SnapshotStartupBenchmark {
+
+    private static final int ANIMALS = 1_000;
+    private static final int CUSTOMERS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkSupport.silenceLogging();
+        int rentalCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path dir = Files.createTempDirectory("granja-snapshot-bench");
+        Path journalPath = dir.resolve("granja.journal");
+        Path snapshotPath = dir.resolve("granja.snapshot");
+
+        generate(journalPath, snapshotPath, rentalCount);
+        System.out.printf("rentals=%d journalMB=%d snapshotMB=%d%n", rentalCount,
+                Files.size(journalPath) >> 20, Files.size(MappedSnapshot.open(snapshotPath).path()) >> 20);
+
+        long start = System.nanoTime();
+        var replayedRentals = new ConcurrentRentalRepository();
+        new JournalRecovery(new ConcurrentAnimalRepository(), new ConcurrentCustomerRepository(), replayedRentals)
+                .replay(journalPath);
+        long replayMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-22s %8d ms (rentals=%d)%n", "journal replay", replayMs, replayedRentals.findAll().size());
+
+        start = System.nanoTime();
+        MappedSnapshot snapshot = MappedSnapshot.open(snapshotPath);
+        var loadedAnimals = new ConcurrentAnimalRepository();
+        var loadedCustomers = new ConcurrentCustomerRepository();
+        snapshot.loadAnimals(loadedAnimals);
+        snapshot.loadCustomers(loadedCustomers);
+        RentalRepository mapped = new SnapshotRentalRepository(new ConcurrentRentalRepository(),
+                snapshot, loadedAnimals, loadedCustomers);
+        new JournalRecovery(loadedAnimals, loadedCustomers, mapped).replay(journalPath, snapshot.journalOffset());
+        long snapshotMs = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-22s %8d ms (rentals=%d)%n", "snapshot map + tail", snapshotMs, snapshot.rentalCount());
+
+        // Una consulta puntual sobre el historial mapeado
+        start = System.nanoTime();
+        Rental last = mapped.findById(rentalCount);
+        System.out.printf("%-22s %8d us (id=%d)%n", "findById (mapped)", (System.nanoTime() - start) / 1_000, last.getId());
+    }
+
+    /** Historial sintético escrito en el journal; los repositorios se descartan al volver. */
+    private static void generate(Path journalPath, Path snapshotPath, int rentalCount) throws Exception {
+        var animals = new ConcurrentAnimalRepository();
+        var customers = new ConcurrentCustomerRepository();
+        var rentals = new ConcurrentRentalRepository();
+        try (Journal journal = Journal.open(journalPath, FsyncPolicy.NONE, Duration.ZERO)) {
+            for (int i = 0; i < ANIMALS; i++) {
+                Animal animal = animals.save(new Animal(0, "Animal " + i, AnimalType.values()[i % 3], AnimalStatus.AVAILABLE));
+                journal.append(JournalCodec.ANIMAL, JournalCodec.encodeAnimal(animal));
+            }
+            for (int i = 0; i < CUSTOMERS; i++) {
+                Customer customer = customers.save(new Customer(0, "Cliente " + i));
+                journal.append(JournalCodec.CUSTOMER, JournalCodec.encodeCustomer(customer));
+            }
+            LocalDateTime base = LocalDateTime.of(2020, 1, 1, 9, 0);
+            for (int i = 0; i < rentalCount; i++) {
+                LocalDateTime start = base.plusMinutes(i);
+                Rental rental = new Rental(0, animals.findById(1 + i % ANIMALS), customers.findById(1 + i % CUSTOMERS),
+                        start, RentalType.values()[i % RentalType.values().length]);
+                rental.setEndTime(start.plusMinutes(30));
+                rentals.save(rental);
+                journal.append(JournalCodec.RENTAL, JournalCodec.encodeRental(rental));
+            }
+            SnapshotWriter.write(snapshotPath, journal.position(), animals, customers, rentals);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.GranjaLaHerraduraFeliz.benchmark;
+
+import com.GranjaLaHerraduraFeliz.util.HashedTimerWheel;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compara el coste de programar y cancelar plazos de alquiler en
+ * {@link HashedTimerWheel} y en un {@link ScheduledThreadPoolExecutor} (cola de
+ * prioridad, {@code O(log n)} por operación).
+ * <p>
+ * Cada ronda programa {@code DEADLINES} plazos de 30 minutos (alquileres
+ * activos) y cancela el 90 % (alquileres devueltos a tiempo), con varios hilos
+ * haciendo de mostradores. Se ejecuta manualmente tras {@code mvn test-compile},
+ * igual que los demás benchmarks.
+ */
+public class TimerWheelBenchmark {
+
+    private static final int DEADLINES = 200_000;
+    private static final int THREADS = 4;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        System.out.printf("%-10s %10s %16s%n", "scheduler", "deadlines", "schedule+cancel/s");
+        for (int round = 0; round < ROUNDS; round++) {
+            try (HashedTimerWheel wheel = new HashedTimerWheel(Duration.ofSeconds(1), 512, "bench-wheel")) {
+                report("wheel", measure(delay -> {
+                    HashedTimerWheel.Timeout timeout = wheel.schedule(() -> { }, delay);
+                    return timeout::cancel;
+                }));
+            }
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+            executor.setRemoveOnCancelPolicy(true);
+            report("executor", measure(delay -> {
+                ScheduledFuture<?> future = executor.schedule(() -> { }, delay.toNanos(), TimeUnit.NANOSECONDS);
+                return () -> future.cancel(false);
+            }));
+            executor.shutdownNow();
+        }
+    }
+
+    private interface Scheduler {
+        Runnable schedule(Duration delay);
+    }
+
+    private static double measure(Scheduler scheduler) throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(new Thread(() -> {
+                int perThread = DEADLINES / THREADS;
+                List<Runnable> cancels = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    cancels.add(scheduler.schedule(Duration.ofMinutes(30).plusMillis(i)));
+                }
+                for (int i = 0; i < perThread; i++) {
+                    if (i % 10 != 0) {
+                        cancels.get(i).run();
+                    }
+                }
+                operations.add(perThread * 2L);
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return operations.sum() / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static void report(String label, double opsPerSecond) {
+        System.out.printf("%-10s %10d %16.0f%n", label, DEADLINES, opsPerSecond);
+    }
+}
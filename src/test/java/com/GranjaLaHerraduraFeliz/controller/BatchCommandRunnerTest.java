@@ -0,0 +1,115 @@
+package com.GranjaLaHerraduraFeliz.controller;
+
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.service.AnimalService;
+import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.RentalRequest;
+import com.GranjaLaHerraduraFeliz.service.RentalResult;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link BatchCommandRunner}.
+ */
+public class BatchCommandRunnerTest {
+
+    @Test
+    void runsScriptInOrderAndReportsErrorsPerLine() throws Exception {
+        // Arrange
+        var animalRepository = new InMemoryAnimalRepository();
+        var customerRepository = new InMemoryCustomerRepository();
+        var rentalService = new RentalService(animalRepository, customerRepository, new InMemoryRentalRepository());
+        var runner = new BatchCommandRunner(new AnimalService(animalRepository),
+                new CustomerService(customerRepository), rentalService);
+        String script = """
+                # Flota del día
+                animal HORSE Lola la rápida
+                animal pig Pepa
+                cliente María García
+
+                alquilar 1 1 HOURLY
+                alquilar 1 1 SHORT_RIDE
+                alquilar 2 1 diario
+                alquilar 2 1 SHORT_RIDE
+                finalizar 1
+                finalizar 7
+                volar 1
+                alquilar 1 1 HOURLY
+                """;
+        StringWriter output = new StringWriter();
+
+        // Act
+        BatchCommandRunner.Summary summary = runner.run(new BufferedReader(new StringReader(script)),
+                new PrintWriter(output));
+
+        // Assert
+        String[] lines = output.toString().split("\n");
+        assertEquals(11, lines.length, output.toString());
+        assertTrue(lines[0].startsWith("2 ok Animal{id=1, name='Lola la rápida', type=HORSE"), lines[0]);
+        assertTrue(lines[3].startsWith("6 ok Rental{"), lines[3]);
+        assertTrue(lines[4].startsWith("7 error El animal con id 1 no está disponible"), "Un lote conserva el orden del guion");
+        assertTrue(lines[5].startsWith("8 error valor inválido para RentalType"), "Un error de formato va en su línea: " + lines[5]);
+        assertTrue(lines[6].startsWith("9 ok"));
+        assertTrue(lines[8].startsWith("11 error Alquiler no encontrado"));
+        assertEquals("12 error comando desconocido: volar", lines[9]);
+        assertTrue(lines[10].startsWith("13 ok"), "Tras finalizar, el animal 1 vuelve a estar disponible");
+
+        assertEquals(13, summary.lines());
+        assertEquals(11, summary.commands());
+        assertEquals(4, summary.failed());
+        assertEquals(5, summary.byCommand().get("alquilar"));
+        assertEquals(2, summary.byCommand().get("finalizar"));
+    }
+
+    @Test
+    void failedBatch_isReportedOnEveryLineAndNeverResent() throws Exception {
+        // Arrange: un servicio cuyo lote de alquileres falla entero (por ejemplo, se cae la base de datos)
+        var animalRepository = new InMemoryAnimalRepository();
+        var customerRepository = new InMemoryCustomerRepository();
+        AtomicInteger batchesSent = new AtomicInteger();
+        var rentalService = new RentalService(animalRepository, customerRepository, new InMemoryRentalRepository()) {
+            @Override
+            public List<RentalResult> startRentals(List<RentalRequest> requests) {
+                batchesSent.incrementAndGet();
+                throw new IllegalStateException("base de datos no disponible");
+            }
+        };
+        var runner = new BatchCommandRunner(new AnimalService(animalRepository),
+                new CustomerService(customerRepository), rentalService);
+        String script = """
+                animal HORSE Lola
+                cliente María García
+                alquilar 1 1 HOURLY
+                alquilar 1 1 SHORT_RIDE
+                alquilar x 1 HOURLY
+                cliente Pedro Pérez
+                """;
+        StringWriter output = new StringWriter();
+
+        // Act
+        BatchCommandRunner.Summary summary = runner.run(new BufferedReader(new StringReader(script)),
+                new PrintWriter(output));
+
+        // Assert
+        String[] lines = output.toString().split("\n");
+        assertEquals(6, lines.length, output.toString());
+        assertEquals("3 error base de datos no disponible", lines[2]);
+        assertEquals("4 error base de datos no disponible", lines[3]);
+        assertEquals("5 error número inválido: x", lines[4], "El error de formato va después del lote anterior");
+        assertTrue(lines[5].startsWith("6 ok Customer{"), "El guion sigue tras un lote fallido");
+        assertEquals(1, batchesSent.get(), "El lote fallido no debería reenviarse");
+        assertEquals(3, summary.failed());
+        assertEquals(3, summary.byCommand().get("alquilar"));
+    }
+}
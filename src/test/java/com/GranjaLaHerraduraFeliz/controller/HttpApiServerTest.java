@@ -0,0 +1,123 @@
+package com.GranjaLaHerraduraFeliz.controller;
+
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.service.AnimalService;
+import com.GranjaLaHerraduraFeliz.service.AvailabilityView;
+import com.GranjaLaHerraduraFeliz.service.CustomerService;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas de {@link HttpApiServer} con peticiones HTTP reales contra un puerto local.
+ */
+public class HttpApiServerTest {
+
+    private HttpApiServer server;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var animalRepository = new ConcurrentAnimalRepository();
+        var customerRepository = new ConcurrentCustomerRepository();
+        var availabilityView = new AvailabilityView(animalRepository);
+        var rentalService = new RentalService(animalRepository, customerRepository, new ConcurrentRentalRepository());
+        rentalService.addStatusListener(availabilityView);
+        server = new HttpApiServer(new AnimalService(animalRepository, availabilityView),
+                new CustomerService(customerRepository), rentalService, 0);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void registersRentsAndFinishesOverHttp() throws Exception {
+        // Arrange
+        HttpResponse<String> animal = send("POST", "/animals", "{\"name\": \"Lola \\\"la rápida\\\"\", \"type\": \"horse\"}");
+        HttpResponse<String> customer = send("POST", "/customers", "{\"fullName\": \"María García\"}");
+
+        // Act
+        HttpResponse<String> rental = send("POST", "/rentals", "{\"animalId\": 1, \"customerId\": 1, \"type\": \"HOURLY\"}");
+        HttpResponse<String> secondRental = send("POST", "/rentals", "{\"animalId\": 1, \"customerId\": 1, \"type\": \"HOURLY\"}");
+        HttpResponse<String> rented = send("GET", "/animals?status=RENTED", null);
+        HttpResponse<String> finished = send("POST", "/rentals/1/finish", null);
+        HttpResponse<String> available = send("GET", "/animals?status=available&type=HORSE", null);
+
+        // Assert
+        assertEquals(201, animal.statusCode());
+        assertTrue(animal.body().contains("\"name\":\"Lola \\\"la rápida\\\"\""), "Las comillas deben ir escapadas: " + animal.body());
+        assertEquals(201, customer.statusCode());
+        assertEquals(201, rental.statusCode(), rental.body());
+        assertTrue(rental.body().contains("\"endTime\":null"));
+        assertEquals(409, secondRental.statusCode(), "Un animal alquilado no se puede volver a alquilar");
+        assertTrue(rented.body().contains("\"status\":\"RENTED\""));
+        assertEquals(200, finished.statusCode());
+        assertFalse(finished.body().contains("\"endTime\":null"), "El alquiler finalizado debe tener hora de fin");
+        assertTrue(available.body().startsWith("[{\"id\":1,"), available.body());
+    }
+
+    @Test
+    void reportsErrorsAsJson() throws Exception {
+        // Arrange
+        send("POST", "/customers", "{\"fullName\": \"José Giménez\"}");
+
+        // Act
+        HttpResponse<String> duplicate = send("POST", "/customers", "{\"fullName\": \"Jose Jimenez\"}");
+        HttpResponse<String> forced = send("POST", "/customers", "{\"fullName\": \"Jose Jimenez\", \"force\": true}");
+        HttpResponse<String> search = send("GET", "/customers?q=jos%C3%A9", null);
+        HttpResponse<String> missingRental = send("POST", "/rentals/99/finish", null);
+        HttpResponse<String> badJson = send("POST", "/animals", "{\"name\": ");
+        HttpResponse<String> badType = send("POST", "/rentals", "{\"animalId\": 1, \"customerId\": 1, \"type\": \"DAILY\"}");
+        HttpResponse<String> wrongMethod = send("DELETE", "/animals", null);
+
+        // Assert
+        assertEquals(409, duplicate.statusCode(), "Sin 'force' un posible duplicado no se registra");
+        assertTrue(duplicate.body().contains("\"possibleDuplicates\":[{\"id\":1,"), duplicate.body());
+        assertEquals(201, forced.statusCode());
+        assertEquals("[{\"id\":1,\"fullName\":\"José Giménez\"},{\"id\":2,\"fullName\":\"Jose Jimenez\"}]", search.body());
+        assertEquals(404, missingRental.statusCode());
+        assertEquals(400, badJson.statusCode());
+        assertTrue(badJson.body().startsWith("{\"error\":\"JSON inválido"), badJson.body());
+        assertEquals(400, badType.statusCode());
+        assertEquals(405, wrongMethod.statusCode());
+    }
+
+    @Test
+    void customerSearch_capsHugeLimitsAndRejectsNonPositiveOnes() throws Exception {
+        // Arrange
+        send("POST", "/customers", "{\"fullName\": \"María García\"}");
+
+        // Act
+        HttpResponse<String> huge = send("GET", "/customers?q=gar&limit=200000000", null);
+        HttpResponse<String> max = send("GET", "/customers?q=gar&limit=" + Integer.MAX_VALUE, null);
+        HttpResponse<String> zero = send("GET", "/customers?q=gar&limit=0", null);
+        HttpResponse<String> negative = send("GET", "/customers?q=gar&limit=-5", null);
+
+        // Assert
+        assertEquals(200, huge.statusCode(), huge.body());
+        assertEquals("[{\"id\":1,\"fullName\":\"María García\"}]", huge.body());
+        assertEquals(200, max.statusCode(), max.body());
+        assertEquals(400, zero.statusCode());
+        assertEquals(400, negative.statusCode());
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + server.port() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,13 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+/**
+ * Las mismas pruebas de índices que {@link InMemoryRentalRepositoryTest}, sobre
+ * {@link ConcurrentRentalRepository}.
+ */
+public class ConcurrentRentalRepositoryTest extends InMemoryRentalRepositoryTest {
+
+    @Override
+    protected RentalRepository newRepository() {
+        return new ConcurrentRentalRepository();
+    }
+}
@@ -0,0 +1,145 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de estrés de los repositorios concurrentes.
+ * <p>
+ * Lanza {@value #WRITERS} hilos escritores que arrancan a la vez (como varios
+ * puestos de atención en un fin de semana) y verifica que no hay IDs
+ * duplicados, actualizaciones perdidas ni índices inconsistentes.
+ */
+public class ConcurrentRepositoryStressTest {
+
+    private static final int WRITERS = 32;
+    private static final int SAVES_PER_WRITER = 2_000;
+
+    @Test
+    void concurrentInserts_neverProduceDuplicateIds() throws Exception {
+        CustomerRepository customers = new ConcurrentCustomerRepository();
+
+        List<List<Integer>> idsPerWriter = runWriters(writer -> {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < SAVES_PER_WRITER; i++) {
+                ids.add(customers.save(new Customer(0, "Cliente " + writer + "-" + i)).getId());
+            }
+            return ids;
+        });
+
+        Set<Integer> unique = new HashSet<>();
+        idsPerWriter.forEach(unique::addAll);
+        assertEquals(WRITERS * SAVES_PER_WRITER, unique.size(), "Cada alta debería recibir un ID único");
+        assertEquals(WRITERS * SAVES_PER_WRITER, customers.findAll().size(), "No debería perderse ningún alta");
+    }
+
+    @Test
+    void concurrentStatusChanges_keepStatusIndexConsistent() throws Exception {
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+
+        runWriters(writer -> {
+            for (int i = 0; i < SAVES_PER_WRITER; i++) {
+                Animal animal = animals.save(new Animal(0, "Animal " + writer + "-" + i,
+                        AnimalType.HORSE, AnimalStatus.AVAILABLE));
+                // Alternar el estado varias veces; la mitad termina alquilada
+                for (int flip = 0; flip < 3; flip++) {
+                    animal.setStatus(animal.getStatus() == AnimalStatus.AVAILABLE
+                            ? AnimalStatus.RENTED : AnimalStatus.AVAILABLE);
+                    animals.save(animal);
+                }
+                if (i % 2 == 0) {
+                    animal.setStatus(AnimalStatus.AVAILABLE);
+                    animals.save(animal);
+                }
+            }
+            return null;
+        });
+
+        int total = WRITERS * SAVES_PER_WRITER;
+        List<Animal> available = animals.findByStatus(AnimalStatus.AVAILABLE);
+        List<Animal> rented = animals.findByStatus(AnimalStatus.RENTED);
+
+        assertEquals(total, animals.findAll().size());
+        assertEquals(total / 2, available.size());
+        assertEquals(total / 2, rented.size());
+        assertTrue(available.stream().allMatch(a -> a.getStatus() == AnimalStatus.AVAILABLE));
+        assertTrue(rented.stream().allMatch(a -> a.getStatus() == AnimalStatus.RENTED));
+    }
+
+    @Test
+    void concurrentRentalLifecycle_keepsActiveAndCustomerIndexesExact() throws Exception {
+        RentalRepository rentals = new ConcurrentRentalRepository();
+        Customer sharedCustomer = new Customer(1, "Colegio San Prado");
+        LocalDateTime start = LocalDateTime.of(2025, 3, 8, 9, 0);
+
+        runWriters(writer -> {
+            Animal animal = new Animal(writer + 1, "Animal " + writer, AnimalType.PIG, AnimalStatus.AVAILABLE);
+            for (int i = 0; i < SAVES_PER_WRITER; i++) {
+                Rental rental = rentals.save(new Rental(0, animal, sharedCustomer,
+                        start.plusSeconds(i), RentalType.SHORT_RIDE));
+                // Todos menos el último alquiler de cada animal se finalizan
+                if (i < SAVES_PER_WRITER - 1) {
+                    rental.setEndTime(rental.getStartTime().plusMinutes(10));
+                    rentals.save(rental);
+                }
+            }
+            return null;
+        });
+
+        int total = WRITERS * SAVES_PER_WRITER;
+        assertEquals(total, rentals.findAll().size());
+        assertEquals(total, rentals.findByCustomer(sharedCustomer.getId()).size(),
+                "El historial del cliente compartido no debería perder alquileres");
+        assertEquals(total, rentals.findStartedBetween(start, start.plusDays(1)).size());
+        for (int writer = 0; writer < WRITERS; writer++) {
+            Animal animal = new Animal(writer + 1, null, AnimalType.PIG, AnimalStatus.RENTED);
+            assertEquals(1, rentals.findActiveByAnimal(animal).size(),
+                    "Cada animal debería tener exactamente un alquiler activo");
+        }
+    }
+
+    /** Ejecuta la tarea en {@value #WRITERS} hilos que arrancan a la vez y devuelve sus resultados. */
+    private static <T> List<T> runWriters(WriterTask<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                int writerId = writer;
+                Callable<T> callable = () -> {
+                    startGate.await();
+                    return task.run(writerId);
+                };
+                futures.add(pool.submit(callable));
+            }
+            startGate.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface WriterTask<T> {
+        T run(int writerId) throws Exception;
+    }
+}
@@ -0,0 +1,91 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link CustomerNameIndex} y la búsqueda por nombre de los repositorios.
+ */
+public class CustomerNameIndexTest {
+
+    @Test
+    void search_isAccentInsensitiveAndRanksCloserWordsFirst() {
+        // Arrange
+        CustomerNameIndex index = new CustomerNameIndex();
+        index.put(1, "Ana Garcimartín");
+        index.put(2, "Luis García-Núñez");
+        index.put(3, "Gar Pérez");
+        index.put(4, "Marta Sánchez");
+        index.put(5, "María García");
+
+        // Act + Assert
+        assertArrayEquals(new int[]{3, 2, 5, 1}, index.search("gar", 10),
+                "Primero la palabra completa, después los prefijos más cortos y a igualdad por ID");
+        assertArrayEquals(new int[]{2, 5}, index.search("GARCÍA", 10));
+        assertArrayEquals(new int[]{2}, index.search("nunez", 10), "Los guiones separan palabras");
+        assertArrayEquals(new int[]{5}, index.search("mar garc", 10), "Todas las palabras deben coincidir");
+        assertArrayEquals(new int[]{3, 2}, index.search("gar", 2));
+        assertEquals(0, index.search("  ", 10).length);
+        assertEquals(0, index.search("zzz", 10).length);
+    }
+
+    @Test
+    void save_keepsIndexInSyncWithRenames() {
+        // Arrange
+        for (CustomerRepository repository : List.of(new InMemoryCustomerRepository(),
+                new ConcurrentCustomerRepository())) {
+            Customer customer = repository.save(new Customer(0, "José Gómez"));
+            repository.save(new Customer(0, "Pedro Gómez"));
+
+            // Act: el cliente cambia de nombre
+            customer.setFullName("José Ortega");
+            repository.save(customer);
+
+            // Assert
+            assertEquals(List.of("Pedro Gómez"), names(repository.searchByName("gomez", 10)),
+                    "El nombre anterior ya no debe encontrarse");
+            assertEquals(List.of("José Ortega"), names(repository.searchByName("orte", 10)));
+            assertEquals(names(CustomerNameIndex.scan(repository.stream(), "jo", 10)),
+                    names(repository.searchByName("jo", 10)),
+                    "El índice y el recorrido completo deben coincidir");
+        }
+    }
+
+    @Test
+    void search_returnsClosestMatchesLikeScan_forMultiWordQueries() {
+        // Arrange: el candidato más cercano aparece después por ID
+        CustomerNameIndex index = new CustomerNameIndex();
+        List<Customer> customers = new ArrayList<>();
+        customers.add(new Customer(1, "Maria Garcimartinez"));
+        customers.add(new Customer(2, "Maria Gar"));
+        String[] first = {"Maria", "Mario", "Marta", "Ana", "Mar"};
+        String[] last = {"Gar", "Garcia", "Garcimartin", "Garrido", "Gomez", "Marin"};
+        Random random = new Random(5);
+        for (int id = 3; id <= 400; id++) {
+            customers.add(new Customer(id, first[random.nextInt(first.length)] + " "
+                    + last[random.nextInt(last.length)] + " " + last[random.nextInt(last.length)]));
+        }
+        customers.forEach(customer -> index.put(customer.getId(), customer.getFullName()));
+
+        // Act + Assert
+        assertArrayEquals(new int[]{2}, index.search("maria gar", 1), "Debe ganar la puntuación, no el ID");
+        for (String query : List.of("maria gar", "mar gar", "gar mar", "ana garc", "mari gom", "gar")) {
+            for (int limit : new int[]{1, 3, 10, 50}) {
+                int[] expected = CustomerNameIndex.scan(customers.stream(), query, limit).stream()
+                        .mapToInt(Customer::getId).toArray();
+                assertArrayEquals(expected, index.search(query, limit),
+                        "El índice y el recorrido completo deben coincidir para '" + query + "' y límite " + limit);
+            }
+        }
+    }
+
+    private static List<String> names(List<Customer> customers) {
+        return customers.stream().map(Customer::getFullName).toList();
+    }
+}
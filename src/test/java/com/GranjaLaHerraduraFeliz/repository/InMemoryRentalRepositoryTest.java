@@ -0,0 +1,107 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para los índices secundarios de {@link InMemoryRentalRepository}.
+ * <p>
+ * Simula un día de paseos con varios clientes para validar las consultas
+ * de alquileres activos, historial por cliente y rango de fechas.
+ */
+public class InMemoryRentalRepositoryTest {
+
+    private static final LocalDateTime MORNING = LocalDateTime.of(2025, 3, 8, 9, 0);
+
+    private RentalRepository rentalRepository;
+    private Animal horse;
+    private Animal pig;
+    private Customer ana;
+    private Customer luis;
+
+    /** Implementación a probar; las subclases prueban otras con las mismas reglas. */
+    protected RentalRepository newRepository() {
+        return new InMemoryRentalRepository();
+    }
+
+    @BeforeEach
+    void setUp() {
+        rentalRepository = newRepository();
+        horse = new Animal(1, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE);
+        pig = new Animal(2, "Manchitas", AnimalType.PIG, AnimalStatus.AVAILABLE);
+        ana = new Customer(1, "Ana Cliente");
+        luis = new Customer(2, "Luis Jinete");
+    }
+
+    @Test
+    void findActiveByAnimal_dropsRentalOnceFinished() {
+        Rental first = rentalRepository.save(new Rental(0, horse, ana, MORNING, RentalType.SHORT_RIDE));
+        first.setEndTime(MORNING.plusMinutes(20));
+        rentalRepository.save(first);
+
+        Rental second = rentalRepository.save(new Rental(0, horse, luis, MORNING.plusHours(1), RentalType.HOURLY));
+
+        assertEquals(List.of(second), rentalRepository.findActiveByAnimal(horse));
+        assertTrue(rentalRepository.findActiveByAnimal(pig).isEmpty());
+    }
+
+    @Test
+    void findByCustomer_returnsFullHistoryOfCustomer() {
+        Rental r1 = rentalRepository.save(new Rental(0, horse, ana, MORNING, RentalType.SHORT_RIDE));
+        rentalRepository.save(new Rental(0, pig, luis, MORNING, RentalType.SHORT_RIDE));
+        r1.setEndTime(MORNING.plusMinutes(15));
+        rentalRepository.save(r1);
+        Rental r3 = rentalRepository.save(new Rental(0, pig, ana, MORNING.plusHours(2), RentalType.HOURLY));
+
+        assertEquals(List.of(r1, r3), rentalRepository.findByCustomer(ana.getId()));
+        assertTrue(rentalRepository.findByCustomer(99).isEmpty());
+    }
+
+    @Test
+    void findStartedBetween_usesHalfOpenRangeOrderedByStart() {
+        Rental late = rentalRepository.save(new Rental(0, horse, ana, MORNING.plusHours(3), RentalType.HOURLY));
+        Rental early = rentalRepository.save(new Rental(0, pig, luis, MORNING, RentalType.SHORT_RIDE));
+        rentalRepository.save(new Rental(0, pig, ana, MORNING.plusHours(5), RentalType.SHORT_RIDE));
+
+        assertEquals(List.of(early, late),
+                rentalRepository.findStartedBetween(MORNING, MORNING.plusHours(5)));
+    }
+
+    @Test
+    void save_replacingInstanceUpdatesIndexes() {
+        Rental original = rentalRepository.save(new Rental(0, horse, ana, MORNING, RentalType.SHORT_RIDE));
+
+        Rental edited = new Rental(original.getId(), pig, luis, MORNING.plusHours(1), RentalType.HOURLY);
+        rentalRepository.save(edited);
+
+        assertTrue(rentalRepository.findActiveByAnimal(horse).isEmpty());
+        assertEquals(List.of(edited), rentalRepository.findActiveByAnimal(pig));
+        assertTrue(rentalRepository.findByCustomer(ana.getId()).isEmpty());
+        assertTrue(rentalRepository.findStartedBetween(MORNING, MORNING.plusMinutes(1)).isEmpty());
+        assertEquals(1, rentalRepository.findAll().size());
+    }
+
+    @Test
+    void save_copyWithSameKeysReplacesInstanceInEveryIndex() {
+        Rental original = rentalRepository.save(new Rental(0, horse, ana, MORNING, RentalType.SHORT_RIDE));
+
+        // Copias (como las que devuelve JDBC) con las mismas claves; la última se finaliza
+        Rental copy = new Rental(original.getId(), horse, ana, MORNING, RentalType.SHORT_RIDE);
+        rentalRepository.save(copy);
+        Rental reopened = new Rental(original.getId(), horse, ana, MORNING, RentalType.SHORT_RIDE);
+        rentalRepository.save(reopened);
+        reopened.setEndTime(MORNING.plusMinutes(30));
+        rentalRepository.save(reopened);
+
+        assertTrue(rentalRepository.findActiveByAnimal(horse).isEmpty());
+        assertSame(reopened, rentalRepository.findByCustomer(ana.getId()).get(0));
+        assertEquals(1, rentalRepository.findByCustomer(ana.getId()).size());
+        assertSame(reopened, rentalRepository.findStartedBetween(MORNING, MORNING.plusMinutes(1)).get(0));
+    }
+}
@@ -0,0 +1,99 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.service.AnimalService;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link IndexedAnimalRepository}.
+ * <p>
+ * Verifica que el repositorio indexado cumple el mismo contrato que la
+ * versión basada en lista cuando lo usan {@link AnimalService} y
+ * {@link RentalService}, y que el índice por estado se mantiene al día.
+ */
+public class IndexedAnimalRepositoryTest {
+
+    private AnimalRepository animalRepository;
+    private CustomerRepository customerRepository;
+    private AnimalService animalService;
+    private RentalService rentalService;
+
+    @BeforeEach
+    void setUp() {
+        animalRepository = new IndexedAnimalRepository();
+        customerRepository = new InMemoryCustomerRepository();
+        animalService = new AnimalService(animalRepository);
+        rentalService = new RentalService(animalRepository, customerRepository, new InMemoryRentalRepository());
+    }
+
+    @Test
+    void save_assignsIncrementalIdsAndFindsById() {
+        Animal a1 = animalService.registerAnimal("Pegaso", AnimalType.HORSE);
+        Animal a2 = animalService.registerAnimal("Manchitas", AnimalType.PIG);
+
+        assertEquals(1, a1.getId());
+        assertEquals(2, a2.getId());
+        assertSame(a2, animalRepository.findById(2));
+        assertNull(animalRepository.findById(99), "Un ID inexistente debería devolver null");
+    }
+
+    @Test
+    void findByStatus_followsStatusChangesOnSave() {
+        Animal a1 = animalService.registerAnimal("Pegaso", AnimalType.HORSE);
+        animalService.registerAnimal("Manchitas", AnimalType.PIG);
+
+        a1.setStatus(AnimalStatus.RENTED);
+        animalRepository.save(a1);
+
+        assertEquals(1, animalRepository.findByStatus(AnimalStatus.AVAILABLE).size());
+        assertEquals(List.of(a1), animalRepository.findByStatus(AnimalStatus.RENTED));
+        assertEquals(2, animalService.listAllAnimals().size());
+    }
+
+    @Test
+    void findByStatus_keepsIdOrderWhenAnimalReturnsToBucket() {
+        Animal a1 = animalService.registerAnimal("Pegaso", AnimalType.HORSE);
+        Animal a2 = animalService.registerAnimal("Manchitas", AnimalType.PIG);
+        Animal a3 = animalService.registerAnimal("Platero", AnimalType.DONKEY);
+
+        a1.setStatus(AnimalStatus.RENTED);
+        animalRepository.save(a1);
+        a1.setStatus(AnimalStatus.AVAILABLE);
+        animalRepository.save(a1);
+
+        assertEquals(List.of(a1, a2, a3), animalRepository.findByStatus(AnimalStatus.AVAILABLE),
+                "El animal devuelto recupera su puesto, igual que en la versión basada en lista");
+    }
+
+    @Test
+    void rentalLifecycle_movesAnimalBetweenStatusBuckets() {
+        Animal horse = animalService.registerAnimal("Relámpago", AnimalType.HORSE);
+        Customer customer = new Customer();
+        customer.setFullName("Ana Cliente");
+        customer = customerRepository.save(customer);
+
+        Rental rental = rentalService.startRental(horse.getId(), customer.getId(), RentalType.SHORT_RIDE);
+        assertTrue(animalService.listAvailableAnimals().isEmpty(), "El caballo no debería figurar como disponible");
+
+        rentalService.finishRental(rental.getId());
+        assertEquals(List.of(horse), animalService.listAvailableAnimals());
+        assertTrue(animalRepository.findByStatus(AnimalStatus.RENTED).isEmpty());
+    }
+
+    @Test
+    void save_withExplicitIdDoesNotCollideWithGeneratedIds() {
+        Animal imported = new Animal(10, "Importado", AnimalType.DONKEY, AnimalStatus.AVAILABLE);
+        animalRepository.save(imported);
+
+        Animal next = animalService.registerAnimal("Nuevo", AnimalType.HORSE);
+
+        assertEquals(11, next.getId());
+        assertSame(imported, animalRepository.findById(10));
+    }
+}
@@ -0,0 +1,49 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link IntIntMap}.
+ */
+public class IntIntMapTest {
+
+    @Test
+    void putGetAndMissing() {
+        IntIntMap map = new IntIntMap();
+
+        assertEquals(IntIntMap.MISSING, map.put(3, 30));
+        assertEquals(30, map.put(3, 31));
+
+        assertEquals(31, map.get(3));
+        assertEquals(IntIntMap.MISSING, map.get(4));
+        assertTrue(map.containsKey(3));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        IntIntMap map = new IntIntMap(2);
+        Map<Integer, Integer> reference = new HashMap<>();
+        Random random = new Random(11);
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                Integer expected = reference.remove(key);
+                assertEquals(expected == null ? IntIntMap.MISSING : expected, map.remove(key));
+            } else {
+                Integer expected = reference.put(key, i);
+                assertEquals(expected == null ? IntIntMap.MISSING : expected, map.put(key, i));
+            }
+        }
+
+        assertEquals(reference.size(), map.size());
+        reference.forEach((key, value) -> assertEquals(value, map.get(key)));
+    }
+}
@@ -0,0 +1,111 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link IntObjectStore}.
+ * <p>
+ * Además de las operaciones básicas, mide la memoria asignada por el hilo
+ * durante millones de búsquedas para comprobar que {@code findById}
+ * de los repositorios en memoria no genera basura.
+ */
+public class IntObjectStoreTest {
+
+    private static final int LOOKUPS = 1_000_000;
+
+    /** Margen para asignaciones ajenas a la búsqueda (p. ej. la propia medición). */
+    private static final long ALLOCATION_TOLERANCE_BYTES = 16 * 1024;
+
+    @Test
+    void putGetAndReplace() {
+        IntObjectStore<String> store = new IntObjectStore<>();
+
+        assertNull(store.put(7, "siete"));
+        assertEquals("siete", store.put(7, "SIETE"));
+
+        assertEquals("SIETE", store.get(7));
+        assertNull(store.get(8));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void keepsInsertionOrderAcrossGrowth() {
+        IntObjectStore<Integer> store = new IntObjectStore<>(2);
+        for (int i = 1; i <= 1_000; i++) {
+            store.put(i, i * 10);
+        }
+
+        assertEquals(1_000, store.size());
+        for (int i = 0; i < store.size(); i++) {
+            assertEquals(i + 1, store.keyAt(i));
+            assertEquals((i + 1) * 10, store.valueAt(i));
+        }
+    }
+
+    @Test
+    void removeMatchesHashMapUnderRandomOperations() {
+        IntObjectStore<Integer> store = new IntObjectStore<>();
+        Map<Integer, Integer> reference = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(2_000) - 1_000;
+            if (random.nextInt(3) == 0) {
+                assertEquals(reference.remove(key), store.remove(key));
+            } else {
+                assertEquals(reference.put(key, i), store.put(key, i));
+            }
+        }
+
+        assertEquals(reference.size(), store.size());
+        reference.forEach((key, value) -> assertEquals(value, store.get(key)));
+    }
+
+    @Test
+    void findById_doesNotAllocate() {
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        for (int i = 0; i < 10_000; i++) {
+            animals.save(new Animal(0, "Animal " + i, AnimalType.HORSE, AnimalStatus.AVAILABLE));
+            customers.save(new Customer(0, "Cliente " + i));
+        }
+
+        // Calentamiento para que el JIT compile la ruta de búsqueda
+        lookup(animals, customers, LOOKUPS);
+
+        long before = allocatedBytes();
+        long checksum = lookup(animals, customers, LOOKUPS);
+        long allocated = allocatedBytes() - before;
+
+        assertTrue(checksum > 0);
+        assertTrue(allocated < ALLOCATION_TOLERANCE_BYTES,
+                "findById no debería asignar memoria; asignados " + allocated + " bytes en "
+                        + (2 * LOOKUPS) + " búsquedas");
+    }
+
+    private static long lookup(AnimalRepository animals, CustomerRepository customers, int iterations) {
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            int id = 1 + (i % 10_000);
+            checksum += animals.findById(id).getId();
+            checksum += customers.findById(id).getId();
+        }
+        return checksum;
+    }
+
+    private static long allocatedBytes() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return threads.getThreadAllocatedBytes(Thread.currentThread().threadId());
+    }
+}
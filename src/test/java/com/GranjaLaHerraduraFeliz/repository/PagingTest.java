@@ -0,0 +1,115 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
+import com.GranjaLaHerraduraFeliz.repository.history.ColumnarRentalHistory;
+import com.GranjaLaHerraduraFeliz.repository.history.HistoryRentalRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link Paging} y los métodos {@code findPage}/{@code stream}
+ * de los repositorios en memoria.
+ */
+public class PagingTest {
+
+    /** IDs consecutivos con un hueco grande y un ID explícito muy alto. */
+    private static final List<Integer> SPARSE_IDS = List.of(1, 2, 3, 500, 501, 1_000_000, Integer.MAX_VALUE);
+
+    @Test
+    void findPage_walksSparseIdsInOrderForEveryAnimalRepository() {
+        List<Supplier<AnimalRepository>> factories = List.of(
+                InMemoryAnimalRepository::new, IndexedAnimalRepository::new, ConcurrentAnimalRepository::new,
+                CopyOnWriteAnimalRepository::new);
+        for (Supplier<AnimalRepository> factory : factories) {
+            // Arrange: guardados en desorden
+            AnimalRepository repository = factory.get();
+            for (int i = SPARSE_IDS.size() - 1; i >= 0; i--) {
+                repository.save(new Animal(SPARSE_IDS.get(i), "Animal " + i, AnimalType.HORSE, AnimalStatus.AVAILABLE));
+            }
+
+            // Act: páginas de 2 usando el último ID como cursor
+            List<Integer> walked = new ArrayList<>();
+            int cursor = 0;
+            List<Animal> page;
+            do {
+                page = repository.findPage(cursor, 2);
+                for (Animal animal : page) {
+                    walked.add(animal.getId());
+                }
+                if (!page.isEmpty()) {
+                    cursor = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == 2);
+
+            // Assert
+            String name = repository.getClass().getSimpleName();
+            assertEquals(SPARSE_IDS, walked, "Recorrido por páginas incorrecto en " + name);
+            assertEquals(SPARSE_IDS, repository.stream().map(Animal::getId).toList(),
+                    "El flujo debería devolver todos los animales en orden en " + name);
+            assertTrue(repository.findPage(Integer.MAX_VALUE, 10).isEmpty());
+        }
+    }
+
+    @Test
+    void stream_spansSeveralPagesLazily() {
+        // Arrange: más elementos que una página del flujo
+        CustomerRepository repository = new ConcurrentCustomerRepository();
+        int total = Paging.STREAM_PAGE_SIZE * 3 + 7;
+        for (int i = 0; i < total; i++) {
+            repository.save(new Customer(0, "Cliente " + i));
+        }
+        int[] pagesRequested = {0};
+        Paging.PageSource<Customer> counting = (afterId, limit) -> {
+            pagesRequested[0]++;
+            return repository.findPage(afterId, limit);
+        };
+
+        // Act
+        List<Customer> firstTen = Paging.stream(counting, Customer::getId).limit(10).toList();
+        long count = repository.stream().count();
+
+        // Assert
+        assertEquals(10, firstTen.size());
+        assertEquals(1, pagesRequested[0], "Tomar diez elementos solo debería pedir una página");
+        assertEquals(total, count);
+        assertThrows(IllegalArgumentException.class, () -> repository.findPage(0, 0));
+    }
+
+    @Test
+    void findPage_mergesActiveAndFinishedRentalsOfHistoryRepository() {
+        // Arrange: alquileres alternando activos y finalizados
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer ana = customers.save(new Customer(0, "Ana Núñez"));
+        RentalRepository rentals = new HistoryRentalRepository(animals, customers, new ColumnarRentalHistory());
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < 10; i++) {
+            Rental rental = new Rental(0, horse, ana, start.plusHours(i), RentalType.HOURLY);
+            if (i % 2 == 0) {
+                rental.setEndTime(start.plusHours(i).plusMinutes(30));
+            }
+            rentals.save(rental);
+        }
+
+        // Act
+        List<Rental> page = rentals.findPage(3, 4);
+
+        // Assert
+        assertEquals(List.of(4, 5, 6, 7), page.stream().map(Rental::getId).toList());
+        assertNull(page.get(0).getEndTime(), "El alquiler 4 sigue activo");
+        assertNotNull(page.get(1).getEndTime(), "El alquiler 5 está en el historial");
+        assertEquals(10, rentals.stream().count());
+    }
+}
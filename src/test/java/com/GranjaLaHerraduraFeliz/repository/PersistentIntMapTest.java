@@ -0,0 +1,86 @@
+package com.GranjaLaHerraduraFeliz.repository;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link PersistentIntMap} y {@link CopyOnWriteAnimalRepository}.
+ */
+public class PersistentIntMapTest {
+
+    @Test
+    void randomOperations_matchTreeMapAndKeepOldVersionsIntact() {
+        // Arrange: IDs densos y algunos dispersos, comparados con un TreeMap
+        Random random = new Random(42);
+        PersistentIntMap<String> map = PersistentIntMap.empty();
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        List<PersistentIntMap<String>> versions = new ArrayList<>();
+        List<TreeMap<Integer, String>> expectedVersions = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            int key = random.nextInt(10) == 0 ? random.nextInt(Integer.MAX_VALUE) : random.nextInt(5_000);
+            if (random.nextInt(4) == 0) {
+                map = map.without(key);
+                expected.remove(key);
+            } else {
+                map = map.with(key, "v" + i);
+                expected.put(key, "v" + i);
+            }
+            if (i % 2_000 == 0) {
+                versions.add(map);
+                expectedVersions.add(new TreeMap<>(expected));
+            }
+        }
+
+        // Assert
+        assertEquals(expected.size(), map.size());
+        assertEquals(new ArrayList<>(expected.values()), new ArrayList<>(map.values()),
+                "Los valores deberían recorrerse en orden de clave");
+        for (Map.Entry<Integer, String> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(new ArrayList<>(expectedVersions.get(i).values()), new ArrayList<>(versions.get(i).values()),
+                    "Una versión anterior no debería cambiar con las escrituras posteriores");
+        }
+        int middle = 2_500;
+        List<String> page = map.valuesAfter(middle, 50);
+        assertEquals(new ArrayList<>(expected.tailMap(middle, false).values()).subList(0, 50), page);
+        assertEquals(map.values().get(10), new ArrayList<>(expected.values()).get(10));
+        assertTrue(map.valuesAfter(-1, 10).isEmpty());
+    }
+
+    @Test
+    void copyOnWriteRepository_snapshotIsIsolatedFromLaterSaves() {
+        // Arrange
+        CopyOnWriteAnimalRepository repository = new CopyOnWriteAnimalRepository();
+        Animal horse = repository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        repository.save(new Animal(0, "Centella", AnimalType.DONKEY, AnimalStatus.AVAILABLE));
+        CopyOnWriteAnimalRepository.Snapshot before = repository.snapshot();
+        List<Animal> availableBefore = repository.findByStatus(AnimalStatus.AVAILABLE);
+
+        // Act: el caballo pasa a alquilado y llega un animal nuevo
+        horse.setStatus(AnimalStatus.RENTED);
+        repository.save(horse);
+        repository.save(new Animal(0, "Tornado", AnimalType.PIG, AnimalStatus.AVAILABLE));
+
+        // Assert
+        assertEquals(2, before.size(), "La instantánea anterior no ve el animal nuevo");
+        assertEquals(2, availableBefore.size(), "La vista anterior conserva su cubeta");
+        assertEquals(List.of(2, 3), repository.findByStatus(AnimalStatus.AVAILABLE).stream().map(Animal::getId).toList());
+        assertEquals(List.of(1), repository.findByStatus(AnimalStatus.RENTED).stream().map(Animal::getId).toList());
+        assertEquals(3, repository.findAll().size());
+        assertThrows(UnsupportedOperationException.class, () -> repository.findAll().add(horse));
+    }
+}
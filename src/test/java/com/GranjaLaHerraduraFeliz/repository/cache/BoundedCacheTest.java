@@ -0,0 +1,74 @@
+package com.GranjaLaHerraduraFeliz.repository.cache;
+
+import com.GranjaLaHerraduraFeliz.model.Animal;
+import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
+import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link BoundedCache} y {@link CachingAnimalRepository}.
+ */
+public class BoundedCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedAndCountsHits() {
+        // Arrange
+        BoundedCache<String> cache = new BoundedCache<>(2, 1);
+        cache.get(1, key -> "uno");
+        cache.get(2, key -> "dos");
+
+        // Act: leer la 1 la vuelve la más reciente, así que la 3 expulsa a la 2
+        String hit = cache.get(1, key -> "otro");
+        cache.get(3, key -> "tres");
+
+        // Assert
+        assertEquals("uno", hit, "Un acierto no debe volver a cargar el valor");
+        assertNull(cache.getIfPresent(2), "La clave menos usada debe salir");
+        assertEquals("uno", cache.getIfPresent(1));
+        BoundedCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(3, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    void loadRacingWithInvalidationIsNotCached() {
+        // Arrange
+        BoundedCache<String> cache = new BoundedCache<>(16);
+
+        // Act: una escritura invalida la clave mientras se carga el valor anterior
+        String loaded = cache.get(7, key -> {
+            cache.invalidate(key);
+            return "antes de guardar";
+        });
+
+        // Assert
+        assertEquals("antes de guardar", loaded);
+        assertNull(cache.getIfPresent(7), "No debe quedar en caché un valor anterior a la escritura");
+        assertNull(cache.get(8, key -> null));
+        assertNull(cache.getIfPresent(8), "Las claves inexistentes no se guardan");
+    }
+
+    @Test
+    void saveInvalidatesCachedAnimal() {
+        // Arrange
+        var repository = new CachingAnimalRepository(new InMemoryAnimalRepository(), 100);
+        Animal lola = repository.save(new Animal(0, "Lola", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        repository.findById(lola.getId());
+
+        // Act: guardar otra instancia con el mismo ID reemplaza la que estaba en caché
+        repository.save(new Animal(lola.getId(), "Lola II", AnimalType.HORSE, AnimalStatus.RENTED));
+        Animal reloaded = repository.findById(lola.getId());
+
+        // Assert
+        assertEquals("Lola II", reloaded.getName(), "La lectura tras guardar debe ver el cambio");
+        assertSame(reloaded, repository.findById(lola.getId()));
+        assertEquals(1, repository.cacheStats().hits());
+        assertEquals(2, repository.cacheStats().misses());
+        assertNull(repository.findById(999));
+    }
+}
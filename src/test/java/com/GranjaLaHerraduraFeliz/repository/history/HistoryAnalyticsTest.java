@@ -0,0 +1,95 @@
+package com.GranjaLaHerraduraFeliz.repository.history;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link HistoryAnalytics}.
+ */
+public class HistoryAnalyticsTest {
+
+    @Test
+    void parallelScan_matchesSequentialLoop() {
+        // Arrange: filas sintéticas que empiezan cada 7 minutos desde un lunes
+        ColumnarRentalHistory history = new ColumnarRentalHistory();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 8, 0);
+        int rows = 50_000;
+        for (int i = 0; i < rows; i++) {
+            LocalDateTime start = base.plusMinutes(7L * i);
+            history.put(i + 1, 1 + i % 40, 1 + i % 997, RentalHistory.toEpochNanos(start),
+                    RentalHistory.toEpochNanos(start.plusMinutes(10 + i % 50)),
+                    RentalHistory.toTypeCode(RentalType.values()[i % 2]));
+        }
+        HistoryAnalytics.RowPredicate saturdayHourly = HistoryAnalytics.startedOn(DayOfWeek.SATURDAY)
+                .and(HistoryAnalytics.rentalType(RentalType.HOURLY));
+        long expectedCount = 0;
+        long[] expectedMinutes = new long[41];
+        BitSet expectedCustomers = new BitSet();
+        for (int row = 0; row < rows; row++) {
+            LocalDateTime start = RentalHistory.fromEpochNanos(history.startNanos(row));
+            if (start.getDayOfWeek() == DayOfWeek.SATURDAY && history.rentalType(row) == RentalType.HOURLY.ordinal()) {
+                expectedCount++;
+                expectedMinutes[history.animalId(row)] += 10 + row % 50;
+                expectedCustomers.set(history.customerId(row));
+            }
+        }
+
+        // Act
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            HistoryAnalytics analytics = new HistoryAnalytics(pool);
+
+            // Assert
+            assertTrue(expectedCount > 0, "Los datos de prueba deben incluir sábados");
+            assertEquals(expectedCount, analytics.count(history, saturdayHourly));
+            assertArrayEquals(expectedMinutes, analytics.minutesByAnimal(history, saturdayHourly, 40));
+            assertEquals(expectedCustomers, analytics.customers(history, saturdayHourly));
+            assertEquals(rows, analytics.count(history, HistoryAnalytics.RowPredicate.ALL));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void readHistory_answersAdHocQueryOverRepository() {
+        // Arrange: Ana alquila un cerdo en sábado, Luis un cerdo en lunes y Eva un caballo en sábado
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        HistoryRentalRepository rentals = new HistoryRentalRepository(animals, customers, new ColumnarRentalHistory());
+        Animal pig = animals.save(new Animal(0, "Manchitas", AnimalType.PIG, AnimalStatus.AVAILABLE));
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer ana = customers.save(new Customer(0, "Ana"));
+        Customer luis = customers.save(new Customer(0, "Luis"));
+        Customer eva = customers.save(new Customer(0, "Eva"));
+        LocalDateTime saturday = LocalDateTime.of(2024, 3, 9, 11, 0);
+        finish(rentals, pig, ana, saturday);
+        finish(rentals, pig, luis, saturday.plusDays(2));
+        finish(rentals, horse, eva, saturday);
+        BitSet pigs = new BitSet();
+        animals.findAll().stream()
+                .filter(animal -> animal.getType() == AnimalType.PIG)
+                .forEach(animal -> pigs.set(animal.getId()));
+
+        // Act
+        BitSet result = rentals.readHistory(history -> new HistoryAnalytics().customers(history,
+                HistoryAnalytics.animalIn(pigs).and(HistoryAnalytics.startedOn(DayOfWeek.SATURDAY))));
+
+        // Assert
+        assertEquals(1, result.cardinality());
+        assertTrue(result.get(ana.getId()), "Solo Ana alquiló un cerdo en sábado");
+    }
+
+    private static void finish(HistoryRentalRepository rentals, Animal animal, Customer customer, LocalDateTime start) {
+        Rental rental = rentals.save(new Rental(0, animal, customer, start, RentalType.SHORT_RIDE));
+        rental.setEndTime(start.plusMinutes(30));
+        rentals.save(rental);
+    }
+}
@@ -0,0 +1,174 @@
+package com.GranjaLaHerraduraFeliz.repository.history;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.*;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link HistoryRentalRepository} y {@link ColumnarRentalHistory}.
+ */
+public class HistoryRentalRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 9, 11, 15, 42, 987_654_000);
+
+    private AnimalRepository animals;
+    private CustomerRepository customers;
+    private ColumnarRentalHistory history;
+    private HistoryRentalRepository rentals;
+    private Animal horse;
+    private Animal pig;
+    private Customer ana;
+    private Customer luis;
+
+    @BeforeEach
+    void setUp() {
+        animals = new InMemoryAnimalRepository();
+        customers = new InMemoryCustomerRepository();
+        history = new ColumnarRentalHistory(4);
+        rentals = new HistoryRentalRepository(animals, customers, history);
+        horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        pig = animals.save(new Animal(0, "Manchitas", AnimalType.PIG, AnimalStatus.AVAILABLE));
+        ana = customers.save(new Customer(0, "Ana"));
+        luis = customers.save(new Customer(0, "Luis"));
+    }
+
+    @Test
+    void finishedRental_movesToColumnsAndIsReadBackAsView() {
+        // Arrange
+        Rental rental = rentals.save(new Rental(0, horse, ana, START, RentalType.HOURLY));
+
+        // Act
+        rental.setEndTime(START.plusHours(2));
+        rentals.save(rental);
+        Rental view = rentals.findById(rental.getId());
+
+        // Assert
+        assertEquals(1, history.size(), "El alquiler finalizado debe pasar al historial");
+        assertNotSame(rental, view);
+        assertEquals(START, view.getStartTime(), "Las fechas deben conservar la precisión");
+        assertEquals(START.plusHours(2), view.getEndTime());
+        assertEquals(RentalType.HOURLY, view.getRentalType());
+        assertSame(horse, view.getAnimal(), "La vista debe compartir la instancia del repositorio");
+        assertSame(ana, view.getCustomer());
+        assertTrue(rentals.findActiveByAnimal(horse).isEmpty());
+    }
+
+    @Test
+    void queries_combineActiveRentalsAndHistory() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            Rental rental = rentals.save(new Rental(0, i % 2 == 0 ? horse : pig, i < 5 ? ana : luis,
+                    START.plusDays(i), RentalType.SHORT_RIDE));
+            if (i < 8) {
+                rental.setEndTime(START.plusDays(i).plusHours(1));
+                rentals.save(rental);
+            }
+        }
+
+        // Act
+        List<Rental> all = rentals.findAll();
+        List<Rental> ofLuis = rentals.findByCustomer(luis.getId());
+        List<Rental> range = rentals.findStartedBetween(START.plusDays(3), START.plusDays(9));
+
+        // Assert
+        assertEquals(10, all.size());
+        assertEquals(List.of(6, 7, 8, 9, 10), ofLuis.stream().map(Rental::getId).toList());
+        assertEquals(List.of(4, 5, 6, 7, 8, 9), range.stream().map(Rental::getId).toList());
+        assertEquals(1, rentals.findActiveByAnimal(horse).size());
+        assertEquals(1, rentals.findActiveByAnimal(pig).size());
+    }
+
+    @Test
+    void reopenedRental_leavesHistory() {
+        // Arrange
+        Rental rental = rentals.save(new Rental(0, horse, ana, START, RentalType.HOURLY));
+        rental.setEndTime(START.plusHours(1));
+        rentals.save(rental);
+
+        // Act
+        Rental view = rentals.findById(rental.getId());
+        view.setEndTime(null);
+        rentals.save(view);
+
+        // Assert
+        assertEquals(0, history.size());
+        assertSame(view, rentals.findActiveByAnimal(horse).get(0));
+    }
+
+    @Test
+    void historyIndexes_followExistingRowsEditsAndReopenings() {
+        // Arrange: un historial ya cargado (por ejemplo, desde disco) con inicios desordenados
+        ColumnarRentalHistory loaded = new ColumnarRentalHistory(4);
+        for (int id = 1; id <= 6; id++) {
+            long start = RentalHistory.toEpochNanos(START.plusHours(7 - id));
+            loaded.put(id, horse.getId(), id % 2 == 0 ? ana.getId() : luis.getId(), start,
+                    start + 1_000, RentalHistory.toTypeCode(RentalType.SHORT_RIDE));
+        }
+        HistoryRentalRepository repository = new HistoryRentalRepository(animals, customers, loaded);
+
+        // Act: se corrige el cliente y la hora de un alquiler finalizado y se reabre otro
+        Rental corrected = repository.findById(1);
+        corrected.setCustomer(ana);
+        corrected.setStartTime(START);
+        repository.save(corrected);
+        Rental reopened = repository.findById(4);
+        reopened.setEndTime(null);
+        repository.save(reopened);
+        Rental unchanged = repository.findById(2);
+        unchanged.setEndTime(unchanged.getEndTime().plusMinutes(5));
+        repository.save(unchanged);
+
+        // Assert
+        assertEquals(List.of(1, 2, 4, 6), repository.findByCustomer(ana.getId()).stream().map(Rental::getId).toList());
+        assertEquals(List.of(3, 5), repository.findByCustomer(luis.getId()).stream().map(Rental::getId).toList());
+        assertEquals(List.of(1, 6, 5, 4, 3),
+                repository.findStartedBetween(START, START.plusHours(5)).stream().map(Rental::getId).toList(),
+                "El rango va ordenado por inicio e incluye el alquiler reabierto");
+        assertEquals(List.of(2), repository.findStartedBetween(START.plusHours(5), START.plusHours(6))
+                .stream().map(Rental::getId).toList());
+        assertTrue(repository.findStartedBetween(START.minusHours(1), START).isEmpty());
+    }
+
+    @Test
+    void removingRow_keepsRemainingRowsReachable() {
+        // Arrange
+        for (int id = 1; id <= 5; id++) {
+            history.put(id, id * 10, id * 100, id, id + 1, (byte) 0);
+        }
+
+        // Act
+        history.remove(2);
+
+        // Assert
+        assertEquals(4, history.size());
+        assertEquals(-1, history.indexOf(2));
+        for (int id : new int[]{1, 3, 4, 5}) {
+            int row = history.indexOf(id);
+            assertEquals(id * 10, history.animalId(row));
+            assertEquals(id * 100, history.customerId(row));
+        }
+    }
+
+    @Test
+    void rentalService_worksOnTopOfColumnarHistory() {
+        // Arrange
+        RentalService service = new RentalService(animals, customers, rentals);
+
+        // Act
+        Rental first = service.startRental(horse.getId(), ana.getId(), RentalType.HOURLY);
+        service.finishRental(first.getId());
+        Rental second = service.startRental(horse.getId(), luis.getId(), RentalType.SHORT_RIDE);
+
+        // Assert
+        assertNotNull(rentals.findById(first.getId()).getEndTime());
+        assertEquals(second.getId(), rentals.findActiveByAnimal(horse).get(0).getId());
+        assertEquals(first.getId() + 1, second.getId());
+    }
+}
@@ -0,0 +1,99 @@
+package com.GranjaLaHerraduraFeliz.repository.history;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link OffHeapRentalHistory}.
+ */
+public class OffHeapRentalHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rowsSpanSeveralSegments() throws Exception {
+        // Arrange
+        int rows = OffHeapRentalHistory.ROWS_PER_SEGMENT * 2 + 10;
+
+        try (OffHeapRentalHistory history = OffHeapRentalHistory.inMemory()) {
+            // Act
+            for (int id = 1; id <= rows; id++) {
+                history.put(id, id % 7, id % 13, id * 1_000L, id * 1_000L + 500, (byte) (id % 3));
+            }
+
+            // Assert
+            assertEquals(rows, history.size());
+            for (int id : new int[]{1, OffHeapRentalHistory.ROWS_PER_SEGMENT, OffHeapRentalHistory.ROWS_PER_SEGMENT + 1, rows}) {
+                int row = history.indexOf(id);
+                assertEquals(id, history.rentalId(row));
+                assertEquals(id % 7, history.animalId(row));
+                assertEquals(id % 13, history.customerId(row));
+                assertEquals(id * 1_000L, history.startNanos(row));
+                assertEquals(id * 1_000L + 500, history.endNanos(row));
+                assertEquals(id % 3, history.rentalType(row));
+            }
+        }
+    }
+
+    @Test
+    void fileBackedHistory_survivesReopen() throws Exception {
+        // Arrange
+        Path path = tempDir.resolve("granja.history");
+        LocalDateTime start = LocalDateTime.of(2023, 7, 14, 16, 5, 1, 250_000_000);
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer ana = customers.save(new Customer(0, "Ana"));
+        int removedId;
+        int keptId;
+
+        try (OffHeapRentalHistory history = OffHeapRentalHistory.open(path)) {
+            var rentals = new HistoryRentalRepository(animals, customers, history);
+            for (int i = 0; i < 3; i++) {
+                Rental rental = rentals.save(new Rental(0, horse, ana, start.plusDays(i), RentalType.SHORT_RIDE));
+                rental.setEndTime(start.plusDays(i).plusMinutes(30));
+                rentals.save(rental);
+            }
+            removedId = 1;
+            keptId = 3;
+            Rental reopened = rentals.findById(removedId);
+            reopened.setEndTime(null);
+            rentals.save(reopened);
+        }
+
+        // Act
+        try (OffHeapRentalHistory history = OffHeapRentalHistory.open(path)) {
+            var rentals = new HistoryRentalRepository(animals, customers, history);
+
+            // Assert
+            assertEquals(2, history.size());
+            assertEquals(-1, history.indexOf(removedId));
+            Rental kept = rentals.findById(keptId);
+            assertEquals(start.plusDays(2), kept.getStartTime());
+            assertEquals(start.plusDays(2).plusMinutes(30), kept.getEndTime());
+            assertSame(horse, kept.getAnimal());
+            assertEquals(keptId + 1, rentals.save(new Rental()).getId(), "Los IDs deben continuar tras el historial");
+        }
+    }
+
+    @Test
+    void closedHistory_rejectsAccess() throws Exception {
+        // Arrange
+        OffHeapRentalHistory history = OffHeapRentalHistory.inMemory();
+        history.put(1, 1, 1, 0, 1, (byte) 0);
+
+        // Act
+        history.close();
+
+        // Assert
+        assertThrows(IllegalStateException.class, () -> history.startNanos(0));
+    }
+}
@@ -0,0 +1,157 @@
+package com.GranjaLaHerraduraFeliz.repository.jdbc;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para los repositorios JDBC sobre una base H2 embebida.
+ */
+public class JdbcRepositoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcConnectionPool pool;
+    private JdbcAnimalRepository animals;
+    private JdbcCustomerRepository customers;
+    private JdbcRentalRepository rentals;
+
+    @BeforeEach
+    void setUp() {
+        pool = new JdbcConnectionPool("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "", 4);
+        JdbcSchema.create(pool);
+        animals = new JdbcAnimalRepository(pool);
+        customers = new JdbcCustomerRepository(pool);
+        rentals = new JdbcRentalRepository(pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void saveAndFind_roundTripsAllEntities() {
+        // Arrange
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer ana = customers.save(new Customer(0, "Ana Núñez"));
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 10, 0, 0, 123_456_789);
+
+        // Act
+        Rental rental = rentals.save(new Rental(0, horse, ana, start, RentalType.HOURLY));
+        Rental found = rentals.findById(rental.getId());
+
+        // Assert
+        assertEquals(1, horse.getId());
+        assertEquals("Relámpago", animals.findById(horse.getId()).getName());
+        assertEquals("Ana Núñez", found.getCustomer().getFullName());
+        assertEquals(AnimalType.HORSE, found.getAnimal().getType());
+        assertEquals(start, found.getStartTime(), "La fecha debe conservar los nanosegundos");
+        assertNull(found.getEndTime());
+        assertEquals(1, rentals.findActiveByAnimal(horse).size());
+        assertEquals(List.of(horse.getId()),
+                animals.findByStatus(AnimalStatus.AVAILABLE).stream().map(Animal::getId).toList());
+        assertNull(rentals.findById(99));
+    }
+
+    @Test
+    void saveAll_insertsBatchAndAssignsIds() {
+        // Arrange
+        Customer ana = customers.save(new Customer(0, "Ana"));
+        List<Animal> herd = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            herd.add(new Animal(0, "Animal " + i, AnimalType.PIG, AnimalStatus.AVAILABLE));
+        }
+
+        // Act
+        animals.saveAll(herd);
+        List<Rental> batch = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 9, 0);
+        for (int i = 0; i < herd.size(); i++) {
+            batch.add(new Rental(0, herd.get(i), ana, start.plusMinutes(i), RentalType.SHORT_RIDE));
+        }
+        rentals.saveAll(batch);
+
+        // Assert
+        assertEquals(50, animals.findAll().size());
+        assertEquals(50, herd.get(49).getId());
+        assertEquals(50, rentals.findByCustomer(ana.getId()).size());
+        assertEquals(10, rentals.findStartedBetween(start.plusMinutes(5), start.plusMinutes(15)).size());
+    }
+
+    @Test
+    void findPage_usesIdCursor() {
+        // Arrange
+        List<Customer> batch = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            batch.add(new Customer(0, "Cliente " + i));
+        }
+        customers.saveAll(batch);
+
+        // Act
+        List<Customer> page = customers.findPage(2, 3);
+
+        // Assert
+        assertEquals(List.of(3, 4, 5), page.stream().map(Customer::getId).toList());
+        assertEquals(7, customers.stream().count());
+        assertTrue(rentals.findPage(0, 10).isEmpty());
+    }
+
+    @Test
+    void findActiveByAnimal_usesAnimalEndTimeIndex() {
+        // Act
+        String plan = pool.execute(connection -> {
+            try (ResultSet rows = connection.connection().createStatement()
+                    .executeQuery("EXPLAIN " + JdbcRentalRepository.ACTIVE_BY_ANIMAL.replace("?", "1"))) {
+                rows.next();
+                return rows.getString(1);
+            }
+        });
+
+        // Assert
+        assertTrue(plan.toUpperCase().contains(JdbcSchema.ACTIVE_RENTAL_INDEX),
+                "La consulta debe usar el índice de activos. Plan: " + plan);
+    }
+
+    @Test
+    void rentalService_finishesOnceAndDataSurvivesReopen() {
+        // Arrange
+        String url = "jdbc:h2:" + tempDir.resolve("granja").toAbsolutePath();
+        int rentalId;
+        try (JdbcConnectionPool filePool = new JdbcConnectionPool(url, "sa", "", 2)) {
+            JdbcSchema.create(filePool);
+            var fileAnimals = new JdbcAnimalRepository(filePool);
+            var fileCustomers = new JdbcCustomerRepository(filePool);
+            var service = new RentalService(fileAnimals, fileCustomers, new JdbcRentalRepository(filePool));
+            int horseId = fileAnimals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE)).getId();
+            int anaId = fileCustomers.save(new Customer(0, "Ana")).getId();
+
+            // Act
+            rentalId = service.startRental(horseId, anaId, RentalType.HOURLY).getId();
+            service.finishRental(rentalId);
+        }
+
+        // Assert
+        try (JdbcConnectionPool reopened = new JdbcConnectionPool(url, "sa", "", 1)) {
+            JdbcSchema.create(reopened);
+            Rental rental = new JdbcRentalRepository(reopened).findById(rentalId);
+            assertNotNull(rental.getEndTime());
+            assertEquals(AnimalStatus.AVAILABLE, rental.getAnimal().getStatus());
+            assertEquals(2, new JdbcAnimalRepository(reopened).save(new Animal()).getId(),
+                    "Los IDs deben continuar desde la base existente");
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.GranjaLaHerraduraFeliz.repository.journal;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.*;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import com.GranjaLaHerraduraFeliz.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link Journal} y {@link JournalRecovery}.
+ * <p>
+ * Simula reinicios de la aplicación: se opera con repositorios con journal,
+ * se cierra el journal y se reconstruye el estado en repositorios nuevos.
+ */
+public class JournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void replay_restoresAnimalsCustomersAndRentals() throws Exception {
+        Path path = tempDir.resolve("granja.journal");
+        int finishedId;
+        int activeId;
+        try (Journal journal = Journal.open(path, FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            var animals = new JournaledAnimalRepository(new InMemoryAnimalRepository(), journal);
+            var customers = new JournaledCustomerRepository(new InMemoryCustomerRepository(), journal);
+            var rentals = new JournaledRentalRepository(new InMemoryRentalRepository(), journal);
+            var service = new RentalService(animals, customers, rentals);
+
+            Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+            Animal pig = animals.save(new Animal(0, "Manchitas", AnimalType.PIG, AnimalStatus.AVAILABLE));
+            Customer ana = customers.save(new Customer(0, "Ana Cliente"));
+
+            finishedId = service.startRental(horse.getId(), ana.getId(), RentalType.SHORT_RIDE).getId();
+            service.finishRental(finishedId);
+            activeId = service.startRental(pig.getId(), ana.getId(), RentalType.HOURLY).getId();
+        }
+
+        // "Reinicio": repositorios nuevos reconstruidos desde el journal
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        RentalRepository rentals = new InMemoryRentalRepository();
+        new JournalRecovery(animals, customers, rentals).replay(path);
+
+        assertEquals(2, animals.findAll().size());
+        assertEquals(1, customers.findAll().size());
+        assertEquals(List.of(animals.findById(1)), animals.findByStatus(AnimalStatus.AVAILABLE));
+        assertNotNull(rentals.findById(finishedId).getEndTime());
+
+        Rental active = rentals.findById(activeId);
+        assertNull(active.getEndTime());
+        assertSame(animals.findById(2), active.getAnimal(),
+                "El alquiler debería apuntar a la misma instancia que el repositorio de animales");
+        assertEquals(List.of(active), rentals.findActiveByAnimal(active.getAnimal()));
+
+        // Los IDs nuevos continúan después de los recuperados
+        assertEquals(3, animals.save(new Animal(0, "Nube", AnimalType.PIG, AnimalStatus.AVAILABLE)).getId());
+    }
+
+    @Test
+    void replay_restoresReservationsAndCancellations() throws Exception {
+        // Arrange
+        Path path = tempDir.resolve("granja.journal");
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        int keptId;
+        int cancelledId;
+        try (Journal journal = Journal.open(path, FsyncPolicy.ALWAYS, Duration.ZERO)) {
+            var animals = new JournaledAnimalRepository(new InMemoryAnimalRepository(), journal);
+            var customers = new JournaledCustomerRepository(new InMemoryCustomerRepository(), journal);
+            var reservations = new ReservationService(animals, customers,
+                    new JournaledReservationRepository(new ConcurrentReservationRepository(), journal));
+            int horseId = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE)).getId();
+            int anaId = customers.save(new Customer(0, "Ana Cliente")).getId();
+            keptId = reservations.reserve(horseId, anaId, tomorrow, tomorrow.plusHours(1), RentalType.HOURLY).getId();
+            cancelledId = reservations.reserve(horseId, anaId, tomorrow.plusHours(2), tomorrow.plusHours(3),
+                    RentalType.HOURLY).getId();
+            reservations.cancel(cancelledId);
+        }
+
+        // Act
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        ReservationRepository reservations = new ConcurrentReservationRepository();
+        new JournalRecovery(animals, customers, new InMemoryRentalRepository(), reservations).replay(path);
+
+        // Assert
+        Reservation kept = reservations.findById(keptId);
+        assertNotNull(kept, "La reserva debe recuperarse del journal");
+        assertEquals(tomorrow, kept.getStartTime());
+        assertEquals(RentalType.HOURLY, kept.getRentalType());
+        assertSame(animals.findById(1), kept.getAnimal());
+        assertTrue(reservations.findById(cancelledId).isCancelled(), "La cancelación debe recuperarse");
+        var service = new ReservationService(animals, customers, reservations);
+        assertFalse(service.isFree(1, tomorrow, tomorrow.plusMinutes(30)));
+        assertTrue(service.isFree(1, tomorrow.plusHours(2), tomorrow.plusHours(3)));
+    }
+
+    @Test
+    void save_whenAppendFails_leavesWrappedRepositoryUnchanged() throws Exception {
+        // Arrange
+        Path path = tempDir.resolve("granja.journal");
+        AnimalRepository base = new InMemoryAnimalRepository();
+        RentalRepository baseRentals = new InMemoryRentalRepository();
+        Journal journal = Journal.open(path, FsyncPolicy.ALWAYS, Duration.ZERO);
+        var animals = new JournaledAnimalRepository(base, journal);
+        var rentals = new JournaledRentalRepository(baseRentals, journal);
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer ana = new Customer(1, "Ana Cliente");
+        journal.close();
+
+        // Act
+        assertThrows(IllegalStateException.class,
+                () -> animals.save(new Animal(0, "Platero", AnimalType.DONKEY, AnimalStatus.AVAILABLE)));
+        assertThrows(IllegalStateException.class,
+                () -> rentals.saveAll(List.of(new Rental(0, horse, ana, LocalDateTime.now(), RentalType.HOURLY))));
+
+        // Assert
+        assertEquals(1, base.findAll().size(), "Un cambio sin registrar no debe aplicarse en memoria");
+        assertTrue(baseRentals.findAll().isEmpty());
+        AnimalRepository recovered = new InMemoryAnimalRepository();
+        new JournalRecovery(recovered, new InMemoryCustomerRepository(), new InMemoryRentalRepository()).replay(path);
+        assertEquals(List.of(horse.getId()), recovered.findAll().stream().map(Animal::getId).toList());
+    }
+
+    @Test
+    void open_discardsTornTailAndKeepsAppending() throws Exception {
+        Path path = tempDir.resolve("granja.journal");
+        try (Journal journal = Journal.open(path, FsyncPolicy.NONE, Duration.ZERO)) {
+            journal.append(JournalCodec.CUSTOMER, JournalCodec.encodeCustomer(new Customer(1, "Ana")));
+        }
+        // Simula un registro a medio escribir por un corte de luz
+        Files.write(path, new byte[]{0, 0, 0, 42, JournalCodec.CUSTOMER, 1, 2}, StandardOpenOption.APPEND);
+
+        try (Journal journal = Journal.open(path, FsyncPolicy.NONE, Duration.ZERO)) {
+            journal.append(JournalCodec.CUSTOMER, JournalCodec.encodeCustomer(new Customer(2, "Luis")));
+        }
+
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        new JournalRecovery(new InMemoryAnimalRepository(), customers, new InMemoryRentalRepository()).replay(path);
+        assertEquals(2, customers.findAll().size());
+        assertEquals("Luis", customers.findById(2).getFullName());
+    }
+
+    @Test
+    void groupCommit_makesAllConcurrentWritesDurable() throws Exception {
+        Path path = tempDir.resolve("granja.journal");
+        int writers = 16;
+        int perWriter = 200;
+        try (Journal journal = Journal.open(path, FsyncPolicy.GROUP, Duration.ofMillis(1))) {
+            var customers = new JournaledCustomerRepository(new ConcurrentCustomerRepository(), journal);
+            ExecutorService pool = Executors.newFixedThreadPool(writers);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perWriter; i++) {
+                        customers.save(new Customer(0, "Cliente " + writer + "-" + i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+        }
+
+        CustomerRepository recovered = new InMemoryCustomerRepository();
+        new JournalRecovery(new InMemoryAnimalRepository(), recovered, new InMemoryRentalRepository()).replay(path);
+        assertEquals(writers * perWriter, recovered.findAll().size());
+    }
+}
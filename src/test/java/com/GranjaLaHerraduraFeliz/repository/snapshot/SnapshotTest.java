@@ -0,0 +1,286 @@
+package com.GranjaLaHerraduraFeliz.repository.snapshot;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.*;
+import com.GranjaLaHerraduraFeliz.repository.journal.*;
+import com.GranjaLaHerraduraFeliz.service.RentalService;
+import com.GranjaLaHerraduraFeliz.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link SnapshotWriter}, {@link MappedSnapshot} y
+ * {@link SnapshotRentalRepository}.
+ * <p>
+ * Simulan un reinicio: se escribe una instantánea, se sigue operando con journal
+ * y se reconstruye el estado mapeando la instantánea y reproduciendo solo la cola
+ * del journal.
+ */
+public class SnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void snapshot_roundTripsAnimalsCustomersAndRentals() throws Exception {
+        // Arrange
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+        CustomerRepository customers = new ConcurrentCustomerRepository();
+        RentalRepository rentals = new ConcurrentRentalRepository();
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal unnamed = animals.save(new Animal(0, null, AnimalType.PIG, AnimalStatus.RENTED));
+        Customer ana = customers.save(new Customer(0, "Ana Núñez"));
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123_000_000);
+        Rental finished = rentals.save(new Rental(0, horse, ana, start, RentalType.SHORT_RIDE));
+        finished.setEndTime(start.plusMinutes(20));
+        rentals.save(finished);
+        Rental active = rentals.save(new Rental(0, unnamed, ana, start.plusHours(1), RentalType.HOURLY));
+        Path path = tempDir.resolve("granja.snapshot");
+
+        // Act
+        SnapshotWriter.write(path, 1234, animals, customers, rentals);
+        MappedSnapshot snapshot = MappedSnapshot.open(path);
+        AnimalRepository loadedAnimals = new ConcurrentAnimalRepository();
+        CustomerRepository loadedCustomers = new ConcurrentCustomerRepository();
+        snapshot.loadAnimals(loadedAnimals);
+        snapshot.loadCustomers(loadedCustomers);
+        RentalRepository loaded = new SnapshotRentalRepository(new ConcurrentRentalRepository(),
+                snapshot, loadedAnimals, loadedCustomers);
+
+        // Assert
+        assertEquals(1234, snapshot.journalOffset());
+        assertEquals(2, snapshot.rentalCount());
+        assertEquals("Relámpago", loadedAnimals.findById(horse.getId()).getName());
+        assertNull(loadedAnimals.findById(unnamed.getId()).getName());
+        assertEquals(AnimalStatus.RENTED, loadedAnimals.findById(unnamed.getId()).getStatus());
+        assertEquals("Ana Núñez", loadedCustomers.findById(ana.getId()).getFullName());
+
+        Rental restored = loaded.findById(finished.getId());
+        assertEquals(start, restored.getStartTime(), "Las fechas deben conservar los nanosegundos");
+        assertEquals(start.plusMinutes(20), restored.getEndTime());
+        assertEquals(RentalType.SHORT_RIDE, restored.getRentalType());
+        assertSame(loadedAnimals.findById(horse.getId()), restored.getAnimal());
+
+        assertEquals(1, loaded.findActiveByAnimal(loadedAnimals.findById(unnamed.getId())).size());
+        assertEquals(active.getId(), loaded.findActiveByAnimal(loadedAnimals.findById(unnamed.getId())).get(0).getId());
+        assertTrue(loaded.findActiveByAnimal(loadedAnimals.findById(horse.getId())).isEmpty());
+        assertEquals(2, loaded.findAll().size());
+        assertEquals(List.of(finished.getId(), active.getId()),
+                loaded.findByCustomer(ana.getId()).stream().map(Rental::getId).toList());
+        assertEquals(1, loaded.findStartedBetween(start, start.plusMinutes(1)).size());
+        assertNull(loaded.findById(999));
+    }
+
+    @Test
+    void restart_mapsSnapshotAndReplaysOnlyJournalTail() throws Exception {
+        Path journalPath = tempDir.resolve("granja.journal");
+        Path snapshotPath = tempDir.resolve("granja.snapshot");
+        int beforeSnapshotId;
+        int afterSnapshotId;
+        int horseId;
+        try (Journal journal = Journal.open(journalPath, FsyncPolicy.NONE, Duration.ZERO)) {
+            AnimalRepository baseAnimals = new ConcurrentAnimalRepository();
+            CustomerRepository baseCustomers = new ConcurrentCustomerRepository();
+            RentalRepository baseRentals = new ConcurrentRentalRepository();
+            var animals = new JournaledAnimalRepository(baseAnimals, journal);
+            var customers = new JournaledCustomerRepository(baseCustomers, journal);
+            var rentals = new JournaledRentalRepository(baseRentals, journal);
+            var service = new RentalService(animals, customers, rentals);
+
+            horseId = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE)).getId();
+            int donkeyId = animals.save(new Animal(0, "Platero", AnimalType.DONKEY, AnimalStatus.AVAILABLE)).getId();
+            int anaId = customers.save(new Customer(0, "Ana Cliente")).getId();
+            beforeSnapshotId = service.startRental(horseId, anaId, RentalType.HOURLY).getId();
+
+            try (var snapshotter = new PeriodicSnapshotter(snapshotPath, journal,
+                    baseAnimals, baseCustomers, baseRentals, Duration.ofHours(1))) {
+                snapshotter.snapshotNow();
+            }
+
+            // Cambios posteriores a la instantánea: solo quedan en el journal
+            service.finishRental(beforeSnapshotId);
+            afterSnapshotId = service.startRental(donkeyId, anaId, RentalType.SHORT_RIDE).getId();
+            Rental tail = rentals.findById(afterSnapshotId);
+            assertNotNull(tail);
+        }
+
+        // "Reinicio"
+        MappedSnapshot snapshot = MappedSnapshot.open(snapshotPath);
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+        CustomerRepository customers = new ConcurrentCustomerRepository();
+        snapshot.loadAnimals(animals);
+        snapshot.loadCustomers(customers);
+        RentalRepository rentals = new SnapshotRentalRepository(new ConcurrentRentalRepository(),
+                snapshot, animals, customers);
+        assertTrue(snapshot.journalOffset() > 0);
+        assertTrue(snapshot.journalOffset() < Files.size(journalPath));
+        new JournalRecovery(animals, customers, rentals).replay(journalPath, snapshot.journalOffset());
+
+        assertNotNull(rentals.findById(beforeSnapshotId).getEndTime(), "La finalización posterior debe recuperarse");
+        assertTrue(rentals.findActiveByAnimal(animals.findById(horseId)).isEmpty());
+        assertNull(rentals.findById(afterSnapshotId).getEndTime());
+        assertEquals(2, rentals.findAll().size());
+
+        // Los IDs nuevos no deben chocar con los recuperados
+        Rental next = rentals.save(new Rental());
+        assertEquals(afterSnapshotId + 1, next.getId());
+    }
+
+    @Test
+    void restart_loadsReservationsFromSnapshotAndReplaysOnlyJournalTail() throws Exception {
+        Path journalPath = tempDir.resolve("granja.journal");
+        Path snapshotPath = tempDir.resolve("granja.snapshot");
+        LocalDateTime tomorrow = LocalDateTime.now().plusDays(1).withHour(10).withMinute(0).withSecond(0).withNano(0);
+        int keptId;
+        int cancelledId;
+        int afterSnapshotId;
+        try (Journal journal = Journal.open(journalPath, FsyncPolicy.NONE, Duration.ZERO)) {
+            AnimalRepository baseAnimals = new ConcurrentAnimalRepository();
+            CustomerRepository baseCustomers = new ConcurrentCustomerRepository();
+            RentalRepository baseRentals = new ConcurrentRentalRepository();
+            ReservationRepository baseReservations = new ConcurrentReservationRepository();
+            var animals = new JournaledAnimalRepository(baseAnimals, journal);
+            var customers = new JournaledCustomerRepository(baseCustomers, journal);
+            var reservations = new ReservationService(animals, customers,
+                    new JournaledReservationRepository(baseReservations, journal));
+            int horseId = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE)).getId();
+            int anaId = customers.save(new Customer(0, "Ana Cliente")).getId();
+            keptId = reservations.reserve(horseId, anaId, tomorrow, tomorrow.plusHours(1),
+                    RentalType.HOURLY).getId();
+            cancelledId = reservations.reserve(horseId, anaId, tomorrow.plusHours(2), tomorrow.plusHours(3),
+                    RentalType.SHORT_RIDE).getId();
+            reservations.cancel(cancelledId);
+
+            try (var snapshotter = new PeriodicSnapshotter(snapshotPath, journal,
+                    baseAnimals, baseCustomers, baseRentals, baseReservations, Duration.ofHours(1))) {
+                snapshotter.snapshotNow();
+            }
+            afterSnapshotId = reservations.reserve(horseId, anaId, tomorrow.plusHours(4), tomorrow.plusHours(5),
+                    RentalType.HOURLY).getId();
+        }
+
+        // "Reinicio": las reservas salen de la instantánea y solo se reproduce la cola del journal
+        MappedSnapshot snapshot = MappedSnapshot.open(snapshotPath);
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+        CustomerRepository customers = new ConcurrentCustomerRepository();
+        ReservationRepository reservations = new ConcurrentReservationRepository();
+        snapshot.loadAnimals(animals);
+        snapshot.loadCustomers(customers);
+        snapshot.loadReservations(reservations, animals, customers);
+        RentalRepository rentals = new SnapshotRentalRepository(new ConcurrentRentalRepository(),
+                snapshot, animals, customers);
+        new JournalRecovery(animals, customers, rentals, reservations).replay(journalPath, snapshot.journalOffset());
+
+        assertTrue(snapshot.hasReservations());
+        Reservation kept = reservations.findById(keptId);
+        assertNotNull(kept, "La reserva anterior a la instantánea debe recuperarse");
+        assertEquals(tomorrow, kept.getStartTime());
+        assertEquals(tomorrow.plusHours(1), kept.getEndTime());
+        assertEquals(RentalType.HOURLY, kept.getRentalType());
+        assertSame(animals.findById(kept.getAnimal().getId()), kept.getAnimal());
+        assertTrue(reservations.findById(cancelledId).isCancelled(), "La cancelación debe guardarse en la instantánea");
+        assertEquals(RentalType.SHORT_RIDE, reservations.findById(cancelledId).getRentalType());
+        assertNotNull(reservations.findById(afterSnapshotId), "La reserva posterior sale de la cola del journal");
+        assertEquals(3, reservations.findPage(0, 10).size());
+
+        // Los IDs nuevos no deben chocar con los recuperados
+        assertEquals(afterSnapshotId + 1, reservations.save(new Reservation()).getId());
+    }
+
+    @Test
+    void write_whilePreviousSnapshotIsMapped_createsNewGenerationInsteadOfReplacingIt() throws Exception {
+        // Arrange
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+        CustomerRepository customers = new ConcurrentCustomerRepository();
+        RentalRepository rentals = new ConcurrentRentalRepository();
+        animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Path path = tempDir.resolve("granja.snapshot");
+        assertFalse(MappedSnapshot.exists(path));
+        SnapshotWriter.write(path, 10, animals, customers, rentals);
+        MappedSnapshot first = MappedSnapshot.open(path);
+
+        // Act: el arranque sigue teniendo mapeada la primera instantánea
+        animals.save(new Animal(0, "Platero", AnimalType.DONKEY, AnimalStatus.AVAILABLE));
+        SnapshotWriter.write(path, 20, animals, customers, rentals);
+        MappedSnapshot second = MappedSnapshot.open(path);
+
+        // Assert
+        assertNotEquals(first.path(), second.path(), "Cada instantánea debe escribirse en un archivo nuevo");
+        assertEquals(10, first.journalOffset(), "El mapeo anterior debe seguir siendo legible");
+        assertEquals(20, second.journalOffset());
+        assertTrue(MappedSnapshot.exists(path));
+        AnimalRepository loaded = new ConcurrentAnimalRepository();
+        assertEquals(2, second.loadAnimals(loaded));
+    }
+
+    @Test
+    void open_usesBaseFileWrittenBeforeGenerations() throws Exception {
+        // Arrange: instantánea con el nombre base, como la escribían versiones anteriores
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+        animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Path path = tempDir.resolve("granja.snapshot");
+        SnapshotWriter.write(path, 42, animals, new ConcurrentCustomerRepository(), new ConcurrentRentalRepository());
+        Files.move(MappedSnapshot.open(path).path(), path);
+
+        // Act
+        MappedSnapshot snapshot = MappedSnapshot.open(path);
+
+        // Assert
+        assertEquals(path, snapshot.path());
+        assertEquals(42, snapshot.journalOffset());
+    }
+
+    @Test
+    void open_rejectsFileWithoutMagic() throws Exception {
+        // Arrange
+        Path path = tempDir.resolve("broken.snapshot");
+        Files.write(path, new byte[128]);
+
+        // Act + Assert
+        assertThrows(java.io.IOException.class, () -> MappedSnapshot.open(path));
+    }
+
+    @Test
+    void findPage_mergesLiveChangesWithSnapshotRecords() throws Exception {
+        // Arrange: cinco alquileres finalizados en la instantánea
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+        CustomerRepository customers = new ConcurrentCustomerRepository();
+        RentalRepository rentals = new ConcurrentRentalRepository();
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer ana = customers.save(new Customer(0, "Ana Núñez"));
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 10, 0);
+        for (int i = 0; i < 5; i++) {
+            Rental rental = new Rental(0, horse, ana, start.plusHours(i), RentalType.HOURLY);
+            rental.setEndTime(start.plusHours(i).plusMinutes(30));
+            rentals.save(rental);
+        }
+        Path path = tempDir.resolve("granja.snapshot");
+        SnapshotWriter.write(path, 0, animals, customers, rentals);
+        RentalRepository loaded = new SnapshotRentalRepository(new ConcurrentRentalRepository(),
+                MappedSnapshot.open(path), animals, customers);
+
+        // Cambios posteriores: uno reabierto (oculta su registro) y uno nuevo
+        Rental reopened = loaded.findById(3);
+        reopened.setEndTime(null);
+        loaded.save(reopened);
+        loaded.save(new Rental(0, horse, ana, start.plusDays(1), RentalType.SHORT_RIDE));
+
+        // Act
+        List<Rental> first = loaded.findPage(0, 4);
+        List<Rental> second = loaded.findPage(first.get(first.size() - 1).getId(), 4);
+
+        // Assert
+        assertEquals(List.of(1, 2, 3, 4), first.stream().map(Rental::getId).toList());
+        assertNull(first.get(2).getEndTime(), "El alquiler 3 debe venir del repositorio vivo");
+        assertEquals(List.of(5, 6), second.stream().map(Rental::getId).toList());
+        assertEquals(6, loaded.stream().count());
+    }
+}
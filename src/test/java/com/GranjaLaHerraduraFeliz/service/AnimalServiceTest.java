@@ -3,12 +3,20 @@ package com.GranjaLaHerraduraFeliz.service;
 import com.GranjaLaHerraduraFeliz.model.Animal;
 import com.GranjaLaHerraduraFeliz.model.AnimalStatus;
 import com.GranjaLaHerraduraFeliz.model.AnimalType;
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.model.Rental;
+import com.GranjaLaHerraduraFeliz.model.RentalType;
 import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
 import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -73,4 +81,56 @@ public class AnimalServiceTest {
         // Assert
         assertEquals(2, all.size(), "Debería listar todos los animales registrados");
     }
+
+    @Test
+    void availabilityView_tracksRentalTransitionsPerType() {
+        // Arrange: un animal ya existente antes de crear la vista y dos registrados después
+        Animal existing = animalRepository.save(new Animal(0, "Pegaso", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        AvailabilityView view = new AvailabilityView(animalRepository);
+        AnimalService service = new AnimalService(animalRepository, view);
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        RentalService rentalService = new RentalService(animalRepository, customers, new InMemoryRentalRepository());
+        rentalService.addStatusListener(view);
+        Customer customer = customers.save(new Customer(0, "Ana Cliente"));
+        Animal second = service.registerAnimal("Relámpago", AnimalType.HORSE);
+        service.registerAnimal("Manchitas", AnimalType.PIG);
+
+        // Act
+        Rental rental = rentalService.startRental(existing.getId(), customer.getId(), RentalType.HOURLY);
+        int horsesWhileRented = service.countAvailable(AnimalType.HORSE);
+        List<Animal> freeHorses = service.listAvailable(AnimalType.HORSE);
+        rentalService.finishRental(rental.getId());
+
+        // Assert
+        assertEquals(1, horsesWhileRented, "Con un caballo alquilado queda uno libre");
+        assertEquals(List.of(second.getId()), freeHorses.stream().map(Animal::getId).toList());
+        assertEquals(2, service.countAvailable(AnimalType.HORSE));
+        assertEquals(1, service.countAvailable(AnimalType.PIG));
+        assertEquals(0, service.countAvailable(AnimalType.DONKEY));
+        assertEquals(0, service.availabilityMatrix().count(AnimalType.HORSE, AnimalStatus.RENTED));
+        assertEquals(2, service.availabilityMatrix().total(AnimalType.HORSE));
+        assertEquals(3, service.listAvailableAnimals().size());
+    }
+
+    @Test
+    void registerAnimal_withCustomerWaiting_handsNewAnimalToFirstInQueue() throws Exception {
+        // Arrange: no hay cerditos y un cliente se pone en la cola
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        RentalService rentalService = new RentalService(animalRepository, customers, new InMemoryRentalRepository());
+        AnimalService service = new AnimalService(animalRepository, null, rentalService);
+        Customer customer = customers.save(new Customer(0, "Niño Cliente"));
+        CompletableFuture<Rental> wait = rentalService.joinWaitlist(AnimalType.PIG, customer.getId(),
+                RentalType.SHORT_RIDE);
+
+        // Act
+        Animal pig = service.registerAnimal("Manchitas", AnimalType.PIG);
+        Animal horse = service.registerAnimal("Pegaso", AnimalType.HORSE);
+
+        // Assert
+        assertEquals(pig.getId(), wait.get(1, TimeUnit.SECONDS).getAnimal().getId(),
+                "El cerdito nuevo debería entregarse al cliente que esperaba");
+        assertEquals(AnimalStatus.RENTED, pig.getStatus());
+        assertEquals(AnimalStatus.AVAILABLE, horse.getStatus(), "Sin cola para caballos, el alta queda libre");
+        assertEquals(0, rentalService.waitlistSize(AnimalType.PIG));
+    }
 }
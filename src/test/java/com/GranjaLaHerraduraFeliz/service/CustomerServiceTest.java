@@ -1,12 +1,19 @@
 package com.GranjaLaHerraduraFeliz.service;
 
 import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
 import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
 import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -51,4 +58,40 @@ public class CustomerServiceTest {
         assertTrue(customers.stream()
                 .anyMatch(c -> "Cliente Uno".equals(c.getFullName())));
     }
+
+    @Test
+    void registerCustomerChecked_withoutForce_registersOnlyOneOfConcurrentDuplicates() throws Exception {
+        // Arrange: varios mostradores registran a la misma persona a la vez
+        CustomerService service = new CustomerService(new ConcurrentCustomerRepository());
+        int counters = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(counters);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CustomerService.Registration>> futures = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < counters; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return service.registerCustomerChecked("José Giménez", false);
+            }));
+        }
+        start.countDown();
+        int registered = 0;
+        for (Future<CustomerService.Registration> future : futures) {
+            CustomerService.Registration registration = future.get(5, TimeUnit.SECONDS);
+            if (registration.registered()) {
+                registered++;
+            } else {
+                assertFalse(registration.possibleDuplicates().isEmpty(),
+                        "Un registro rechazado debe traer los posibles duplicados");
+            }
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(1, registered, "Solo el primer registro debería pasar la comprobación");
+        assertEquals(1, service.listAllCustomers().size());
+        assertTrue(service.registerCustomerChecked("Jose Jimenez", true).registered(),
+                "Con force se registra aunque haya duplicados");
+    }
 }
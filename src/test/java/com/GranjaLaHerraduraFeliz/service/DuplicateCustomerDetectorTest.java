@@ -0,0 +1,54 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.Customer;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link DuplicateCustomerDetector} y el registro con
+ * comprobación de duplicados de {@link CustomerService}.
+ */
+public class DuplicateCustomerDetectorTest {
+
+    @Test
+    void phonetic_equatesSpanishSpellingsThatSoundAlike() {
+        // Act + Assert
+        assertEquals(DuplicateCustomerDetector.phonetic("jimenez"), DuplicateCustomerDetector.phonetic("gimenes"));
+        assertEquals(DuplicateCustomerDetector.phonetic("vazquez"), DuplicateCustomerDetector.phonetic("basques"));
+        assertEquals(DuplicateCustomerDetector.phonetic("hernandez"), DuplicateCustomerDetector.phonetic("ernandes"));
+        assertEquals(DuplicateCustomerDetector.phonetic("guillermo"), DuplicateCustomerDetector.phonetic("guiyermo"));
+        assertEquals(DuplicateCustomerDetector.phonetic("cecilia"), DuplicateCustomerDetector.phonetic("sesilia"));
+        assertNotEquals(DuplicateCustomerDetector.phonetic("garcia"), DuplicateCustomerDetector.phonetic("garza"));
+        assertNotEquals(DuplicateCustomerDetector.phonetic("gema"), DuplicateCustomerDetector.phonetic("guema"),
+                "En gue la u no suena, pero la g sigue siendo distinta de la j");
+    }
+
+    @Test
+    void registerCustomerChecked_flagsLikelyDuplicatesButNotRelatives() {
+        // Arrange: clientes ya guardados antes de crear el servicio
+        CustomerRepository repository = new InMemoryCustomerRepository();
+        Customer jose = repository.save(new Customer(0, "José Giménez Vázquez"));
+        Customer sister = repository.save(new Customer(0, "Lucía Giménez Vázquez"));
+        Customer cousin = repository.save(new Customer(0, "José Giménez Pérez"));
+        CustomerService service = new CustomerService(repository);
+
+        // Act
+        CustomerService.Registration reordered = service.registerCustomerChecked("Jimenez Basquez, Jose");
+        List<Customer> shortName = service.findPossibleDuplicates("jose jimenez");
+        CustomerService.Registration unrelated = service.registerCustomerChecked("Marta Ruiz");
+
+        // Assert
+        assertEquals(List.of(jose), reordered.possibleDuplicates(),
+                "Mismo nombre con otra ortografía y otro orden; la hermana y el primo no son la misma persona");
+        assertTrue(reordered.customer().getId() > cousin.getId(), "El registro se completa aunque haya candidatos");
+        assertEquals(List.of(jose, cousin, reordered.customer()), shortName,
+                "Sin segundo apellido coincide con todos los José Giménez, incluido el recién registrado");
+        assertFalse(shortName.contains(sister));
+        assertTrue(unrelated.possibleDuplicates().isEmpty());
+    }
+}
@@ -0,0 +1,99 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import com.GranjaLaHerraduraFeliz.util.HashedTimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link OverdueMonitor}.
+ */
+public class OverdueMonitorTest {
+
+    private final AnimalRepository animals = new ConcurrentAnimalRepository();
+    private final CustomerRepository customers = new ConcurrentCustomerRepository();
+    private final RentalRepository rentals = new ConcurrentRentalRepository();
+    private final RentalService rentalService = new RentalService(animals, customers, rentals);
+
+    @Test
+    void overdueRental_isReportedAndAutoFinished_whileFinishedOneIsNot() throws Exception {
+        // Arrange: paseos cortos de 50 ms, con finalización automática
+        Customer customer = customers.save(new Customer(0, "Carlos Cliente"));
+        Animal late = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal onTime = animals.save(new Animal(0, "Centella", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal hourly = animals.save(new Animal(0, "Platero", AnimalType.DONKEY, AnimalStatus.AVAILABLE));
+        CompletableFuture<Rental> reported = new CompletableFuture<>();
+
+        try (OverdueMonitor monitor = new OverdueMonitor(rentalService,
+                Map.of(RentalType.SHORT_RIDE, Duration.ofMillis(50)), true,
+                new HashedTimerWheel(Duration.ofMillis(5), 64, "test-overdue"))) {
+            monitor.addOverdueHandler(reported::complete);
+
+            // Act
+            Rental lateRental = rentalService.startRental(late.getId(), customer.getId(), RentalType.SHORT_RIDE);
+            Rental onTimeRental = rentalService.startRental(onTime.getId(), customer.getId(), RentalType.SHORT_RIDE);
+            rentalService.startRental(hourly.getId(), customer.getId(), RentalType.HOURLY);
+            int watchedAtStart = monitor.watching();
+            rentalService.finishRental(onTimeRental.getId());
+            Rental overdue = reported.get(5, TimeUnit.SECONDS);
+            waitUntilFinished(lateRental.getId());
+
+            // Assert
+            assertEquals(2, watchedAtStart, "Solo se vigilan los tipos con límite");
+            assertEquals(lateRental.getId(), overdue.getId());
+            assertNotNull(rentals.findById(lateRental.getId()).getEndTime(), "Debería finalizarse solo");
+            assertEquals(AnimalStatus.AVAILABLE, animals.findById(late.getId()).getStatus());
+            assertEquals(List.of(), monitor.overdueRentals(), "Un vencido finalizado deja de listarse");
+            assertEquals(0, monitor.watching());
+        }
+    }
+
+    @Test
+    void rentalFinishedThroughACopy_isNeverReportedAsOverdue() throws Exception {
+        // Arrange: como con JDBC, el alquiler finalizado es otra instancia que la vigilada
+        Animal animal = new Animal(7, "Canela", AnimalType.PIG, AnimalStatus.RENTED);
+        Customer customer = new Customer(3, "Lucía Pérez");
+        Rental started = new Rental(40, animal, customer, LocalDateTime.now(), RentalType.SHORT_RIDE);
+        Rental finishedCopy = new Rental(40, animal, customer, started.getStartTime(), RentalType.SHORT_RIDE);
+        finishedCopy.setEndTime(LocalDateTime.now());
+        CompletableFuture<Rental> reported = new CompletableFuture<>();
+
+        try (OverdueMonitor monitor = new OverdueMonitor(rentalService,
+                Map.of(RentalType.SHORT_RIDE, Duration.ofMillis(30)), false,
+                new HashedTimerWheel(Duration.ofMillis(5), 64, "test-overdue-copy"))) {
+            monitor.addOverdueHandler(reported::complete);
+
+            // Act
+            monitor.rentalStarted(started);
+            monitor.rentalFinished(finishedCopy);
+            Thread.sleep(150);
+
+            // Assert
+            assertNull(started.getEndTime(), "La instancia vigilada no se entera de la finalización");
+            assertFalse(reported.isDone(), "Un alquiler ya finalizado no debe avisarse como vencido");
+            assertEquals(List.of(), monitor.overdueRentals());
+            assertEquals(0, monitor.watching());
+        }
+    }
+
+    private void waitUntilFinished(int rentalId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (rentals.findById(rentalId).getEndTime() == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
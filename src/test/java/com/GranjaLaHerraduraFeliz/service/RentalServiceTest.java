@@ -3,6 +3,10 @@ package com.GranjaLaHerraduraFeliz.service;
 import com.GranjaLaHerraduraFeliz.Exception.AnimalNotAvailableException;
 import com.GranjaLaHerraduraFeliz.Exception.RentalNotFoundException;
 import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentReservationRepository;
 import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
 import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
 import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
@@ -12,7 +16,18 @@ import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -150,4 +165,403 @@ public class RentalServiceTest {
         // Assert
         assertEquals(2, rentals.size(), "Debería haber dos alquileres registrados");
     }
+
+    @Test
+    void startRental_concurrentRequestsForSameAnimal_haveExactlyOneWinner() throws Exception {
+        // Arrange: varios puestos de atención intentan alquilar el mismo caballo a la vez
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+        CustomerRepository customers = new ConcurrentCustomerRepository();
+        RentalRepository rentals = new ConcurrentRentalRepository();
+        RentalService service = new RentalService(animals, customers, rentals);
+
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        int counters = 32;
+        List<Integer> customerIds = new ArrayList<>();
+        for (int i = 0; i < counters; i++) {
+            customerIds.add(customers.save(new Customer(0, "Cliente " + i)).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(counters);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int customerId : customerIds) {
+            attempts.add(pool.submit(() -> {
+                startGate.await();
+                try {
+                    service.startRental(horse.getId(), customerId, RentalType.SHORT_RIDE);
+                    return true;
+                } catch (AnimalNotAvailableException e) {
+                    return false;
+                }
+            }));
+        }
+
+        // Act
+        startGate.countDown();
+        int winners = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get(30, TimeUnit.SECONDS)) {
+                winners++;
+            }
+        }
+        pool.shutdownNow();
+
+        // Assert
+        assertEquals(1, winners, "Solo una solicitud debería poder alquilar el caballo");
+        assertEquals(1, rentals.findAll().size(), "No debería registrarse una doble asignación");
+        assertEquals(1, rentals.findActiveByAnimal(horse).size());
+    }
+
+    @Test
+    void startRentals_returnsOneResultPerRequestInOrder() {
+        // Arrange: dos caballos disponibles, uno alquilado y un cliente
+        Animal horse1 = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal horse2 = animalRepository.save(new Animal(0, "Centella", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal rented = animalRepository.save(new Animal(0, "Tornado", AnimalType.HORSE, AnimalStatus.RENTED));
+        Customer customer = customerRepository.save(new Customer(0, "Ana Cliente"));
+
+        List<RentalRequest> requests = List.of(
+                new RentalRequest(horse1.getId(), customer.getId(), RentalType.SHORT_RIDE),
+                new RentalRequest(rented.getId(), customer.getId(), RentalType.SHORT_RIDE),
+                new RentalRequest(horse1.getId(), customer.getId(), RentalType.HOURLY),
+                new RentalRequest(horse2.getId(), 9999, RentalType.HOURLY),
+                new RentalRequest(9999, customer.getId(), RentalType.HOURLY),
+                new RentalRequest(horse2.getId(), customer.getId(), RentalType.HOURLY));
+
+        // Act
+        List<RentalResult> results = rentalService.startRentals(requests);
+
+        // Assert
+        assertEquals(requests.size(), results.size(), "Debería haber un resultado por solicitud");
+        assertTrue(results.get(0).isSuccess());
+        assertInstanceOf(AnimalNotAvailableException.class, results.get(1).error());
+        assertInstanceOf(AnimalNotAvailableException.class, results.get(2).error(),
+                "El mismo animal no puede alquilarse dos veces en un lote");
+        assertInstanceOf(IllegalArgumentException.class, results.get(3).error(), "Cliente inexistente");
+        assertInstanceOf(IllegalArgumentException.class, results.get(4).error(), "Animal inexistente");
+        assertTrue(results.get(5).isSuccess(), "Un cliente inexistente no debería bloquear el animal");
+
+        assertEquals(horse1.getId(), results.get(0).rental().getAnimal().getId());
+        assertNotEquals(0, results.get(5).rental().getId(), "El alquiler debería tener un ID asignado");
+        assertEquals(2, rentalRepository.findAll().size());
+        assertEquals(AnimalStatus.RENTED, animalRepository.findById(horse1.getId()).getStatus());
+        assertEquals(AnimalStatus.RENTED, animalRepository.findById(horse2.getId()).getStatus());
+    }
+
+    @Test
+    void finishRentals_finishesEachRentalOnceAndReportsMissingIds() {
+        // Arrange: dos alquileres activos
+        Animal horse1 = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal horse2 = animalRepository.save(new Animal(0, "Centella", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer customer = customerRepository.save(new Customer(0, "Beatriz Cliente"));
+        Rental rental1 = rentalService.startRental(horse1.getId(), customer.getId(), RentalType.SHORT_RIDE);
+        Rental rental2 = rentalService.startRental(horse2.getId(), customer.getId(), RentalType.HOURLY);
+
+        // Act
+        List<RentalResult> results = rentalService.finishRentals(
+                List.of(rental1.getId(), 9999, rental2.getId(), rental1.getId()));
+
+        // Assert
+        assertEquals(4, results.size(), "Debería haber un resultado por ID");
+        assertNotNull(results.get(0).rental().getEndTime(), "El alquiler debería quedar finalizado");
+        assertInstanceOf(RentalNotFoundException.class, results.get(1).error());
+        assertNotNull(results.get(2).rental().getEndTime());
+        assertTrue(results.get(3).isSuccess(), "Un ID repetido se devuelve tal cual");
+        assertEquals(rental1.getId(), results.get(3).rental().getId());
+        assertEquals(AnimalStatus.AVAILABLE, animalRepository.findById(horse1.getId()).getStatus());
+        assertEquals(AnimalStatus.AVAILABLE, animalRepository.findById(horse2.getId()).getStatus());
+        assertTrue(rentalRepository.findActiveByAnimal(horse1).isEmpty());
+    }
+
+    @Test
+    void joinWaitlist_finishRentalHandsAnimalToCustomersInFifoOrder() throws Exception {
+        // Arrange: el único caballo está alquilado y dos clientes esperan; un tercero abandona la cola
+        Animal horse = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer first = customerRepository.save(new Customer(0, "Primera Cliente"));
+        Customer quitter = customerRepository.save(new Customer(0, "Cliente Impaciente"));
+        Customer second = customerRepository.save(new Customer(0, "Segundo Cliente"));
+        Rental current = rentalService.startRental(horse.getId(), first.getId(), RentalType.SHORT_RIDE);
+
+        CompletableFuture<Rental> firstWait = rentalService.joinWaitlist(AnimalType.HORSE, first.getId(), RentalType.HOURLY);
+        CompletableFuture<Rental> quitterWait = rentalService.joinWaitlist(AnimalType.HORSE, quitter.getId(),
+                RentalType.HOURLY);
+        CompletableFuture<Rental> secondWait = rentalService.joinWaitlist(AnimalType.HORSE, second.getId(),
+                RentalType.SHORT_RIDE);
+        rentalService.leaveWaitlist(AnimalType.HORSE, quitter.getId());
+
+        // Act
+        rentalService.finishRental(current.getId());
+        Rental handedToFirst = firstWait.get(1, TimeUnit.SECONDS);
+        rentalService.finishRental(handedToFirst.getId());
+        Rental handedToSecond = secondWait.get(1, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(quitterWait.isCancelled(), "Quien sale de la cola no debería recibir animal");
+        assertEquals(first.getId(), handedToFirst.getCustomer().getId());
+        assertEquals(second.getId(), handedToSecond.getCustomer().getId());
+        assertEquals(RentalType.SHORT_RIDE, handedToSecond.getRentalType());
+        assertEquals(AnimalStatus.RENTED, animalRepository.findById(horse.getId()).getStatus(),
+                "El animal no debería quedar libre mientras haya gente esperando");
+        assertEquals(List.of(handedToSecond.getId()),
+                rentalRepository.findActiveByAnimal(horse).stream().map(Rental::getId).toList());
+        assertEquals(0, rentalService.waitlistSize(AnimalType.HORSE));
+    }
+
+    @Test
+    void finishRental_cancelAfterWaiterIsClaimed_keepsRentalAndChargesNothing() throws Exception {
+        // Arrange: el cliente en espera intenta cancelar justo cuando ya se le está entregando el caballo
+        Animal horse = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer rider = customerRepository.save(new Customer(0, "Ana Cliente"));
+        Customer waiting = customerRepository.save(new Customer(0, "Cliente En Cola"));
+        Rental current = rentalService.startRental(horse.getId(), rider.getId(), RentalType.SHORT_RIDE);
+        CompletableFuture<Rental> wait = rentalService.joinWaitlist(AnimalType.HORSE, waiting.getId(),
+                RentalType.HOURLY);
+        boolean[] cancelled = new boolean[1];
+        rentalService.addRentalListener(new RentalListener() {
+            @Override
+            public void rentalStarted(Rental rental) {
+                if (rental.getCustomer().getId() == waiting.getId()) {
+                    cancelled[0] = wait.cancel(false);
+                }
+            }
+        });
+        SettlementLedger ledger = new SettlementLedger(TariffEngine.standard(), rentalService);
+
+        // Act
+        rentalService.finishRental(current.getId());
+        Rental handed = wait.get(1, TimeUnit.SECONDS);
+
+        // Assert
+        assertFalse(cancelled[0], "Un cliente ya reclamado no puede cancelar la espera");
+        assertNull(handed.getEndTime(), "El alquiler entregado no se cierra con duración cero");
+        assertEquals(List.of(handed.getId()),
+                rentalRepository.findByCustomer(waiting.getId()).stream().map(Rental::getId).toList());
+        assertEquals(0, ledger.customerTotal(current.getEndTime().toLocalDate(), waiting.getId()),
+                "No se cobra nada al cliente en espera");
+    }
+
+    @Test
+    void finishRental_waiterWhoTimedOut_getsNoRentalAndIsNotCharged() throws Exception {
+        // Arrange: la espera vence antes de que se devuelva el caballo
+        Animal horse = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer rider = customerRepository.save(new Customer(0, "Ana Cliente"));
+        Customer waiting = customerRepository.save(new Customer(0, "Cliente Impaciente"));
+        Rental current = rentalService.startRental(horse.getId(), rider.getId(), RentalType.SHORT_RIDE);
+        CompletableFuture<Rental> wait = rentalService.joinWaitlist(AnimalType.HORSE, waiting.getId(),
+                RentalType.HOURLY).orTimeout(1, TimeUnit.MILLISECONDS);
+        SettlementLedger ledger = new SettlementLedger(TariffEngine.standard(), rentalService);
+        assertThrows(Exception.class, () -> wait.get(1, TimeUnit.SECONDS));
+
+        // Act
+        Rental finished = rentalService.finishRental(current.getId());
+
+        // Assert
+        assertTrue(rentalRepository.findByCustomer(waiting.getId()).isEmpty(),
+                "Quien abandonó la espera no debe tener alquileres");
+        assertEquals(0, ledger.customerTotal(finished.getEndTime().toLocalDate(), waiting.getId()));
+        assertEquals(AnimalStatus.AVAILABLE, animalRepository.findById(horse.getId()).getStatus());
+    }
+
+    @Test
+    void joinWaitlist_withFreeAnimalOfType_assignsImmediately() {
+        // Arrange
+        Animal pig = animalRepository.save(new Animal(0, "Manchitas", AnimalType.PIG, AnimalStatus.AVAILABLE));
+        Customer customer = customerRepository.save(new Customer(0, "Niño Cliente"));
+
+        // Act
+        CompletableFuture<Rental> wait = rentalService.joinWaitlist(AnimalType.PIG, customer.getId(),
+                RentalType.SHORT_RIDE);
+
+        // Assert
+        assertTrue(wait.isDone(), "Con un cerdito libre no hace falta esperar");
+        assertEquals(pig.getId(), wait.join().getAnimal().getId());
+        assertEquals(AnimalStatus.RENTED, animalRepository.findById(pig.getId()).getStatus());
+        assertThrows(IllegalArgumentException.class,
+                () -> rentalService.joinWaitlist(AnimalType.PIG, 9999, RentalType.SHORT_RIDE));
+    }
+
+    @Test
+    void startRental_withCustomersWaitingForType_isRefusedAndAnimalGoesToQueue() throws Exception {
+        // Arrange: el único caballo está alquilado y un cliente espera otro caballo
+        Animal horse = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal pig = animalRepository.save(new Animal(0, "Manchitas", AnimalType.PIG, AnimalStatus.AVAILABLE));
+        Customer rider = customerRepository.save(new Customer(0, "Ana Cliente"));
+        Customer waiting = customerRepository.save(new Customer(0, "Cliente En Cola"));
+        Customer walkIn = customerRepository.save(new Customer(0, "Cliente Sin Turno"));
+        rentalService.startRental(horse.getId(), rider.getId(), RentalType.HOURLY);
+        CompletableFuture<Rental> wait = rentalService.joinWaitlist(AnimalType.HORSE, waiting.getId(),
+                RentalType.SHORT_RIDE);
+        // Un caballo que queda libre sin pasar por finishRental (por ejemplo, cargado de otra fuente)
+        Animal freed = animalRepository.save(new Animal(0, "Pegaso", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+
+        // Act
+        AnimalNotAvailableException refused = assertThrows(AnimalNotAvailableException.class,
+                () -> rentalService.startRental(freed.getId(), walkIn.getId(), RentalType.SHORT_RIDE));
+        List<RentalResult> batch = rentalService.startRentals(List.of(
+                new RentalRequest(freed.getId(), walkIn.getId(), RentalType.SHORT_RIDE),
+                new RentalRequest(pig.getId(), walkIn.getId(), RentalType.SHORT_RIDE)));
+        Rental handed = rentalService.offerToWaitlist(freed.getId());
+
+        // Assert
+        assertTrue(refused.getMessage().contains("lista de espera"), "El rechazo debería explicar el motivo");
+        assertInstanceOf(AnimalNotAvailableException.class, batch.get(0).error(),
+                "El lote tampoco debería saltarse la cola");
+        assertTrue(batch.get(1).isSuccess(), "Los tipos sin cola se alquilan con normalidad");
+        assertNotNull(handed, "El caballo libre debería entregarse al cliente en espera");
+        assertEquals(waiting.getId(), wait.get(1, TimeUnit.SECONDS).getCustomer().getId());
+        assertEquals(freed.getId(), handed.getAnimal().getId());
+        assertEquals(AnimalStatus.RENTED, animalRepository.findById(freed.getId()).getStatus());
+        assertNull(rentalService.offerToWaitlist(pig.getId()), "Sin nadie esperando no hay entrega");
+    }
+
+    @Test
+    void finishRentals_handsFirstReturnedAnimalToQueueAndFreesTheRest() throws Exception {
+        // Arrange: dos burros alquilados y se devuelven por lote cuando aún no hay nadie en la cola
+        Animal first = animalRepository.save(new Animal(0, "Platero", AnimalType.DONKEY, AnimalStatus.AVAILABLE));
+        Animal second = animalRepository.save(new Animal(0, "Rucio", AnimalType.DONKEY, AnimalStatus.AVAILABLE));
+        Customer rider = customerRepository.save(new Customer(0, "Ana Cliente"));
+        Customer waiting = customerRepository.save(new Customer(0, "Cliente En Cola"));
+        Rental firstRental = rentalService.startRental(first.getId(), rider.getId(), RentalType.SHORT_RIDE);
+        Rental secondRental = rentalService.startRental(second.getId(), rider.getId(), RentalType.SHORT_RIDE);
+        CompletableFuture<Rental> wait = rentalService.joinWaitlist(AnimalType.DONKEY, waiting.getId(),
+                RentalType.HOURLY);
+
+        // Act
+        List<RentalResult> results = rentalService.finishRentals(List.of(firstRental.getId(), secondRental.getId()));
+        Rental handed = wait.get(1, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(results.stream().allMatch(RentalResult::isSuccess));
+        assertEquals(first.getId(), handed.getAnimal().getId(), "El primer burro devuelto va al cliente en espera");
+        assertEquals(AnimalStatus.AVAILABLE, animalRepository.findById(second.getId()).getStatus(),
+                "Sin más clientes en la cola, el segundo burro queda libre");
+        assertEquals(0, rentalService.waitlistSize(AnimalType.DONKEY));
+        assertNotNull(rentalService.startRental(second.getId(), rider.getId(), RentalType.SHORT_RIDE),
+                "Con la cola vacía se vuelve a alquilar por mostrador");
+    }
+
+    @Test
+    void startRental_refusesAnimalReservedBeforeTheRideWouldEnd() {
+        // Arrange: el caballo está reservado dentro de 20 minutos y el cerdo dentro de 2 horas
+        Animal horse = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal pig = animalRepository.save(new Animal(0, "Lechón", AnimalType.PIG, AnimalStatus.AVAILABLE));
+        Customer owner = customerRepository.save(new Customer(0, "Cliente Con Reserva"));
+        Customer walkIn = customerRepository.save(new Customer(0, "Ana Cliente"));
+        var reservations = new ReservationService(animalRepository, customerRepository,
+                new ConcurrentReservationRepository());
+        LocalDateTime now = LocalDateTime.now();
+        reservations.reserve(horse.getId(), owner.getId(), now.plusMinutes(20), now.plusMinutes(80),
+                RentalType.HOURLY);
+        reservations.reserve(pig.getId(), owner.getId(), now.plusHours(2), now.plusHours(3), RentalType.HOURLY);
+        rentalService.useReservations(reservations, Map.of(
+                RentalType.SHORT_RIDE, Duration.ofMinutes(30),
+                RentalType.HOURLY, Duration.ofMinutes(60)));
+
+        // Act + Assert
+        assertThrows(AnimalNotAvailableException.class,
+                () -> rentalService.startRental(horse.getId(), walkIn.getId(), RentalType.SHORT_RIDE),
+                "Un paseo de 30 minutos acabaría dentro de la reserva");
+        List<RentalResult> results = rentalService.startRentals(List.of(
+                new RentalRequest(horse.getId(), walkIn.getId(), RentalType.SHORT_RIDE),
+                new RentalRequest(pig.getId(), walkIn.getId(), RentalType.HOURLY)));
+        assertInstanceOf(AnimalNotAvailableException.class, results.get(0).error());
+        assertTrue(results.get(1).isSuccess(), "La reserva del cerdo empieza después de la hora de alquiler");
+        assertEquals(AnimalStatus.AVAILABLE, animalRepository.findById(horse.getId()).getStatus());
+    }
+
+    @Test
+    void startRental_reservationHolderRentsInsideTheirWindowEvenWithQueue() {
+        // Arrange: la reserva empezó hace 10 minutos (el reloj del servicio de reservas va una hora atrás)
+        Animal horse = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer holder = customerRepository.save(new Customer(0, "Cliente Con Reserva"));
+        Customer walkIn = customerRepository.save(new Customer(0, "Ana Cliente"));
+        Customer waiting = customerRepository.save(new Customer(0, "Cliente En Cola"));
+        var reservations = new ReservationService(animalRepository, customerRepository,
+                new ConcurrentReservationRepository(), Clock.offset(Clock.systemDefaultZone(), Duration.ofHours(-1)));
+        LocalDateTime now = LocalDateTime.now();
+        reservations.reserve(horse.getId(), holder.getId(), now.minusMinutes(10), now.plusMinutes(50),
+                RentalType.HOURLY);
+        rentalService.useReservations(reservations, Map.of(RentalType.HOURLY, Duration.ofMinutes(60)));
+        CompletableFuture<Rental> wait = rentalService.joinWaitlist(AnimalType.HORSE, waiting.getId(),
+                RentalType.HOURLY);
+
+        // Act + Assert
+        assertFalse(wait.isDone(), "El caballo reservado no se entrega a la cola");
+        assertThrows(AnimalNotAvailableException.class,
+                () -> rentalService.startRental(horse.getId(), walkIn.getId(), RentalType.HOURLY));
+        Rental rental = rentalService.startRental(horse.getId(), holder.getId(), RentalType.HOURLY);
+        assertEquals(holder.getId(), rental.getCustomer().getId(), "El titular usa su propia reserva");
+        assertEquals(AnimalStatus.RENTED, animalRepository.findById(horse.getId()).getStatus());
+    }
+
+    @Test
+    void finishRental_doesNotHandReservedAnimalToQueue() throws Exception {
+        // Arrange: el caballo vuelve 20 minutos antes de la reserva de otro cliente y alguien espera una hora
+        Animal horse = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Customer rider = customerRepository.save(new Customer(0, "Ana Cliente"));
+        Customer waiting = customerRepository.save(new Customer(0, "Cliente En Cola"));
+        Customer holder = customerRepository.save(new Customer(0, "Cliente Con Reserva"));
+        var reservations = new ReservationService(animalRepository, customerRepository,
+                new ConcurrentReservationRepository());
+        LocalDateTime now = LocalDateTime.now();
+        reservations.reserve(horse.getId(), holder.getId(), now.plusMinutes(20), now.plusMinutes(80),
+                RentalType.HOURLY);
+        Rental current = rentalService.startRental(horse.getId(), rider.getId(), RentalType.SHORT_RIDE);
+        rentalService.useReservations(reservations, Map.of(RentalType.HOURLY, Duration.ofMinutes(60)));
+        CompletableFuture<Rental> wait = rentalService.joinWaitlist(AnimalType.HORSE, waiting.getId(),
+                RentalType.HOURLY);
+
+        // Act
+        rentalService.finishRental(current.getId());
+
+        // Assert
+        assertFalse(wait.isDone(), "Una hora de paseo pisaría la reserva: el cliente sigue esperando");
+        assertEquals(1, rentalService.waitlistSize(AnimalType.HORSE));
+        assertEquals(AnimalStatus.AVAILABLE, animalRepository.findById(horse.getId()).getStatus());
+        assertNotNull(rentalService.startRental(horse.getId(), holder.getId(), RentalType.HOURLY),
+                "El titular de la reserva puede llevárselo");
+    }
+
+    @Test
+    void waitlist_concurrentCountersServeEveryWaiterWithoutDoubleAssignment() throws Exception {
+        // Arrange: un solo burro, muchos clientes uniéndose a la cola desde varios mostradores
+        AnimalRepository animals = new ConcurrentAnimalRepository();
+        CustomerRepository customers = new ConcurrentCustomerRepository();
+        RentalRepository rentals = new ConcurrentRentalRepository();
+        RentalService service = new RentalService(animals, customers, rentals);
+        Animal donkey = animals.save(new Animal(0, "Platero", AnimalType.DONKEY, AnimalStatus.AVAILABLE));
+        int waiters = 40;
+        List<Integer> customerIds = new ArrayList<>();
+        for (int i = 0; i < waiters; i++) {
+            customerIds.add(customers.save(new Customer(0, "Cliente " + i)).getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<CompletableFuture<Rental>>> joins = new ArrayList<>();
+        for (int customerId : customerIds) {
+            joins.add(pool.submit(() -> service.joinWaitlist(AnimalType.DONKEY, customerId, RentalType.SHORT_RIDE)));
+        }
+        List<CompletableFuture<Rental>> waits = new ArrayList<>();
+        for (Future<CompletableFuture<Rental>> join : joins) {
+            waits.add(join.get(30, TimeUnit.SECONDS));
+        }
+
+        // Act: otro mostrador devuelve el burro cada vez que termina un paseo
+        for (int served = 0; served < waiters; served++) {
+            List<Rental> active = rentals.findActiveByAnimal(donkey);
+            assertEquals(1, active.size(), "El burro debería tener exactamente un alquiler activo");
+            service.finishRental(active.get(0).getId());
+        }
+        pool.shutdownNow();
+
+        // Assert
+        List<Integer> served = new ArrayList<>();
+        for (CompletableFuture<Rental> wait : waits) {
+            served.add(wait.get(1, TimeUnit.SECONDS).getCustomer().getId());
+        }
+        assertEquals(waiters, served.stream().distinct().count(), "Cada cliente debería recibir el burro una vez");
+        assertEquals(AnimalStatus.AVAILABLE, animals.findById(donkey.getId()).getStatus(),
+                "Sin nadie esperando, el burro vuelve a quedar libre");
+        assertEquals(waiters, rentals.findAll().size());
+    }
 }
@@ -0,0 +1,113 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.Exception.ReservationConflictException;
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.ConcurrentReservationRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link ReservationService}.
+ */
+public class ReservationServiceTest {
+
+    /** "Ahora" fijo para las pruebas: 1 de mayo a las 8:00. */
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 5, 1, 8, 0);
+
+    private AnimalRepository animalRepository;
+    private CustomerRepository customerRepository;
+    private ReservationRepository reservationRepository;
+    private ReservationService reservationService;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        animalRepository = new InMemoryAnimalRepository();
+        customerRepository = new InMemoryCustomerRepository();
+        reservationRepository = new ConcurrentReservationRepository();
+        reservationService = newService();
+        customer = customerRepository.save(new Customer(0, "Lucía Gómez"));
+    }
+
+    @Test
+    void reserve_rejectsOverlappingWindowAndAllowsAdjacentOne() {
+        // Arrange
+        Animal horse = animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        reservationService.reserve(horse.getId(), customer.getId(), at(10), at(12), RentalType.HOURLY);
+
+        // Act + Assert
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.reserve(horse.getId(), customer.getId(), at(11), at(13), RentalType.HOURLY),
+                "Una franja que se solapa debería rechazarse");
+        Reservation adjacent = reservationService.reserve(horse.getId(), customer.getId(), at(12), at(13),
+                RentalType.SHORT_RIDE);
+        assertNotNull(adjacent, "Una franja contigua no se solapa");
+        assertThrows(IllegalArgumentException.class,
+                () -> reservationService.reserve(horse.getId(), customer.getId(), at(6), at(7), RentalType.HOURLY),
+                "No se puede reservar en el pasado");
+        assertEquals(2, reservationService.findReservations(horse.getId(), at(0), at(23)).size());
+    }
+
+    @Test
+    void reserveAny_picksFirstFreeAnimalOfType() {
+        // Arrange: dos burros, el primero ya reservado a esa hora
+        Animal first = animalRepository.save(new Animal(0, "Platero", AnimalType.DONKEY, AnimalStatus.AVAILABLE));
+        Animal second = animalRepository.save(new Animal(0, "Canelo", AnimalType.DONKEY, AnimalStatus.AVAILABLE));
+        animalRepository.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        reservationService.reserve(first.getId(), customer.getId(), at(9), at(11), RentalType.HOURLY);
+
+        // Act
+        Reservation reservation = reservationService.reserveAny(AnimalType.DONKEY, customer.getId(),
+                at(10), at(11), RentalType.SHORT_RIDE);
+
+        // Assert
+        assertEquals(second.getId(), reservation.getAnimal().getId());
+        assertThrows(ReservationConflictException.class,
+                () -> reservationService.reserveAny(AnimalType.DONKEY, customer.getId(), at(10), at(12),
+                        RentalType.HOURLY),
+                "Ningún burro está libre entre las 10 y las 12");
+    }
+
+    @Test
+    void cancel_freesWindowAndRebuiltServiceSeesOnlyActiveReservations() {
+        // Arrange
+        Animal pig = animalRepository.save(new Animal(0, "Manchitas", AnimalType.PIG, AnimalStatus.AVAILABLE));
+        Reservation cancelled = reservationService.reserve(pig.getId(), customer.getId(), at(10), at(11),
+                RentalType.SHORT_RIDE);
+        reservationService.reserve(pig.getId(), customer.getId(), at(14), at(15), RentalType.SHORT_RIDE);
+
+        // Act
+        reservationService.cancel(cancelled.getId());
+        ReservationService rebuilt = newService();
+
+        // Assert
+        assertTrue(cancelled.isCancelled());
+        assertTrue(reservationService.isFree(pig.getId(), at(10), at(11)));
+        assertTrue(rebuilt.isFree(pig.getId(), at(10), at(11)));
+        assertFalse(rebuilt.isFree(pig.getId(), at(14), at(16)),
+                "Al reconstruir desde el repositorio deberían volver las reservas vigentes");
+        List<Reservation> day = rebuilt.findReservations(pig.getId(), at(0), at(23));
+        assertEquals(1, day.size());
+    }
+
+    private ReservationService newService() {
+        Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        return new ReservationService(animalRepository, customerRepository, reservationRepository, clock);
+    }
+
+    private static LocalDateTime at(int hour) {
+        return NOW.withHour(hour);
+    }
+}
@@ -0,0 +1,77 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link TariffEngine} y {@link SettlementLedger}.
+ */
+public class SettlementLedgerTest {
+
+    private final TariffEngine tariffs = TariffEngine.standard();
+
+    @Test
+    void standardTariffs_applyIncludedTimeAndRounding() {
+        // Act + Assert: el paseo corto cobra cada 15 minutos empezados tras los 30 incluidos
+        assertEquals(1_500, tariffs.charge(AnimalType.HORSE, RentalType.SHORT_RIDE, Duration.ofMinutes(30)));
+        assertEquals(2_000, tariffs.charge(AnimalType.HORSE, RentalType.SHORT_RIDE, Duration.ofMinutes(31)));
+        assertEquals(2_500, tariffs.charge(AnimalType.HORSE, RentalType.SHORT_RIDE, Duration.ofMinutes(46)));
+        // Por hora: la hora adicional solo se cobra a partir de la media hora
+        assertEquals(1_800, tariffs.charge(AnimalType.DONKEY, RentalType.HOURLY, Duration.ofMinutes(89)));
+        assertEquals(3_600, tariffs.charge(AnimalType.DONKEY, RentalType.HOURLY, Duration.ofMinutes(90)));
+        assertEquals(500, tariffs.charge(AnimalType.PIG, RentalType.SHORT_RIDE, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> tariffs.charge(new Rental()),
+                "Un alquiler sin finalizar no se puede cobrar");
+    }
+
+    @Test
+    void finishRental_accumulatesPerDayAndCustomer_includingPreviouslyFinishedRentals() {
+        // Arrange: un alquiler ya finalizado ayer en el repositorio
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        RentalRepository rentals = new InMemoryRentalRepository();
+        RentalService service = new RentalService(animals, customers, rentals);
+        Customer ana = customers.save(new Customer(0, "Ana Cliente"));
+        Customer luis = customers.save(new Customer(0, "Luis Cliente"));
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal pig = animals.save(new Animal(0, "Manchitas", AnimalType.PIG, AnimalStatus.AVAILABLE));
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        Rental old = new Rental(0, horse, ana, yesterday, RentalType.HOURLY);
+        old.setEndTime(yesterday.plusMinutes(45));
+        rentals.save(old);
+
+        SettlementLedger ledger = new SettlementLedger(tariffs, service);
+
+        // Act: hoy, dos paseos cortos de Ana y uno de Luis, finalizados al momento
+        Rental first = service.startRental(horse.getId(), ana.getId(), RentalType.SHORT_RIDE);
+        service.finishRental(first.getId());
+        Rental second = service.startRental(pig.getId(), ana.getId(), RentalType.SHORT_RIDE);
+        service.finishRental(second.getId());
+        Rental third = service.startRental(pig.getId(), luis.getId(), RentalType.SHORT_RIDE);
+        service.finishRental(third.getId());
+        LocalDate today = third.getEndTime().toLocalDate();
+        SettlementLedger.DailySettlement settlement = ledger.settlement(today);
+
+        // Assert
+        assertEquals(3, settlement.rentals());
+        assertEquals(1_500 + 500 + 500, settlement.totalCents());
+        assertEquals(2_000, ledger.customerTotal(today, ana.getId()));
+        assertEquals(500, settlement.byCustomer().get(luis.getId()));
+        assertEquals(1_000, settlement.byAnimalType().get(AnimalType.PIG));
+        assertEquals(2_500, ledger.settlement(yesterday.toLocalDate()).totalCents(),
+                "Los alquileres ya finalizados se cargan al crear el libro");
+        assertEquals(0, ledger.settlement(today.plusDays(7)).totalCents());
+    }
+}
@@ -0,0 +1,79 @@
+package com.GranjaLaHerraduraFeliz.service;
+
+import com.GranjaLaHerraduraFeliz.model.*;
+import com.GranjaLaHerraduraFeliz.repository.AnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.CustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryAnimalRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryCustomerRepository;
+import com.GranjaLaHerraduraFeliz.repository.InMemoryRentalRepository;
+import com.GranjaLaHerraduraFeliz.repository.RentalRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link UtilizationAnalytics}.
+ */
+public class UtilizationAnalyticsTest {
+
+    @Test
+    void analytics_loadHistoryOnceAndFollowLiveRentalEvents() {
+        // Arrange: historial con un paseo de ayer, uno de hace 40 días y uno todavía activo
+        AnimalRepository animals = new InMemoryAnimalRepository();
+        CustomerRepository customers = new InMemoryCustomerRepository();
+        RentalRepository rentals = new InMemoryRentalRepository();
+        RentalService service = new RentalService(animals, customers, rentals);
+        Customer customer = customers.save(new Customer(0, "Eva Cliente"));
+        Animal horse = animals.save(new Animal(0, "Relámpago", AnimalType.HORSE, AnimalStatus.AVAILABLE));
+        Animal donkey = animals.save(new Animal(0, "Platero", AnimalType.DONKEY, AnimalStatus.RENTED));
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        saveRental(rentals, horse, customer, yesterday.atTime(10, 30), yesterday.atTime(11, 15));
+        saveRental(rentals, horse, customer, yesterday.minusDays(40).atTime(14, 0),
+                yesterday.minusDays(40).atTime(14, 20));
+        Rental active = saveRental(rentals, donkey, customer, yesterday.atTime(11, 50), null);
+
+        UtilizationAnalytics analytics = new UtilizationAnalytics(service, 30, Clock.systemDefaultZone());
+
+        // Assert: carga inicial
+        Map<AnimalType, UtilizationAnalytics.TypeUsage> byType = analytics.usageByType();
+        assertEquals(2, byType.get(AnimalType.HORSE).rides());
+        assertEquals(Duration.ofMinutes(65), byType.get(AnimalType.HORSE).busy());
+        assertEquals(1, byType.get(AnimalType.DONKEY).active(), "El alquiler sin finalizar cuenta como activo");
+        long[] hourly = analytics.hourlyLoadMinutes();
+        assertEquals(30, hourly[10], "El paseo de 10:30 a 11:15 se reparte entre dos horas");
+        assertEquals(15, hourly[11]);
+        assertEquals(20, hourly[14]);
+        assertEquals(10, analytics.peakHour());
+        Map<LocalDate, Long> perDay = analytics.ridesPerDay(yesterday.minusDays(45), yesterday);
+        assertEquals(2, perDay.get(yesterday), "Ayer se iniciaron dos paseos");
+        assertFalse(perDay.containsKey(yesterday.minusDays(40)), "Los días fuera de la ventana no se conservan");
+        assertEquals(Duration.ofMinutes(65), analytics.animalUsage(horse.getId()).busy());
+
+        // Act: eventos en vivo
+        service.finishRental(active.getId());
+        Rental live = service.startRental(horse.getId(), customer.getId(), RentalType.SHORT_RIDE);
+        service.finishRental(live.getId());
+
+        // Assert
+        byType = analytics.usageByType();
+        assertEquals(0, byType.get(AnimalType.DONKEY).active());
+        assertEquals(3, byType.get(AnimalType.HORSE).rides());
+        assertEquals(1, analytics.ridesPerDay(LocalDate.now(), LocalDate.now()).get(LocalDate.now()));
+        assertEquals(donkey.getId(), analytics.mostUsedAnimals(1).get(0).animalId(),
+                "El burro estuvo alquilado desde ayer y es el más usado");
+        assertEquals(3, analytics.animalUsage(horse.getId()).rides());
+    }
+
+    private static Rental saveRental(RentalRepository rentals, Animal animal, Customer customer,
+                                     LocalDateTime start, LocalDateTime end) {
+        Rental rental = new Rental(0, animal, customer, start, RentalType.HOURLY);
+        rental.setEndTime(end);
+        return rentals.save(rental);
+    }
+}
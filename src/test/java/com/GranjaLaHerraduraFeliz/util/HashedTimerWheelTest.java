@@ -0,0 +1,55 @@
+package com.GranjaLaHerraduraFeliz.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link HashedTimerWheel}.
+ */
+public class HashedTimerWheelTest {
+
+    @Test
+    void schedule_firesOnlyTimeoutsThatWereNotCancelled() throws Exception {
+        // Arrange: más plazos que casillas, para que algunos den varias vueltas
+        try (HashedTimerWheel wheel = new HashedTimerWheel(Duration.ofMillis(2), 16, "test-wheel")) {
+            int timeouts = 2_000;
+            Set<Integer> fired = ConcurrentHashMap.newKeySet();
+            CountDownLatch kept = new CountDownLatch(timeouts / 2);
+            List<HashedTimerWheel.Timeout> handles = new ArrayList<>();
+            long startNanos = System.nanoTime();
+            for (int i = 0; i < timeouts; i++) {
+                int id = i;
+                handles.add(wheel.schedule(() -> {
+                    fired.add(id);
+                    kept.countDown();
+                }, Duration.ofMillis(250 + i % 100)));
+            }
+
+            // Act: cancelar los impares antes de que venzan (el margen de 250 ms cubre
+            // una máquina cargada)
+            for (int i = 1; i < timeouts; i += 2) {
+                assertTrue(handles.get(i).cancel());
+            }
+            boolean completed = kept.await(10, TimeUnit.SECONDS);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            // Assert
+            assertTrue(completed, "Todos los plazos no cancelados deberían vencer");
+            assertTrue(elapsedMs >= 250, "Ningún plazo debería vencer antes de tiempo");
+            assertEquals(timeouts / 2, fired.size());
+            assertTrue(fired.stream().allMatch(id -> id % 2 == 0), "Un plazo cancelado no debería vencer");
+            assertTrue(handles.get(0).isExpired());
+            assertFalse(handles.get(0).cancel(), "Un plazo vencido ya no se puede cancelar");
+            assertEquals(0, wheel.pending());
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.GranjaLaHerraduraFeliz.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para {@link IntervalTree}.
+ */
+public class IntervalTreeTest {
+
+    @Test
+    void randomOperations_matchBruteForceScan() {
+        // Arrange: intervalos aleatorios (con inicios repetidos) comparados con una lista
+        Random random = new Random(7);
+        IntervalTree<Integer> tree = new IntervalTree<>();
+        List<long[]> expected = new ArrayList<>();
+
+        // Act + Assert: intercalar altas, bajas y consultas
+        for (int id = 1; id <= 5_000; id++) {
+            if (!expected.isEmpty() && random.nextInt(3) == 0) {
+                long[] removed = expected.remove(random.nextInt(expected.size()));
+                assertTrue(tree.remove(removed[0], (int) removed[2]));
+            } else {
+                long start = random.nextInt(10_000);
+                long end = start + 1 + random.nextInt(50);
+                tree.insert(start, end, id, id);
+                expected.add(new long[]{start, end, id});
+            }
+
+            long from = random.nextInt(10_000);
+            long to = from + 1 + random.nextInt(100);
+            List<Integer> overlapping = expected.stream()
+                    .filter(interval -> interval[0] < to && from < interval[1])
+                    .sorted(Comparator.<long[]>comparingLong(interval -> interval[0])
+                            .thenComparingLong(interval -> interval[2]))
+                    .map(interval -> (int) interval[2])
+                    .toList();
+            assertEquals(overlapping, tree.findOverlapping(from, to));
+            assertEquals(!overlapping.isEmpty(), tree.overlaps(from, to));
+        }
+        assertEquals(expected.size(), tree.size());
+        assertFalse(tree.remove(-1, 0), "Quitar una clave inexistente no debería cambiar nada");
+    }
+
+    @Test
+    void adjacentIntervals_doNotOverlap() {
+        // Arrange
+        IntervalTree<String> tree = new IntervalTree<>();
+        tree.insert(10, 20, 1, "mañana");
+
+        // Act + Assert: los intervalos son semiabiertos
+        assertFalse(tree.overlaps(20, 30));
+        assertFalse(tree.overlaps(0, 10));
+        assertTrue(tree.overlaps(19, 21));
+        assertThrows(IllegalArgumentException.class, () -> tree.insert(5, 5, 2, "vacío"));
+    }
+}